@@ -1,6 +1,9 @@
 package bd.gov.banbeis.config;
 
+import java.time.Duration;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Banbeis Blog.
@@ -9,4 +12,346 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final CountCache countCache = new CountCache();
+
+    private final PostCache postCache = new PostCache();
+
+    private final ViewCounter viewCounter = new ViewCounter();
+
+    private final Trending trending = new Trending();
+
+    private final Rendition rendition = new Rendition();
+
+    private final Blob blob = new Blob();
+
+    private final Upload upload = new Upload();
+
+    private final Ingest ingest = new Ingest();
+
+    private final ReferenceData referenceData = new ReferenceData();
+
+    public CountCache getCountCache() {
+        return countCache;
+    }
+
+    public PostCache getPostCache() {
+        return postCache;
+    }
+
+    public ViewCounter getViewCounter() {
+        return viewCounter;
+    }
+
+    public Trending getTrending() {
+        return trending;
+    }
+
+    public Rendition getRendition() {
+        return rendition;
+    }
+
+    public Blob getBlob() {
+        return blob;
+    }
+
+    public Upload getUpload() {
+        return upload;
+    }
+
+    public Ingest getIngest() {
+        return ingest;
+    }
+
+    public ReferenceData getReferenceData() {
+        return referenceData;
+    }
+
+    public static class CountCache {
+
+        /**
+         * How long a cached collection count is served before it is refreshed. A zero duration disables the cache.
+         */
+        private Duration timeToLive = Duration.ofMinutes(1);
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class PostCache {
+
+        /**
+         * Maximum total size of the serialized posts kept in memory. A zero size disables the cache.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(16);
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class ViewCounter {
+
+        /**
+         * How often the post views counted in memory are written to the database, i.e. how many views can be lost on a crash.
+         */
+        private Duration flushInterval = Duration.ofSeconds(10);
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+    }
+
+    public static class Trending {
+
+        /**
+         * Time after which a view or a comment counts half as much towards the trending score of a post.
+         */
+        private Duration halfLife = Duration.ofHours(6);
+
+        /**
+         * Number of trending posts kept, globally and per center.
+         */
+        private int size = 10;
+
+        /**
+         * How often the trending scores are saved, so they survive a restart.
+         */
+        private Duration snapshotInterval = Duration.ofMinutes(1);
+
+        public Duration getHalfLife() {
+            return halfLife;
+        }
+
+        public void setHalfLife(Duration halfLife) {
+            this.halfLife = halfLife;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public Duration getSnapshotInterval() {
+            return snapshotInterval;
+        }
+
+        public void setSnapshotInterval(Duration snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+        }
+    }
+
+    public static class Rendition {
+
+        /**
+         * Number of threads rendering the image sizes.
+         */
+        private int threads = 2;
+
+        /**
+         * Number of images waiting to be rendered, beyond which images are served at their original size only.
+         */
+        private int queueCapacity = 100;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class Blob {
+
+        /**
+         * Where the blobs are kept: {@code mongo} for GridFS, or {@code filesystem} for files under the directory.
+         */
+        private String store = "mongo";
+
+        /**
+         * Directory of the blobs, when they are kept on the filesystem.
+         */
+        private String directory = "blobs";
+
+        /**
+         * How often the blobs which are no longer referenced are deleted.
+         */
+        private Duration sweepInterval = Duration.ofHours(1);
+
+        /**
+         * Time during which a blob which is no longer referenced is kept, so the downloads in progress complete.
+         */
+        private Duration gracePeriod = Duration.ofHours(1);
+
+        public String getStore() {
+            return store;
+        }
+
+        public void setStore(String store) {
+            this.store = store;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Duration getSweepInterval() {
+            return sweepInterval;
+        }
+
+        public void setSweepInterval(Duration sweepInterval) {
+            this.sweepInterval = sweepInterval;
+        }
+
+        public Duration getGracePeriod() {
+            return gracePeriod;
+        }
+
+        public void setGracePeriod(Duration gracePeriod) {
+            this.gracePeriod = gracePeriod;
+        }
+    }
+
+    public static class Upload {
+
+        /**
+         * Maximum size of an uploaded file, the upload is aborted as soon as it is exceeded.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(10);
+
+        /**
+         * Media types of the images which can be uploaded.
+         */
+        private List<String> allowedContentTypes = List.of("image/jpeg", "image/png", "image/gif");
+
+        /**
+         * Maximum number of files in a multi-file upload, the files beyond are rejected.
+         */
+        private int bulkMaxFiles = 50;
+
+        /**
+         * Number of files of a multi-file upload which are processed in parallel, each held in memory meanwhile.
+         */
+        private int bulkConcurrency = 4;
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public List<String> getAllowedContentTypes() {
+            return allowedContentTypes;
+        }
+
+        public void setAllowedContentTypes(List<String> allowedContentTypes) {
+            this.allowedContentTypes = allowedContentTypes;
+        }
+
+        public int getBulkMaxFiles() {
+            return bulkMaxFiles;
+        }
+
+        public void setBulkMaxFiles(int bulkMaxFiles) {
+            this.bulkMaxFiles = bulkMaxFiles;
+        }
+
+        public int getBulkConcurrency() {
+            return bulkConcurrency;
+        }
+
+        public void setBulkConcurrency(int bulkConcurrency) {
+            this.bulkConcurrency = bulkConcurrency;
+        }
+    }
+
+    public static class Ingest {
+
+        /**
+         * Whether saved images are re-encoded, without their metadata and within the maximum dimension.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum width and height of a saved image, larger images are scaled down.
+         */
+        private int maxDimension = 2048;
+
+        /**
+         * Quality of the re-encoded JPEG images, from 0 to 1.
+         */
+        private float quality = 0.82f;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxDimension() {
+            return maxDimension;
+        }
+
+        public void setMaxDimension(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public float getQuality() {
+            return quality;
+        }
+
+        public void setQuality(float quality) {
+            this.quality = quality;
+        }
+    }
+
+    public static class ReferenceData {
+
+        /**
+         * How often the reference data is reloaded, to pick up the writes made through other instances.
+         */
+        private Duration refreshInterval = Duration.ofMinutes(10);
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+    }
+}
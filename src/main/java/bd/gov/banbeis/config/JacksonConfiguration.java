@@ -1,9 +1,11 @@
 package bd.gov.banbeis.config;
 
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.geo.GeoJsonModule;
 import org.zalando.problem.jackson.ProblemModule;
 import org.zalando.problem.violations.ConstraintViolationProblemModule;
 
@@ -24,6 +26,15 @@ public class JacksonConfiguration {
         return new Jdk8Module();
     }
 
+    /**
+     * Support for the GeoJSON types, written as GeoJSON geometries.
+     * @return the corresponding Jackson module.
+     */
+    @Bean
+    public Module geoJsonModule() {
+        return GeoJsonModule.geoJsonModule();
+    }
+
     /*
      * Module for serialization/deserialization of RFC7807 Problem.
      */
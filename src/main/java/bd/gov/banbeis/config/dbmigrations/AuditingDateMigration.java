@@ -0,0 +1,45 @@
+package bd.gov.banbeis.config.dbmigrations;
+
+import com.github.cloudyrock.mongock.ChangeLog;
+import com.github.cloudyrock.mongock.ChangeSet;
+import com.github.cloudyrock.mongock.driver.mongodb.springdata.v3.decorator.impl.MongockTemplate;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Sets the last modified date of the documents created before the entities were audited, so they get validators for
+ * conditional requests.
+ */
+@ChangeLog(order = "006")
+public class AuditingDateMigration {
+
+    private static final List<String> AUDITED_COLLECTIONS = List.of(
+        "center",
+        "center_employee",
+        "center_images",
+        "designation",
+        "district",
+        "division",
+        "employee",
+        "navigation",
+        "post",
+        "post_comment",
+        "post_photo",
+        "upazila"
+    );
+
+    @ChangeSet(order = "01", author = "morshed", id = "01-addAuditingDates")
+    public void addAuditingDates(MongockTemplate mongockTemplate) {
+        Instant now = Instant.now();
+        for (String collection : AUDITED_COLLECTIONS) {
+            mongockTemplate.updateMulti(
+                new Query(Criteria.where("last_modified_date").exists(false)),
+                new Update().set("last_modified_date", now),
+                collection
+            );
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package bd.gov.banbeis.config.dbmigrations;
+
+import com.github.cloudyrock.mongock.ChangeLog;
+import com.github.cloudyrock.mongock.ChangeSet;
+import com.github.cloudyrock.mongock.driver.mongodb.springdata.v3.decorator.impl.MongockTemplate;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.GridFSDownloadStream;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+/**
+ * Identifies the stored images by the SHA-256 of their content instead of their GridFS id, counts their references in
+ * the {@code blob} collection and deletes the duplicate copies.
+ */
+@ChangeLog(order = "008")
+public class BlobDeduplicationMigration {
+
+    private static final List<List<String>> BLOB_FIELDS = List.of(
+        List.of("post_photo", "image"),
+        List.of("center_images", "image"),
+        List.of("employee", "photo"),
+        List.of("center", "image")
+    );
+
+    @ChangeSet(order = "01", author = "morshed", id = "01-deduplicateBlobs")
+    public void deduplicateBlobs(MongockTemplate mongockTemplate) {
+        GridFSBucket bucket = GridFSBuckets.create(mongockTemplate.getDb());
+        MongoCollection<Document> blobs = mongockTemplate.getCollection("blob");
+        blobs.createIndex(Indexes.ascending("ref_count"));
+        Map<ObjectId, String> hashes = new HashMap<>();
+        for (List<String> blobField : BLOB_FIELDS) {
+            String field = blobField.get(1);
+            MongoCollection<Document> documents = mongockTemplate.getCollection(blobField.get(0));
+            for (Document document : documents
+                .find(Filters.exists(field + "_blob_id"))
+                .projection(Projections.include(field + "_blob_id", field + "_renditions"))) {
+                Bson update = Updates.set(field + "_blob_id", toHash(bucket, blobs, hashes, document.getString(field + "_blob_id")));
+                Document renditions = document.get(field + "_renditions", Document.class);
+                if (renditions != null) {
+                    Document renditionHashes = new Document();
+                    renditions.forEach((name, blobId) -> renditionHashes.append(name, toHash(bucket, blobs, hashes, (String) blobId)));
+                    update = Updates.combine(update, Updates.set(field + "_renditions", renditionHashes));
+                }
+                documents.updateOne(Filters.eq("_id", document.get("_id")), update);
+            }
+        }
+        // Keep one copy of each content
+        hashes.forEach((fileId, hash) -> {
+            Document blob = blobs.find(Filters.eq("_id", hash)).first();
+            if (blob != null && !fileId.toHexString().equals(blob.getString("file_id"))) {
+                bucket.delete(fileId);
+            }
+        });
+    }
+
+    /**
+     * Hash the GridFS file, if not done yet, and count a reference to its content.
+     */
+    private static String toHash(GridFSBucket bucket, MongoCollection<Document> blobs, Map<ObjectId, String> hashes, String blobId) {
+        if (!ObjectId.isValid(blobId)) {
+            return blobId;
+        }
+        ObjectId fileId = new ObjectId(blobId);
+        GridFSFile file = bucket.find(Filters.eq("_id", fileId)).first();
+        if (file == null) {
+            return blobId;
+        }
+        String hash = hashes.computeIfAbsent(fileId, id -> sha256(bucket, id));
+        blobs.updateOne(
+            Filters.eq("_id", hash),
+            Updates.combine(
+                Updates.setOnInsert("file_id", blobId),
+                Updates.setOnInsert("size", file.getLength()),
+                Updates.setOnInsert("content_type", file.getMetadata() == null ? null : file.getMetadata().get("_contentType")),
+                Updates.inc("ref_count", 1)
+            ),
+            new UpdateOptions().upsert(true)
+        );
+        return hash;
+    }
+
+    private static String sha256(GridFSBucket bucket, ObjectId fileId) {
+        try (GridFSDownloadStream stream = bucket.openDownloadStream(fileId)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (DigestInputStream in = new DigestInputStream(stream, digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            StringBuilder hash = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package bd.gov.banbeis.config.dbmigrations;
+
+import com.github.cloudyrock.mongock.ChangeLog;
+import com.github.cloudyrock.mongock.ChangeSet;
+import com.github.cloudyrock.mongock.driver.mongodb.springdata.v3.decorator.impl.MongockTemplate;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+
+/**
+ * Moves the images stored inline in the documents to GridFS, where they are stored in chunks and streamed, and keeps
+ * their size in the documents so lists can describe them without reading GridFS.
+ */
+@ChangeLog(order = "007")
+public class BlobMigration {
+
+    private static final List<List<String>> BLOB_FIELDS = List.of(
+        List.of("post_photo", "PostPhoto", "image"),
+        List.of("center_images", "CenterImages", "image"),
+        List.of("employee", "Employee", "photo"),
+        List.of("center", "Center", "image")
+    );
+
+    @ChangeSet(order = "01", author = "morshed", id = "01-moveBlobsToGridFs")
+    public void moveBlobsToGridFs(MongockTemplate mongockTemplate) {
+        GridFSBucket bucket = GridFSBuckets.create(mongockTemplate.getDb());
+        for (List<String> blobField : BLOB_FIELDS) {
+            String collection = blobField.get(0);
+            String field = blobField.get(2);
+            String filename = blobField.get(1) + "." + field;
+            MongoCollection<Document> documents = mongockTemplate.getCollection(collection);
+            // One document at a time, so only one image is in memory
+            try (
+                MongoCursor<Document> cursor = documents
+                    .find(Filters.exists(field))
+                    .projection(Projections.include(field, field + "_content_type"))
+                    .batchSize(1)
+                    .iterator()
+            ) {
+                while (cursor.hasNext()) {
+                    Document document = cursor.next();
+                    Binary content = document.get(field, Binary.class);
+                    Bson update = Updates.unset(field);
+                    if (content != null) {
+                        GridFSUploadOptions options = new GridFSUploadOptions()
+                            .metadata(new Document("_contentType", document.getString(field + "_content_type")));
+                        ObjectId blobId = bucket.uploadFromStream(filename, new ByteArrayInputStream(content.getData()), options);
+                        update = Updates.combine(update, Updates.set(field + "_blob_id", blobId.toHexString()));
+                    }
+                    documents.updateOne(Filters.eq("_id", document.get("_id")), update);
+                }
+            }
+        }
+    }
+
+    @ChangeSet(order = "02", author = "morshed", id = "02-addBlobSizes")
+    public void addBlobSizes(MongockTemplate mongockTemplate) {
+        MongoCollection<Document> files = mongockTemplate.getCollection("fs.files");
+        for (List<String> blobField : BLOB_FIELDS) {
+            String field = blobField.get(2);
+            MongoCollection<Document> documents = mongockTemplate.getCollection(blobField.get(0));
+            for (Document document : documents
+                .find(Filters.and(Filters.exists(field + "_blob_id"), Filters.exists(field + "_size", false)))
+                .projection(Projections.include(field + "_blob_id"))) {
+                String blobId = document.getString(field + "_blob_id");
+                if (!ObjectId.isValid(blobId)) {
+                    continue;
+                }
+                Document file = files.find(Filters.eq("_id", new ObjectId(blobId))).projection(Projections.include("length")).first();
+                if (file != null) {
+                    documents.updateOne(
+                        Filters.eq("_id", document.get("_id")),
+                        Updates.set(field + "_size", ((Number) file.get("length")).longValue())
+                    );
+                }
+            }
+        }
+    }
+}
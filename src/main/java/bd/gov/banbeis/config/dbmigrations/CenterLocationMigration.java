@@ -0,0 +1,48 @@
+package bd.gov.banbeis.config.dbmigrations;
+
+import bd.gov.banbeis.domain.District;
+import com.github.cloudyrock.mongock.ChangeLog;
+import com.github.cloudyrock.mongock.ChangeSet;
+import com.github.cloudyrock.mongock.driver.mongodb.springdata.v3.decorator.impl.MongockTemplate;
+import com.mongodb.DBRef;
+import java.util.HashMap;
+import java.util.Map;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * Locates the centers created before they had a location, at the location of their district.
+ */
+@ChangeLog(order = "009")
+public class CenterLocationMigration {
+
+    @ChangeSet(order = "01", author = "morshed", id = "01-addCenterLocations")
+    public void addCenterLocations(MongockTemplate mongockTemplate) {
+        Map<String, GeoJsonPoint> districtLocations = new HashMap<>();
+        for (District district : mongockTemplate.findAll(District.class)) {
+            GeoJsonPoint location = district.toLocation();
+            if (location != null) {
+                districtLocations.put(district.getId(), location);
+            }
+        }
+        Query query = new Query(Criteria.where("location").exists(false).and("district").exists(true));
+        query.fields().include("district");
+        try (CloseableIterator<Document> centers = mongockTemplate.stream(query, Document.class, "center")) {
+            centers.forEachRemaining(center -> {
+                Object district = center.get("district");
+                GeoJsonPoint location = district instanceof DBRef ? districtLocations.get(((DBRef) district).getId().toString()) : null;
+                if (location != null) {
+                    mongockTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(center.get("_id"))),
+                        Update.update("location", location),
+                        "center"
+                    );
+                }
+            });
+        }
+    }
+}
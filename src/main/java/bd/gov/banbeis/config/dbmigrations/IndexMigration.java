@@ -0,0 +1,62 @@
+package bd.gov.banbeis.config.dbmigrations;
+
+import com.github.cloudyrock.mongock.ChangeLog;
+import com.github.cloudyrock.mongock.ChangeSet;
+import com.github.cloudyrock.mongock.driver.mongodb.springdata.v3.decorator.impl.MongockTemplate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * Creates the indexes backing the application queries.
+ */
+@ChangeLog(order = "004")
+public class IndexMigration {
+
+    @ChangeSet(order = "01", author = "morshed", id = "01-addPostPublishedOnIndex")
+    public void addPostPublishedOnIndex(MongockTemplate mongockTemplate) {
+        mongockTemplate
+            .indexOps("post")
+            .ensureIndex(new Index().on("published_on", Sort.Direction.DESC).on("_id", Sort.Direction.DESC).named("published_on_id"));
+    }
+
+    @ChangeSet(order = "02", author = "morshed", id = "02-addPublishedPostFeedIndex")
+    public void addPublishedPostFeedIndex(MongockTemplate mongockTemplate) {
+        mongockTemplate
+            .indexOps("post")
+            .ensureIndex(
+                new Index()
+                    .on("published_on", Sort.Direction.DESC)
+                    .on("_id", Sort.Direction.DESC)
+                    .partial(PartialIndexFilter.of(Criteria.where("publish").is(true)))
+                    .named("published_feed")
+            );
+    }
+
+    @ChangeSet(order = "03", author = "morshed", id = "03-addPostPhotoSequenceIndex")
+    public void addPostPhotoSequenceIndex(MongockTemplate mongockTemplate) {
+        mongockTemplate
+            .indexOps("post_photo")
+            .ensureIndex(new Index().on("post", Sort.Direction.ASC).on("sequence", Sort.Direction.DESC).named("post_sequence"));
+    }
+
+    @ChangeSet(order = "04", author = "morshed", id = "04-addDistrictDivisionIndex")
+    public void addDistrictDivisionIndex(MongockTemplate mongockTemplate) {
+        mongockTemplate.indexOps("district").ensureIndex(new Index().on("division_id", Sort.Direction.ASC).named("division_id"));
+    }
+
+    @ChangeSet(order = "05", author = "morshed", id = "05-addUpazilaDistrictIndex")
+    public void addUpazilaDistrictIndex(MongockTemplate mongockTemplate) {
+        mongockTemplate.indexOps("upazila").ensureIndex(new Index().on("district_id", Sort.Direction.ASC).named("district_id"));
+    }
+
+    @ChangeSet(order = "06", author = "morshed", id = "06-addCenterLocationIndex")
+    public void addCenterLocationIndex(MongockTemplate mongockTemplate) {
+        mongockTemplate
+            .indexOps("center")
+            .ensureIndex(new GeospatialIndex("location").typed(GeoSpatialIndexType.GEO_2DSPHERE).named("location"));
+    }
+}
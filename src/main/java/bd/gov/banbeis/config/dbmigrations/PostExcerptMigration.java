@@ -0,0 +1,33 @@
+package bd.gov.banbeis.config.dbmigrations;
+
+import bd.gov.banbeis.service.util.ExcerptUtil;
+import com.github.cloudyrock.mongock.ChangeLog;
+import com.github.cloudyrock.mongock.ChangeSet;
+import com.github.cloudyrock.mongock.driver.mongodb.springdata.v3.decorator.impl.MongockTemplate;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * Generates the excerpt of the posts created before it was maintained on save.
+ */
+@ChangeLog(order = "005")
+public class PostExcerptMigration {
+
+    @ChangeSet(order = "01", author = "morshed", id = "01-addPostExcerpts")
+    public void addPostExcerpts(MongockTemplate mongockTemplate) {
+        Query query = new Query(Criteria.where("excerpt").exists(false));
+        query.fields().include("body");
+        try (CloseableIterator<Document> posts = mongockTemplate.stream(query, Document.class, "post")) {
+            posts.forEachRemaining(post ->
+                mongockTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(post.get("_id"))),
+                    Update.update("excerpt", ExcerptUtil.excerpt(post.getString("body"))),
+                    "post"
+                )
+            );
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package bd.gov.banbeis.config.dbmigrations;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Loads reference data from a classpath resource holding one JSON document per line, as the files of
+ * {@code data-resource}, where a line may end with a comma and blank lines are ignored.
+ * <p>
+ * The resource is streamed, so it can also be read from inside the packaged jar, and written in unordered bulk writes of
+ * {@value #BATCH_SIZE} documents. Each document is upserted by its natural key, so loading a resource again updates the
+ * documents already loaded instead of failing on duplicate keys, and keeps the fields the application added to them.
+ */
+public class SeedDataLoader {
+
+    public static final int BATCH_SIZE = 500;
+
+    private static final String ID_FIELD = "_id";
+
+    private final Logger log = LoggerFactory.getLogger(SeedDataLoader.class);
+
+    private final int batchSize;
+
+    public SeedDataLoader() {
+        this(BATCH_SIZE);
+    }
+
+    SeedDataLoader(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Load a resource keyed by {@code _id}.
+     *
+     * @param collection the collection to load the documents into.
+     * @param location the location of the resource in the classpath.
+     * @return the number of documents read.
+     * @throws IOException if the resource could not be read.
+     */
+    public long load(MongoCollection<Document> collection, String location) throws IOException {
+        return load(collection, location, ID_FIELD);
+    }
+
+    /**
+     * Load a resource keyed by a field, which should be indexed unless it is {@code _id}.
+     *
+     * @param collection the collection to load the documents into.
+     * @param location the location of the resource in the classpath.
+     * @param keyField the field identifying a document, present in every line.
+     * @return the number of documents read.
+     * @throws IOException if the resource could not be read or a line has no key.
+     */
+    public long load(MongoCollection<Document> collection, String location, String keyField) throws IOException {
+        Resource resource = new ClassPathResource(location);
+        long start = System.nanoTime();
+        long read = 0;
+        long upserted = 0;
+        List<WriteModel<Document>> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.endsWith(",")) {
+                    line = line.substring(0, line.length() - 1);
+                }
+                if (line.isEmpty()) {
+                    continue;
+                }
+                batch.add(upsert(Document.parse(line), keyField, location, read + 1));
+                read++;
+                if (batch.size() == batchSize) {
+                    upserted += write(collection, batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            upserted += write(collection, batch);
+        }
+        long elapsed = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 1);
+        log.info(
+            "Loaded {} documents from {} into {} in {} ms ({} new, {} documents/s)",
+            read,
+            location,
+            collection.getNamespace().getCollectionName(),
+            elapsed,
+            upserted,
+            read * 1000 / elapsed
+        );
+        return read;
+    }
+
+    private static WriteModel<Document> upsert(Document document, String keyField, String location, long number) throws IOException {
+        Object key = document.get(keyField);
+        if (key == null) {
+            throw new IOException("Document " + number + " of " + location + " has no " + keyField);
+        }
+        Document fields = new Document(document);
+        fields.remove(ID_FIELD);
+        Document update = new Document("$set", fields);
+        if (!ID_FIELD.equals(keyField) && document.containsKey(ID_FIELD)) {
+            update.append("$setOnInsert", new Document(ID_FIELD, document.get(ID_FIELD)));
+        }
+        return new UpdateOneModel<>(Filters.eq(keyField, key), update, new UpdateOptions().upsert(true));
+    }
+
+    private static int write(MongoCollection<Document> collection, List<WriteModel<Document>> batch) {
+        BulkWriteResult result = collection.bulkWrite(batch, new BulkWriteOptions().ordered(false));
+        return result.getUpserts().size();
+    }
+}
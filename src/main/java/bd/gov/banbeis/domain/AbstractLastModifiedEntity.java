@@ -0,0 +1,28 @@
+package bd.gov.banbeis.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.time.Instant;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Base abstract class for entities which will hold the last modified date attribute, set by auditing on every save.
+ */
+public abstract class AbstractLastModifiedEntity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @LastModifiedDate
+    @Field("last_modified_date")
+    @JsonIgnore
+    private Instant lastModifiedDate;
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+}
@@ -1,7 +1,12 @@
 package bd.gov.banbeis.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -10,7 +15,7 @@ import org.springframework.data.mongodb.core.mapping.Field;
  * A Center.
  */
 @Document(collection = "center")
-public class Center implements Serializable {
+public class Center extends AbstractLastModifiedEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -23,22 +28,39 @@ public class Center implements Serializable {
     @Field("address_line")
     private String addressLine;
 
-    @Field("image")
+    @Transient
     private byte[] image;
 
     @Field("image_content_type")
     private String imageContentType;
 
+    @Field("image_blob_id")
+    @JsonIgnore
+    private String imageBlobId;
+
+    @Field("image_size")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long imageSize;
+
+    /**
+     * Where the center is, defaulting to the location of its district.
+     */
+    @Field("location")
+    private GeoJsonPoint location;
+
     @DBRef
     @Field("division")
+    @JsonIncludeProperties({ "id", "name", "bnName" })
     private Division division;
 
     @DBRef
     @Field("district")
+    @JsonIncludeProperties({ "id", "name", "bnName" })
     private District district;
 
     @DBRef
     @Field("upazila")
+    @JsonIncludeProperties({ "id", "name", "bnName" })
     private Upazila upazila;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
@@ -108,6 +130,53 @@ public class Center implements Serializable {
         this.imageContentType = imageContentType;
     }
 
+    public String getImageBlobId() {
+        return this.imageBlobId;
+    }
+
+    public Center imageBlobId(String imageBlobId) {
+        this.setImageBlobId(imageBlobId);
+        return this;
+    }
+
+    public void setImageBlobId(String imageBlobId) {
+        this.imageBlobId = imageBlobId;
+    }
+
+    public Long getImageSize() {
+        return this.imageSize;
+    }
+
+    public Center imageSize(Long imageSize) {
+        this.setImageSize(imageSize);
+        return this;
+    }
+
+    public void setImageSize(Long imageSize) {
+        this.imageSize = imageSize;
+    }
+
+    /**
+     * @return the URL streaming the image, or {@code null} if there is none.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public String getImageUrl() {
+        return this.imageBlobId == null ? null : "/api/centers/" + this.id + "/content";
+    }
+
+    public GeoJsonPoint getLocation() {
+        return this.location;
+    }
+
+    public Center location(GeoJsonPoint location) {
+        this.setLocation(location);
+        return this;
+    }
+
+    public void setLocation(GeoJsonPoint location) {
+        this.location = location;
+    }
+
     public Division getDivision() {
         return this.division;
     }
@@ -175,6 +244,8 @@ public class Center implements Serializable {
             ", addressLine='" + getAddressLine() + "'" +
             ", image='" + getImage() + "'" +
             ", imageContentType='" + getImageContentType() + "'" +
+            ", imageSize=" + getImageSize() +
+            ", location=" + getLocation() +
             "}";
     }
 }
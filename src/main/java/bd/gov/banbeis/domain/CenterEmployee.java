@@ -1,6 +1,7 @@
 package bd.gov.banbeis.domain;
 
 import bd.gov.banbeis.domain.enumeration.DutyType;
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
 import java.io.Serializable;
 import java.time.LocalDate;
 import org.springframework.data.annotation.Id;
@@ -12,7 +13,7 @@ import org.springframework.data.mongodb.core.mapping.Field;
  * A CenterEmployee.
  */
 @Document(collection = "center_employee")
-public class CenterEmployee implements Serializable {
+public class CenterEmployee extends AbstractLastModifiedEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -33,6 +34,7 @@ public class CenterEmployee implements Serializable {
 
     @DBRef
     @Field("designation")
+    @JsonIncludeProperties({ "id", "name" })
     private Designation designation;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
@@ -1,8 +1,12 @@
 package bd.gov.banbeis.domain;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
+import java.util.Map;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -11,19 +15,39 @@ import org.springframework.data.mongodb.core.mapping.Field;
  * A CenterImages.
  */
 @Document(collection = "center_images")
-public class CenterImages implements Serializable {
+public class CenterImages extends AbstractLastModifiedEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
     private String id;
 
-    @Field("image")
+    @Transient
     private byte[] image;
 
     @Field("image_content_type")
     private String imageContentType;
 
+    @Field("image_blob_id")
+    @JsonIgnore
+    private String imageBlobId;
+
+    @Field("image_size")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long imageSize;
+
+    @Field("image_width")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer imageWidth;
+
+    @Field("image_height")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer imageHeight;
+
+    @Field("image_renditions")
+    @JsonIgnore
+    private Map<String, String> imageRenditions;
+
     @Field("title")
     private String title;
 
@@ -35,7 +59,7 @@ public class CenterImages implements Serializable {
 
     @DBRef
     @Field("center")
-    @JsonIgnoreProperties(value = { "division", "district", "upazila" }, allowSetters = true)
+    @JsonIncludeProperties({ "id", "name" })
     private Center center;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
@@ -79,6 +103,79 @@ public class CenterImages implements Serializable {
         this.imageContentType = imageContentType;
     }
 
+    public String getImageBlobId() {
+        return this.imageBlobId;
+    }
+
+    public CenterImages imageBlobId(String imageBlobId) {
+        this.setImageBlobId(imageBlobId);
+        return this;
+    }
+
+    public void setImageBlobId(String imageBlobId) {
+        this.imageBlobId = imageBlobId;
+    }
+
+    public Long getImageSize() {
+        return this.imageSize;
+    }
+
+    public CenterImages imageSize(Long imageSize) {
+        this.setImageSize(imageSize);
+        return this;
+    }
+
+    public void setImageSize(Long imageSize) {
+        this.imageSize = imageSize;
+    }
+
+    public Integer getImageWidth() {
+        return this.imageWidth;
+    }
+
+    public CenterImages imageWidth(Integer imageWidth) {
+        this.setImageWidth(imageWidth);
+        return this;
+    }
+
+    public void setImageWidth(Integer imageWidth) {
+        this.imageWidth = imageWidth;
+    }
+
+    public Integer getImageHeight() {
+        return this.imageHeight;
+    }
+
+    public CenterImages imageHeight(Integer imageHeight) {
+        this.setImageHeight(imageHeight);
+        return this;
+    }
+
+    public void setImageHeight(Integer imageHeight) {
+        this.imageHeight = imageHeight;
+    }
+
+    public Map<String, String> getImageRenditions() {
+        return this.imageRenditions;
+    }
+
+    public CenterImages imageRenditions(Map<String, String> imageRenditions) {
+        this.setImageRenditions(imageRenditions);
+        return this;
+    }
+
+    public void setImageRenditions(Map<String, String> imageRenditions) {
+        this.imageRenditions = imageRenditions;
+    }
+
+    /**
+     * @return the URL streaming the image, or {@code null} if there is none.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public String getImageUrl() {
+        return this.imageBlobId == null ? null : "/api/center-images/" + this.id + "/content";
+    }
+
     public String getTitle() {
         return this.title;
     }
@@ -157,6 +254,9 @@ public class CenterImages implements Serializable {
             "id=" + getId() +
             ", image='" + getImage() + "'" +
             ", imageContentType='" + getImageContentType() + "'" +
+            ", imageSize=" + getImageSize() +
+            ", imageWidth=" + getImageWidth() +
+            ", imageHeight=" + getImageHeight() +
             ", title='" + getTitle() + "'" +
             ", description='" + getDescription() + "'" +
             ", show='" + getShow() + "'" +
@@ -2,6 +2,7 @@ package bd.gov.banbeis.domain;
 
 import java.io.Serializable;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -9,7 +10,7 @@ import org.springframework.data.mongodb.core.mapping.Field;
  * A District.
  */
 @Document(collection = "district")
-public class District implements Serializable {
+public class District extends AbstractLastModifiedEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -127,6 +128,25 @@ public class District implements Serializable {
         this.url = url;
     }
 
+    /**
+     * @return the point at the latitude and longitude of the district, or {@code null} if they are missing or invalid.
+     */
+    public GeoJsonPoint toLocation() {
+        if (this.lat == null || this.lon == null) {
+            return null;
+        }
+        try {
+            double latitude = Double.parseDouble(this.lat.trim());
+            double longitude = Double.parseDouble(this.lon.trim());
+            if (Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+                return null;
+            }
+            return new GeoJsonPoint(longitude, latitude);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
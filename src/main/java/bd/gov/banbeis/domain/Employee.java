@@ -1,8 +1,12 @@
 package bd.gov.banbeis.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import javax.validation.constraints.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -11,7 +15,7 @@ import org.springframework.data.mongodb.core.mapping.Field;
  * A Employee.
  */
 @Document(collection = "employee")
-public class Employee implements Serializable {
+public class Employee extends AbstractLastModifiedEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -34,14 +38,23 @@ public class Employee implements Serializable {
     @Field("email")
     private String email;
 
-    @Field("photo")
+    @Transient
     private byte[] photo;
 
     @Field("photo_content_type")
     private String photoContentType;
 
+    @Field("photo_blob_id")
+    @JsonIgnore
+    private String photoBlobId;
+
+    @Field("photo_size")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long photoSize;
+
     @DBRef
     @Field("designation")
+    @JsonIncludeProperties({ "id", "name" })
     private Designation designation;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
@@ -137,6 +150,40 @@ public class Employee implements Serializable {
         this.photoContentType = photoContentType;
     }
 
+    public String getPhotoBlobId() {
+        return this.photoBlobId;
+    }
+
+    public Employee photoBlobId(String photoBlobId) {
+        this.setPhotoBlobId(photoBlobId);
+        return this;
+    }
+
+    public void setPhotoBlobId(String photoBlobId) {
+        this.photoBlobId = photoBlobId;
+    }
+
+    public Long getPhotoSize() {
+        return this.photoSize;
+    }
+
+    public Employee photoSize(Long photoSize) {
+        this.setPhotoSize(photoSize);
+        return this;
+    }
+
+    public void setPhotoSize(Long photoSize) {
+        this.photoSize = photoSize;
+    }
+
+    /**
+     * @return the URL streaming the photo, or {@code null} if there is none.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public String getPhotoUrl() {
+        return this.photoBlobId == null ? null : "/api/employees/" + this.id + "/content";
+    }
+
     public Designation getDesignation() {
         return this.designation;
     }
@@ -180,6 +227,7 @@ public class Employee implements Serializable {
             ", email='" + getEmail() + "'" +
             ", photo='" + getPhoto() + "'" +
             ", photoContentType='" + getPhotoContentType() + "'" +
+            ", photoSize=" + getPhotoSize() +
             "}";
     }
 }
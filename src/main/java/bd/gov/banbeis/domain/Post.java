@@ -1,6 +1,7 @@
 package bd.gov.banbeis.domain;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -13,7 +14,7 @@ import org.springframework.data.mongodb.core.mapping.Field;
  * A Post.
  */
 @Document(collection = "post")
-public class Post implements Serializable {
+public class Post extends AbstractLastModifiedEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -29,20 +30,27 @@ public class Post implements Serializable {
     @Field("body")
     private String body;
 
+    @Field("excerpt")
+    private String excerpt;
+
     @Field("publish")
     private Boolean publish;
 
     @Field("published_on")
     private Instant publishedOn;
 
+    @Field("view_count")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long viewCount;
+
     @DBRef
     @Field("center")
-    @JsonIgnoreProperties(value = { "division", "district", "upazila" }, allowSetters = true)
+    @JsonIncludeProperties({ "id", "name" })
     private Center center;
 
     @DBRef
     @Field("employee")
-    @JsonIgnoreProperties(value = { "designation" }, allowSetters = true)
+    @JsonIncludeProperties({ "id", "fullName", "bnFullName" })
     private Employee employee;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
@@ -99,6 +107,19 @@ public class Post implements Serializable {
         this.body = body;
     }
 
+    public String getExcerpt() {
+        return this.excerpt;
+    }
+
+    public Post excerpt(String excerpt) {
+        this.setExcerpt(excerpt);
+        return this;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
     public Boolean getPublish() {
         return this.publish;
     }
@@ -125,6 +146,19 @@ public class Post implements Serializable {
         this.publishedOn = publishedOn;
     }
 
+    public Long getViewCount() {
+        return this.viewCount;
+    }
+
+    public Post viewCount(Long viewCount) {
+        this.setViewCount(viewCount);
+        return this;
+    }
+
+    public void setViewCount(Long viewCount) {
+        this.viewCount = viewCount;
+    }
+
     public Center getCenter() {
         return this.center;
     }
@@ -178,8 +212,10 @@ public class Post implements Serializable {
             ", postDate='" + getPostDate() + "'" +
             ", title='" + getTitle() + "'" +
             ", body='" + getBody() + "'" +
+            ", excerpt='" + getExcerpt() + "'" +
             ", publish='" + getPublish() + "'" +
             ", publishedOn='" + getPublishedOn() + "'" +
+            ", viewCount=" + getViewCount() +
             "}";
     }
 }
@@ -1,9 +1,11 @@
 package bd.gov.banbeis.domain;
 
 import bd.gov.banbeis.domain.enumeration.CommentType;
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
 import java.io.Serializable;
 import java.time.Instant;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -11,7 +13,7 @@ import org.springframework.data.mongodb.core.mapping.Field;
  * A PostComment.
  */
 @Document(collection = "post_comment")
-public class PostComment implements Serializable {
+public class PostComment extends AbstractLastModifiedEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -30,6 +32,11 @@ public class PostComment implements Serializable {
     @Field("commented_on")
     private Instant commentedOn;
 
+    @DBRef
+    @Field("post")
+    @JsonIncludeProperties({ "id", "title" })
+    private Post post;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public String getId() {
@@ -97,6 +104,19 @@ public class PostComment implements Serializable {
         this.commentedOn = commentedOn;
     }
 
+    public Post getPost() {
+        return this.post;
+    }
+
+    public void setPost(Post post) {
+        this.post = post;
+    }
+
+    public PostComment post(Post post) {
+        this.setPost(post);
+        return this;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
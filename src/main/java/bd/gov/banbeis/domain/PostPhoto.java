@@ -1,9 +1,13 @@
 package bd.gov.banbeis.domain;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.Map;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -12,7 +16,7 @@ import org.springframework.data.mongodb.core.mapping.Field;
  * A PostPhoto.
  */
 @Document(collection = "post_photo")
-public class PostPhoto implements Serializable {
+public class PostPhoto extends AbstractLastModifiedEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
@@ -28,23 +32,43 @@ public class PostPhoto implements Serializable {
     @Field("description")
     private String description;
 
-    @Field("image")
+    @Transient
     private byte[] image;
 
     @Field("image_content_type")
     private String imageContentType;
 
+    @Field("image_blob_id")
+    @JsonIgnore
+    private String imageBlobId;
+
+    @Field("image_size")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long imageSize;
+
+    @Field("image_width")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer imageWidth;
+
+    @Field("image_height")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer imageHeight;
+
+    @Field("image_renditions")
+    @JsonIgnore
+    private Map<String, String> imageRenditions;
+
     @Field("uploaded_on")
     private Instant uploadedOn;
 
     @DBRef
     @Field("post")
-    @JsonIgnoreProperties(value = { "center", "employee" }, allowSetters = true)
+    @JsonIncludeProperties({ "id", "title" })
     private Post post;
 
     @DBRef
     @Field("uploadedBy")
-    @JsonIgnoreProperties(value = { "designation" }, allowSetters = true)
+    @JsonIncludeProperties({ "id", "fullName", "bnFullName" })
     private Employee uploadedBy;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
@@ -127,6 +151,79 @@ public class PostPhoto implements Serializable {
         this.imageContentType = imageContentType;
     }
 
+    public String getImageBlobId() {
+        return this.imageBlobId;
+    }
+
+    public PostPhoto imageBlobId(String imageBlobId) {
+        this.setImageBlobId(imageBlobId);
+        return this;
+    }
+
+    public void setImageBlobId(String imageBlobId) {
+        this.imageBlobId = imageBlobId;
+    }
+
+    public Long getImageSize() {
+        return this.imageSize;
+    }
+
+    public PostPhoto imageSize(Long imageSize) {
+        this.setImageSize(imageSize);
+        return this;
+    }
+
+    public void setImageSize(Long imageSize) {
+        this.imageSize = imageSize;
+    }
+
+    public Integer getImageWidth() {
+        return this.imageWidth;
+    }
+
+    public PostPhoto imageWidth(Integer imageWidth) {
+        this.setImageWidth(imageWidth);
+        return this;
+    }
+
+    public void setImageWidth(Integer imageWidth) {
+        this.imageWidth = imageWidth;
+    }
+
+    public Integer getImageHeight() {
+        return this.imageHeight;
+    }
+
+    public PostPhoto imageHeight(Integer imageHeight) {
+        this.setImageHeight(imageHeight);
+        return this;
+    }
+
+    public void setImageHeight(Integer imageHeight) {
+        this.imageHeight = imageHeight;
+    }
+
+    public Map<String, String> getImageRenditions() {
+        return this.imageRenditions;
+    }
+
+    public PostPhoto imageRenditions(Map<String, String> imageRenditions) {
+        this.setImageRenditions(imageRenditions);
+        return this;
+    }
+
+    public void setImageRenditions(Map<String, String> imageRenditions) {
+        this.imageRenditions = imageRenditions;
+    }
+
+    /**
+     * @return the URL streaming the image, or {@code null} if there is none.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public String getImageUrl() {
+        return this.imageBlobId == null ? null : "/api/post-photos/" + this.id + "/content";
+    }
+
     public Instant getUploadedOn() {
         return this.uploadedOn;
     }
@@ -195,6 +292,9 @@ public class PostPhoto implements Serializable {
             ", description='" + getDescription() + "'" +
             ", image='" + getImage() + "'" +
             ", imageContentType='" + getImageContentType() + "'" +
+            ", imageSize=" + getImageSize() +
+            ", imageWidth=" + getImageWidth() +
+            ", imageHeight=" + getImageHeight() +
             ", uploadedOn='" + getUploadedOn() + "'" +
             "}";
     }
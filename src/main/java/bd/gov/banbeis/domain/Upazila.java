@@ -9,7 +9,7 @@ import org.springframework.data.mongodb.core.mapping.Field;
  * A Upazila.
  */
 @Document(collection = "upazila")
-public class Upazila implements Serializable {
+public class Upazila extends AbstractLastModifiedEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
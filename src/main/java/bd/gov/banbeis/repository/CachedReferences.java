@@ -0,0 +1,17 @@
+package bd.gov.banbeis.repository;
+
+import java.util.Map;
+
+/**
+ * Entities kept in memory, which the {@link DBRefBatchResolver} resolves without querying their collection.
+ */
+public interface CachedReferences {
+    /**
+     * Get the cached entities of a class.
+     *
+     * @param entityClass the entity class.
+     * @return the entities by id, or {@code null} if the entities of this class are not cached. The entities are shared
+     * and must not be modified.
+     */
+    Map<String, ?> findAll(Class<?> entityClass);
+}
@@ -0,0 +1,268 @@
+package bd.gov.banbeis.repository;
+
+import com.fasterxml.jackson.annotation.JsonIncludeProperties;
+import com.mongodb.DBRef;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.bson.Document;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * Reads entities and resolves their {@code @DBRef} relationships in batches.
+ * <p>
+ * The default converter resolves every reference of every document with its own query, so reading a page of
+ * {@code n} posts costs {@code 1 + 2n} queries (and more for the references of the referenced entities). This
+ * resolver instead reads the raw documents, collects the referenced ids of each relationship over the whole page and
+ * loads each of them with a single {@code $in} query, recursively. The number of queries only depends on the shape of
+ * the entity graph, not on the page size.
+ * <p>
+ * When a relationship is annotated with {@link JsonIncludeProperties}, only those properties are serialized, so only
+ * those fields are loaded from the referenced collection. This keeps the blobs of referenced entities (employee photo,
+ * center image, ...) out of both the query and the response.
+ * <p>
+ * References to entities kept in memory, see {@link CachedReferences}, are resolved without a query.
+ */
+@Component
+public class DBRefBatchResolver {
+
+    static final int STREAM_BATCH_SIZE = 100;
+
+    private static final String DISTANCE_FIELD = "_distance";
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final MongoConverter converter;
+
+    private final QueryMapper queryMapper;
+
+    private final CachedReferences cachedReferences;
+
+    public DBRefBatchResolver(ReactiveMongoOperations mongoOperations, CachedReferences cachedReferences) {
+        this.mongoOperations = mongoOperations;
+        this.cachedReferences = cachedReferences;
+        this.converter = mongoOperations.getConverter();
+        this.queryMapper = new QueryMapper(converter);
+    }
+
+    /**
+     * Find the entities matching the query, with their references resolved.
+     *
+     * @param query the query, expressed on the entity properties.
+     * @param entityClass the entity class.
+     * @param <T> the entity type.
+     * @return the entities, in query order.
+     */
+    public <T> Flux<T> find(Query query, Class<T> entityClass) {
+        return findDocuments(query, entityClass)
+            .collectList()
+            .flatMap(documents -> read(entityClass, documents))
+            .flatMapIterable(entities -> entities);
+    }
+
+    /**
+     * Stream the entities matching the query, with their references resolved.
+     * <p>
+     * Unlike {@link #find(Query, Class)}, the documents are not all held in memory: the references are resolved for
+     * {@value #STREAM_BATCH_SIZE} documents at a time, as they are requested downstream.
+     *
+     * @param query the query, expressed on the entity properties.
+     * @param entityClass the entity class.
+     * @param <T> the entity type.
+     * @return the entities, in query order.
+     */
+    public <T> Flux<T> stream(Query query, Class<T> entityClass) {
+        return findDocuments(query, entityClass)
+            .buffer(STREAM_BATCH_SIZE)
+            .concatMap(documents -> read(entityClass, documents))
+            .flatMapIterable(entities -> entities);
+    }
+
+    /**
+     * Find an entity by id, with its references resolved.
+     *
+     * @param id the id of the entity.
+     * @param entityClass the entity class.
+     * @param <T> the entity type.
+     * @return the entity.
+     */
+    public <T> Mono<T> findById(String id, Class<T> entityClass) {
+        return find(new Query(Criteria.where("id").is(id)), entityClass).next();
+    }
+
+    /**
+     * Find the entities nearest to a point, with their references resolved.
+     *
+     * @param near the {@code $geoNear} query, with the point, the maximum distance and the page.
+     * @param entityClass the entity class, whose collection has a geospatial index.
+     * @param <T> the entity type.
+     * @return the entities with their distance, in the metric of the query, nearest first.
+     */
+    public <T> Flux<GeoResult<T>> findNear(NearQuery near, Class<T> entityClass) {
+        TypedAggregation<T> aggregation = Aggregation.newAggregation(entityClass, Aggregation.geoNear(near, DISTANCE_FIELD));
+        return mongoOperations
+            .aggregate(aggregation, Document.class)
+            .collectList()
+            .flatMap(documents -> {
+                List<Double> distances = new ArrayList<>(documents.size());
+                documents.forEach(document -> distances.add(((Number) document.remove(DISTANCE_FIELD)).doubleValue()));
+                return read(entityClass, documents)
+                    .map(entities -> {
+                        List<GeoResult<T>> results = new ArrayList<>(entities.size());
+                        for (int i = 0; i < entities.size(); i++) {
+                            results.add(new GeoResult<>(entities.get(i), new Distance(distances.get(i), near.getMetric())));
+                        }
+                        return results;
+                    });
+            })
+            .flatMapIterable(results -> results);
+    }
+
+    private Flux<Document> findDocuments(Query query, Class<?> entityClass) {
+        MongoPersistentEntity<?> entity = persistentEntity(entityClass);
+        BasicQuery rawQuery = new BasicQuery(
+            queryMapper.getMappedObject(query.getQueryObject(), entity),
+            queryMapper.getMappedFields(query.getFieldsObject(), entity)
+        );
+        rawQuery.setSortObject(queryMapper.getMappedSort(query.getSortObject(), entity));
+        rawQuery.skip(query.getSkip()).limit(query.getLimit());
+        return mongoOperations.find(rawQuery, Document.class, entity.getCollection());
+    }
+
+    private <T> Mono<List<T>> read(Class<T> entityClass, List<Document> documents) {
+        MongoPersistentEntity<?> entity = persistentEntity(entityClass);
+        Map<MongoPersistentProperty, List<Object>> detachedIds = new LinkedHashMap<>();
+        entity.doWithProperties(
+            (PropertyHandler<MongoPersistentProperty>) property -> {
+                if (property.isDbReference() && !property.isCollectionLike() && !property.isMap()) {
+                    List<Object> ids = new ArrayList<>(documents.size());
+                    for (Document document : documents) {
+                        Object reference = document.remove(property.getFieldName());
+                        ids.add(reference instanceof DBRef ? ((DBRef) reference).getId() : null);
+                    }
+                    detachedIds.put(property, ids);
+                }
+            }
+        );
+        if (documents.isEmpty() || detachedIds.isEmpty()) {
+            return Mono.fromSupplier(() -> convert(entityClass, entity, documents, detachedIds, Collections.emptyMap()));
+        }
+        return Flux
+            .fromIterable(detachedIds.entrySet())
+            .flatMap(detached -> fetch(detached.getKey(), detached.getValue()).map(targets -> Tuples.of(detached.getKey(), targets)))
+            .collectMap(Tuple2::getT1, Tuple2::getT2)
+            .map(resolved -> convert(entityClass, entity, documents, detachedIds, resolved));
+    }
+
+    private Mono<Map<Object, Object>> fetch(MongoPersistentProperty property, List<Object> ids) {
+        Set<Object> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        Class<?> targetClass = property.getActualType();
+        Map<Object, Object> targetsById = new HashMap<>();
+        Map<String, ?> cached = cachedReferences.findAll(targetClass);
+        if (cached != null) {
+            for (Iterator<Object> it = distinctIds.iterator(); it.hasNext();) {
+                Object id = it.next();
+                Object target = cached.get(id.toString());
+                if (target != null) {
+                    targetsById.put(id, target);
+                    it.remove();
+                }
+            }
+            // Entities written since the cache was loaded are still queried
+            if (distinctIds.isEmpty()) {
+                return Mono.just(targetsById);
+            }
+        }
+        MongoPersistentEntity<?> targetEntity = persistentEntity(targetClass);
+        BasicQuery query = new BasicQuery(
+            new Document("_id", new Document("$in", new ArrayList<>(distinctIds))),
+            summaryFields(property, targetEntity)
+        );
+        return mongoOperations
+            .find(query, Document.class, targetEntity.getCollection())
+            .collectList()
+            .flatMap(documents -> {
+                List<Object> rawIds = new ArrayList<>(documents.size());
+                documents.forEach(document -> rawIds.add(document.get("_id")));
+                return read(targetClass, documents)
+                    .map(targets -> {
+                        for (int i = 0; i < targets.size(); i++) {
+                            targetsById.put(rawIds.get(i), targets.get(i));
+                        }
+                        return targetsById;
+                    });
+            });
+    }
+
+    private Document summaryFields(MongoPersistentProperty property, MongoPersistentEntity<?> targetEntity) {
+        Document fields = new Document();
+        JsonIncludeProperties included = property.findAnnotation(JsonIncludeProperties.class);
+        if (included != null) {
+            fields.append("_id", 1);
+            for (String name : included.value()) {
+                MongoPersistentProperty targetProperty = targetEntity.getPersistentProperty(name);
+                if (targetProperty != null) {
+                    fields.append(targetProperty.getFieldName(), 1);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private <T> List<T> convert(
+        Class<T> entityClass,
+        MongoPersistentEntity<?> entity,
+        List<Document> documents,
+        Map<MongoPersistentProperty, List<Object>> detachedIds,
+        Map<MongoPersistentProperty, Map<Object, Object>> resolved
+    ) {
+        List<T> entities = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            T bean = converter.read(entityClass, documents.get(i));
+            PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(bean);
+            for (Map.Entry<MongoPersistentProperty, List<Object>> detached : detachedIds.entrySet()) {
+                Object id = detached.getValue().get(i);
+                Map<Object, Object> targets = resolved.get(detached.getKey());
+                if (id != null && targets != null) {
+                    accessor.setProperty(detached.getKey(), targets.get(id));
+                }
+            }
+            entities.add(Objects.requireNonNull(accessor.getBean()));
+        }
+        return entities;
+    }
+
+    private MongoPersistentEntity<?> persistentEntity(Class<?> entityClass) {
+        return converter.getMappingContext().getRequiredPersistentEntity(entityClass);
+    }
+}
@@ -13,4 +13,6 @@ import reactor.core.publisher.Flux;
 @Repository
 public interface DistrictRepository extends ReactiveMongoRepository<District, String> {
     Flux<District> findAllBy(Pageable pageable);
+
+    Flux<District> findAllByDivisionId(String divisionId);
 }
@@ -0,0 +1,100 @@
+package bd.gov.banbeis.repository;
+
+import bd.gov.banbeis.domain.AbstractLastModifiedEntity;
+import com.mongodb.DBRef;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the last modified dates of an auditing entity and of its references without loading the rest of the documents.
+ */
+@Component
+public class LastModifiedDateLookup {
+
+    private static final String LAST_MODIFIED_DATE = "last_modified_date";
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final QueryMapper queryMapper;
+
+    /**
+     * The fields holding {@link DBRef}s, by entity class.
+     */
+    private final Map<Class<?>, List<String>> referenceFields = new ConcurrentHashMap<>();
+
+    public LastModifiedDateLookup(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+        this.queryMapper = new QueryMapper(mongoOperations.getConverter());
+    }
+
+    /**
+     * Get the last modified dates of an entity and of the entities it references, whose summaries are part of its
+     * representation.
+     *
+     * @param entityClass the entity class.
+     * @param id the id of the entity.
+     * @return the last modified date of the entity, then those of the referenced entities in the order of their fields,
+     * {@link Instant#EPOCH} for a referenced entity without date or that no longer exists; or empty if the entity or its
+     * date does not exist.
+     */
+    public Mono<List<Instant>> findLastModifiedDates(Class<? extends AbstractLastModifiedEntity> entityClass, String id) {
+        List<String> fields = referenceFields.computeIfAbsent(entityClass, this::findReferenceFields);
+        Document projection = new Document(LAST_MODIFIED_DATE, 1);
+        fields.forEach(field -> projection.append(field, 1));
+        BasicQuery query = new BasicQuery(new Document("_id", queryMapper.convertId(id)), projection);
+        return mongoOperations
+            .findOne(query, Document.class, mongoOperations.getCollectionName(entityClass))
+            .filter(document -> document.get(LAST_MODIFIED_DATE) instanceof Date)
+            .flatMap(document -> {
+                List<DBRef> references = new ArrayList<>();
+                for (String field : fields) {
+                    Object value = document.get(field);
+                    if (value instanceof DBRef) {
+                        references.add((DBRef) value);
+                    } else if (value instanceof Collection) {
+                        ((Collection<?>) value).stream().filter(DBRef.class::isInstance).map(DBRef.class::cast).forEach(references::add);
+                    }
+                }
+                return Flux
+                    .fromIterable(references)
+                    .concatMap(this::findLastModifiedDate)
+                    .startWith(document.get(LAST_MODIFIED_DATE, Date.class).toInstant())
+                    .collectList();
+            });
+    }
+
+    private Mono<Instant> findLastModifiedDate(DBRef reference) {
+        BasicQuery query = new BasicQuery(new Document("_id", reference.getId()), new Document(LAST_MODIFIED_DATE, 1));
+        return mongoOperations
+            .findOne(query, Document.class, reference.getCollectionName())
+            .flatMap(document -> Mono.justOrEmpty(document.get(LAST_MODIFIED_DATE, Date.class)))
+            .map(Date::toInstant)
+            .defaultIfEmpty(Instant.EPOCH);
+    }
+
+    private List<String> findReferenceFields(Class<?> entityClass) {
+        List<String> fields = new ArrayList<>();
+        for (MongoPersistentProperty property : mongoOperations
+            .getConverter()
+            .getMappingContext()
+            .getRequiredPersistentEntity(entityClass)) {
+            if (property.isDbReference()) {
+                fields.add(property.getFieldName());
+            }
+        }
+        return fields;
+    }
+}
@@ -13,4 +13,6 @@ import reactor.core.publisher.Flux;
 @Repository
 public interface UpazilaRepository extends ReactiveMongoRepository<Upazila, String> {
     Flux<Upazila> findAllBy(Pageable pageable);
+
+    Flux<Upazila> findAllByDistrictId(String districtId);
 }
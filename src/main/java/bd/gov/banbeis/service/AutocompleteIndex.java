@@ -0,0 +1,381 @@
+package bd.gov.banbeis.service;
+
+import bd.gov.banbeis.domain.Center;
+import bd.gov.banbeis.domain.District;
+import bd.gov.banbeis.domain.Division;
+import bd.gov.banbeis.domain.Employee;
+import bd.gov.banbeis.domain.Upazila;
+import bd.gov.banbeis.service.util.SearchTokenizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In memory prefix index over the English and Bangla names of the places, centers and employees, for type-ahead.
+ * <p>
+ * Names are normalized with {@link SearchTokenizer#normalize(String)}, so a prefix matches regardless of case, Bangla
+ * spelling variants and punctuation. A prefix matches a name by its start, or by the start of any of its later words;
+ * the first ones are suggested first. The keys are held in sorted arrays, so a lookup is a binary search followed by a
+ * scan of the matching keys.
+ * <p>
+ * The index is built by streaming the names once the application is ready, then kept up to date by the services on
+ * every write. The sorted arrays are rebuilt on the first lookup after a write.
+ */
+@Service
+public class AutocompleteIndex {
+
+    public static final String METER_NAME = "autocomplete";
+
+    /**
+     * The entities whose names are suggested.
+     */
+    public enum Type {
+        DIVISION(Division.class, "name", "bn_name"),
+        DISTRICT(District.class, "name", "bn_name"),
+        UPAZILA(Upazila.class, "name", "bn_name"),
+        CENTER(Center.class, "name", null),
+        EMPLOYEE(Employee.class, "full_name", "bn_full_name");
+
+        private final Class<?> entityClass;
+
+        private final String nameField;
+
+        private final String bnNameField;
+
+        Type(Class<?> entityClass, String nameField, String bnNameField) {
+            this.entityClass = entityClass;
+            this.nameField = nameField;
+            this.bnNameField = bnNameField;
+        }
+
+        /**
+         * Get a type by its name, as given in a request.
+         *
+         * @param name the name of the type, in any case.
+         * @return the type, or empty if there is no such type.
+         */
+        public static Optional<Type> of(String name) {
+            return Arrays.stream(values()).filter(type -> type.name().equals(name.toUpperCase(Locale.ROOT))).findFirst();
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(AutocompleteIndex.class);
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final Timer lookups;
+
+    private final Map<Type, TypeIndex> indexes = new EnumMap<>(Type.class);
+
+    public AutocompleteIndex(ReactiveMongoOperations mongoOperations, MeterRegistry meterRegistry) {
+        this.mongoOperations = mongoOperations;
+        this.lookups = Timer.builder(METER_NAME).register(meterRegistry);
+        for (Type type : Type.values()) {
+            indexes.put(type, new TypeIndex());
+        }
+    }
+
+    /**
+     * Build the index once the application is ready, without delaying the startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild().subscribe(null, error -> log.error("Could not build the autocomplete index", error));
+    }
+
+    /**
+     * Index the names of all the entities, streaming only their names.
+     *
+     * @return the number of indexed entities.
+     */
+    public Mono<Long> rebuild() {
+        return Flux.fromArray(Type.values()).flatMap(this::rebuild).reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> rebuild(Type type) {
+        Query query = new Query();
+        query.fields().include(type.nameField);
+        if (type.bnNameField != null) {
+            query.fields().include(type.bnNameField);
+        }
+        TypeIndex index = indexes.get(type);
+        return Mono.defer(() -> {
+            index.startRebuild();
+            return mongoOperations
+                .find(query, Document.class, mongoOperations.getCollectionName(type.entityClass))
+                .map(document ->
+                    new Suggestion(
+                        document.get("_id").toString(),
+                        document.getString(type.nameField),
+                        type.bnNameField == null ? null : document.getString(type.bnNameField)
+                    )
+                )
+                .collectList()
+                .map(index::finishRebuild)
+                .doOnNext(count -> log.info("Indexed {} {}s for autocomplete", count, type.entityClass.getSimpleName()))
+                .doFinally(signal -> index.endRebuild());
+        });
+    }
+
+    /**
+     * Add or replace the names of an entity in the index.
+     *
+     * @param type the type of the entity.
+     * @param id the id of the entity.
+     * @param name the English name.
+     * @param bnName the Bangla name.
+     */
+    public void index(Type type, String id, String name, String bnName) {
+        indexes.get(type).put(new Suggestion(id, name, bnName));
+    }
+
+    /**
+     * Remove an entity from the index.
+     *
+     * @param type the type of the entity.
+     * @param id the id of the entity.
+     */
+    public void remove(Type type, String id) {
+        indexes.get(type).remove(id);
+    }
+
+    /**
+     * Suggest the entities whose English or Bangla name starts with a prefix, or has a word starting with it.
+     *
+     * @param type the type of the entities.
+     * @param prefix the prefix, as typed.
+     * @param limit the maximum number of suggestions.
+     * @return the suggestions, the names starting with the prefix first, then the names with a later word starting with it.
+     */
+    public List<Suggestion> complete(Type type, String prefix, int limit) {
+        return lookups.record(() -> {
+            String normalized = SearchTokenizer.normalize(prefix);
+            if (normalized.isEmpty()) {
+                return Collections.emptyList();
+            }
+            Keys keys = indexes.get(type).keys();
+            Map<String, Suggestion> matches = new LinkedHashMap<>();
+            keys.names.collect(normalized, matches, limit);
+            keys.words.collect(normalized, matches, limit);
+            return new ArrayList<>(matches.values());
+        });
+    }
+
+    /**
+     * The names of the entities of a type.
+     */
+    private static final class TypeIndex {
+
+        private final Map<String, Suggestion> suggestions = new HashMap<>();
+
+        /**
+         * Ids written while the index is being rebuilt, the rebuild must not overwrite them with what it read before.
+         */
+        private final Set<String> writtenDuringRebuild = new HashSet<>();
+
+        private boolean rebuilding;
+
+        private volatile Keys keys = Keys.of(Collections.emptyList());
+
+        private volatile boolean stale;
+
+        private synchronized void startRebuild() {
+            rebuilding = true;
+            writtenDuringRebuild.clear();
+        }
+
+        private synchronized long finishRebuild(List<Suggestion> read) {
+            Map<String, Suggestion> rebuilt = new HashMap<>();
+            for (Suggestion suggestion : read) {
+                if (!writtenDuringRebuild.contains(suggestion.id)) {
+                    rebuilt.put(suggestion.id, suggestion);
+                }
+            }
+            for (String id : writtenDuringRebuild) {
+                Suggestion written = suggestions.get(id);
+                if (written != null) {
+                    rebuilt.put(id, written);
+                }
+            }
+            suggestions.clear();
+            suggestions.putAll(rebuilt);
+            stale = true;
+            return read.size();
+        }
+
+        private synchronized void endRebuild() {
+            rebuilding = false;
+            writtenDuringRebuild.clear();
+        }
+
+        private synchronized void put(Suggestion suggestion) {
+            if (rebuilding) {
+                writtenDuringRebuild.add(suggestion.id);
+            }
+            suggestions.put(suggestion.id, suggestion);
+            stale = true;
+        }
+
+        private synchronized void remove(String id) {
+            if (rebuilding) {
+                writtenDuringRebuild.add(id);
+            }
+            suggestions.remove(id);
+            stale = true;
+        }
+
+        private Keys keys() {
+            if (!stale) {
+                return keys;
+            }
+            synchronized (this) {
+                if (stale) {
+                    keys = Keys.of(suggestions.values());
+                    stale = false;
+                }
+                return keys;
+            }
+        }
+    }
+
+    /**
+     * The sorted keys of the entities of a type, never modified once built.
+     */
+    private static final class Keys {
+
+        /**
+         * The whole names.
+         */
+        private final SortedKeys names;
+
+        /**
+         * The names from each of their words but the first.
+         */
+        private final SortedKeys words;
+
+        private Keys(SortedKeys names, SortedKeys words) {
+            this.names = names;
+            this.words = words;
+        }
+
+        private static Keys of(Collection<Suggestion> suggestions) {
+            List<Map.Entry<String, Suggestion>> names = new ArrayList<>();
+            List<Map.Entry<String, Suggestion>> words = new ArrayList<>();
+            for (Suggestion suggestion : suggestions) {
+                for (String name : new String[] { suggestion.name, suggestion.bnName }) {
+                    String normalized = SearchTokenizer.normalize(name);
+                    if (normalized.isEmpty()) {
+                        continue;
+                    }
+                    names.add(new AbstractMap.SimpleImmutableEntry<>(normalized, suggestion));
+                    for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+                        words.add(new AbstractMap.SimpleImmutableEntry<>(normalized.substring(i + 1), suggestion));
+                    }
+                }
+            }
+            return new Keys(new SortedKeys(names), new SortedKeys(words));
+        }
+    }
+
+    private static final class SortedKeys {
+
+        private final String[] keys;
+
+        private final Suggestion[] suggestions;
+
+        private SortedKeys(List<Map.Entry<String, Suggestion>> entries) {
+            entries.sort(Map.Entry.comparingByKey());
+            keys = new String[entries.size()];
+            suggestions = new Suggestion[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                keys[i] = entries.get(i).getKey();
+                suggestions[i] = entries.get(i).getValue();
+            }
+        }
+
+        private void collect(String prefix, Map<String, Suggestion> matches, int limit) {
+            for (int i = first(prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+                if (matches.size() >= limit) {
+                    return;
+                }
+                matches.putIfAbsent(suggestions[i].id, suggestions[i]);
+            }
+        }
+
+        /**
+         * @return the position of the first key not before the prefix, which is the first match if any.
+         */
+        private int first(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(prefix) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * An entity whose name matches a prefix.
+     */
+    public static final class Suggestion {
+
+        private final String id;
+
+        private final String name;
+
+        private final String bnName;
+
+        Suggestion(String id, String name, String bnName) {
+            this.id = id;
+            this.name = name;
+            this.bnName = bnName;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * @return the English name, the full name of an employee.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the Bangla name, {@code null} for a center.
+         */
+        public String getBnName() {
+            return bnName;
+        }
+    }
+}
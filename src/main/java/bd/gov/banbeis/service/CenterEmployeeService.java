@@ -2,9 +2,11 @@ package bd.gov.banbeis.service;
 
 import bd.gov.banbeis.domain.CenterEmployee;
 import bd.gov.banbeis.repository.CenterEmployeeRepository;
+import bd.gov.banbeis.repository.DBRefBatchResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -19,8 +21,18 @@ public class CenterEmployeeService {
 
     private final CenterEmployeeRepository centerEmployeeRepository;
 
-    public CenterEmployeeService(CenterEmployeeRepository centerEmployeeRepository) {
+    private final EntityCountCache entityCountCache;
+
+    private final DBRefBatchResolver dbRefBatchResolver;
+
+    public CenterEmployeeService(
+        CenterEmployeeRepository centerEmployeeRepository,
+        EntityCountCache entityCountCache,
+        DBRefBatchResolver dbRefBatchResolver
+    ) {
         this.centerEmployeeRepository = centerEmployeeRepository;
+        this.entityCountCache = entityCountCache;
+        this.dbRefBatchResolver = dbRefBatchResolver;
     }
 
     /**
@@ -31,7 +43,14 @@ public class CenterEmployeeService {
      */
     public Mono<CenterEmployee> save(CenterEmployee centerEmployee) {
         log.debug("Request to save CenterEmployee : {}", centerEmployee);
-        return centerEmployeeRepository.save(centerEmployee);
+        boolean isNew = centerEmployee.getId() == null;
+        return centerEmployeeRepository
+            .save(centerEmployee)
+            .doOnNext(result -> {
+                if (isNew) {
+                    entityCountCache.recordCreated(CenterEmployee.class);
+                }
+            });
     }
 
     /**
@@ -72,16 +91,27 @@ public class CenterEmployeeService {
      */
     public Flux<CenterEmployee> findAll(Pageable pageable) {
         log.debug("Request to get all CenterEmployees");
-        return centerEmployeeRepository.findAllBy(pageable);
+        return dbRefBatchResolver.find(new Query().with(pageable), CenterEmployee.class);
+    }
+
+    /**
+     * Stream all the centerEmployees, with their references resolved in batches.
+     *
+     * @return the entities, as they are read from the database.
+     */
+    public Flux<CenterEmployee> streamAll() {
+        log.debug("Request to stream all CenterEmployees");
+        return dbRefBatchResolver.stream(new Query(), CenterEmployee.class);
     }
 
     /**
      * Returns the number of centerEmployees available.
+     * The count is estimated from the collection metadata and cached, see {@link EntityCountCache}.
      * @return the number of entities in the database.
      *
      */
     public Mono<Long> countAll() {
-        return centerEmployeeRepository.count();
+        return entityCountCache.count(CenterEmployee.class);
     }
 
     /**
@@ -92,7 +122,7 @@ public class CenterEmployeeService {
      */
     public Mono<CenterEmployee> findOne(String id) {
         log.debug("Request to get CenterEmployee : {}", id);
-        return centerEmployeeRepository.findById(id);
+        return dbRefBatchResolver.findById(id, CenterEmployee.class);
     }
 
     /**
@@ -103,6 +133,6 @@ public class CenterEmployeeService {
      */
     public Mono<Void> delete(String id) {
         log.debug("Request to delete CenterEmployee : {}", id);
-        return centerEmployeeRepository.deleteById(id);
+        return centerEmployeeRepository.deleteById(id).doOnSuccess(result -> entityCountCache.invalidate(CenterEmployee.class));
     }
 }
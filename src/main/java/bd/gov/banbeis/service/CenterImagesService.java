@@ -2,9 +2,16 @@ package bd.gov.banbeis.service;
 
 import bd.gov.banbeis.domain.CenterImages;
 import bd.gov.banbeis.repository.CenterImagesRepository;
+import bd.gov.banbeis.repository.DBRefBatchResolver;
+import bd.gov.banbeis.service.blob.BlobContent;
+import bd.gov.banbeis.service.blob.BlobField;
+import bd.gov.banbeis.service.blob.EntityBlobService;
+import bd.gov.banbeis.service.blob.ImageRendition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -15,12 +22,41 @@ import reactor.core.publisher.Mono;
 @Service
 public class CenterImagesService {
 
+    public static final BlobField<CenterImages> IMAGE = new BlobField<>(
+        CenterImages.class,
+        "image",
+        CenterImages::getId,
+        CenterImages::getImage,
+        CenterImages::setImage,
+        CenterImages::getImageContentType,
+        CenterImages::getImageBlobId,
+        CenterImages::setImageBlobId,
+        CenterImages::setImageSize
+    )
+        .renditions(CenterImages::getImageRenditions, CenterImages::setImageRenditions)
+        .dimensions(CenterImages::setImageWidth, CenterImages::setImageHeight)
+        .ingest();
+
     private final Logger log = LoggerFactory.getLogger(CenterImagesService.class);
 
     private final CenterImagesRepository centerImagesRepository;
 
-    public CenterImagesService(CenterImagesRepository centerImagesRepository) {
+    private final EntityCountCache entityCountCache;
+
+    private final DBRefBatchResolver dbRefBatchResolver;
+
+    private final EntityBlobService entityBlobService;
+
+    public CenterImagesService(
+        CenterImagesRepository centerImagesRepository,
+        EntityCountCache entityCountCache,
+        DBRefBatchResolver dbRefBatchResolver,
+        EntityBlobService entityBlobService
+    ) {
         this.centerImagesRepository = centerImagesRepository;
+        this.entityCountCache = entityCountCache;
+        this.dbRefBatchResolver = dbRefBatchResolver;
+        this.entityBlobService = entityBlobService;
     }
 
     /**
@@ -31,7 +67,32 @@ public class CenterImagesService {
      */
     public Mono<CenterImages> save(CenterImages centerImages) {
         log.debug("Request to save CenterImages : {}", centerImages);
-        return centerImagesRepository.save(centerImages);
+        boolean isNew = centerImages.getId() == null;
+        return entityBlobService
+            .save(centerImages, IMAGE, centerImagesRepository::save)
+            .doOnNext(result -> {
+                if (isNew) {
+                    entityCountCache.recordCreated(CenterImages.class);
+                }
+            });
+    }
+
+    /**
+     * Create a centerImages, streaming its image to the storage as it is uploaded.
+     *
+     * @param centerImages the entity to create, without image.
+     * @param imageContentType the media type of the image.
+     * @param image the image, whose chunks are released once stored.
+     * @return the persisted entity, or a {@link bd.gov.banbeis.service.blob.ContentRejectedException} if the image
+     * exceeds the upload limits.
+     */
+    public Mono<CenterImages> upload(CenterImages centerImages, String imageContentType, Flux<DataBuffer> image) {
+        log.debug("Request to upload CenterImages : {}", centerImages);
+        centerImages.setImage(null);
+        centerImages.setImageContentType(imageContentType);
+        return entityBlobService
+            .upload(centerImages, IMAGE, image, centerImagesRepository::save)
+            .doOnNext(result -> entityCountCache.recordCreated(CenterImages.class));
     }
 
     /**
@@ -64,27 +125,51 @@ public class CenterImagesService {
 
                 return existingCenterImages;
             })
-            .flatMap(centerImagesRepository::save);
+            .flatMap(existingCenterImages ->
+                existingCenterImages.getImage() != null
+                    ? entityBlobService.save(existingCenterImages, IMAGE, centerImagesRepository::save)
+                    : centerImagesRepository.save(existingCenterImages)
+            )
+            .flatMap(result -> entityBlobService.loadContent(result, IMAGE));
     }
 
     /**
      * Get all the centerImages.
      *
      * @param pageable the pagination information.
+     * @param includeContent whether to load the images, or only their metadata.
      * @return the list of entities.
      */
-    public Flux<CenterImages> findAll(Pageable pageable) {
+    public Flux<CenterImages> findAll(Pageable pageable, boolean includeContent) {
         log.debug("Request to get all CenterImages");
-        return centerImagesRepository.findAllBy(pageable);
+        Flux<CenterImages> centerImagesList = dbRefBatchResolver.find(new Query().with(pageable), CenterImages.class);
+        return includeContent
+            ? centerImagesList.flatMapSequential(centerImages -> entityBlobService.loadContent(centerImages, IMAGE))
+            : centerImagesList;
+    }
+
+    /**
+     * Stream all the centerImages, with their references resolved in batches.
+     *
+     * @param includeContent whether to load the images, or only their metadata.
+     * @return the entities, as they are read from the database.
+     */
+    public Flux<CenterImages> streamAll(boolean includeContent) {
+        log.debug("Request to stream all CenterImages");
+        Flux<CenterImages> centerImagesList = dbRefBatchResolver.stream(new Query(), CenterImages.class);
+        return includeContent
+            ? centerImagesList.flatMapSequential(centerImages -> entityBlobService.loadContent(centerImages, IMAGE))
+            : centerImagesList;
     }
 
     /**
      * Returns the number of centerImages available.
+     * The count is estimated from the collection metadata and cached, see {@link EntityCountCache}.
      * @return the number of entities in the database.
      *
      */
     public Mono<Long> countAll() {
-        return centerImagesRepository.count();
+        return entityCountCache.count(CenterImages.class);
     }
 
     /**
@@ -95,7 +180,20 @@ public class CenterImagesService {
      */
     public Mono<CenterImages> findOne(String id) {
         log.debug("Request to get CenterImages : {}", id);
-        return centerImagesRepository.findById(id);
+        return dbRefBatchResolver
+            .findById(id, CenterImages.class)
+            .flatMap(centerImages -> entityBlobService.loadContent(centerImages, IMAGE));
+    }
+
+    /**
+     * Get the image of one centerImages by id, to be streamed.
+     *
+     * @param id the id of the entity.
+     * @param size the size of the image, or {@code null} for its original size.
+     * @return the image, or empty if the entity does not exist or has no image.
+     */
+    public Mono<BlobContent> findImageContent(String id, ImageRendition size) {
+        return entityBlobService.findContent(id, IMAGE, size);
     }
 
     /**
@@ -106,6 +204,8 @@ public class CenterImagesService {
      */
     public Mono<Void> delete(String id) {
         log.debug("Request to delete CenterImages : {}", id);
-        return centerImagesRepository.deleteById(id);
+        return entityBlobService
+            .delete(id, IMAGE, centerImagesRepository::deleteById)
+            .doOnSuccess(result -> entityCountCache.invalidate(CenterImages.class));
     }
 }
@@ -2,9 +2,22 @@ package bd.gov.banbeis.service;
 
 import bd.gov.banbeis.domain.Center;
 import bd.gov.banbeis.repository.CenterRepository;
+import bd.gov.banbeis.repository.DBRefBatchResolver;
+import bd.gov.banbeis.service.blob.BlobContent;
+import bd.gov.banbeis.service.blob.BlobField;
+import bd.gov.banbeis.service.blob.EntityBlobService;
+import bd.gov.banbeis.service.dto.NearbyCenterDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -15,12 +28,58 @@ import reactor.core.publisher.Mono;
 @Service
 public class CenterService {
 
+    public static final BlobField<Center> IMAGE = new BlobField<>(
+        Center.class,
+        "image",
+        Center::getId,
+        Center::getImage,
+        Center::setImage,
+        Center::getImageContentType,
+        Center::getImageBlobId,
+        Center::setImageBlobId,
+        Center::setImageSize
+    );
+
     private final Logger log = LoggerFactory.getLogger(CenterService.class);
 
     private final CenterRepository centerRepository;
 
-    public CenterService(CenterRepository centerRepository) {
+    private final EntityCountCache entityCountCache;
+
+    private final DBRefBatchResolver dbRefBatchResolver;
+
+    private final EntityBlobService entityBlobService;
+
+    private final SerializedPostCache serializedPostCache;
+
+    private final TrendingPostService trendingPostService;
+
+    private final DistrictService districtService;
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    public CenterService(
+        CenterRepository centerRepository,
+        EntityCountCache entityCountCache,
+        DBRefBatchResolver dbRefBatchResolver,
+        SerializedPostCache serializedPostCache,
+        TrendingPostService trendingPostService,
+        EntityBlobService entityBlobService,
+        DistrictService districtService,
+        ReactiveMongoOperations mongoOperations,
+        AutocompleteIndex autocompleteIndex
+    ) {
         this.centerRepository = centerRepository;
+        this.entityCountCache = entityCountCache;
+        this.dbRefBatchResolver = dbRefBatchResolver;
+        this.serializedPostCache = serializedPostCache;
+        this.trendingPostService = trendingPostService;
+        this.entityBlobService = entityBlobService;
+        this.districtService = districtService;
+        this.mongoOperations = mongoOperations;
+        this.autocompleteIndex = autocompleteIndex;
     }
 
     /**
@@ -31,7 +90,18 @@ public class CenterService {
      */
     public Mono<Center> save(Center center) {
         log.debug("Request to save Center : {}", center);
-        return centerRepository.save(center);
+        boolean isNew = center.getId() == null;
+        return locate(center)
+            .flatMap(located -> entityBlobService.save(located, IMAGE, centerRepository::save))
+            .doOnNext(result -> {
+                autocompleteIndex.index(AutocompleteIndex.Type.CENTER, result.getId(), result.getName(), null);
+                if (isNew) {
+                    entityCountCache.recordCreated(Center.class);
+                }
+                // Posts embed the center summary
+                serializedPostCache.invalidateAll();
+                trendingPostService.updateAll();
+            });
     }
 
     /**
@@ -58,30 +128,86 @@ public class CenterService {
                 if (center.getImageContentType() != null) {
                     existingCenter.setImageContentType(center.getImageContentType());
                 }
+                if (center.getLocation() != null) {
+                    existingCenter.setLocation(center.getLocation());
+                }
 
                 return existingCenter;
             })
-            .flatMap(centerRepository::save);
+            .flatMap(this::locate)
+            .flatMap(existingCenter ->
+                existingCenter.getImage() != null
+                    ? entityBlobService.save(existingCenter, IMAGE, centerRepository::save)
+                    : centerRepository.save(existingCenter)
+            )
+            .flatMap(result -> entityBlobService.loadContent(result, IMAGE))
+            .doOnNext(result -> {
+                autocompleteIndex.index(AutocompleteIndex.Type.CENTER, result.getId(), result.getName(), null);
+                serializedPostCache.invalidateAll();
+                trendingPostService.updateAll();
+            });
     }
 
     /**
      * Get all the centers.
      *
      * @param pageable the pagination information.
+     * @param includeContent whether to load the images, or only their metadata.
      * @return the list of entities.
      */
-    public Flux<Center> findAll(Pageable pageable) {
+    public Flux<Center> findAll(Pageable pageable, boolean includeContent) {
         log.debug("Request to get all Centers");
-        return centerRepository.findAllBy(pageable);
+        Flux<Center> centers = dbRefBatchResolver.find(new Query().with(pageable), Center.class);
+        return includeContent ? centers.flatMapSequential(center -> entityBlobService.loadContent(center, IMAGE)) : centers;
+    }
+
+    /**
+     * Stream all the centers, with their references resolved in batches.
+     *
+     * @param includeContent whether to load the images, or only their metadata.
+     * @return the entities, as they are read from the database.
+     */
+    public Flux<Center> streamAll(boolean includeContent) {
+        log.debug("Request to stream all Centers");
+        Flux<Center> centers = dbRefBatchResolver.stream(new Query(), Center.class);
+        return includeContent ? centers.flatMapSequential(center -> entityBlobService.loadContent(center, IMAGE)) : centers;
+    }
+
+    /**
+     * Get the centers near a point, nearest first.
+     *
+     * @param point the point.
+     * @param radius the maximum distance to the point.
+     * @param pageable the pagination information, the sort is ignored.
+     * @return the centers with their distance to the point, in kilometers.
+     */
+    public Flux<NearbyCenterDTO> findNear(GeoJsonPoint point, Distance radius, Pageable pageable) {
+        log.debug("Request to get the Centers near : {}, within {}", point, radius);
+        NearQuery near = NearQuery.near(point, Metrics.KILOMETERS).maxDistance(radius).spherical(true).with(pageable);
+        return dbRefBatchResolver
+            .findNear(near, Center.class)
+            .map(result -> new NearbyCenterDTO(result.getContent(), result.getDistance().in(Metrics.KILOMETERS).getValue()));
+    }
+
+    /**
+     * Count the centers near a point.
+     *
+     * @param point the point.
+     * @param radius the maximum distance to the point.
+     * @return the number of centers within the radius.
+     */
+    public Mono<Long> countNear(GeoJsonPoint point, Distance radius) {
+        return mongoOperations.count(new Query(Criteria.where("location").withinSphere(new Circle(point, radius))), Center.class);
     }
 
     /**
      * Returns the number of centers available.
+     * The count is estimated from the collection metadata and cached, see {@link EntityCountCache}.
      * @return the number of entities in the database.
      *
      */
     public Mono<Long> countAll() {
-        return centerRepository.count();
+        return entityCountCache.count(Center.class);
     }
 
     /**
@@ -92,7 +218,36 @@ public class CenterService {
      */
     public Mono<Center> findOne(String id) {
         log.debug("Request to get Center : {}", id);
-        return centerRepository.findById(id);
+        return dbRefBatchResolver
+            .findById(id, Center.class)
+            .flatMap(center -> entityBlobService.loadContent(center, IMAGE));
+    }
+
+    /**
+     * Get the image of one center by id, to be streamed.
+     *
+     * @param id the id of the entity.
+     * @return the image, or empty if the entity does not exist or has no image.
+     */
+    public Mono<BlobContent> findImageContent(String id) {
+        return entityBlobService.findContent(id, IMAGE, null);
+    }
+
+    /**
+     * Default the location of a center to the location of its district, when it has none.
+     *
+     * @param center the center to locate.
+     * @return the center.
+     */
+    private Mono<Center> locate(Center center) {
+        if (center.getLocation() != null || center.getDistrict() == null || center.getDistrict().getId() == null) {
+            return Mono.just(center);
+        }
+        return districtService
+            .findOne(center.getDistrict().getId())
+            .flatMap(district -> Mono.justOrEmpty(district.toLocation()))
+            .doOnNext(center::setLocation)
+            .thenReturn(center);
     }
 
     /**
@@ -103,6 +258,13 @@ public class CenterService {
      */
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Center : {}", id);
-        return centerRepository.deleteById(id);
+        return entityBlobService
+            .delete(id, IMAGE, centerRepository::deleteById)
+            .doOnSuccess(result -> {
+                entityCountCache.invalidate(Center.class);
+                autocompleteIndex.remove(AutocompleteIndex.Type.CENTER, id);
+                serializedPostCache.invalidateAll();
+                trendingPostService.updateAll();
+            });
     }
 }
@@ -19,8 +19,18 @@ public class DesignationService {
 
     private final DesignationRepository designationRepository;
 
-    public DesignationService(DesignationRepository designationRepository) {
+    private final EntityCountCache entityCountCache;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    public DesignationService(
+        DesignationRepository designationRepository,
+        EntityCountCache entityCountCache,
+        ReferenceDataCache referenceDataCache
+    ) {
         this.designationRepository = designationRepository;
+        this.entityCountCache = entityCountCache;
+        this.referenceDataCache = referenceDataCache;
     }
 
     /**
@@ -31,7 +41,15 @@ public class DesignationService {
      */
     public Mono<Designation> save(Designation designation) {
         log.debug("Request to save Designation : {}", designation);
-        return designationRepository.save(designation);
+        boolean isNew = designation.getId() == null;
+        return designationRepository
+            .save(designation)
+            .doOnNext(result -> {
+                referenceDataCache.saved(result);
+                if (isNew) {
+                    entityCountCache.recordCreated(Designation.class);
+                }
+            });
     }
 
     /**
@@ -58,7 +76,8 @@ public class DesignationService {
 
                 return existingDesignation;
             })
-            .flatMap(designationRepository::save);
+            .flatMap(designationRepository::save)
+            .doOnNext(referenceDataCache::saved);
     }
 
     /**
@@ -69,16 +88,38 @@ public class DesignationService {
      */
     public Flux<Designation> findAll(Pageable pageable) {
         log.debug("Request to get all Designations");
-        return designationRepository.findAllBy(pageable);
+        return referenceDataCache.findAll(Designation.class, pageable, () -> designationRepository.findAllBy(pageable));
+    }
+
+    /**
+     * Get all the designations, serialized as JSON.
+     *
+     * @param pageable the pagination information.
+     * @return the JSON array of the entities.
+     */
+    public Mono<byte[]> findAllAsJson(Pageable pageable) {
+        log.debug("Request to get all Designations as JSON");
+        return referenceDataCache.findAllAsJson(Designation.class, pageable, () -> designationRepository.findAllBy(pageable));
+    }
+
+    /**
+     * Stream all the designations.
+     *
+     * @return the entities, from memory once loaded, see {@link ReferenceDataCache}.
+     */
+    public Flux<Designation> streamAll() {
+        log.debug("Request to stream all Designations");
+        return referenceDataCache.streamAll(Designation.class, designationRepository::findAll);
     }
 
     /**
      * Returns the number of designations available.
+     * The count is taken from memory once the entities are loaded, see {@link ReferenceDataCache}.
      * @return the number of entities in the database.
      *
      */
     public Mono<Long> countAll() {
-        return designationRepository.count();
+        return referenceDataCache.count(Designation.class, () -> entityCountCache.count(Designation.class));
     }
 
     /**
@@ -89,7 +130,7 @@ public class DesignationService {
      */
     public Mono<Designation> findOne(String id) {
         log.debug("Request to get Designation : {}", id);
-        return designationRepository.findById(id);
+        return referenceDataCache.findOne(Designation.class, id, () -> designationRepository.findById(id));
     }
 
     /**
@@ -100,6 +141,11 @@ public class DesignationService {
      */
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Designation : {}", id);
-        return designationRepository.deleteById(id);
+        return designationRepository
+            .deleteById(id)
+            .doOnSuccess(result -> {
+                referenceDataCache.deleted(Designation.class, id);
+                entityCountCache.invalidate(Designation.class);
+            });
     }
 }
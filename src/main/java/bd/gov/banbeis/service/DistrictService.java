@@ -19,8 +19,22 @@ public class DistrictService {
 
     private final DistrictRepository districtRepository;
 
-    public DistrictService(DistrictRepository districtRepository) {
+    private final EntityCountCache entityCountCache;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    public DistrictService(
+        DistrictRepository districtRepository,
+        EntityCountCache entityCountCache,
+        ReferenceDataCache referenceDataCache,
+        AutocompleteIndex autocompleteIndex
+    ) {
         this.districtRepository = districtRepository;
+        this.entityCountCache = entityCountCache;
+        this.referenceDataCache = referenceDataCache;
+        this.autocompleteIndex = autocompleteIndex;
     }
 
     /**
@@ -31,7 +45,16 @@ public class DistrictService {
      */
     public Mono<District> save(District district) {
         log.debug("Request to save District : {}", district);
-        return districtRepository.save(district);
+        boolean isNew = district.getId() == null;
+        return districtRepository
+            .save(district)
+            .doOnNext(result -> {
+                referenceDataCache.saved(result);
+                autocompleteIndex.index(AutocompleteIndex.Type.DISTRICT, result.getId(), result.getName(), result.getBnName());
+                if (isNew) {
+                    entityCountCache.recordCreated(District.class);
+                }
+            });
     }
 
     /**
@@ -67,7 +90,11 @@ public class DistrictService {
 
                 return existingDistrict;
             })
-            .flatMap(districtRepository::save);
+            .flatMap(districtRepository::save)
+            .doOnNext(result -> {
+                referenceDataCache.saved(result);
+                autocompleteIndex.index(AutocompleteIndex.Type.DISTRICT, result.getId(), result.getName(), result.getBnName());
+            });
     }
 
     /**
@@ -78,16 +105,49 @@ public class DistrictService {
      */
     public Flux<District> findAll(Pageable pageable) {
         log.debug("Request to get all Districts");
-        return districtRepository.findAllBy(pageable);
+        return referenceDataCache.findAll(District.class, pageable, () -> districtRepository.findAllBy(pageable));
+    }
+
+    /**
+     * Get all the districts, serialized as JSON.
+     *
+     * @param pageable the pagination information.
+     * @return the JSON array of the entities.
+     */
+    public Mono<byte[]> findAllAsJson(Pageable pageable) {
+        log.debug("Request to get all Districts as JSON");
+        return referenceDataCache.findAllAsJson(District.class, pageable, () -> districtRepository.findAllBy(pageable));
+    }
+
+    /**
+     * Get the districts of a division.
+     *
+     * @param divisionId the id of the division.
+     * @return the districts of the division.
+     */
+    public Flux<District> findAllByDivision(String divisionId) {
+        log.debug("Request to get the Districts of Division : {}", divisionId);
+        return referenceDataCache.findChildren(District.class, divisionId, () -> districtRepository.findAllByDivisionId(divisionId));
+    }
+
+    /**
+     * Stream all the districts.
+     *
+     * @return the entities, from memory once loaded, see {@link ReferenceDataCache}.
+     */
+    public Flux<District> streamAll() {
+        log.debug("Request to stream all Districts");
+        return referenceDataCache.streamAll(District.class, districtRepository::findAll);
     }
 
     /**
      * Returns the number of districts available.
+     * The count is taken from memory once the entities are loaded, see {@link ReferenceDataCache}.
      * @return the number of entities in the database.
      *
      */
     public Mono<Long> countAll() {
-        return districtRepository.count();
+        return referenceDataCache.count(District.class, () -> entityCountCache.count(District.class));
     }
 
     /**
@@ -98,7 +158,7 @@ public class DistrictService {
      */
     public Mono<District> findOne(String id) {
         log.debug("Request to get District : {}", id);
-        return districtRepository.findById(id);
+        return referenceDataCache.findOne(District.class, id, () -> districtRepository.findById(id));
     }
 
     /**
@@ -109,6 +169,12 @@ public class DistrictService {
      */
     public Mono<Void> delete(String id) {
         log.debug("Request to delete District : {}", id);
-        return districtRepository.deleteById(id);
+        return districtRepository
+            .deleteById(id)
+            .doOnSuccess(result -> {
+                referenceDataCache.deleted(District.class, id);
+                autocompleteIndex.remove(AutocompleteIndex.Type.DISTRICT, id);
+                entityCountCache.invalidate(District.class);
+            });
     }
 }
@@ -19,8 +19,22 @@ public class DivisionService {
 
     private final DivisionRepository divisionRepository;
 
-    public DivisionService(DivisionRepository divisionRepository) {
+    private final EntityCountCache entityCountCache;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    public DivisionService(
+        DivisionRepository divisionRepository,
+        EntityCountCache entityCountCache,
+        ReferenceDataCache referenceDataCache,
+        AutocompleteIndex autocompleteIndex
+    ) {
         this.divisionRepository = divisionRepository;
+        this.entityCountCache = entityCountCache;
+        this.referenceDataCache = referenceDataCache;
+        this.autocompleteIndex = autocompleteIndex;
     }
 
     /**
@@ -31,7 +45,16 @@ public class DivisionService {
      */
     public Mono<Division> save(Division division) {
         log.debug("Request to save Division : {}", division);
-        return divisionRepository.save(division);
+        boolean isNew = division.getId() == null;
+        return divisionRepository
+            .save(division)
+            .doOnNext(result -> {
+                referenceDataCache.saved(result);
+                autocompleteIndex.index(AutocompleteIndex.Type.DIVISION, result.getId(), result.getName(), result.getBnName());
+                if (isNew) {
+                    entityCountCache.recordCreated(Division.class);
+                }
+            });
     }
 
     /**
@@ -58,7 +81,11 @@ public class DivisionService {
 
                 return existingDivision;
             })
-            .flatMap(divisionRepository::save);
+            .flatMap(divisionRepository::save)
+            .doOnNext(result -> {
+                referenceDataCache.saved(result);
+                autocompleteIndex.index(AutocompleteIndex.Type.DIVISION, result.getId(), result.getName(), result.getBnName());
+            });
     }
 
     /**
@@ -69,16 +96,38 @@ public class DivisionService {
      */
     public Flux<Division> findAll(Pageable pageable) {
         log.debug("Request to get all Divisions");
-        return divisionRepository.findAllBy(pageable);
+        return referenceDataCache.findAll(Division.class, pageable, () -> divisionRepository.findAllBy(pageable));
+    }
+
+    /**
+     * Get all the divisions, serialized as JSON.
+     *
+     * @param pageable the pagination information.
+     * @return the JSON array of the entities.
+     */
+    public Mono<byte[]> findAllAsJson(Pageable pageable) {
+        log.debug("Request to get all Divisions as JSON");
+        return referenceDataCache.findAllAsJson(Division.class, pageable, () -> divisionRepository.findAllBy(pageable));
+    }
+
+    /**
+     * Stream all the divisions.
+     *
+     * @return the entities, from memory once loaded, see {@link ReferenceDataCache}.
+     */
+    public Flux<Division> streamAll() {
+        log.debug("Request to stream all Divisions");
+        return referenceDataCache.streamAll(Division.class, divisionRepository::findAll);
     }
 
     /**
      * Returns the number of divisions available.
+     * The count is taken from memory once the entities are loaded, see {@link ReferenceDataCache}.
      * @return the number of entities in the database.
      *
      */
     public Mono<Long> countAll() {
-        return divisionRepository.count();
+        return referenceDataCache.count(Division.class, () -> entityCountCache.count(Division.class));
     }
 
     /**
@@ -89,7 +138,7 @@ public class DivisionService {
      */
     public Mono<Division> findOne(String id) {
         log.debug("Request to get Division : {}", id);
-        return divisionRepository.findById(id);
+        return referenceDataCache.findOne(Division.class, id, () -> divisionRepository.findById(id));
     }
 
     /**
@@ -100,6 +149,12 @@ public class DivisionService {
      */
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Division : {}", id);
-        return divisionRepository.deleteById(id);
+        return divisionRepository
+            .deleteById(id)
+            .doOnSuccess(result -> {
+                referenceDataCache.deleted(Division.class, id);
+                autocompleteIndex.remove(AutocompleteIndex.Type.DIVISION, id);
+                entityCountCache.invalidate(Division.class);
+            });
     }
 }
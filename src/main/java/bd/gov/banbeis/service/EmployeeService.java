@@ -1,10 +1,15 @@
 package bd.gov.banbeis.service;
 
 import bd.gov.banbeis.domain.Employee;
+import bd.gov.banbeis.repository.DBRefBatchResolver;
 import bd.gov.banbeis.repository.EmployeeRepository;
+import bd.gov.banbeis.service.blob.BlobContent;
+import bd.gov.banbeis.service.blob.BlobField;
+import bd.gov.banbeis.service.blob.EntityBlobService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -15,12 +20,46 @@ import reactor.core.publisher.Mono;
 @Service
 public class EmployeeService {
 
+    public static final BlobField<Employee> PHOTO = new BlobField<>(
+        Employee.class,
+        "photo",
+        Employee::getId,
+        Employee::getPhoto,
+        Employee::setPhoto,
+        Employee::getPhotoContentType,
+        Employee::getPhotoBlobId,
+        Employee::setPhotoBlobId,
+        Employee::setPhotoSize
+    );
+
     private final Logger log = LoggerFactory.getLogger(EmployeeService.class);
 
     private final EmployeeRepository employeeRepository;
 
-    public EmployeeService(EmployeeRepository employeeRepository) {
+    private final EntityCountCache entityCountCache;
+
+    private final DBRefBatchResolver dbRefBatchResolver;
+
+    private final EntityBlobService entityBlobService;
+
+    private final SerializedPostCache serializedPostCache;
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    public EmployeeService(
+        EmployeeRepository employeeRepository,
+        EntityCountCache entityCountCache,
+        DBRefBatchResolver dbRefBatchResolver,
+        SerializedPostCache serializedPostCache,
+        EntityBlobService entityBlobService,
+        AutocompleteIndex autocompleteIndex
+    ) {
         this.employeeRepository = employeeRepository;
+        this.entityCountCache = entityCountCache;
+        this.dbRefBatchResolver = dbRefBatchResolver;
+        this.serializedPostCache = serializedPostCache;
+        this.entityBlobService = entityBlobService;
+        this.autocompleteIndex = autocompleteIndex;
     }
 
     /**
@@ -31,7 +70,17 @@ public class EmployeeService {
      */
     public Mono<Employee> save(Employee employee) {
         log.debug("Request to save Employee : {}", employee);
-        return employeeRepository.save(employee);
+        boolean isNew = employee.getId() == null;
+        return entityBlobService
+            .save(employee, PHOTO, employeeRepository::save)
+            .doOnNext(result -> {
+                autocompleteIndex.index(AutocompleteIndex.Type.EMPLOYEE, result.getId(), result.getFullName(), result.getBnFullName());
+                if (isNew) {
+                    entityCountCache.recordCreated(Employee.class);
+                }
+                // Posts embed the employee summary
+                serializedPostCache.invalidateAll();
+            });
     }
 
     /**
@@ -67,27 +116,51 @@ public class EmployeeService {
 
                 return existingEmployee;
             })
-            .flatMap(employeeRepository::save);
+            .flatMap(existingEmployee ->
+                existingEmployee.getPhoto() != null
+                    ? entityBlobService.save(existingEmployee, PHOTO, employeeRepository::save)
+                    : employeeRepository.save(existingEmployee)
+            )
+            .flatMap(result -> entityBlobService.loadContent(result, PHOTO))
+            .doOnNext(result -> {
+                autocompleteIndex.index(AutocompleteIndex.Type.EMPLOYEE, result.getId(), result.getFullName(), result.getBnFullName());
+                serializedPostCache.invalidateAll();
+            });
     }
 
     /**
      * Get all the employees.
      *
      * @param pageable the pagination information.
+     * @param includeContent whether to load the photos, or only their metadata.
      * @return the list of entities.
      */
-    public Flux<Employee> findAll(Pageable pageable) {
+    public Flux<Employee> findAll(Pageable pageable, boolean includeContent) {
         log.debug("Request to get all Employees");
-        return employeeRepository.findAllBy(pageable);
+        Flux<Employee> employees = dbRefBatchResolver.find(new Query().with(pageable), Employee.class);
+        return includeContent ? employees.flatMapSequential(employee -> entityBlobService.loadContent(employee, PHOTO)) : employees;
+    }
+
+    /**
+     * Stream all the employees, with their references resolved in batches.
+     *
+     * @param includeContent whether to load the photos, or only their metadata.
+     * @return the entities, as they are read from the database.
+     */
+    public Flux<Employee> streamAll(boolean includeContent) {
+        log.debug("Request to stream all Employees");
+        Flux<Employee> employees = dbRefBatchResolver.stream(new Query(), Employee.class);
+        return includeContent ? employees.flatMapSequential(employee -> entityBlobService.loadContent(employee, PHOTO)) : employees;
     }
 
     /**
      * Returns the number of employees available.
+     * The count is estimated from the collection metadata and cached, see {@link EntityCountCache}.
      * @return the number of entities in the database.
      *
      */
     public Mono<Long> countAll() {
-        return employeeRepository.count();
+        return entityCountCache.count(Employee.class);
     }
 
     /**
@@ -98,7 +171,19 @@ public class EmployeeService {
      */
     public Mono<Employee> findOne(String id) {
         log.debug("Request to get Employee : {}", id);
-        return employeeRepository.findById(id);
+        return dbRefBatchResolver
+            .findById(id, Employee.class)
+            .flatMap(employee -> entityBlobService.loadContent(employee, PHOTO));
+    }
+
+    /**
+     * Get the photo of one employee by id, to be streamed.
+     *
+     * @param id the id of the entity.
+     * @return the photo, or empty if the entity does not exist or has no photo.
+     */
+    public Mono<BlobContent> findPhotoContent(String id) {
+        return entityBlobService.findContent(id, PHOTO, null);
     }
 
     /**
@@ -109,6 +194,12 @@ public class EmployeeService {
      */
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Employee : {}", id);
-        return employeeRepository.deleteById(id);
+        return entityBlobService
+            .delete(id, PHOTO, employeeRepository::deleteById)
+            .doOnSuccess(result -> {
+                entityCountCache.invalidate(Employee.class);
+                autocompleteIndex.remove(AutocompleteIndex.Type.EMPLOYEE, id);
+                serializedPostCache.invalidateAll();
+            });
     }
 }
@@ -0,0 +1,131 @@
+package bd.gov.banbeis.service;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches the number of documents of each entity collection, so paginated list endpoints do not pay a count
+ * round trip on every page.
+ * <p>
+ * Counts are loaded with {@code estimatedDocumentCount}, which reads the collection metadata instead of scanning,
+ * and are adjusted by the entity services when they create or delete documents. Entries expire after
+ * {@code application.count-cache.time-to-live} to pick up writes made by other instances.
+ */
+@Service
+public class EntityCountCache {
+
+    public static final String METER_NAME = "entity.count.cache";
+    public static final String METER_DESCRIPTION = "Lookups of the cached entity collection counts.";
+    public static final String METER_COLLECTION_DIMENSION = "collection";
+    public static final String METER_RESULT_DIMENSION = "result";
+
+    private final Logger log = LoggerFactory.getLogger(EntityCountCache.class);
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final MeterRegistry meterRegistry;
+
+    private final long timeToLiveNanos;
+
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    public EntityCountCache(ReactiveMongoOperations mongoOperations, MeterRegistry meterRegistry, ApplicationProperties properties) {
+        this.mongoOperations = mongoOperations;
+        this.meterRegistry = meterRegistry;
+        Duration timeToLive = properties.getCountCache().getTimeToLive();
+        this.timeToLiveNanos = timeToLive == null ? 0 : timeToLive.toNanos();
+    }
+
+    /**
+     * Returns the (estimated) number of documents of the entity collection.
+     *
+     * @param entityClass the entity class.
+     * @return the number of entities in the database.
+     */
+    public Mono<Long> count(Class<?> entityClass) {
+        Slot slot = slot(entityClass);
+        Entry entry = slot.entry.get();
+        if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+            slot.hits.increment();
+            return Mono.just(entry.count);
+        }
+        slot.misses.increment();
+        return Mono.defer(() -> {
+            Entry expected = slot.entry.get();
+            return mongoOperations
+                .estimatedCount(slot.collectionName)
+                .doOnNext(count -> {
+                    if (timeToLiveNanos > 0) {
+                        slot.entry.compareAndSet(expected, new Entry(count, System.nanoTime() + timeToLiveNanos));
+                    }
+                });
+        });
+    }
+
+    /**
+     * Records that a document was inserted in the entity collection.
+     *
+     * @param entityClass the entity class.
+     */
+    public void recordCreated(Class<?> entityClass) {
+        slot(entityClass).entry.updateAndGet(entry -> entry == null ? null : new Entry(entry.count + 1, entry.expiresAt));
+    }
+
+    /**
+     * Drops the cached count of the entity collection, so the next lookup reloads it.
+     *
+     * @param entityClass the entity class.
+     */
+    public void invalidate(Class<?> entityClass) {
+        log.debug("Invalidating cached count of {}", entityClass.getSimpleName());
+        slot(entityClass).entry.set(null);
+    }
+
+    private Slot slot(Class<?> entityClass) {
+        return slots.computeIfAbsent(entityClass.getName(), name -> new Slot(mongoOperations.getCollectionName(entityClass)));
+    }
+
+    private Counter counter(String collectionName, String result) {
+        return Counter
+            .builder(METER_NAME)
+            .description(METER_DESCRIPTION)
+            .tag(METER_COLLECTION_DIMENSION, collectionName)
+            .tag(METER_RESULT_DIMENSION, result)
+            .register(meterRegistry);
+    }
+
+    private final class Slot {
+
+        private final String collectionName;
+        private final AtomicReference<Entry> entry = new AtomicReference<>();
+        private final Counter hits;
+        private final Counter misses;
+
+        private Slot(String collectionName) {
+            this.collectionName = collectionName;
+            this.hits = counter(collectionName, "hit");
+            this.misses = counter(collectionName, "miss");
+        }
+    }
+
+    private static final class Entry {
+
+        private final long count;
+        private final long expiresAt;
+
+        private Entry(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
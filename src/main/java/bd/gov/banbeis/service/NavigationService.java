@@ -19,8 +19,11 @@ public class NavigationService {
 
     private final NavigationRepository navigationRepository;
 
-    public NavigationService(NavigationRepository navigationRepository) {
+    private final EntityCountCache entityCountCache;
+
+    public NavigationService(NavigationRepository navigationRepository, EntityCountCache entityCountCache) {
         this.navigationRepository = navigationRepository;
+        this.entityCountCache = entityCountCache;
     }
 
     /**
@@ -31,7 +34,14 @@ public class NavigationService {
      */
     public Mono<Navigation> save(Navigation navigation) {
         log.debug("Request to save Navigation : {}", navigation);
-        return navigationRepository.save(navigation);
+        boolean isNew = navigation.getId() == null;
+        return navigationRepository
+            .save(navigation)
+            .doOnNext(result -> {
+                if (isNew) {
+                    entityCountCache.recordCreated(Navigation.class);
+                }
+            });
     }
 
     /**
@@ -78,13 +88,24 @@ public class NavigationService {
         return navigationRepository.findAllBy(pageable);
     }
 
+    /**
+     * Stream all the navigations.
+     *
+     * @return the entities, as they are read from the database.
+     */
+    public Flux<Navigation> streamAll() {
+        log.debug("Request to stream all Navigations");
+        return navigationRepository.findAll();
+    }
+
     /**
      * Returns the number of navigations available.
+     * The count is estimated from the collection metadata and cached, see {@link EntityCountCache}.
      * @return the number of entities in the database.
      *
      */
     public Mono<Long> countAll() {
-        return navigationRepository.count();
+        return entityCountCache.count(Navigation.class);
     }
 
     /**
@@ -106,6 +127,6 @@ public class NavigationService {
      */
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Navigation : {}", id);
-        return navigationRepository.deleteById(id);
+        return navigationRepository.deleteById(id).doOnSuccess(result -> entityCountCache.invalidate(Navigation.class));
     }
 }
@@ -1,10 +1,12 @@
 package bd.gov.banbeis.service;
 
 import bd.gov.banbeis.domain.PostComment;
+import bd.gov.banbeis.repository.DBRefBatchResolver;
 import bd.gov.banbeis.repository.PostCommentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -19,8 +21,22 @@ public class PostCommentService {
 
     private final PostCommentRepository postCommentRepository;
 
-    public PostCommentService(PostCommentRepository postCommentRepository) {
+    private final EntityCountCache entityCountCache;
+
+    private final DBRefBatchResolver dbRefBatchResolver;
+
+    private final TrendingPostService trendingPostService;
+
+    public PostCommentService(
+        PostCommentRepository postCommentRepository,
+        EntityCountCache entityCountCache,
+        DBRefBatchResolver dbRefBatchResolver,
+        TrendingPostService trendingPostService
+    ) {
         this.postCommentRepository = postCommentRepository;
+        this.entityCountCache = entityCountCache;
+        this.dbRefBatchResolver = dbRefBatchResolver;
+        this.trendingPostService = trendingPostService;
     }
 
     /**
@@ -31,7 +47,17 @@ public class PostCommentService {
      */
     public Mono<PostComment> save(PostComment postComment) {
         log.debug("Request to save PostComment : {}", postComment);
-        return postCommentRepository.save(postComment);
+        boolean isNew = postComment.getId() == null;
+        return postCommentRepository
+            .save(postComment)
+            .doOnNext(result -> {
+                if (isNew) {
+                    entityCountCache.recordCreated(PostComment.class);
+                    if (result.getPost() != null) {
+                        trendingPostService.recordComment(result.getPost().getId());
+                    }
+                }
+            });
     }
 
     /**
@@ -72,16 +98,27 @@ public class PostCommentService {
      */
     public Flux<PostComment> findAll(Pageable pageable) {
         log.debug("Request to get all PostComments");
-        return postCommentRepository.findAllBy(pageable);
+        return dbRefBatchResolver.find(new Query().with(pageable), PostComment.class);
+    }
+
+    /**
+     * Stream all the postComments, with their references resolved in batches.
+     *
+     * @return the entities, as they are read from the database.
+     */
+    public Flux<PostComment> streamAll() {
+        log.debug("Request to stream all PostComments");
+        return dbRefBatchResolver.stream(new Query(), PostComment.class);
     }
 
     /**
      * Returns the number of postComments available.
+     * The count is estimated from the collection metadata and cached, see {@link EntityCountCache}.
      * @return the number of entities in the database.
      *
      */
     public Mono<Long> countAll() {
-        return postCommentRepository.count();
+        return entityCountCache.count(PostComment.class);
     }
 
     /**
@@ -92,7 +129,7 @@ public class PostCommentService {
      */
     public Mono<PostComment> findOne(String id) {
         log.debug("Request to get PostComment : {}", id);
-        return postCommentRepository.findById(id);
+        return dbRefBatchResolver.findById(id, PostComment.class);
     }
 
     /**
@@ -103,6 +140,6 @@ public class PostCommentService {
      */
     public Mono<Void> delete(String id) {
         log.debug("Request to delete PostComment : {}", id);
-        return postCommentRepository.deleteById(id);
+        return postCommentRepository.deleteById(id).doOnSuccess(result -> entityCountCache.invalidate(PostComment.class));
     }
 }
@@ -1,10 +1,29 @@
 package bd.gov.banbeis.service;
 
+import bd.gov.banbeis.domain.Post;
 import bd.gov.banbeis.domain.PostPhoto;
+import bd.gov.banbeis.repository.DBRefBatchResolver;
 import bd.gov.banbeis.repository.PostPhotoRepository;
+import bd.gov.banbeis.repository.PostRepository;
+import bd.gov.banbeis.service.blob.BlobContent;
+import bd.gov.banbeis.service.blob.BlobField;
+import bd.gov.banbeis.service.blob.EntityBlobService;
+import bd.gov.banbeis.service.blob.ImageRendition;
+import bd.gov.banbeis.service.blob.UploadResult;
+import bd.gov.banbeis.service.blob.UploadedFile;
+import java.time.Instant;
+import java.util.List;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -15,12 +34,56 @@ import reactor.core.publisher.Mono;
 @Service
 public class PostPhotoService {
 
+    public static final BlobField<PostPhoto> IMAGE = new BlobField<>(
+        PostPhoto.class,
+        "image",
+        PostPhoto::getId,
+        PostPhoto::getImage,
+        PostPhoto::setImage,
+        PostPhoto::getImageContentType,
+        PostPhoto::getImageBlobId,
+        PostPhoto::setImageBlobId,
+        PostPhoto::setImageSize
+    )
+        .renditions(PostPhoto::getImageRenditions, PostPhoto::setImageRenditions)
+        .dimensions(PostPhoto::setImageWidth, PostPhoto::setImageHeight)
+        .ingest();
+
+    /**
+     * The last sequence number given to a photo of each post, by post id.
+     */
+    private static final String SEQUENCE_COLLECTION = "post_photo_sequence";
+
+    private static final String LAST_SEQUENCE = "last";
+
     private final Logger log = LoggerFactory.getLogger(PostPhotoService.class);
 
     private final PostPhotoRepository postPhotoRepository;
 
-    public PostPhotoService(PostPhotoRepository postPhotoRepository) {
+    private final EntityCountCache entityCountCache;
+
+    private final DBRefBatchResolver dbRefBatchResolver;
+
+    private final EntityBlobService entityBlobService;
+
+    private final PostRepository postRepository;
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    public PostPhotoService(
+        PostPhotoRepository postPhotoRepository,
+        EntityCountCache entityCountCache,
+        DBRefBatchResolver dbRefBatchResolver,
+        EntityBlobService entityBlobService,
+        PostRepository postRepository,
+        ReactiveMongoOperations mongoOperations
+    ) {
         this.postPhotoRepository = postPhotoRepository;
+        this.entityCountCache = entityCountCache;
+        this.dbRefBatchResolver = dbRefBatchResolver;
+        this.entityBlobService = entityBlobService;
+        this.postRepository = postRepository;
+        this.mongoOperations = mongoOperations;
     }
 
     /**
@@ -31,7 +94,139 @@ public class PostPhotoService {
      */
     public Mono<PostPhoto> save(PostPhoto postPhoto) {
         log.debug("Request to save PostPhoto : {}", postPhoto);
-        return postPhotoRepository.save(postPhoto);
+        boolean isNew = postPhoto.getId() == null;
+        return (isNew ? numberInPost(postPhoto) : Mono.just(postPhoto))
+            .flatMap(toSave -> entityBlobService.save(toSave, IMAGE, postPhotoRepository::save))
+            .doOnNext(result -> {
+                if (isNew) {
+                    entityCountCache.recordCreated(PostPhoto.class);
+                }
+            });
+    }
+
+    /**
+     * Create a postPhoto, streaming its image to the storage as it is uploaded.
+     *
+     * @param postPhoto the entity to create, without image.
+     * @param imageContentType the media type of the image.
+     * @param image the image, whose chunks are released once stored.
+     * @return the persisted entity, or a {@link bd.gov.banbeis.service.blob.ContentRejectedException} if the image
+     * exceeds the upload limits.
+     */
+    public Mono<PostPhoto> upload(PostPhoto postPhoto, String imageContentType, Flux<DataBuffer> image) {
+        log.debug("Request to upload PostPhoto : {}", postPhoto);
+        postPhoto.setImage(null);
+        postPhoto.setImageContentType(imageContentType);
+        return numberInPost(postPhoto)
+            .flatMap(toSave -> entityBlobService.upload(toSave, IMAGE, image, postPhotoRepository::save))
+            .doOnNext(result -> entityCountCache.recordCreated(PostPhoto.class));
+    }
+
+    /**
+     * Create the photos of a post from images uploaded together, in a single insert.
+     * <p>
+     * The photos are titled after the names of their files, and numbered after the last photo of the post, in the
+     * order of the images.
+     *
+     * @param postId the id of the post.
+     * @param images the images, whose contents are read in turn.
+     * @return the outcome of each image, in the order of the images, or empty if the post does not exist.
+     */
+    public Mono<List<UploadResult<PostPhoto>>> uploadAll(String postId, Flux<UploadedFile> images) {
+        log.debug("Request to upload PostPhotos of Post : {}", postId);
+        return postRepository
+            .findById(postId)
+            .flatMap(post -> {
+                Instant uploadedOn = Instant.now();
+                return entityBlobService.uploadAll(
+                    images,
+                    IMAGE,
+                    image ->
+                        new PostPhoto()
+                            .title(image.getFilename())
+                            .imageContentType(image.getContentType())
+                            .uploadedOn(uploadedOn)
+                            .post(post),
+                    postPhotos ->
+                        reserveSequences(post, postPhotos.size())
+                            .flatMapMany(first -> {
+                                for (int i = 0; i < postPhotos.size(); i++) {
+                                    postPhotos.get(i).setSequence(first + i);
+                                }
+                                return postPhotoRepository.insert(postPhotos);
+                            })
+                            .doOnNext(result -> entityCountCache.recordCreated(PostPhoto.class))
+                );
+            });
+    }
+
+    /**
+     * Number a new photo of a post after the last photo of the post, unless it already has a sequence number, which is
+     * then recorded so that the photos numbered later come after it.
+     */
+    private Mono<PostPhoto> numberInPost(PostPhoto postPhoto) {
+        Post post = postPhoto.getPost();
+        if (post == null || post.getId() == null) {
+            return Mono.just(postPhoto);
+        }
+        if (postPhoto.getSequence() != null) {
+            return startSequence(post)
+                .then(updateSequence(post, new Update().max(LAST_SEQUENCE, postPhoto.getSequence())))
+                .thenReturn(postPhoto);
+        }
+        return reserveSequences(post, 1).map(postPhoto::sequence);
+    }
+
+    /**
+     * Reserve consecutive sequence numbers for new photos of a post, with an atomic increment of the last sequence number
+     * of the post, so that concurrent uploads to the same post never share a number.
+     *
+     * @return the first reserved sequence number.
+     */
+    private Mono<Integer> reserveSequences(Post post, int count) {
+        Update increment = new Update().inc(LAST_SEQUENCE, count);
+        return updateSequence(post, increment)
+            .switchIfEmpty(Mono.defer(() -> startSequence(post).then(updateSequence(post, increment))))
+            .map(last -> last - count + 1);
+    }
+
+    /**
+     * Start the last sequence number of a post at the highest number of its existing photos, if not started yet.
+     */
+    private Mono<Void> startSequence(Post post) {
+        return findLastSequence(post)
+            .flatMap(last ->
+                mongoOperations.upsert(
+                    new Query(Criteria.where("_id").is(post.getId())),
+                    new Update().max(LAST_SEQUENCE, last),
+                    SEQUENCE_COLLECTION
+                )
+            )
+            .then();
+    }
+
+    /**
+     * @return the last sequence number of the post once updated, or empty if it is not started.
+     */
+    private Mono<Integer> updateSequence(Post post, Update update) {
+        return mongoOperations
+            .findAndModify(
+                new Query(Criteria.where("_id").is(post.getId())),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Document.class,
+                SEQUENCE_COLLECTION
+            )
+            .map(sequence -> sequence.get(LAST_SEQUENCE, Number.class).intValue());
+    }
+
+    private Mono<Integer> findLastSequence(Post post) {
+        Query query = new Query(Criteria.where("post").is(post)).with(Sort.by(Sort.Direction.DESC, "sequence")).limit(1);
+        query.fields().include("sequence");
+        return mongoOperations
+            .findOne(query, PostPhoto.class)
+            .flatMap(postPhoto -> Mono.justOrEmpty(postPhoto.getSequence()))
+            .defaultIfEmpty(0);
     }
 
     /**
@@ -67,27 +262,47 @@ public class PostPhotoService {
 
                 return existingPostPhoto;
             })
-            .flatMap(postPhotoRepository::save);
+            .flatMap(existingPostPhoto ->
+                existingPostPhoto.getImage() != null
+                    ? entityBlobService.save(existingPostPhoto, IMAGE, postPhotoRepository::save)
+                    : postPhotoRepository.save(existingPostPhoto)
+            )
+            .flatMap(result -> entityBlobService.loadContent(result, IMAGE));
     }
 
     /**
      * Get all the postPhotos.
      *
      * @param pageable the pagination information.
+     * @param includeContent whether to load the images, or only their metadata.
      * @return the list of entities.
      */
-    public Flux<PostPhoto> findAll(Pageable pageable) {
+    public Flux<PostPhoto> findAll(Pageable pageable, boolean includeContent) {
         log.debug("Request to get all PostPhotos");
-        return postPhotoRepository.findAllBy(pageable);
+        Flux<PostPhoto> postPhotos = dbRefBatchResolver.find(new Query().with(pageable), PostPhoto.class);
+        return includeContent ? postPhotos.flatMapSequential(postPhoto -> entityBlobService.loadContent(postPhoto, IMAGE)) : postPhotos;
+    }
+
+    /**
+     * Stream all the postPhotos, with their references resolved in batches.
+     *
+     * @param includeContent whether to load the images, or only their metadata.
+     * @return the entities, as they are read from the database.
+     */
+    public Flux<PostPhoto> streamAll(boolean includeContent) {
+        log.debug("Request to stream all PostPhotos");
+        Flux<PostPhoto> postPhotos = dbRefBatchResolver.stream(new Query(), PostPhoto.class);
+        return includeContent ? postPhotos.flatMapSequential(postPhoto -> entityBlobService.loadContent(postPhoto, IMAGE)) : postPhotos;
     }
 
     /**
      * Returns the number of postPhotos available.
+     * The count is estimated from the collection metadata and cached, see {@link EntityCountCache}.
      * @return the number of entities in the database.
      *
      */
     public Mono<Long> countAll() {
-        return postPhotoRepository.count();
+        return entityCountCache.count(PostPhoto.class);
     }
 
     /**
@@ -98,7 +313,20 @@ public class PostPhotoService {
      */
     public Mono<PostPhoto> findOne(String id) {
         log.debug("Request to get PostPhoto : {}", id);
-        return postPhotoRepository.findById(id);
+        return dbRefBatchResolver
+            .findById(id, PostPhoto.class)
+            .flatMap(postPhoto -> entityBlobService.loadContent(postPhoto, IMAGE));
+    }
+
+    /**
+     * Get the image of one postPhoto by id, to be streamed.
+     *
+     * @param id the id of the entity.
+     * @param size the size of the image, or {@code null} for its original size.
+     * @return the image, or empty if the entity does not exist or has no image.
+     */
+    public Mono<BlobContent> findImageContent(String id, ImageRendition size) {
+        return entityBlobService.findContent(id, IMAGE, size);
     }
 
     /**
@@ -109,6 +337,8 @@ public class PostPhotoService {
      */
     public Mono<Void> delete(String id) {
         log.debug("Request to delete PostPhoto : {}", id);
-        return postPhotoRepository.deleteById(id);
+        return entityBlobService
+            .delete(id, IMAGE, postPhotoRepository::deleteById)
+            .doOnSuccess(result -> entityCountCache.invalidate(PostPhoto.class));
     }
 }
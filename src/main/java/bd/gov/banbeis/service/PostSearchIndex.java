@@ -0,0 +1,269 @@
+package bd.gov.banbeis.service;
+
+import bd.gov.banbeis.domain.Post;
+import bd.gov.banbeis.service.util.SearchTokenizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * In memory inverted index over the title and body of the {@link Post}s.
+ * <p>
+ * Terms come from {@link SearchTokenizer}, title terms weigh {@value #TITLE_WEIGHT} times body terms, and hits are
+ * ranked with BM25. The index is built by streaming the collection once the application is ready, then kept up to
+ * date by {@link PostService} on every write.
+ */
+@Service
+public class PostSearchIndex {
+
+    public static final String METER_NAME = "post.search";
+
+    static final int TITLE_WEIGHT = 3;
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private final Logger log = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final Timer searches;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Term to (post id to weighted term frequency).
+     */
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+
+    private final Map<String, IndexedPost> posts = new HashMap<>();
+
+    private long totalLength;
+
+    /**
+     * Ids written while the index is being rebuilt, the rebuild must not overwrite them with what it read before.
+     */
+    private final Set<String> writtenDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean rebuilding;
+
+    public PostSearchIndex(ReactiveMongoOperations mongoOperations, MeterRegistry meterRegistry) {
+        this.mongoOperations = mongoOperations;
+        this.searches = Timer.builder(METER_NAME).register(meterRegistry);
+    }
+
+    /**
+     * Rebuild the index once the application is ready, without delaying the startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild().subscribe(null, error -> log.error("Could not build the Post search index", error));
+    }
+
+    /**
+     * Index all the posts of the collection, streaming only their title and body.
+     *
+     * @return the number of indexed posts.
+     */
+    public Mono<Long> rebuild() {
+        Query query = new Query();
+        query.fields().include("title").include("body");
+        return Mono.defer(() -> {
+            rebuilding = true;
+            writtenDuringRebuild.clear();
+            return mongoOperations
+                .find(query, Document.class, mongoOperations.getCollectionName(Post.class))
+                .doOnNext(document -> put(document.get("_id").toString(), document.getString("title"), document.getString("body"), true))
+                .count()
+                .doOnNext(count -> log.info("Indexed {} Posts for search", count))
+                .doFinally(signal -> {
+                    rebuilding = false;
+                    writtenDuringRebuild.clear();
+                });
+        });
+    }
+
+    /**
+     * Add or replace a post in the index.
+     *
+     * @param post the post.
+     */
+    public void index(Post post) {
+        if (rebuilding) {
+            writtenDuringRebuild.add(post.getId());
+        }
+        put(post.getId(), post.getTitle(), post.getBody(), false);
+    }
+
+    /**
+     * Remove a post from the index.
+     *
+     * @param id the id of the post.
+     */
+    public void remove(String id) {
+        if (rebuilding) {
+            writtenDuringRebuild.add(id);
+        }
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search the posts matching any of the terms of a query, best ranked first.
+     *
+     * @param query the query.
+     * @param offset the number of best ranked hits to skip.
+     * @param limit the maximum number of hits to return.
+     * @return the hits.
+     */
+    public Hits search(String query, long offset, int limit) {
+        return searches.record(() -> {
+            Set<String> terms = new LinkedHashSet<>(SearchTokenizer.tokenize(query));
+            Map<String, Double> scores = new HashMap<>();
+            lock.readLock().lock();
+            try {
+                double averageLength = posts.isEmpty() ? 0 : (double) totalLength / posts.size();
+                for (String term : terms) {
+                    Map<String, Integer> termPostings = postings.get(term);
+                    if (termPostings == null) {
+                        continue;
+                    }
+                    double idf = Math.log(1 + (posts.size() - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                    termPostings.forEach((id, frequency) -> {
+                        double lengthRatio = posts.get(id).length / averageLength;
+                        double score = idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengthRatio));
+                        scores.merge(id, score, Double::sum);
+                    });
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return new Hits(scores.size(), top(scores, offset, limit));
+        });
+    }
+
+    private static List<String> top(Map<String, Double> scores, long offset, int limit) {
+        long size = Math.min(offset + limit, scores.size());
+        if (size <= offset) {
+            return Collections.emptyList();
+        }
+        Comparator<Map.Entry<String, Double>> ranking = Map.Entry
+            .<String, Double>comparingByValue()
+            .reversed()
+            .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<String, Double>> best = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<String, Double> score : scores.entrySet()) {
+            best.offer(score);
+            if (best.size() > size) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<String, Double>> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+        List<String> ids = new ArrayList<>(limit);
+        for (int i = (int) offset; i < ranked.size(); i++) {
+            ids.add(ranked.get(i).getKey());
+        }
+        return ids;
+    }
+
+    private void put(String id, String title, String body, boolean fromRebuild) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        SearchTokenizer.tokenize(title).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        SearchTokenizer.tokenize(body).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        lock.writeLock().lock();
+        try {
+            if (fromRebuild && writtenDuringRebuild.contains(id)) {
+                return;
+            }
+            unindex(id);
+            frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, frequency));
+            posts.put(id, new IndexedPost(frequencies.keySet().toArray(new String[0]), length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(String id) {
+        IndexedPost previous = posts.remove(id);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length;
+        for (String term : previous.terms) {
+            Map<String, Integer> termPostings = postings.get(term);
+            termPostings.remove(id);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static final class IndexedPost {
+
+        private final String[] terms;
+
+        private final int length;
+
+        private IndexedPost(String[] terms, int length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    /**
+     * A page of ranked search hits.
+     */
+    public static final class Hits {
+
+        private final long total;
+
+        private final List<String> ids;
+
+        Hits(long total, List<String> ids) {
+            this.total = total;
+            this.ids = ids;
+        }
+
+        /**
+         * @return the number of posts matching the query.
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * @return the ids of the posts of the page, best ranked first.
+         */
+        public List<String> getIds() {
+            return ids;
+        }
+    }
+}
@@ -1,10 +1,33 @@
 package bd.gov.banbeis.service;
 
 import bd.gov.banbeis.domain.Post;
+import bd.gov.banbeis.repository.DBRefBatchResolver;
 import bd.gov.banbeis.repository.PostRepository;
+import bd.gov.banbeis.service.dto.PostCursor;
+import bd.gov.banbeis.service.dto.PostSummaryDTO;
+import bd.gov.banbeis.service.util.ExcerptUtil;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.annotation.CreatedBy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -17,10 +40,59 @@ public class PostService {
 
     private final Logger log = LoggerFactory.getLogger(PostService.class);
 
+    private static final Sort CURSOR_SORT = Sort.by(Sort.Direction.DESC, "publishedOn", "id");
+
     private final PostRepository postRepository;
 
-    public PostService(PostRepository postRepository) {
+    private final EntityCountCache entityCountCache;
+
+    private final DBRefBatchResolver dbRefBatchResolver;
+
+    private final SerializedPostCache serializedPostCache;
+
+    private final PostSearchIndex postSearchIndex;
+
+    private final PostViewCounter postViewCounter;
+
+    private final TrendingPostService trendingPostService;
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    /**
+     * The fields written when a post is updated, all but its id, creation auditing fields and view count.
+     */
+    private final List<String> updatedFields = new ArrayList<>();
+
+    public PostService(
+        PostRepository postRepository,
+        EntityCountCache entityCountCache,
+        DBRefBatchResolver dbRefBatchResolver,
+        SerializedPostCache serializedPostCache,
+        PostSearchIndex postSearchIndex,
+        PostViewCounter postViewCounter,
+        TrendingPostService trendingPostService,
+        ReactiveMongoOperations mongoOperations
+    ) {
         this.postRepository = postRepository;
+        this.entityCountCache = entityCountCache;
+        this.dbRefBatchResolver = dbRefBatchResolver;
+        this.serializedPostCache = serializedPostCache;
+        this.postSearchIndex = postSearchIndex;
+        this.postViewCounter = postViewCounter;
+        this.trendingPostService = trendingPostService;
+        this.mongoOperations = mongoOperations;
+        MongoPersistentEntity<?> entity = mongoOperations.getConverter().getMappingContext().getRequiredPersistentEntity(Post.class);
+        for (MongoPersistentProperty property : entity) {
+            if (
+                !property.isIdProperty() &&
+                property.isWritable() &&
+                !property.isAnnotationPresent(CreatedDate.class) &&
+                !property.isAnnotationPresent(CreatedBy.class) &&
+                !PostViewCounter.VIEW_COUNT.equals(property.getFieldName())
+            ) {
+                updatedFields.add(property.getFieldName());
+            }
+        }
     }
 
     /**
@@ -31,7 +103,16 @@ public class PostService {
      */
     public Mono<Post> save(Post post) {
         log.debug("Request to save Post : {}", post);
-        return postRepository.save(post);
+        post.setExcerpt(ExcerptUtil.excerpt(post.getBody()));
+        boolean isNew = post.getId() == null;
+        return (isNew ? postRepository.save(post) : update(post)).doOnNext(result -> {
+                if (isNew) {
+                    entityCountCache.recordCreated(Post.class);
+                }
+                serializedPostCache.invalidate(result.getId());
+                postSearchIndex.index(result);
+                trendingPostService.update(result);
+            });
     }
 
     /**
@@ -54,6 +135,7 @@ public class PostService {
                 }
                 if (post.getBody() != null) {
                     existingPost.setBody(post.getBody());
+                    existingPost.setExcerpt(ExcerptUtil.excerpt(post.getBody()));
                 }
                 if (post.getPublish() != null) {
                     existingPost.setPublish(post.getPublish());
@@ -64,7 +146,40 @@ public class PostService {
 
                 return existingPost;
             })
-            .flatMap(postRepository::save);
+            .flatMap(this::update)
+            .doOnNext(result -> {
+                serializedPostCache.invalidate(result.getId());
+                postSearchIndex.index(result);
+                trendingPostService.update(result);
+            });
+    }
+
+    /**
+     * Write the {@link #updatedFields} of an existing post, leaving its view count to the {@link PostViewCounter}.
+     * <p>
+     * Replacing the whole document would overwrite the views flushed since the post was read.
+     *
+     * @param post the entity to write.
+     * @return the written entity, with its view count, or empty if it does not exist.
+     */
+    private Mono<Post> update(Post post) {
+        post.setLastModifiedDate(Instant.now());
+        Document document = new Document();
+        mongoOperations.getConverter().write(post, document);
+        Update update = new Update();
+        for (String field : updatedFields) {
+            Object value = document.get(field);
+            if (value == null) {
+                update.unset(field);
+            } else {
+                update.set(field, value);
+            }
+        }
+        Query query = new Query(Criteria.where("id").is(post.getId()));
+        query.fields().include("viewCount");
+        return mongoOperations
+            .findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Post.class)
+            .map(stored -> post.viewCount(postViewCounter.views(post.getId(), stored.getViewCount())));
     }
 
     /**
@@ -75,27 +190,139 @@ public class PostService {
      */
     public Flux<Post> findAll(Pageable pageable) {
         log.debug("Request to get all Posts");
-        return postRepository.findAllBy(pageable);
+        return dbRefBatchResolver.find(new Query().with(pageable), Post.class);
+    }
+
+    /**
+     * Stream all the posts, with their references resolved in batches.
+     *
+     * @return the entities, as they are read from the database.
+     */
+    public Flux<Post> streamAll() {
+        log.debug("Request to stream all Posts");
+        return dbRefBatchResolver.stream(new Query(), Post.class);
+    }
+
+    /**
+     * Get a slice of the posts using keyset pagination, newest published first.
+     * <p>
+     * Unlike {@link #findAll(Pageable)} the cost does not grow with the depth of the slice, as the
+     * query seeks directly on the ({@code published_on}, {@code _id}) index instead of skipping.
+     *
+     * @param cursor the position after which to start, or {@code null} for the first slice.
+     * @param limit the maximum number of posts to return.
+     * @return the list of entities.
+     */
+    public Flux<Post> findAllAfter(PostCursor cursor, int limit) {
+        log.debug("Request to get Posts after : {}", cursor);
+        Query query = new Query().with(PageRequest.of(0, limit, CURSOR_SORT));
+        if (cursor != null && cursor.getPublishedOn() == null) {
+            // Posts without a publication date sort last, only those with a lower id remain
+            query.addCriteria(Criteria.where("publishedOn").is(null).and("id").lt(cursor.getId()));
+        } else if (cursor != null) {
+            query.addCriteria(
+                new Criteria()
+                    .orOperator(
+                        Criteria.where("publishedOn").lt(cursor.getPublishedOn()),
+                        Criteria.where("publishedOn").is(cursor.getPublishedOn()).and("id").lt(cursor.getId()),
+                        Criteria.where("publishedOn").is(null)
+                    )
+            );
+        }
+        return dbRefBatchResolver.find(query, Post.class);
+    }
+
+    /**
+     * Get the published posts as summaries, newest first.
+     * <p>
+     * Only the summary fields are read, the body is never loaded. Listing a post does not count as a view of it.
+     *
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the list of summaries.
+     */
+    public Flux<PostSummaryDTO> findAllPublished(Pageable pageable) {
+        log.debug("Request to get published Posts");
+        Query query = new Query(Criteria.where("publish").is(true))
+            .with(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), CURSOR_SORT));
+        query.fields().include(PostSummaryDTO.POST_PROPERTIES);
+        return dbRefBatchResolver
+            .find(query, Post.class)
+            .map(PostSummaryDTO::new)
+            .doOnNext(summary -> summary.setViewCount(postViewCounter.views(summary.getId(), summary.getViewCount())));
+    }
+
+    /**
+     * Search the posts by title and body, best ranked first, see {@link PostSearchIndex}.
+     *
+     * @param query the query.
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the page of entities.
+     */
+    public Mono<Page<Post>> search(String query, Pageable pageable) {
+        log.debug("Request to search for a page of Posts for query {}", query);
+        PostSearchIndex.Hits hits = postSearchIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+        if (hits.getIds().isEmpty()) {
+            return Mono.just(new PageImpl<Post>(List.of(), pageable, hits.getTotal()));
+        }
+        return dbRefBatchResolver
+            .find(new Query(Criteria.where("id").in(hits.getIds())), Post.class)
+            .collectMap(Post::getId)
+            .<Page<Post>>map(postsById -> {
+                List<Post> posts = hits.getIds().stream().map(postsById::get).filter(Objects::nonNull).collect(Collectors.toList());
+                return new PageImpl<>(posts, pageable, hits.getTotal());
+            });
     }
 
     /**
      * Returns the number of posts available.
+     * The count is estimated from the collection metadata and cached, see {@link EntityCountCache}.
      * @return the number of entities in the database.
      *
      */
     public Mono<Long> countAll() {
-        return postRepository.count();
+        return entityCountCache.count(Post.class);
     }
 
     /**
-     * Get one post by id.
+     * Get one post by id, counting a view of it.
      *
      * @param id the id of the entity.
-     * @return the entity.
+     * @return the entity, with its view count.
      */
     public Mono<Post> findOne(String id) {
         log.debug("Request to get Post : {}", id);
-        return postRepository.findById(id);
+        return dbRefBatchResolver
+            .findById(id, Post.class)
+            .doOnNext(post -> {
+                post.setViewCount(postViewCounter.views(id, post.getViewCount()));
+                recordView(id);
+            });
+    }
+
+    /**
+     * Get the JSON representation of one post by id, counting a view of it.
+     * <p>
+     * The representation is served from the {@link SerializedPostCache} when possible, only the view count is read.
+     *
+     * @param id the id of the entity.
+     * @return the JSON representation of the entity, with its view count.
+     */
+    public Mono<byte[]> findOneAsJson(String id) {
+        log.debug("Request to get Post as JSON : {}", id);
+        return serializedPostCache
+            .get(id, () -> dbRefBatchResolver.findById(id, Post.class))
+            .zipWith(postViewCounter.findViews(id), SerializedPostCache.SerializedPost::getJson)
+            .doOnNext(json -> recordView(id));
+    }
+
+    /**
+     * Count a view of a post, written behind by the {@link PostViewCounter}, and towards its trending score.
+     *
+     * @param id the id of the viewed post.
+     */
+    public void recordView(String id) {
+        postViewCounter.increment(id);
+        trendingPostService.recordView(id);
     }
 
     /**
@@ -106,6 +333,13 @@ public class PostService {
      */
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Post : {}", id);
-        return postRepository.deleteById(id);
+        return postRepository
+            .deleteById(id)
+            .doOnSuccess(result -> {
+                entityCountCache.invalidate(Post.class);
+                serializedPostCache.invalidate(id);
+                postSearchIndex.remove(id);
+                trendingPostService.remove(id);
+            });
     }
 }
@@ -0,0 +1,165 @@
+package bd.gov.banbeis.service;
+
+import bd.gov.banbeis.domain.Post;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Counts the views of the {@link Post}s in memory and writes them behind.
+ * <p>
+ * A view only increments a {@link LongAdder}, which stripes concurrent increments over cells. Every
+ * {@code application.view-counter.flush-interval}, the views counted since the previous flush are written with a
+ * single unordered bulk of {@code $inc} updates, so the views of at most one interval are lost on a crash.
+ * <p>
+ * The updates leave the last modified date of the posts and their cached representations untouched, so the most read
+ * posts are neither evicted from the {@link SerializedPostCache} nor revalidated on every flush. The count of a post is
+ * instead added to its representation as it is served, from the stored count and the views not yet written.
+ */
+@Service
+public class PostViewCounter {
+
+    public static final String METER_NAME = "post.views";
+
+    static final String VIEW_COUNT = "view_count";
+
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Logger log = LoggerFactory.getLogger(PostViewCounter.class);
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final QueryMapper queryMapper;
+
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final Counter flushed;
+
+    public PostViewCounter(ReactiveMongoOperations mongoOperations, MeterRegistry meterRegistry) {
+        this.mongoOperations = mongoOperations;
+        this.queryMapper = new QueryMapper(mongoOperations.getConverter());
+        this.flushed = Counter.builder(METER_NAME + ".flushed").register(meterRegistry);
+        Gauge.builder(METER_NAME + ".pending", pending, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Count a view of a post.
+     *
+     * @param id the id of the post.
+     */
+    public void increment(String id) {
+        pending.computeIfAbsent(id, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Get the number of views of a post counted since the last flush.
+     *
+     * @param id the id of the post.
+     * @return the number of views not yet written.
+     */
+    public long pendingViews(String id) {
+        LongAdder views = pending.get(id);
+        return views == null ? 0 : views.sum();
+    }
+
+    /**
+     * Get the number of views of a post, from its stored count.
+     *
+     * @param id the id of the post.
+     * @param storedViews the count stored in the post, or {@code null} if it was never flushed.
+     * @return the stored count plus the views not yet written.
+     */
+    public long views(String id, Long storedViews) {
+        return (storedViews == null ? 0 : storedViews) + pendingViews(id);
+    }
+
+    /**
+     * Get the number of views of a post, reading only its stored count.
+     *
+     * @param id the id of the post.
+     * @return the stored count plus the views not yet written, or empty if the post does not exist.
+     */
+    public Mono<Long> findViews(String id) {
+        BasicQuery query = new BasicQuery(new Document("_id", queryMapper.convertId(id)), new Document(VIEW_COUNT, 1));
+        // The pending views are read after the stored count, so a flush in between is not counted twice
+        return mongoOperations
+            .findOne(query, Document.class, mongoOperations.getCollectionName(Post.class))
+            .map(document -> {
+                Number storedViews = document.get(VIEW_COUNT, Number.class);
+                return views(id, storedViews == null ? null : storedViews.longValue());
+            });
+    }
+
+    @Scheduled(fixedDelayString = "${application.view-counter.flush-interval}")
+    public void scheduledFlush() {
+        flush().block();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush().block(SHUTDOWN_FLUSH_TIMEOUT);
+    }
+
+    /**
+     * Write the views counted since the previous flush.
+     *
+     * @return the number of updated posts.
+     */
+    public Mono<Integer> flush() {
+        return Mono.defer(() -> {
+            List<WriteModel<Document>> updates = new ArrayList<>();
+            Map<String, Long> counts = new HashMap<>();
+            long views = 0;
+            for (Map.Entry<String, LongAdder> entry : pending.entrySet()) {
+                long count = entry.getValue().sumThenReset();
+                if (count == 0) {
+                    // Idle since the previous flush, a view racing with this removal may be lost
+                    pending.remove(entry.getKey(), entry.getValue());
+                    continue;
+                }
+                updates.add(new UpdateOneModel<>(Filters.eq("_id", queryMapper.convertId(entry.getKey())), Updates.inc(VIEW_COUNT, count)));
+                counts.put(entry.getKey(), count);
+                views += count;
+            }
+            if (updates.isEmpty()) {
+                return Mono.just(0);
+            }
+            long flushedViews = views;
+            log.debug("Flushing {} views of {} Posts", flushedViews, counts.size());
+            return mongoOperations
+                .getCollection(mongoOperations.getCollectionName(Post.class))
+                .flatMap(collection -> Mono.from(collection.bulkWrite(updates, new BulkWriteOptions().ordered(false))))
+                .map(result -> {
+                    flushed.increment(flushedViews);
+                    return result.getModifiedCount();
+                })
+                .onErrorResume(error -> {
+                    log.warn("Could not flush the Post views, keeping them for the next flush", error);
+                    counts.forEach((id, count) -> pending.computeIfAbsent(id, key -> new LongAdder()).add(count));
+                    return Mono.just(0);
+                });
+        });
+    }
+}
@@ -0,0 +1,407 @@
+package bd.gov.banbeis.service;
+
+import bd.gov.banbeis.domain.Designation;
+import bd.gov.banbeis.domain.District;
+import bd.gov.banbeis.domain.Division;
+import bd.gov.banbeis.domain.Upazila;
+import bd.gov.banbeis.repository.CachedReferences;
+import bd.gov.banbeis.repository.DesignationRepository;
+import bd.gov.banbeis.repository.DistrictRepository;
+import bd.gov.banbeis.repository.DivisionRepository;
+import bd.gov.banbeis.repository.UpazilaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.support.PropertyComparator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the reference data in memory: the {@link Division}s, {@link District}s and {@link Upazila}s, which are seeded
+ * once, and the {@link Designation}s, which rarely change.
+ * <p>
+ * The entities of each type are loaded at startup into an immutable snapshot, which is replaced as a whole when an
+ * entity is written through its service, and reloaded every {@code application.reference-data.refresh-interval} to
+ * pick up the writes made through other instances. Reads are served from the snapshot, including the JSON of the
+ * pages, serialized once per snapshot. Until a snapshot is loaded, reads go to the database.
+ * <p>
+ * The cached entities are shared by all the readers, they must not be modified.
+ */
+@Service
+public class ReferenceDataCache implements CachedReferences {
+
+    public static final String METER_NAME = "reference.data.cache";
+    public static final String METER_RESULT_DIMENSION = "result";
+    public static final String METER_TYPE_DIMENSION = "type";
+
+    /**
+     * Number of serialized pages kept per snapshot, beyond which pages are serialized on every request.
+     */
+    static final int MAX_SERIALIZED_PAGES = 32;
+
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final Logger log = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<Class<?>, Holder<?>> holders = new LinkedHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public ReferenceDataCache(
+        DivisionRepository divisionRepository,
+        DistrictRepository districtRepository,
+        UpazilaRepository upazilaRepository,
+        DesignationRepository designationRepository,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry
+    ) {
+        this.objectMapper = objectMapper;
+        holders.put(Division.class, new Holder<>(Division.class, divisionRepository, Division::getId, division -> null));
+        holders.put(District.class, new Holder<>(District.class, districtRepository, District::getId, District::getDivisionId));
+        holders.put(Upazila.class, new Holder<>(Upazila.class, upazilaRepository, Upazila::getId, Upazila::getDistrictId));
+        holders.put(Designation.class, new Holder<>(Designation.class, designationRepository, Designation::getId, designation -> null));
+        this.hits = Counter.builder(METER_NAME).tag(METER_RESULT_DIMENSION, "hit").register(meterRegistry);
+        this.misses = Counter.builder(METER_NAME).tag(METER_RESULT_DIMENSION, "miss").register(meterRegistry);
+        holders.forEach((entityClass, holder) ->
+            Gauge
+                .builder(METER_NAME + ".entries", holder, cached -> cached.snapshot == null ? 0 : cached.snapshot.entities.size())
+                .tag(METER_TYPE_DIMENSION, entityClass.getSimpleName())
+                .register(meterRegistry)
+        );
+    }
+
+    /**
+     * Load the reference data once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        load().subscribe(null, error -> log.error("Could not load the reference data", error));
+    }
+
+    @Scheduled(
+        initialDelayString = "${application.reference-data.refresh-interval}",
+        fixedDelayString = "${application.reference-data.refresh-interval}"
+    )
+    public void scheduledRefresh() {
+        load().onErrorResume(error -> {
+                log.warn("Could not reload the reference data, keeping the loaded one", error);
+                return Mono.empty();
+            })
+            .block();
+    }
+
+    /**
+     * Load all the reference data, replacing the snapshots.
+     *
+     * @return a Mono to signal the end of the loading.
+     */
+    public Mono<Void> load() {
+        return Flux.fromIterable(holders.values()).flatMap(this::load).then();
+    }
+
+    private <T> Mono<Void> load(Holder<T> holder) {
+        return Mono
+            .defer(() -> {
+                long version = holder.version;
+                return holder.repository.findAll().collectList().filter(entities -> holder.install(entities, version));
+            })
+            // Loaded again if an entity was written meanwhile, so the write is not lost
+            .repeatWhenEmpty(MAX_LOAD_ATTEMPTS, repeats -> repeats)
+            .doOnNext(entities -> log.debug("Loaded {} {}s", entities.size(), holder.entityClass.getSimpleName()))
+            .then();
+    }
+
+    /**
+     * Get a page of the entities of a class.
+     *
+     * @param entityClass the entity class.
+     * @param pageable the pagination information, sorted on any property of the entities.
+     * @param loader reads the page from the database, when the entities are not loaded yet.
+     * @param <T> the entity type.
+     * @return the entities of the page.
+     */
+    public <T> Flux<T> findAll(Class<T> entityClass, Pageable pageable, Supplier<Flux<T>> loader) {
+        Snapshot<T> snapshot = snapshot(entityClass);
+        return snapshot == null ? loader.get() : Flux.fromIterable(snapshot.page(pageable));
+    }
+
+    /**
+     * Get a page of the entities of a class, serialized as a JSON array.
+     *
+     * @param entityClass the entity class.
+     * @param pageable the pagination information, sorted on any property of the entities.
+     * @param loader reads the page from the database, when the entities are not loaded yet.
+     * @param <T> the entity type.
+     * @return the JSON array of the entities of the page.
+     */
+    public <T> Mono<byte[]> findAllAsJson(Class<T> entityClass, Pageable pageable, Supplier<Flux<T>> loader) {
+        Snapshot<T> snapshot = snapshot(entityClass);
+        if (snapshot == null) {
+            return loader.get().collectList().map(this::serialize);
+        }
+        byte[] json = snapshot.pages.get(pageable);
+        if (json == null) {
+            json = serialize(snapshot.page(pageable));
+            if (snapshot.pages.size() < MAX_SERIALIZED_PAGES) {
+                snapshot.pages.put(pageable, json);
+            }
+        }
+        return Mono.just(json);
+    }
+
+    /**
+     * Get all the entities of a class.
+     *
+     * @param entityClass the entity class.
+     * @param loader reads the entities from the database, when they are not loaded yet.
+     * @param <T> the entity type.
+     * @return the entities.
+     */
+    public <T> Flux<T> streamAll(Class<T> entityClass, Supplier<Flux<T>> loader) {
+        Snapshot<T> snapshot = snapshot(entityClass);
+        return snapshot == null ? loader.get() : Flux.fromIterable(snapshot.entities);
+    }
+
+    /**
+     * Get an entity by id.
+     *
+     * @param entityClass the entity class.
+     * @param id the id of the entity.
+     * @param loader reads the entity from the database, when it is not loaded, e.g. when it was written through
+     * another instance.
+     * @param <T> the entity type.
+     * @return the entity.
+     */
+    public <T> Mono<T> findOne(Class<T> entityClass, String id, Supplier<Mono<T>> loader) {
+        Snapshot<T> snapshot = snapshot(entityClass);
+        T cached = snapshot == null ? null : snapshot.byId.get(id);
+        if (cached == null) {
+            misses.increment();
+            return loader.get();
+        }
+        hits.increment();
+        return Mono.just(cached);
+    }
+
+    /**
+     * Get the children of an entity, e.g. the {@link District}s of a {@link Division}.
+     *
+     * @param entityClass the class of the children.
+     * @param parentId the id of the parent entity.
+     * @param loader reads the children from the database, when they are not loaded yet.
+     * @param <T> the entity type.
+     * @return the children, in database order.
+     */
+    public <T> Flux<T> findChildren(Class<T> entityClass, String parentId, Supplier<Flux<T>> loader) {
+        Snapshot<T> snapshot = snapshot(entityClass);
+        return snapshot == null ? loader.get() : Flux.fromIterable(snapshot.byParent.getOrDefault(parentId, Collections.emptyList()));
+    }
+
+    /**
+     * Count the entities of a class.
+     *
+     * @param entityClass the entity class.
+     * @param loader counts the entities in the database, when they are not loaded yet.
+     * @return the number of entities.
+     */
+    public Mono<Long> count(Class<?> entityClass, Supplier<Mono<Long>> loader) {
+        Snapshot<?> snapshot = snapshot(entityClass);
+        return snapshot == null ? loader.get() : Mono.just((long) snapshot.entities.size());
+    }
+
+    @Override
+    public Map<String, ?> findAll(Class<?> entityClass) {
+        Snapshot<?> snapshot = snapshot(entityClass);
+        return snapshot == null ? null : snapshot.byId;
+    }
+
+    /**
+     * Take a saved entity into account.
+     *
+     * @param entity the saved entity.
+     * @param <T> the entity type.
+     */
+    public <T> void saved(T entity) {
+        @SuppressWarnings("unchecked")
+        Holder<T> holder = (Holder<T>) holders.get(entity.getClass());
+        holder.update(snapshot -> snapshot.with(entity));
+    }
+
+    /**
+     * Take a deleted entity into account.
+     *
+     * @param entityClass the entity class.
+     * @param id the id of the deleted entity.
+     */
+    public void deleted(Class<?> entityClass, String id) {
+        holders.get(entityClass).update(snapshot -> snapshot.without(id));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Snapshot<T> snapshot(Class<T> entityClass) {
+        Holder<T> holder = (Holder<T>) holders.get(entityClass);
+        return holder == null ? null : holder.snapshot;
+    }
+
+    private byte[] serialize(List<?> entities) {
+        try {
+            return objectMapper.writeValueAsBytes(entities);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the reference data", e);
+        }
+    }
+
+    /**
+     * The loaded snapshot of the entities of a class.
+     */
+    private static final class Holder<T> {
+
+        private final Class<T> entityClass;
+
+        private final ReactiveMongoRepository<T, String> repository;
+
+        private final Function<T, String> id;
+
+        private final Function<T, String> parent;
+
+        private volatile Snapshot<T> snapshot;
+
+        /**
+         * Bumped on every write, so a load that raced with a write does not install a stale snapshot.
+         */
+        private volatile long version;
+
+        private Holder(
+            Class<T> entityClass,
+            ReactiveMongoRepository<T, String> repository,
+            Function<T, String> id,
+            Function<T, String> parent
+        ) {
+            this.entityClass = entityClass;
+            this.repository = repository;
+            this.id = id;
+            this.parent = parent;
+        }
+
+        private synchronized boolean install(List<T> entities, long loadVersion) {
+            if (version != loadVersion) {
+                return false;
+            }
+            snapshot = new Snapshot<>(entities, id, parent);
+            return true;
+        }
+
+        private synchronized void update(Function<Snapshot<T>, Snapshot<T>> write) {
+            version++;
+            if (snapshot != null) {
+                snapshot = write.apply(snapshot);
+            }
+        }
+    }
+
+    /**
+     * The entities of a class, in database order, indexed by id and by parent id. A snapshot is never modified, writes
+     * replace it.
+     */
+    private static final class Snapshot<T> {
+
+        private final List<T> entities;
+
+        private final Map<String, T> byId;
+
+        /**
+         * The children of each parent, empty for the entities without a parent.
+         */
+        private final Map<String, List<T>> byParent;
+
+        private final Function<T, String> id;
+
+        private final Function<T, String> parent;
+
+        /**
+         * The serialized pages, which are derived from the entities and dropped along with the snapshot.
+         */
+        private final Map<Pageable, byte[]> pages = new ConcurrentHashMap<>();
+
+        private Snapshot(List<T> entities, Function<T, String> id, Function<T, String> parent) {
+            this.entities = Collections.unmodifiableList(entities);
+            this.id = id;
+            this.parent = parent;
+            Map<String, T> byId = new HashMap<>();
+            Map<String, List<T>> byParent = new HashMap<>();
+            for (T entity : entities) {
+                byId.put(id.apply(entity), entity);
+                String parentId = parent.apply(entity);
+                if (parentId != null) {
+                    byParent.computeIfAbsent(parentId, key -> new ArrayList<>()).add(entity);
+                }
+            }
+            byParent.replaceAll((parentId, children) -> Collections.unmodifiableList(children));
+            this.byId = Collections.unmodifiableMap(byId);
+            this.byParent = Collections.unmodifiableMap(byParent);
+        }
+
+        private Snapshot<T> with(T entity) {
+            List<T> written = new ArrayList<>(entities);
+            T previous = byId.get(id.apply(entity));
+            if (previous == null) {
+                written.add(entity);
+            } else {
+                written.set(written.indexOf(previous), entity);
+            }
+            return new Snapshot<>(written, id, parent);
+        }
+
+        private Snapshot<T> without(String deletedId) {
+            List<T> written = new ArrayList<>(entities);
+            written.remove(byId.get(deletedId));
+            return new Snapshot<>(written, id, parent);
+        }
+
+        private List<T> page(Pageable pageable) {
+            List<T> sorted = entities;
+            if (pageable.getSort().isSorted()) {
+                sorted = new ArrayList<>(entities);
+                sorted.sort(comparator(pageable.getSort()));
+            }
+            if (pageable.isUnpaged()) {
+                return sorted;
+            }
+            int from = (int) Math.min(pageable.getOffset(), sorted.size());
+            return sorted.subList(from, Math.min(from + pageable.getPageSize(), sorted.size()));
+        }
+
+        private Comparator<T> comparator(Sort sort) {
+            Comparator<T> comparator = (left, right) -> 0;
+            for (Sort.Order order : sort) {
+                comparator =
+                    comparator.thenComparing(new PropertyComparator<>(order.getProperty(), order.isIgnoreCase(), order.isAscending()));
+            }
+            return comparator;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package bd.gov.banbeis.service;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import bd.gov.banbeis.domain.Post;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the JSON representation of recently read {@link Post}s in memory.
+ * <p>
+ * Entries are evicted in least recently used order once the total size of the cached JSON exceeds
+ * {@code application.post-cache.max-size}. The cached bytes are copied to the response, so a hit costs no
+ * serialization.
+ * <p>
+ * The view count, which the {@link PostViewCounter} keeps changing, is left out of the cached JSON and added to it as
+ * it is served, see {@link SerializedPost#getJson(long)}.
+ */
+@Service
+public class SerializedPostCache {
+
+    public static final String METER_NAME = "post.response.cache";
+    public static final String METER_RESULT_DIMENSION = "result";
+
+    private static final String VIEW_COUNT_PROPERTY = "viewCount";
+
+    private final Logger log = LoggerFactory.getLogger(SerializedPostCache.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final long maxSize;
+
+    private final LinkedHashMap<String, SerializedPost> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    /**
+     * Bumped on every invalidation, so a load that raced with a write does not cache a stale representation.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public SerializedPostCache(ObjectMapper objectMapper, MeterRegistry meterRegistry, ApplicationProperties properties) {
+        this.objectMapper = objectMapper;
+        this.maxSize = properties.getPostCache().getMaxSize() == null ? 0 : properties.getPostCache().getMaxSize().toBytes();
+        this.hits = Counter.builder(METER_NAME).tag(METER_RESULT_DIMENSION, "hit").register(meterRegistry);
+        this.misses = Counter.builder(METER_NAME).tag(METER_RESULT_DIMENSION, "miss").register(meterRegistry);
+        this.evictions = Counter.builder(METER_NAME + ".evictions").register(meterRegistry);
+        Gauge.builder(METER_NAME + ".size", this, SerializedPostCache::size).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder(METER_NAME + ".entries", this, SerializedPostCache::entries).register(meterRegistry);
+    }
+
+    /**
+     * Get the JSON representation of a post, loading and serializing it on a miss.
+     *
+     * @param id the id of the post.
+     * @param loader the loader of the post.
+     * @return the JSON representation, or empty if the post does not exist.
+     */
+    public Mono<SerializedPost> get(String id, Supplier<Mono<Post>> loader) {
+        SerializedPost cached;
+        synchronized (this) {
+            cached = entries.get(id);
+        }
+        if (cached != null) {
+            hits.increment();
+            return Mono.just(cached);
+        }
+        misses.increment();
+        return Mono.defer(() -> {
+            long loadGeneration = generation.get();
+            return loader
+                .get()
+                .map(post -> {
+                    SerializedPost serialized = new SerializedPost(serialize(post));
+                    put(id, serialized, loadGeneration);
+                    return serialized;
+                });
+        });
+    }
+
+    /**
+     * Drop the cached representation of a post.
+     *
+     * @param id the id of the post.
+     */
+    public void invalidate(String id) {
+        log.debug("Invalidating cached Post : {}", id);
+        generation.incrementAndGet();
+        synchronized (this) {
+            SerializedPost removed = entries.remove(id);
+            if (removed != null) {
+                size -= removed.json.length;
+            }
+        }
+    }
+
+    /**
+     * Drop all the cached representations, e.g. when an entity embedded in every post summary changes.
+     */
+    public void invalidateAll() {
+        log.debug("Invalidating all cached Posts");
+        generation.incrementAndGet();
+        synchronized (this) {
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    private byte[] serialize(Post post) {
+        try {
+            ObjectNode json = objectMapper.valueToTree(post);
+            json.remove(VIEW_COUNT_PROPERTY);
+            return objectMapper.writeValueAsBytes(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize Post " + post.getId(), e);
+        }
+    }
+
+    private synchronized void put(String id, SerializedPost serialized, long loadGeneration) {
+        if (serialized.json.length > maxSize || generation.get() != loadGeneration) {
+            return;
+        }
+        SerializedPost previous = entries.put(id, serialized);
+        size += serialized.json.length - (previous == null ? 0 : previous.json.length);
+        Iterator<Map.Entry<String, SerializedPost>> eldest = entries.entrySet().iterator();
+        while (size > maxSize && eldest.hasNext()) {
+            size -= eldest.next().getValue().json.length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private synchronized double size() {
+        return size;
+    }
+
+    private synchronized double entries() {
+        return entries.size();
+    }
+
+    /**
+     * The JSON representation of a post, without its view count.
+     */
+    public static final class SerializedPost {
+
+        private final byte[] json;
+
+        SerializedPost(byte[] json) {
+            this.json = json;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * Get the JSON representation of the post with a view count, written as its first property.
+         *
+         * @param viewCount the view count.
+         * @return a copy of the JSON representation, with the view count.
+         */
+        public byte[] getJson(long viewCount) {
+            String prefix = "{\"" + VIEW_COUNT_PROPERTY + "\":" + viewCount + (json.length > 2 ? "," : "");
+            byte[] field = prefix.getBytes(StandardCharsets.UTF_8);
+            byte[] result = Arrays.copyOf(field, field.length + json.length - 1);
+            System.arraycopy(json, 1, result, field.length, json.length - 1);
+            return result;
+        }
+    }
+}
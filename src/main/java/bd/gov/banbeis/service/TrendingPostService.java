@@ -0,0 +1,404 @@
+package bd.gov.banbeis.service;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import bd.gov.banbeis.domain.Post;
+import bd.gov.banbeis.repository.DBRefBatchResolver;
+import bd.gov.banbeis.service.dto.PostSummaryDTO;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the trending published {@link Post}s, globally and per center, in memory.
+ * <p>
+ * Every view and comment adds to the score of a post, and the score halves every
+ * {@code application.trending.half-life}. Scores are kept with forward decay: an event at time {@code t} adds
+ * {@code weight * exp(rate * (t - landmark))}, so scores never need to be decayed to be compared, an event only
+ * increases the score of its post, and the top {@code application.trending.size} can be maintained incrementally.
+ * <p>
+ * The summaries of the trending posts are kept along with the scores, so serving the trending posts costs no query.
+ * They are loaded, and the scores are saved to the {@value #COLLECTION} collection, every
+ * {@code application.trending.snapshot-interval}.
+ */
+@Service
+public class TrendingPostService {
+
+    public static final String COLLECTION = "trending_post";
+
+    public static final String METER_NAME = "trending.posts";
+
+    static final double VIEW_WEIGHT = 1;
+
+    static final double COMMENT_WEIGHT = 5;
+
+    /**
+     * Decayed score under which a post is forgotten.
+     */
+    static final double MIN_SCORE = 0.01;
+
+    /**
+     * Forward decayed scores are rebased on a newer landmark before their exponent gets too large.
+     */
+    private static final double MAX_EXPONENT = 64;
+
+    private final Logger log = LoggerFactory.getLogger(TrendingPostService.class);
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final DBRefBatchResolver dbRefBatchResolver;
+
+    /**
+     * Decay rate, per millisecond.
+     */
+    private final double rate;
+
+    private final int size;
+
+    private long landmark = System.currentTimeMillis();
+
+    private final Map<String, Double> scores = new HashMap<>();
+
+    private final Map<String, PostSummaryDTO> summaries = new HashMap<>();
+
+    /**
+     * Scored posts whose summary is missing or outdated.
+     */
+    private final Set<String> unresolved = new HashSet<>();
+
+    /**
+     * Scored posts which are not published, they never trend.
+     */
+    private final Set<String> unpublished = new HashSet<>();
+
+    private TopK global;
+
+    private final Map<String, TopK> byCenter = new HashMap<>();
+
+    public TrendingPostService(
+        ReactiveMongoOperations mongoOperations,
+        DBRefBatchResolver dbRefBatchResolver,
+        MeterRegistry meterRegistry,
+        ApplicationProperties properties
+    ) {
+        this.mongoOperations = mongoOperations;
+        this.dbRefBatchResolver = dbRefBatchResolver;
+        this.rate = Math.log(2) / properties.getTrending().getHalfLife().toMillis();
+        this.size = properties.getTrending().getSize();
+        this.global = new TopK(size);
+        Gauge.builder(METER_NAME + ".tracked", this, TrendingPostService::tracked).register(meterRegistry);
+    }
+
+    /**
+     * Count a view of a post.
+     *
+     * @param id the id of the viewed post.
+     */
+    public void recordView(String id) {
+        record(id, VIEW_WEIGHT, System.currentTimeMillis());
+    }
+
+    /**
+     * Count a comment on a post.
+     *
+     * @param id the id of the commented post.
+     */
+    public void recordComment(String id) {
+        record(id, COMMENT_WEIGHT, System.currentTimeMillis());
+    }
+
+    synchronized void record(String id, double weight, long time) {
+        if (rate * (time - landmark) > MAX_EXPONENT) {
+            rebase(time);
+        }
+        double score = scores.merge(id, weight * Math.exp(rate * (time - landmark)), Double::sum);
+        PostSummaryDTO summary = summaries.get(id);
+        if (summary != null) {
+            offer(summary, score);
+        } else if (!unpublished.contains(id)) {
+            unresolved.add(id);
+        }
+    }
+
+    /**
+     * Get the trending posts, most trending first.
+     *
+     * @param centerId the id of the center of the posts, or {@code null} for all the centers.
+     * @return the summaries of the trending posts.
+     */
+    public synchronized List<PostSummaryDTO> findTrending(String centerId) {
+        TopK top = centerId == null ? global : byCenter.get(centerId);
+        if (top == null) {
+            return List.of();
+        }
+        return top.ranked.stream().map(ranked -> summaries.get(ranked.id)).collect(Collectors.toList());
+    }
+
+    /**
+     * Take a post update into account: an unpublished post stops trending, the summary of a published one is reloaded.
+     *
+     * @param post the updated post.
+     */
+    public synchronized void update(Post post) {
+        if (!Boolean.TRUE.equals(post.getPublish())) {
+            unpublished.add(post.getId());
+            unresolved.remove(post.getId());
+            drop(post.getId());
+        } else if (unpublished.remove(post.getId()) || summaries.containsKey(post.getId())) {
+            unresolved.add(post.getId());
+        }
+    }
+
+    /**
+     * Reload the summaries of all the trending posts, e.g. when an entity embedded in every summary changes.
+     */
+    public synchronized void updateAll() {
+        unresolved.addAll(summaries.keySet());
+    }
+
+    /**
+     * Forget a deleted post.
+     *
+     * @param id the id of the post.
+     */
+    public synchronized void remove(String id) {
+        scores.remove(id);
+        unresolved.remove(id);
+        unpublished.remove(id);
+        drop(id);
+    }
+
+    /**
+     * Load the scores saved before the last shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        load().then(resolve()).subscribe(null, error -> log.error("Could not load the trending Posts", error));
+    }
+
+    @Scheduled(fixedDelayString = "${application.trending.snapshot-interval}")
+    public void scheduledRefresh() {
+        resolve().then(snapshot()).block();
+    }
+
+    /**
+     * Load the scores saved in the {@value #COLLECTION} collection.
+     *
+     * @return the number of loaded scores.
+     */
+    public Mono<Long> load() {
+        return mongoOperations
+            .findAll(Document.class, COLLECTION)
+            .doOnNext(document -> {
+                long time = document.getDate("at").getTime();
+                synchronized (this) {
+                    scores.merge(
+                        document.getString("_id"),
+                        document.getDouble("score") * Math.exp(rate * (time - landmark)),
+                        Double::sum
+                    );
+                    unresolved.add(document.getString("_id"));
+                }
+            })
+            .count()
+            .doOnNext(count -> log.info("Loaded {} trending Post scores", count));
+    }
+
+    /**
+     * Load the summaries of the posts which got a score since the last call, and let them trend.
+     *
+     * @return a Mono to signal the end of the loading.
+     */
+    public Mono<Void> resolve() {
+        return Mono.defer(() -> {
+            List<String> ids;
+            synchronized (this) {
+                ids = new ArrayList<>(unresolved);
+                unresolved.clear();
+            }
+            if (ids.isEmpty()) {
+                return Mono.empty();
+            }
+            Query query = new Query(Criteria.where("id").in(ids).and("publish").is(true));
+            query.fields().include(PostSummaryDTO.POST_PROPERTIES);
+            return dbRefBatchResolver
+                .find(query, Post.class)
+                .map(PostSummaryDTO::new)
+                .collectMap(PostSummaryDTO::getId)
+                .doOnNext(published -> resolved(ids, published))
+                .doOnError(error -> {
+                    synchronized (this) {
+                        unresolved.addAll(ids);
+                    }
+                })
+                .then();
+        });
+    }
+
+    private synchronized void resolved(List<String> ids, Map<String, PostSummaryDTO> published) {
+        for (String id : ids) {
+            if (!scores.containsKey(id)) {
+                continue;
+            }
+            PostSummaryDTO summary = published.get(id);
+            if (summary == null) {
+                summaries.remove(id);
+                unpublished.add(id);
+            } else {
+                summaries.put(id, summary);
+            }
+        }
+        rebuild();
+    }
+
+    /**
+     * Save the decayed scores to the {@value #COLLECTION} collection, forgetting the posts whose score faded out.
+     *
+     * @return a Mono to signal the end of the saving.
+     */
+    public Mono<Void> snapshot() {
+        return Mono.defer(() -> {
+            long now = System.currentTimeMillis();
+            List<WriteModel<Document>> replacements = new ArrayList<>();
+            synchronized (this) {
+                double decay = Math.exp(-rate * (now - landmark));
+                boolean pruned = false;
+                for (Iterator<Map.Entry<String, Double>> it = scores.entrySet().iterator(); it.hasNext();) {
+                    Map.Entry<String, Double> score = it.next();
+                    double decayed = score.getValue() * decay;
+                    if (decayed < MIN_SCORE) {
+                        it.remove();
+                        summaries.remove(score.getKey());
+                        unresolved.remove(score.getKey());
+                        unpublished.remove(score.getKey());
+                        pruned = true;
+                        continue;
+                    }
+                    replacements.add(
+                        new ReplaceOneModel<>(
+                            Filters.eq("_id", score.getKey()),
+                            new Document("_id", score.getKey()).append("score", decayed).append("at", new Date(now)),
+                            new ReplaceOptions().upsert(true)
+                        )
+                    );
+                }
+                if (pruned) {
+                    rebuild();
+                }
+            }
+            Mono<Void> save = replacements.isEmpty()
+                ? Mono.empty()
+                : mongoOperations
+                    .getCollection(COLLECTION)
+                    .flatMap(collection -> Mono.from(collection.bulkWrite(replacements, new BulkWriteOptions().ordered(false))))
+                    .then();
+            return save.then(mongoOperations.remove(new Query(Criteria.where("at").lt(new Date(now))), COLLECTION)).then();
+        });
+    }
+
+    private void offer(PostSummaryDTO summary, double score) {
+        global.offer(summary.getId(), score);
+        if (summary.getCenterId() != null) {
+            byCenter.computeIfAbsent(summary.getCenterId(), key -> new TopK(size)).offer(summary.getId(), score);
+        }
+    }
+
+    private void drop(String id) {
+        PostSummaryDTO summary = summaries.remove(id);
+        if (summary != null) {
+            // The next best posts are not tracked by the top K
+            rebuild();
+        }
+    }
+
+    private void rebase(long time) {
+        double decay = Math.exp(-rate * (time - landmark));
+        scores.replaceAll((id, score) -> score * decay);
+        landmark = time;
+        rebuild();
+    }
+
+    private void rebuild() {
+        global = new TopK(size);
+        byCenter.clear();
+        summaries.forEach((id, summary) -> offer(summary, scores.get(id)));
+    }
+
+    private synchronized double tracked() {
+        return scores.size();
+    }
+
+    /**
+     * The best ranked posts, updated as their scores increase.
+     */
+    private static final class TopK {
+
+        private static final Comparator<Ranked> ORDER = Comparator
+            .comparingDouble((Ranked ranked) -> ranked.score)
+            .reversed()
+            .thenComparing(ranked -> ranked.id);
+
+        private final int size;
+
+        private final TreeSet<Ranked> ranked = new TreeSet<>(ORDER);
+
+        private final Map<String, Ranked> members = new HashMap<>();
+
+        private TopK(int size) {
+            this.size = size;
+        }
+
+        private void offer(String id, double score) {
+            Ranked previous = members.remove(id);
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+            Ranked candidate = new Ranked(id, score);
+            if (ranked.size() >= size) {
+                if (ranked.isEmpty() || ORDER.compare(candidate, ranked.last()) >= 0) {
+                    return;
+                }
+                members.remove(ranked.pollLast().id);
+            }
+            ranked.add(candidate);
+            members.put(id, candidate);
+        }
+    }
+
+    private static final class Ranked {
+
+        private final String id;
+
+        private final double score;
+
+        private Ranked(String id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
@@ -19,8 +19,22 @@ public class UpazilaService {
 
     private final UpazilaRepository upazilaRepository;
 
-    public UpazilaService(UpazilaRepository upazilaRepository) {
+    private final EntityCountCache entityCountCache;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    public UpazilaService(
+        UpazilaRepository upazilaRepository,
+        EntityCountCache entityCountCache,
+        ReferenceDataCache referenceDataCache,
+        AutocompleteIndex autocompleteIndex
+    ) {
         this.upazilaRepository = upazilaRepository;
+        this.entityCountCache = entityCountCache;
+        this.referenceDataCache = referenceDataCache;
+        this.autocompleteIndex = autocompleteIndex;
     }
 
     /**
@@ -31,7 +45,16 @@ public class UpazilaService {
      */
     public Mono<Upazila> save(Upazila upazila) {
         log.debug("Request to save Upazila : {}", upazila);
-        return upazilaRepository.save(upazila);
+        boolean isNew = upazila.getId() == null;
+        return upazilaRepository
+            .save(upazila)
+            .doOnNext(result -> {
+                referenceDataCache.saved(result);
+                autocompleteIndex.index(AutocompleteIndex.Type.UPAZILA, result.getId(), result.getName(), result.getBnName());
+                if (isNew) {
+                    entityCountCache.recordCreated(Upazila.class);
+                }
+            });
     }
 
     /**
@@ -61,7 +84,11 @@ public class UpazilaService {
 
                 return existingUpazila;
             })
-            .flatMap(upazilaRepository::save);
+            .flatMap(upazilaRepository::save)
+            .doOnNext(result -> {
+                referenceDataCache.saved(result);
+                autocompleteIndex.index(AutocompleteIndex.Type.UPAZILA, result.getId(), result.getName(), result.getBnName());
+            });
     }
 
     /**
@@ -72,16 +99,49 @@ public class UpazilaService {
      */
     public Flux<Upazila> findAll(Pageable pageable) {
         log.debug("Request to get all Upazilas");
-        return upazilaRepository.findAllBy(pageable);
+        return referenceDataCache.findAll(Upazila.class, pageable, () -> upazilaRepository.findAllBy(pageable));
+    }
+
+    /**
+     * Get all the upazilas, serialized as JSON.
+     *
+     * @param pageable the pagination information.
+     * @return the JSON array of the entities.
+     */
+    public Mono<byte[]> findAllAsJson(Pageable pageable) {
+        log.debug("Request to get all Upazilas as JSON");
+        return referenceDataCache.findAllAsJson(Upazila.class, pageable, () -> upazilaRepository.findAllBy(pageable));
+    }
+
+    /**
+     * Get the upazilas of a district.
+     *
+     * @param districtId the id of the district.
+     * @return the upazilas of the district.
+     */
+    public Flux<Upazila> findAllByDistrict(String districtId) {
+        log.debug("Request to get the Upazilas of District : {}", districtId);
+        return referenceDataCache.findChildren(Upazila.class, districtId, () -> upazilaRepository.findAllByDistrictId(districtId));
+    }
+
+    /**
+     * Stream all the upazilas.
+     *
+     * @return the entities, from memory once loaded, see {@link ReferenceDataCache}.
+     */
+    public Flux<Upazila> streamAll() {
+        log.debug("Request to stream all Upazilas");
+        return referenceDataCache.streamAll(Upazila.class, upazilaRepository::findAll);
     }
 
     /**
      * Returns the number of upazilas available.
+     * The count is taken from memory once the entities are loaded, see {@link ReferenceDataCache}.
      * @return the number of entities in the database.
      *
      */
     public Mono<Long> countAll() {
-        return upazilaRepository.count();
+        return referenceDataCache.count(Upazila.class, () -> entityCountCache.count(Upazila.class));
     }
 
     /**
@@ -92,7 +152,7 @@ public class UpazilaService {
      */
     public Mono<Upazila> findOne(String id) {
         log.debug("Request to get Upazila : {}", id);
-        return upazilaRepository.findById(id);
+        return referenceDataCache.findOne(Upazila.class, id, () -> upazilaRepository.findById(id));
     }
 
     /**
@@ -103,6 +163,12 @@ public class UpazilaService {
      */
     public Mono<Void> delete(String id) {
         log.debug("Request to delete Upazila : {}", id);
-        return upazilaRepository.deleteById(id);
+        return upazilaRepository
+            .deleteById(id)
+            .doOnSuccess(result -> {
+                referenceDataCache.deleted(Upazila.class, id);
+                autocompleteIndex.remove(AutocompleteIndex.Type.UPAZILA, id);
+                entityCountCache.invalidate(Upazila.class);
+            });
     }
 }
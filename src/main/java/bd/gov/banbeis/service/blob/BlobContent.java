@@ -0,0 +1,91 @@
+package bd.gov.banbeis.service.blob;
+
+import java.nio.file.Path;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+/**
+ * The content of a blob, read as it is streamed.
+ */
+public class BlobContent {
+
+    private final String id;
+
+    private final String contentType;
+
+    private final long length;
+
+    private final Flux<DataBuffer> content;
+
+    private final RangeReader rangeReader;
+
+    private final Path file;
+
+    public BlobContent(String id, String contentType, long length, Flux<DataBuffer> content, RangeReader rangeReader) {
+        this(id, contentType, length, content, rangeReader, null);
+    }
+
+    public BlobContent(String id, String contentType, long length, Flux<DataBuffer> content, RangeReader rangeReader, Path file) {
+        this.id = id;
+        this.contentType = contentType;
+        this.length = length;
+        this.content = content;
+        this.rangeReader = rangeReader;
+        this.file = file;
+    }
+
+    /**
+     * @return the id of the blob, which identifies its content as blobs are never modified.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the media type of the content, or {@code null} if unknown.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return the length of the content, in bytes.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return the content, in chunks which must be released once consumed.
+     */
+    public Flux<DataBuffer> getContent() {
+        return content;
+    }
+
+    /**
+     * Read a range of the content, without reading what precedes it.
+     *
+     * @param offset the index of the first byte to read.
+     * @param length the number of bytes to read, at least one.
+     * @return the range, in chunks which must be released once consumed.
+     */
+    public Flux<DataBuffer> getContent(long offset, long length) {
+        return rangeReader.read(offset, length);
+    }
+
+    /**
+     * @return the file holding the content, which can then be sent without being read, or {@code null} if the content
+     * is not held in a file.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Reads a range of a content.
+     */
+    @FunctionalInterface
+    public interface RangeReader {
+        Flux<DataBuffer> read(long offset, long length);
+    }
+}
@@ -0,0 +1,185 @@
+package bd.gov.banbeis.service.blob;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Describes a binary property of an entity whose content is kept in the {@link ContentStore}.
+ * <p>
+ * The entity keeps the content in a transient {@code <property>} field, its media type in
+ * {@code <property>ContentType}, the hash of the content in {@code <property>BlobId} and its length in
+ * {@code <property>Size}. Images can also be rendered at smaller sizes, whose hashes are kept by
+ * {@link ImageRendition#getName() name} in {@code <property>Renditions}, and their dimensions, read from their
+ * headers, can be kept in {@code <property>Width} and {@code <property>Height}. Images can be prepared by the
+ * {@link ImageIngestService} before they are stored.
+ *
+ * @param <T> the type of the entity.
+ */
+public final class BlobField<T> {
+
+    private final Class<T> entityClass;
+
+    private final String property;
+
+    private final Function<T, String> id;
+
+    private final Function<T, byte[]> content;
+
+    private final BiConsumer<T, byte[]> contentSetter;
+
+    private final Function<T, String> contentType;
+
+    private final Function<T, String> blobId;
+
+    private final BiConsumer<T, String> blobIdSetter;
+
+    private final BiConsumer<T, Long> sizeSetter;
+
+    private Function<T, Map<String, String>> renditions;
+
+    private BiConsumer<T, Map<String, String>> renditionsSetter;
+
+    private BiConsumer<T, Integer> widthSetter;
+
+    private BiConsumer<T, Integer> heightSetter;
+
+    private boolean ingest;
+
+    public BlobField(
+        Class<T> entityClass,
+        String property,
+        Function<T, String> id,
+        Function<T, byte[]> content,
+        BiConsumer<T, byte[]> contentSetter,
+        Function<T, String> contentType,
+        Function<T, String> blobId,
+        BiConsumer<T, String> blobIdSetter,
+        BiConsumer<T, Long> sizeSetter
+    ) {
+        this.entityClass = entityClass;
+        this.property = property;
+        this.id = id;
+        this.content = content;
+        this.contentSetter = contentSetter;
+        this.contentType = contentType;
+        this.blobId = blobId;
+        this.blobIdSetter = blobIdSetter;
+        this.sizeSetter = sizeSetter;
+    }
+
+    /**
+     * Render the images of this property at the sizes of {@link ImageRendition}.
+     *
+     * @param renditions gets the blob ids of the renditions.
+     * @param renditionsSetter sets the blob ids of the renditions.
+     * @return this field.
+     */
+    public BlobField<T> renditions(Function<T, Map<String, String>> renditions, BiConsumer<T, Map<String, String>> renditionsSetter) {
+        this.renditions = renditions;
+        this.renditionsSetter = renditionsSetter;
+        return this;
+    }
+
+    /**
+     * Keep the dimensions of the images of this property.
+     *
+     * @param widthSetter sets the width of the image, in pixels.
+     * @param heightSetter sets the height of the image, in pixels.
+     * @return this field.
+     */
+    public BlobField<T> dimensions(BiConsumer<T, Integer> widthSetter, BiConsumer<T, Integer> heightSetter) {
+        this.widthSetter = widthSetter;
+        this.heightSetter = heightSetter;
+        return this;
+    }
+
+    /**
+     * Prepare the images of this property with the {@link ImageIngestService} before they are stored.
+     *
+     * @return this field.
+     */
+    public BlobField<T> ingest() {
+        this.ingest = true;
+        return this;
+    }
+
+    public Class<T> getEntityClass() {
+        return entityClass;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getBlobIdProperty() {
+        return property + "BlobId";
+    }
+
+    public String getRenditionsProperty() {
+        return property + "Renditions";
+    }
+
+    public boolean hasRenditions() {
+        return renditions != null;
+    }
+
+    public boolean hasDimensions() {
+        return widthSetter != null;
+    }
+
+    public boolean hasIngest() {
+        return ingest;
+    }
+
+    /**
+     * @return the name of the blobs of this property, for troubleshooting.
+     */
+    public String getFilename() {
+        return entityClass.getSimpleName() + "." + property;
+    }
+
+    String getId(T entity) {
+        return id.apply(entity);
+    }
+
+    byte[] getContent(T entity) {
+        return content.apply(entity);
+    }
+
+    void setContent(T entity, byte[] value) {
+        contentSetter.accept(entity, value);
+    }
+
+    String getContentType(T entity) {
+        return contentType.apply(entity);
+    }
+
+    String getBlobId(T entity) {
+        return blobId.apply(entity);
+    }
+
+    void setBlobId(T entity, String value) {
+        blobIdSetter.accept(entity, value);
+    }
+
+    void setSize(T entity, Long value) {
+        sizeSetter.accept(entity, value);
+    }
+
+    Map<String, String> getRenditions(T entity) {
+        return renditions.apply(entity);
+    }
+
+    void setRenditions(T entity, Map<String, String> value) {
+        renditionsSetter.accept(entity, value);
+    }
+
+    void setWidth(T entity, Integer value) {
+        widthSetter.accept(entity, value);
+    }
+
+    void setHeight(T entity, Integer value) {
+        heightSetter.accept(entity, value);
+    }
+}
@@ -0,0 +1,68 @@
+package bd.gov.banbeis.service.blob;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stores immutable blobs, identified by an id chosen by the store.
+ * <p>
+ * The store is selected with {@code application.blob.store}: {@code mongo} keeps the blobs in GridFS, see
+ * {@link GridFsBlobStore}, and {@code filesystem} in files under {@code application.blob.directory}, see
+ * {@link FileSystemBlobStore}. The ids of a store are meaningless to the others.
+ */
+public interface BlobStore {
+    /**
+     * Store a blob.
+     *
+     * @param filename the name of the blob, for troubleshooting.
+     * @param content the content.
+     * @param contentType the media type of the content.
+     * @return the id of the new blob.
+     */
+    Mono<String> store(String filename, byte[] content, String contentType);
+
+    /**
+     * Store a blob as its content is received.
+     *
+     * @param filename the name of the blob, for troubleshooting.
+     * @param content the content, whose buffers are released once written.
+     * @param contentType the media type of the content.
+     * @return the id of the new blob. If the content fails, what was already written is deleted.
+     */
+    Mono<String> store(String filename, Flux<DataBuffer> content, String contentType);
+
+    /**
+     * Find a blob.
+     *
+     * @param id the id of the blob.
+     * @return the blob content, or empty if the blob does not exist.
+     */
+    Mono<BlobContent> find(String id);
+
+    /**
+     * Read the whole content of a blob in memory.
+     *
+     * @param id the id of the blob.
+     * @return the blob content, or empty if the blob does not exist.
+     */
+    default Mono<byte[]> findBytes(String id) {
+        return find(id)
+            .flatMap(blob -> DataBufferUtils.join(blob.getContent()))
+            .map(buffer -> {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                DataBufferUtils.release(buffer);
+                return bytes;
+            });
+    }
+
+    /**
+     * Delete a blob.
+     *
+     * @param id the id of the blob.
+     * @return a Mono to signal the deletion.
+     */
+    Mono<Void> delete(String id);
+}
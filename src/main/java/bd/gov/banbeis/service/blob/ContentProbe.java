@@ -0,0 +1,135 @@
+package bd.gov.banbeis.service.blob;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.springframework.core.io.buffer.DataBuffer;
+
+/**
+ * Learns about a content as its chunks stream by: hashes it, counts its size, and keeps its head only, from which
+ * the dimensions of an image are read without decoding its pixels.
+ * <p>
+ * A content exceeding the maximum size is rejected on the chunk which exceeds it, so it is never buffered whole.
+ */
+final class ContentProbe {
+
+    /**
+     * Bytes kept from the start of the content, enough for the headers of the usual image formats.
+     */
+    static final int HEAD_SIZE = 64 * 1024;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final MessageDigest digest;
+
+    private final long maxSize;
+
+    private final byte[] head = new byte[HEAD_SIZE];
+
+    private int headLength;
+
+    private long size;
+
+    private ContentRejectedException rejection;
+
+    ContentProbe(long maxSize) {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Probe the next chunk of the content, without consuming it.
+     *
+     * @param buffer the chunk.
+     * @return {@code false} if the content exceeds the maximum size, see {@link #getRejection()}.
+     */
+    boolean update(DataBuffer buffer) {
+        return update(buffer.asByteBuffer());
+    }
+
+    /**
+     * Probe the next chunk of the content.
+     *
+     * @param content the chunk.
+     * @return {@code false} if the content exceeds the maximum size, see {@link #getRejection()}.
+     */
+    boolean update(byte[] content) {
+        return update(ByteBuffer.wrap(content));
+    }
+
+    private boolean update(ByteBuffer chunk) {
+        size += chunk.remaining();
+        if (size > maxSize) {
+            rejection =
+                new ContentRejectedException(
+                    ContentRejectedException.TOO_LARGE,
+                    "The content exceeds the maximum size of " + maxSize + " bytes"
+                );
+            return false;
+        }
+        int kept = Math.min(chunk.remaining(), HEAD_SIZE - headLength);
+        chunk.duplicate().get(head, headLength, kept);
+        headLength += kept;
+        digest.update(chunk);
+        return true;
+    }
+
+    /**
+     * @return why the content was rejected, or {@code null} if it was not.
+     */
+    ContentRejectedException getRejection() {
+        return rejection;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * Complete the probe, once the whole content was probed.
+     *
+     * @return what was learned about the content.
+     */
+    StoredContent complete() {
+        byte[] hash = digest.digest();
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX[(hash[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[hash[i] & 0xf];
+        }
+        int[] dimensions = readDimensions();
+        return dimensions == null
+            ? new StoredContent(new String(hex), size, null, null)
+            : new StoredContent(new String(hex), size, dimensions[0], dimensions[1]);
+    }
+
+    private int[] readDimensions() {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(Arrays.copyOf(head, headLength)))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return new int[] { reader.getWidth(0), reader.getHeight(0) };
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not an image, or its header does not fit in the head
+            return null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package bd.gov.banbeis.service.blob;
+
+/**
+ * Thrown when an uploaded content is not accepted, before it is stored.
+ */
+public class ContentRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String TOO_LARGE = "contenttoolarge";
+
+    public static final String UNSUPPORTED_TYPE = "contenttypeunsupported";
+
+    public static final String TOO_MANY_FILES = "toomanyfiles";
+
+    private final String reason;
+
+    public ContentRejectedException(String reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    /**
+     * @return {@link #TOO_LARGE}, {@link #UNSUPPORTED_TYPE} or {@link #TOO_MANY_FILES}.
+     */
+    public String getReason() {
+        return reason;
+    }
+}
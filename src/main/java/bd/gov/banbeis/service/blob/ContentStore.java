@@ -0,0 +1,265 @@
+package bd.gov.banbeis.service.blob;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stores each distinct content once, identified by its SHA-256, and counts the references to it.
+ * <p>
+ * The {@value #COLLECTION} collection maps each content hash to the {@link BlobStore} blob holding it, along with its
+ * reference count. Storing a content already stored only increments its count. Releasing a reference decrements it,
+ * and the contents no longer referenced for {@code application.blob.grace-period} are deleted every
+ * {@code application.blob.sweep-interval}.
+ */
+@Service
+public class ContentStore {
+
+    public static final String COLLECTION = "blob";
+
+    public static final String METER_NAME = "blobs";
+
+    private static final String FILE_ID = "file_id";
+
+    private static final String SIZE = "size";
+
+    private static final String CONTENT_TYPE = "content_type";
+
+    private static final String REF_COUNT = "ref_count";
+
+    private static final String RELEASED_DATE = "released_date";
+
+    private final Logger log = LoggerFactory.getLogger(ContentStore.class);
+
+    private final BlobStore blobStore;
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final Duration gracePeriod;
+
+    private final Counter deduplicated;
+
+    private final Counter swept;
+
+    public ContentStore(
+        BlobStore blobStore,
+        ReactiveMongoOperations mongoOperations,
+        MeterRegistry meterRegistry,
+        ApplicationProperties properties
+    ) {
+        this.blobStore = blobStore;
+        this.mongoOperations = mongoOperations;
+        this.gracePeriod = properties.getBlob().getGracePeriod();
+        this.deduplicated = Counter.builder(METER_NAME + ".deduplicated").register(meterRegistry);
+        this.swept = Counter.builder(METER_NAME + ".swept").register(meterRegistry);
+    }
+
+    /**
+     * Store a content, or add a reference to it if it is already stored.
+     *
+     * @param filename the name of the content, for troubleshooting.
+     * @param content the content.
+     * @param contentType the media type of the content.
+     * @return the stored content.
+     */
+    public Mono<StoredContent> store(String filename, byte[] content, String contentType) {
+        ContentProbe probe = new ContentProbe(Long.MAX_VALUE);
+        probe.update(content);
+        StoredContent probed = probe.complete();
+        return acquire(probed)
+            .switchIfEmpty(
+                Mono.defer(() -> {
+                    log.debug("Request to store content {} of {} bytes", probed.getHash(), content.length);
+                    return blobStore.store(filename, content, contentType).flatMap(fileId -> register(probed, fileId, contentType));
+                })
+            );
+    }
+
+    /**
+     * Store a content as it is received, or add a reference to it if it is already stored.
+     * <p>
+     * The content is written to the {@link BlobStore} chunk by chunk, with backpressure, while it is hashed: it is
+     * never held in memory whole, and a duplicate is only found, and then deleted, once it is written.
+     *
+     * @param filename the name of the content, for troubleshooting.
+     * @param content the content, whose chunks are released once written.
+     * @param contentType the media type of the content.
+     * @param maxSize the maximum length of the content, in bytes.
+     * @return the stored content, or a {@link ContentRejectedException} if the content exceeds the maximum size, in
+     * which case nothing is stored.
+     */
+    public Mono<StoredContent> store(String filename, Flux<DataBuffer> content, String contentType, long maxSize) {
+        return Mono.defer(() -> {
+            ContentProbe probe = new ContentProbe(maxSize);
+            Flux<DataBuffer> probed = content.handle((buffer, sink) -> {
+                if (probe.update(buffer)) {
+                    sink.next(buffer);
+                } else {
+                    DataBufferUtils.release(buffer);
+                    sink.error(probe.getRejection());
+                }
+            });
+            return blobStore
+                .store(filename, probed, contentType)
+                .onErrorMap(error -> probe.getRejection() != null, error -> probe.getRejection())
+                .flatMap(fileId -> {
+                    StoredContent stored = probe.complete();
+                    log.debug("Request to store content {} of {} bytes", stored.getHash(), stored.getSize());
+                    return acquire(stored)
+                        .flatMap(acquired -> blobStore.delete(fileId).thenReturn(acquired))
+                        .switchIfEmpty(Mono.defer(() -> register(stored, fileId, contentType)));
+                });
+        });
+    }
+
+    private Mono<StoredContent> acquire(StoredContent content) {
+        return mongoOperations
+            .findAndModify(
+                new Query(Criteria.where("_id").is(content.getHash())),
+                new Update().inc(REF_COUNT, 1),
+                Document.class,
+                COLLECTION
+            )
+            .doOnNext(previous -> deduplicated.increment())
+            .map(previous -> content);
+    }
+
+    private Mono<StoredContent> register(StoredContent content, String fileId, String contentType) {
+        return mongoOperations
+            .insert(
+                new Document("_id", content.getHash())
+                    .append(FILE_ID, fileId)
+                    .append(SIZE, content.getSize())
+                    .append(CONTENT_TYPE, contentType)
+                    .append(REF_COUNT, 1),
+                COLLECTION
+            )
+            .thenReturn(content)
+            // The same content was stored concurrently: keep the other copy, unless it was swept meanwhile
+            .onErrorResume(
+                DuplicateKeyException.class,
+                error ->
+                    acquire(content)
+                        .flatMap(acquired -> blobStore.delete(fileId).thenReturn(acquired))
+                        .switchIfEmpty(Mono.defer(() -> register(content, fileId, contentType)))
+            );
+    }
+
+    /**
+     * Find a content.
+     *
+     * @param hash the SHA-256 of the content.
+     * @return the content, or empty if it is not stored.
+     */
+    public Mono<BlobContent> find(String hash) {
+        return mongoOperations
+            .findById(hash, Document.class, COLLECTION)
+            .flatMap(stored ->
+                blobStore
+                    .find(stored.getString(FILE_ID))
+                    .map(blob ->
+                        new BlobContent(
+                            hash,
+                            stored.getString(CONTENT_TYPE),
+                            blob.getLength(),
+                            blob.getContent(),
+                            blob::getContent,
+                            blob.getFile()
+                        )
+                    )
+            );
+    }
+
+    /**
+     * Read a whole content in memory.
+     *
+     * @param hash the SHA-256 of the content.
+     * @return the content, or empty if it is not stored.
+     */
+    public Mono<byte[]> findBytes(String hash) {
+        return mongoOperations.findById(hash, Document.class, COLLECTION).flatMap(stored -> blobStore.findBytes(stored.getString(FILE_ID)));
+    }
+
+    /**
+     * Count the references to a content.
+     *
+     * @param hash the SHA-256 of the content.
+     * @return the number of references, {@code 0} if the content is not stored.
+     */
+    public Mono<Integer> countReferences(String hash) {
+        return mongoOperations
+            .findById(hash, Document.class, COLLECTION)
+            .map(stored -> stored.getInteger(REF_COUNT, 0))
+            .defaultIfEmpty(0);
+    }
+
+    /**
+     * Remove a reference to a content. The content is deleted by the next sweep after its grace period if it is not
+     * referenced anymore.
+     *
+     * @param hash the SHA-256 of the content.
+     * @return a Mono to signal the release.
+     */
+    public Mono<Void> release(String hash) {
+        log.debug("Request to release content {}", hash);
+        return mongoOperations
+            .updateFirst(
+                new Query(Criteria.where("_id").is(hash)),
+                new Update().inc(REF_COUNT, -1).set(RELEASED_DATE, Instant.now()),
+                COLLECTION
+            )
+            .then();
+    }
+
+    @Scheduled(fixedDelayString = "${application.blob.sweep-interval}")
+    public void scheduledSweep() {
+        sweep().block();
+    }
+
+    /**
+     * Delete the contents which are no longer referenced, since longer than the grace period.
+     *
+     * @return the number of deleted contents.
+     */
+    public Mono<Long> sweep() {
+        Instant releasedBefore = Instant.now().minus(gracePeriod);
+        return mongoOperations
+            .find(new Query(Criteria.where(REF_COUNT).lte(0).and(RELEASED_DATE).lt(releasedBefore)), Document.class, COLLECTION)
+            // Only delete the blob if the content was not referenced again meanwhile
+            .concatMap(stored ->
+                mongoOperations
+                    .remove(new Query(Criteria.where("_id").is(stored.get("_id")).and(REF_COUNT).lte(0)), COLLECTION)
+                    .filter(result -> result.getDeletedCount() > 0)
+                    .flatMap(result -> blobStore.delete(stored.getString(FILE_ID)).thenReturn(stored))
+            )
+            .count()
+            .doOnNext(count -> {
+                swept.increment(count);
+                if (count > 0) {
+                    log.info("Deleted {} unreferenced blobs", count);
+                }
+            });
+    }
+
+    static String sha256(byte[] content) {
+        ContentProbe probe = new ContentProbe(Long.MAX_VALUE);
+        probe.update(content);
+        return probe.complete().getHash();
+    }
+}
@@ -0,0 +1,481 @@
+package bd.gov.banbeis.service.blob;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the binary properties of the entities in the {@link ContentStore}, and the hashes of their contents in the
+ * entities.
+ * <p>
+ * Contents are immutable: saving new content references it and releases the previous one once the entity points to
+ * the new one, so a reader never sees an entity pointing to a missing or partially written content.
+ * <p>
+ * Images are prepared by the {@link ImageIngestService} before they are stored, when their field asks for it. The
+ * renditions of an image are rendered once the entity is saved, by the {@link ImageRenditionService}. Until they
+ * are stored, or if they cannot be rendered, the original image is served instead.
+ */
+@Service
+public class EntityBlobService {
+
+    private final Logger log = LoggerFactory.getLogger(EntityBlobService.class);
+
+    private final ContentStore contentStore;
+
+    private final ImageRenditionService imageRenditionService;
+
+    private final ImageIngestService imageIngestService;
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final ApplicationProperties.Upload uploadProperties;
+
+    public EntityBlobService(
+        ContentStore contentStore,
+        ImageRenditionService imageRenditionService,
+        ImageIngestService imageIngestService,
+        ReactiveMongoOperations mongoOperations,
+        ApplicationProperties properties
+    ) {
+        this.contentStore = contentStore;
+        this.imageRenditionService = imageRenditionService;
+        this.imageIngestService = imageIngestService;
+        this.mongoOperations = mongoOperations;
+        this.uploadProperties = properties.getUpload();
+    }
+
+    /**
+     * Save an entity along with the content of one of its binary properties.
+     *
+     * @param entity the entity to save, its content is stored and it then points to the new blob.
+     * @param field the binary property.
+     * @param saver saves the entity.
+     * @param <T> the type of the entity.
+     * @return the persisted entity.
+     */
+    public <T> Mono<T> save(T entity, BlobField<T> field, Function<T, Mono<T>> saver) {
+        log.debug("Request to save the {} of {}", field.getProperty(), entity);
+        byte[] content = field.getContent(entity);
+        if (content == null) {
+            return save(entity, field, stored -> Mono.just(Optional.empty()), blobId -> Mono.empty(), saver);
+        }
+        String contentType = field.getContentType(entity);
+        return save(
+            entity,
+            field,
+            stored ->
+                ingest(field, stored, content, contentType)
+                    .flatMap(ingested -> {
+                        // The entity holds the content as stored
+                        field.setContent(entity, ingested);
+                        return contentStore.store(field.getFilename(), ingested, contentType);
+                    })
+                    .map(Optional::of),
+            blobId -> Mono.justOrEmpty(field.getContent(entity)),
+            saver
+        );
+    }
+
+    /**
+     * A content which is saved again unchanged was already ingested, ingesting it again would degrade it.
+     */
+    private <T> Mono<byte[]> ingest(BlobField<T> field, Optional<T> stored, byte[] content, String contentType) {
+        if (!field.hasIngest() || ContentStore.sha256(content).equals(stored.map(field::getBlobId).orElse(null))) {
+            return Mono.just(content);
+        }
+        return imageIngestService.ingestAsync(content, contentType);
+    }
+
+    /**
+     * Save an entity along with the content of one of its binary properties, uploaded as a stream.
+     * <p>
+     * The content is checked against the {@code application.upload} limits before it is read: a content type which is
+     * not allowed is rejected upfront, and a content exceeding the maximum size as soon as it does.
+     *
+     * @param entity the entity to save, with the media type of the content and without content. It then points to
+     * the new blob.
+     * @param field the binary property.
+     * @param content the content, whose chunks are released once stored.
+     * @param saver saves the entity.
+     * @param <T> the type of the entity.
+     * @return the persisted entity, or a {@link ContentRejectedException} if the content is not accepted.
+     */
+    public <T> Mono<T> upload(T entity, BlobField<T> field, Flux<DataBuffer> content, Function<T, Mono<T>> saver) {
+        log.debug("Request to upload the {} of {}", field.getProperty(), entity);
+        String contentType = field.getContentType(entity);
+        if (!isAllowed(contentType)) {
+            return Mono.error(unsupportedType(contentType));
+        }
+        Mono<StoredContent> uploaded = contentStore
+            .store(field.getFilename(), content, contentType, uploadProperties.getMaxSize().toBytes())
+            .flatMap(original -> field.hasIngest() ? ingest(field, original, contentType) : Mono.just(original));
+        // The image is read back to be rendered, once uploaded
+        return save(entity, field, stored -> uploaded.map(Optional::of), contentStore::findBytes, saver);
+    }
+
+    /**
+     * Ingest an uploaded content once its size is checked: it is read back, and if the ingested content differs, it
+     * is stored in place of the uploaded one.
+     */
+    private <T> Mono<StoredContent> ingest(BlobField<T> field, StoredContent original, String contentType) {
+        return contentStore
+            .findBytes(original.getHash())
+            .flatMap(bytes ->
+                imageIngestService
+                    .ingestAsync(bytes, contentType)
+                    .flatMap(ingested ->
+                        ingested == bytes
+                            ? Mono.just(original)
+                            : contentStore
+                                .store(field.getFilename(), ingested, contentType)
+                                .flatMap(storedContent -> contentStore.release(original.getHash()).thenReturn(storedContent))
+                    )
+            )
+            .defaultIfEmpty(original);
+    }
+
+    private <T> Mono<T> save(
+        T entity,
+        BlobField<T> field,
+        Function<Optional<T>, Mono<Optional<StoredContent>>> acquire,
+        Function<String, Mono<byte[]>> content,
+        Function<T, Mono<T>> saver
+    ) {
+        String id = field.getId(entity);
+        Mono<Optional<T>> previous = id == null
+            ? Mono.just(Optional.empty())
+            : findStored(id, field).map(Optional::of).defaultIfEmpty(Optional.empty());
+        return previous.flatMap(stored ->
+            acquire.apply(stored).flatMap(storedContent -> {
+                String blobId = storedContent.map(StoredContent::getHash).orElse("");
+                boolean unchanged = !blobId.isEmpty() && blobId.equals(stored.map(field::getBlobId).orElse(null));
+                setStored(entity, field, storedContent);
+                if (field.hasRenditions()) {
+                    // The renditions of an unchanged content are still valid
+                    field.setRenditions(entity, unchanged ? field.getRenditions(stored.get()) : null);
+                }
+                // The content was acquired twice when unchanged
+                List<String> released = unchanged
+                    ? List.of(blobId)
+                    : stored.map(previousEntity -> blobIds(previousEntity, field)).orElse(List.of());
+                return saver
+                    .apply(entity)
+                    .onErrorResume(error -> release(List.of(blobId)).then(Mono.error(error)))
+                    .flatMap(saved -> {
+                        if (!unchanged && !blobId.isEmpty() && field.hasRenditions()) {
+                            render(field.getId(saved), field, content, blobId);
+                        }
+                        return release(released).thenReturn(saved);
+                    });
+            })
+        );
+    }
+
+    /**
+     * Insert new entities along with the contents of one of their binary properties, uploaded as files.
+     * <p>
+     * The files are read in turn, as they are received, within the {@code application.upload} limits. Up to
+     * {@code application.upload.bulk-concurrency} of them are then ingested and stored in parallel, while the next
+     * ones are received. The entities of the accepted files are inserted in a single write, in the order of the
+     * files, and their images are rendered afterwards.
+     *
+     * @param files the uploaded files, whose contents are read in turn.
+     * @param field the binary property.
+     * @param factory creates the entity of a file, with the media type of the file and without content.
+     * @param inserter inserts all the entities in a single write.
+     * @param <T> the type of the entity.
+     * @return the outcome of each file, in the order of the files. If the insertion fails, no entity is inserted and
+     * the error is signaled instead.
+     */
+    public <T> Mono<List<UploadResult<T>>> uploadAll(
+        Flux<UploadedFile> files,
+        BlobField<T> field,
+        Function<UploadedFile, T> factory,
+        Function<List<T>, Flux<T>> inserter
+    ) {
+        log.debug("Request to upload the {}s of new {}s", field.getProperty(), field.getEntityClass().getSimpleName());
+        long maxSize = uploadProperties.getMaxSize().toBytes();
+        return files
+            .index()
+            .concatMap(indexed -> receive(indexed.getT2(), indexed.getT1() < uploadProperties.getBulkMaxFiles(), maxSize))
+            .flatMapSequential(received -> prepare(received, field, factory), uploadProperties.getBulkConcurrency())
+            .collectList()
+            .flatMap(results -> {
+                List<T> entities = results
+                    .stream()
+                    .map(UploadResult::getEntity)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+                if (entities.isEmpty()) {
+                    return Mono.just(results);
+                }
+                return inserter
+                    .apply(entities)
+                    .collectList()
+                    .onErrorResume(error ->
+                        release(entities.stream().map(field::getBlobId).collect(Collectors.toList())).then(Mono.error(error))
+                    )
+                    .doOnNext(inserted -> {
+                        if (field.hasRenditions()) {
+                            // The images are read back to be rendered, they are not held meanwhile
+                            inserted.forEach(entity ->
+                                render(field.getId(entity), field, contentStore::findBytes, field.getBlobId(entity))
+                            );
+                        }
+                    })
+                    .thenReturn(results);
+            });
+    }
+
+    /**
+     * Read a file of a multi-file upload, or skip it if it is not accepted. Either way its content is consumed, so the
+     * next file can be received.
+     */
+    private Mono<ReceivedFile> receive(UploadedFile file, boolean withinMaxFiles, long maxSize) {
+        ContentRejectedException rejection = null;
+        if (!withinMaxFiles) {
+            rejection =
+                new ContentRejectedException(
+                    ContentRejectedException.TOO_MANY_FILES,
+                    "At most " + uploadProperties.getBulkMaxFiles() + " files can be uploaded at once"
+                );
+        } else if (!isAllowed(file.getContentType())) {
+            rejection = unsupportedType(file.getContentType());
+        }
+        if (rejection != null) {
+            ReceivedFile rejected = new ReceivedFile(file, null, rejection);
+            return file.getContent().doOnNext(DataBufferUtils::release).then(Mono.just(rejected));
+        }
+        return Mono.defer(() -> {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            AtomicBoolean tooLarge = new AtomicBoolean();
+            return file
+                .getContent()
+                .doOnNext(buffer -> {
+                    try {
+                        if (!tooLarge.get() && content.size() + buffer.readableByteCount() > maxSize) {
+                            // The rest of the file is still read, and dropped
+                            tooLarge.set(true);
+                            content.reset();
+                        }
+                        if (!tooLarge.get()) {
+                            byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            content.writeBytes(bytes);
+                        }
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                })
+                .then(
+                    Mono.fromSupplier(() ->
+                        tooLarge.get()
+                            ? new ReceivedFile(
+                                file,
+                                null,
+                                new ContentRejectedException(
+                                    ContentRejectedException.TOO_LARGE,
+                                    "The content exceeds the maximum size of " + maxSize + " bytes"
+                                )
+                            )
+                            : new ReceivedFile(file, content.toByteArray(), null)
+                    )
+                );
+        });
+    }
+
+    /**
+     * Ingest and store the content of a received file, and create its entity.
+     */
+    private <T> Mono<UploadResult<T>> prepare(ReceivedFile received, BlobField<T> field, Function<UploadedFile, T> factory) {
+        String filename = received.file.getFilename();
+        if (received.rejection != null) {
+            return Mono.just(UploadResult.rejected(filename, received.rejection));
+        }
+        String contentType = received.file.getContentType();
+        Mono<byte[]> ingested = field.hasIngest()
+            ? imageIngestService.ingestAsync(received.content, contentType)
+            : Mono.just(received.content);
+        return ingested
+            .flatMap(content -> contentStore.store(field.getFilename(), content, contentType))
+            .map(storedContent -> {
+                T entity = factory.apply(received.file);
+                setStored(entity, field, Optional.of(storedContent));
+                return UploadResult.created(filename, entity);
+            });
+    }
+
+    private <T> void setStored(T entity, BlobField<T> field, Optional<StoredContent> storedContent) {
+        field.setBlobId(entity, storedContent.map(StoredContent::getHash).orElse(null));
+        field.setSize(entity, storedContent.map(StoredContent::getSize).orElse(null));
+        if (field.hasDimensions()) {
+            field.setWidth(entity, storedContent.map(StoredContent::getWidth).orElse(null));
+            field.setHeight(entity, storedContent.map(StoredContent::getHeight).orElse(null));
+        }
+    }
+
+    private boolean isAllowed(String contentType) {
+        return contentType != null && uploadProperties.getAllowedContentTypes().contains(contentType);
+    }
+
+    private static ContentRejectedException unsupportedType(String contentType) {
+        return new ContentRejectedException(
+            ContentRejectedException.UNSUPPORTED_TYPE,
+            "The content type " + contentType + " is not allowed"
+        );
+    }
+
+    /**
+     * Load the content of a binary property into an entity, if not already loaded.
+     *
+     * @param entity the entity.
+     * @param field the binary property.
+     * @param <T> the type of the entity.
+     * @return the entity, with its content.
+     */
+    public <T> Mono<T> loadContent(T entity, BlobField<T> field) {
+        String blobId = field.getBlobId(entity);
+        if (blobId == null || field.getContent(entity) != null) {
+            return Mono.just(entity);
+        }
+        return contentStore.findBytes(blobId).doOnNext(content -> field.setContent(entity, content)).thenReturn(entity);
+    }
+
+    /**
+     * Find the content of a binary property, to be streamed.
+     *
+     * @param id the id of the entity.
+     * @param field the binary property.
+     * @param rendition the size of the image, or {@code null} for its original size.
+     * @param <T> the type of the entity.
+     * @return the content of the rendition if it was rendered, of the original otherwise, or empty if the entity does
+     * not exist or has no content.
+     */
+    public <T> Mono<BlobContent> findContent(String id, BlobField<T> field, ImageRendition rendition) {
+        log.debug("Request to get the {} of {} : {}", field.getProperty(), field.getEntityClass().getSimpleName(), id);
+        return findStored(id, field)
+            .flatMap(stored -> {
+                Map<String, String> renditions = rendition == null || !field.hasRenditions() ? null : field.getRenditions(stored);
+                String renditionBlobId = renditions == null ? null : renditions.get(rendition.getName());
+                return Mono.justOrEmpty(renditionBlobId != null ? renditionBlobId : field.getBlobId(stored));
+            })
+            .flatMap(contentStore::find);
+    }
+
+    /**
+     * Delete an entity along with the content of one of its binary properties.
+     *
+     * @param id the id of the entity.
+     * @param field the binary property.
+     * @param deleter deletes the entity.
+     * @param <T> the type of the entity.
+     * @return a Mono to signal the deletion.
+     */
+    public <T> Mono<Void> delete(String id, BlobField<T> field, Function<String, Mono<Void>> deleter) {
+        return findStored(id, field)
+            .map(stored -> blobIds(stored, field))
+            .defaultIfEmpty(List.of())
+            .flatMap(blobIds -> deleter.apply(id).then(release(blobIds)));
+    }
+
+    /**
+     * Render an image in the background and point the entity to its renditions, unless its content was replaced
+     * meanwhile.
+     */
+    private <T> void render(String id, BlobField<T> field, Function<String, Mono<byte[]>> content, String blobId) {
+        content
+            .apply(blobId)
+            .flatMap(imageRenditionService::renderAsync)
+            .flatMapMany(renditions ->
+                Flux
+                    .fromIterable(renditions.getContents().entrySet())
+                    .concatMap(rendition ->
+                        contentStore
+                            .store(
+                                field.getFilename() + "." + rendition.getKey().getName(),
+                                rendition.getValue(),
+                                renditions.getContentType()
+                            )
+                            .map(renditionContent -> Map.entry(rendition.getKey().getName(), renditionContent.getHash()))
+                    )
+            )
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+            .filter(renditionBlobIds -> !renditionBlobIds.isEmpty())
+            .flatMap(renditionBlobIds ->
+                mongoOperations
+                    .updateFirst(
+                        new Query(Criteria.where("id").is(id).and(field.getBlobIdProperty()).is(blobId)),
+                        Update.update(field.getRenditionsProperty(), renditionBlobIds),
+                        field.getEntityClass()
+                    )
+                    .filter(result -> result.getModifiedCount() == 0)
+                    .flatMap(result -> release(renditionBlobIds.values()))
+            )
+            .subscribe(
+                null,
+                error ->
+                    log.warn("Could not render the {} of {} {}", field.getProperty(), field.getEntityClass().getSimpleName(), id, error)
+            );
+    }
+
+    private Mono<Void> release(Collection<String> blobIds) {
+        return Flux.fromIterable(blobIds).filter(blobId -> !blobId.isEmpty()).concatMap(contentStore::release).then();
+    }
+
+    private <T> List<String> blobIds(T stored, BlobField<T> field) {
+        List<String> blobIds = new ArrayList<>();
+        if (field.getBlobId(stored) != null) {
+            blobIds.add(field.getBlobId(stored));
+        }
+        if (field.hasRenditions() && field.getRenditions(stored) != null) {
+            blobIds.addAll(field.getRenditions(stored).values());
+        }
+        return blobIds;
+    }
+
+    private <T> Mono<T> findStored(String id, BlobField<T> field) {
+        Query query = new Query(Criteria.where("id").is(id));
+        query.fields().include(field.getBlobIdProperty());
+        if (field.hasRenditions()) {
+            query.fields().include(field.getRenditionsProperty());
+        }
+        return mongoOperations.findOne(query, field.getEntityClass());
+    }
+
+    /**
+     * A file of a multi-file upload, read in memory, or the reason why it was not.
+     */
+    private static final class ReceivedFile {
+
+        private final UploadedFile file;
+
+        private final byte[] content;
+
+        private final ContentRejectedException rejection;
+
+        private ReceivedFile(UploadedFile file, byte[] content, ContentRejectedException rejection) {
+            this.file = file;
+            this.content = content;
+            this.rejection = rejection;
+        }
+    }
+}
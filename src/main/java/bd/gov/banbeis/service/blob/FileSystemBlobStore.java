@@ -0,0 +1,147 @@
+package bd.gov.banbeis.service.blob;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Stores immutable blobs in files under {@code application.blob.directory}, e.g. on a local disk or a mounted volume.
+ * <p>
+ * A blob is written to the {@value #INCOMING} directory first, then moved to its place once complete, so a blob is
+ * never read partially written. Its content is exposed as a file, which the web layer sends without reading it, see
+ * {@link BlobContent#getFile()}. The media type of the content is not kept, the {@link ContentStore} keeps it.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.blob", name = "store", havingValue = "filesystem")
+public class FileSystemBlobStore implements BlobStore {
+
+    static final String INCOMING = ".incoming";
+
+    private static final Pattern ID = Pattern.compile("[0-9a-f]{32}");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Logger log = LoggerFactory.getLogger(FileSystemBlobStore.class);
+
+    private final Path directory;
+
+    private final Path incoming;
+
+    private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    public FileSystemBlobStore(ApplicationProperties properties) {
+        this.directory = Paths.get(properties.getBlob().getDirectory()).toAbsolutePath();
+        this.incoming = directory.resolve(INCOMING);
+        try {
+            Files.createDirectories(incoming);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the blob directory " + directory, e);
+        }
+    }
+
+    @Override
+    public Mono<String> store(String filename, byte[] content, String contentType) {
+        log.debug("Request to store blob {} of {} bytes", filename, content.length);
+        return write(Flux.just(bufferFactory.wrap(content)));
+    }
+
+    @Override
+    public Mono<String> store(String filename, Flux<DataBuffer> content, String contentType) {
+        log.debug("Request to store blob {} as it is received", filename);
+        return write(content);
+    }
+
+    private Mono<String> write(Flux<DataBuffer> content) {
+        return Mono.defer(() -> {
+            String id = UUID.randomUUID().toString().replace("-", "");
+            Path written = incoming.resolve(id);
+            return DataBufferUtils
+                .write(content, written, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)
+                .then(
+                    Mono.fromCallable(() -> {
+                        Path file = path(id);
+                        Files.createDirectories(file.getParent());
+                        Files.move(written, file, StandardCopyOption.ATOMIC_MOVE);
+                        return id;
+                    })
+                )
+                .onErrorResume(error -> deleteFile(written).then(Mono.error(error)))
+                .doOnCancel(() -> deleteFile(written).subscribe())
+                .subscribeOn(Schedulers.boundedElastic());
+        });
+    }
+
+    @Override
+    public Mono<BlobContent> find(String id) {
+        if (!ID.matcher(id).matches()) {
+            return Mono.empty();
+        }
+        Path file = path(id);
+        return Mono
+            .fromCallable(() -> Files.size(file))
+            .onErrorResume(NoSuchFileException.class, e -> Mono.empty())
+            .subscribeOn(Schedulers.boundedElastic())
+            .map(length ->
+                new BlobContent(
+                    id,
+                    null,
+                    length,
+                    DataBufferUtils.read(file, bufferFactory, BUFFER_SIZE),
+                    (offset, rangeLength) -> readRange(file, offset, rangeLength),
+                    file
+                )
+            );
+    }
+
+    private Flux<DataBuffer> readRange(Path file, long offset, long length) {
+        return DataBufferUtils.takeUntilByteCount(
+            DataBufferUtils.readAsynchronousFileChannel(
+                () -> AsynchronousFileChannel.open(file, StandardOpenOption.READ),
+                offset,
+                bufferFactory,
+                BUFFER_SIZE
+            ),
+            length
+        );
+    }
+
+    @Override
+    public Mono<Void> delete(String id) {
+        if (!ID.matcher(id).matches()) {
+            return Mono.empty();
+        }
+        log.debug("Request to delete blob {}", id);
+        return deleteFile(path(id));
+    }
+
+    private Mono<Void> deleteFile(Path file) {
+        return Mono.fromCallable(() -> Files.deleteIfExists(file)).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    /**
+     * Blobs are spread in sub-directories named after the start of their ids, to keep the directories small.
+     */
+    private Path path(String id) {
+        return directory.resolve(id.substring(0, 2)).resolve(id);
+    }
+}
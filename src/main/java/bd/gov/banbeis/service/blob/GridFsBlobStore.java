@@ -0,0 +1,107 @@
+package bd.gov.banbeis.service.blob;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import java.nio.ByteBuffer;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.ReactiveGridFsTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stores immutable blobs in GridFS, where they are split in chunks and streamed, instead of inline in documents.
+ * <p>
+ * A range of a blob is read from the chunks which hold it only, so seeking in a blob does not read it whole.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.blob", name = "store", havingValue = "mongo", matchIfMissing = true)
+public class GridFsBlobStore implements BlobStore {
+
+    private static final String CHUNKS_COLLECTION = "fs.chunks";
+
+    private final Logger log = LoggerFactory.getLogger(GridFsBlobStore.class);
+
+    private final ReactiveGridFsTemplate gridFsTemplate;
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    public GridFsBlobStore(ReactiveGridFsTemplate gridFsTemplate, ReactiveMongoOperations mongoOperations) {
+        this.gridFsTemplate = gridFsTemplate;
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Mono<String> store(String filename, byte[] content, String contentType) {
+        log.debug("Request to store blob {} of {} bytes", filename, content.length);
+        return gridFsTemplate.store(Flux.just(bufferFactory.wrap(content)), filename, contentType).map(ObjectId::toHexString);
+    }
+
+    @Override
+    public Mono<String> store(String filename, Flux<DataBuffer> content, String contentType) {
+        log.debug("Request to store blob {} as it is received", filename);
+        return gridFsTemplate.store(content, filename, contentType).map(ObjectId::toHexString);
+    }
+
+    @Override
+    public Mono<BlobContent> find(String id) {
+        if (!ObjectId.isValid(id)) {
+            return Mono.empty();
+        }
+        return gridFsTemplate
+            .findOne(query(where("_id").is(new ObjectId(id))))
+            .flatMap(file ->
+                gridFsTemplate
+                    .getResource(file)
+                    .map(resource ->
+                        new BlobContent(
+                            id,
+                            file.getMetadata() == null ? null : file.getMetadata().getString("_contentType"),
+                            file.getLength(),
+                            resource.getDownloadStream(),
+                            (offset, length) -> readRange(file, offset, length)
+                        )
+                    )
+            );
+    }
+
+    private Flux<DataBuffer> readRange(GridFSFile file, long offset, long length) {
+        long chunkSize = file.getChunkSize();
+        long first = offset / chunkSize;
+        long last = (offset + length - 1) / chunkSize;
+        Query query = query(where("files_id").is(file.getObjectId()).and("n").gte(first).lte(last)).with(Sort.by("n"));
+        return mongoOperations
+            .find(query, Document.class, CHUNKS_COLLECTION)
+            .map(chunk -> {
+                long n = chunk.get("n", Number.class).longValue();
+                byte[] data = chunk.get("data", Binary.class).getData();
+                int from = n == first ? (int) (offset - n * chunkSize) : 0;
+                int to = n == last ? (int) (offset + length - n * chunkSize) : data.length;
+                return bufferFactory.wrap(ByteBuffer.wrap(data, from, to - from));
+            });
+    }
+
+    @Override
+    public Mono<Void> delete(String id) {
+        if (!ObjectId.isValid(id)) {
+            return Mono.empty();
+        }
+        log.debug("Request to delete blob {}", id);
+        return gridFsTemplate.delete(query(where("_id").is(new ObjectId(id))));
+    }
+}
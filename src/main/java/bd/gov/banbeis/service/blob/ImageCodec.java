@@ -0,0 +1,245 @@
+package bd.gov.banbeis.service.blob;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Image operations shared by the {@link ImageRenditionService} and the {@link ImageIngestService}.
+ */
+final class ImageCodec {
+
+    /**
+     * EXIF orientation of an image stored upright.
+     */
+    static final int UPRIGHT = 1;
+
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+
+    private ImageCodec() {}
+
+    /**
+     * Decode an image only as large as needed to scale it down to a size. The dimensions are read from the header first,
+     * then every n-th pixel of every n-th row is decoded, so a small file holding a huge image never takes the full size
+     * of its pixels in memory.
+     *
+     * @param content the encoded image.
+     * @param maxDimension the length of the longest side the image is to be scaled down to.
+     * @return the image, whose longest side is longer than {@code maxDimension} but less than twice as long if the
+     * original one was longer, or {@code null} if the content is not an image the JDK can decode.
+     * @throws IOException if the image cannot be decoded.
+     */
+    static BufferedImage read(byte[] content, int maxDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, (longest - 1) / maxDimension);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scale down by halves then to the exact size, bilinear interpolation alone would skip most source pixels.
+     */
+    static BufferedImage scale(BufferedImage source, int width, int height, boolean alpha) {
+        BufferedImage scaled = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(scaled, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            scaled = step;
+        } while (currentWidth != width || currentHeight != height);
+        return scaled;
+    }
+
+    /**
+     * Turn an image upright, as viewers do with its EXIF orientation.
+     *
+     * @param source the image, as stored.
+     * @param orientation the EXIF orientation of the image, from {@code 1} to {@code 8}.
+     * @param alpha whether the image has an alpha channel.
+     * @return the upright image.
+     */
+    static BufferedImage orient(BufferedImage source, int orientation, boolean alpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        AffineTransform transform;
+        switch (orientation) {
+            case 2: // mirrored
+                transform = new AffineTransform(-1, 0, 0, 1, width, 0);
+                break;
+            case 3: // rotated 180°
+                transform = new AffineTransform(-1, 0, 0, -1, width, height);
+                break;
+            case 4: // mirrored vertically
+                transform = new AffineTransform(1, 0, 0, -1, 0, height);
+                break;
+            case 5: // transposed
+                transform = new AffineTransform(0, 1, 1, 0, 0, 0);
+                break;
+            case 6: // rotated 90° counterclockwise, turned clockwise
+                transform = new AffineTransform(0, 1, -1, 0, height, 0);
+                break;
+            case 7: // transversed
+                transform = new AffineTransform(0, -1, -1, 0, height, width);
+                break;
+            case 8: // rotated 90° clockwise, turned counterclockwise
+                transform = new AffineTransform(0, -1, 1, 0, 0, width);
+                break;
+            default:
+                return source;
+        }
+        boolean swapped = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(
+            swapped ? height : width,
+            swapped ? width : height,
+            alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB
+        );
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    /**
+     * Read the EXIF orientation of a JPEG image, from the TIFF structure of its {@code APP1} segment.
+     *
+     * @param jpeg the encoded image.
+     * @return the orientation, from {@code 1} to {@code 8}, {@link #UPRIGHT} if there is none.
+     */
+    static int readJpegOrientation(byte[] jpeg) {
+        if (jpeg.length < 4 || (jpeg[0] & 0xff) != 0xff || (jpeg[1] & 0xff) != 0xd8) {
+            return UPRIGHT;
+        }
+        int offset = 2;
+        while (offset + 4 <= jpeg.length && (jpeg[offset] & 0xff) == 0xff) {
+            int marker = jpeg[offset + 1] & 0xff;
+            if (marker == 0xda || marker == 0xd9) {
+                // The metadata segments all come before the image data
+                break;
+            }
+            int length = readUnsignedShort(jpeg, offset + 2, false);
+            int end = offset + 2 + length;
+            if (marker == 0xe1 && end <= jpeg.length && startsWith(jpeg, offset + 4, EXIF_HEADER)) {
+                return readTiffOrientation(jpeg, offset + 4 + EXIF_HEADER.length, end);
+            }
+            offset = end;
+        }
+        return UPRIGHT;
+    }
+
+    private static int readTiffOrientation(byte[] data, int start, int end) {
+        if (start + 8 > end) {
+            return UPRIGHT;
+        }
+        boolean littleEndian = data[start] == 'I' && data[start + 1] == 'I';
+        long ifd = start + readInt(data, start + 4, littleEndian);
+        if (ifd < start || ifd + 2 > end) {
+            return UPRIGHT;
+        }
+        int entries = readUnsignedShort(data, (int) ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                break;
+            }
+            if (readUnsignedShort(data, entry, littleEndian) == ORIENTATION_TAG) {
+                int orientation = readUnsignedShort(data, entry + 8, littleEndian);
+                return orientation >= 1 && orientation <= 8 ? orientation : UPRIGHT;
+            }
+        }
+        return UPRIGHT;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] prefix) {
+        if (offset + prefix.length > data.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readUnsignedShort(byte[] data, int offset, boolean littleEndian) {
+        int first = data[offset] & 0xff;
+        int second = data[offset + 1] & 0xff;
+        return littleEndian ? (second << 8) | first : (first << 8) | second;
+    }
+
+    private static long readInt(byte[] data, int offset, boolean littleEndian) {
+        long high = readUnsignedShort(data, littleEndian ? offset + 2 : offset, littleEndian);
+        long low = readUnsignedShort(data, littleEndian ? offset : offset + 2, littleEndian);
+        return (high << 16) | low;
+    }
+
+    /**
+     * Encode an image as a baseline JPEG, without any metadata.
+     */
+    static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Encode an image as a PNG, without any metadata.
+     */
+    static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,109 @@
+package bd.gov.banbeis.service.blob;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Prepares the images before they are stored: JPEG images are turned upright, stripped of their metadata (e.g. the
+ * EXIF location and camera details) and re-encoded with the {@code application.ingest.quality}. Images larger than
+ * {@code application.ingest.max-dimension} are scaled down; PNG images are only re-encoded then, as re-encoding them
+ * rarely makes them smaller. Large images are subsampled as they are decoded, see {@link ImageCodec#read(byte[], int)}.
+ * <p>
+ * The sizes of the images before and after ingestion are recorded under {@value #METER_NAME}.
+ */
+@Service
+public class ImageIngestService {
+
+    public static final String METER_NAME = "image.ingest";
+
+    static final Set<String> JPEG_TYPES = Set.of("image/jpeg", "image/jpg", "image/pjpeg");
+
+    static final String PNG_TYPE = "image/png";
+
+    private final Logger log = LoggerFactory.getLogger(ImageIngestService.class);
+
+    private final ApplicationProperties.Ingest properties;
+
+    private final Timer latency;
+
+    private final DistributionSummary originalSize;
+
+    private final DistributionSummary storedSize;
+
+    public ImageIngestService(MeterRegistry meterRegistry, ApplicationProperties properties) {
+        this.properties = properties.getIngest();
+        this.latency = Timer.builder(METER_NAME).register(meterRegistry);
+        this.originalSize = DistributionSummary.builder(METER_NAME + ".original").baseUnit("bytes").register(meterRegistry);
+        this.storedSize = DistributionSummary.builder(METER_NAME + ".stored").baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * Ingest an image on a thread which may block.
+     *
+     * @param content the encoded image.
+     * @param contentType the media type of the image.
+     * @return the content to store, {@code content} itself if it is kept as is.
+     */
+    public Mono<byte[]> ingestAsync(byte[] content, String contentType) {
+        if (!properties.isEnabled() || !isIngested(contentType)) {
+            return Mono.just(content);
+        }
+        return Mono.fromCallable(() -> latency.recordCallable(() -> ingest(content, contentType))).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Ingest an image.
+     *
+     * @param content the encoded image.
+     * @param contentType the media type of the image.
+     * @return the content to store, {@code content} itself if it is kept as is, e.g. when it is not an image the JDK
+     * can decode.
+     */
+    public byte[] ingest(byte[] content, String contentType) {
+        if (!properties.isEnabled() || !isIngested(contentType)) {
+            return content;
+        }
+        try {
+            int maxDimension = properties.getMaxDimension();
+            BufferedImage image = ImageCodec.read(content, maxDimension);
+            if (image == null) {
+                return content;
+            }
+            boolean jpeg = JPEG_TYPES.contains(contentType);
+            boolean alpha = image.getColorModel().hasAlpha();
+            int longest = Math.max(image.getWidth(), image.getHeight());
+            if (!jpeg && longest <= maxDimension) {
+                return content;
+            }
+            if (jpeg) {
+                image = ImageCodec.orient(image, ImageCodec.readJpegOrientation(content), alpha);
+            }
+            if (longest > maxDimension) {
+                int width = Math.max(1, (int) Math.round((double) image.getWidth() * maxDimension / longest));
+                int height = Math.max(1, (int) Math.round((double) image.getHeight() * maxDimension / longest));
+                image = ImageCodec.scale(image, width, height, alpha);
+            }
+            byte[] stored = jpeg ? ImageCodec.encodeJpeg(image, properties.getQuality()) : ImageCodec.encodePng(image);
+            originalSize.record(content.length);
+            storedSize.record(stored.length);
+            return stored;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not ingest an image of {} bytes, stored as is: {}", content.length, e.getMessage());
+            return content;
+        }
+    }
+
+    private static boolean isIngested(String contentType) {
+        return JPEG_TYPES.contains(contentType) || PNG_TYPE.equals(contentType);
+    }
+}
@@ -0,0 +1,48 @@
+package bd.gov.banbeis.service.blob;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * The sizes images are rendered at, besides their original size.
+ */
+public enum ImageRendition {
+    THUMB(160),
+    MEDIUM(640),
+    LARGE(1280);
+
+    private final int maxDimension;
+
+    ImageRendition(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * @return the length of the longest side of the rendered image, in pixels.
+     */
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * @return the name of the rendition in the API and in the database.
+     */
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Find a rendition by name.
+     *
+     * @param name the name of the rendition, see {@link #getName()}.
+     * @return the rendition, or empty if there is none with this name.
+     */
+    public static Optional<ImageRendition> fromName(String name) {
+        for (ImageRendition rendition : values()) {
+            if (rendition.getName().equals(name)) {
+                return Optional.of(rendition);
+            }
+        }
+        return Optional.empty();
+    }
+}
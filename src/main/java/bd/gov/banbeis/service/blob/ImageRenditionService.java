@@ -0,0 +1,143 @@
+package bd.gov.banbeis.service.blob;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Renders images at the sizes of {@link ImageRendition}, with the JDK image codecs.
+ * <p>
+ * Rendering is CPU bound, so it runs on a dedicated pool of {@code application.rendition.threads} threads. At most
+ * {@code application.rendition.queue-capacity} images wait for a thread: beyond that, images are not rendered and
+ * keep being served at their original size.
+ */
+@Service
+public class ImageRenditionService {
+
+    public static final String METER_NAME = "image.renditions";
+
+    static final float JPEG_QUALITY = 0.85f;
+
+    private final Logger log = LoggerFactory.getLogger(ImageRenditionService.class);
+
+    private final ThreadPoolExecutor executor;
+
+    private final Scheduler scheduler;
+
+    private final Timer latency;
+
+    private final Counter rejected;
+
+    public ImageRenditionService(MeterRegistry meterRegistry, ApplicationProperties properties) {
+        int threads = properties.getRendition().getThreads();
+        this.executor =
+            new ThreadPoolExecutor(
+                threads,
+                threads,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getRendition().getQueueCapacity()),
+                new CustomizableThreadFactory("image-rendition-")
+            );
+        this.scheduler = Schedulers.fromExecutorService(executor, "image-rendition");
+        this.latency = Timer.builder(METER_NAME).register(meterRegistry);
+        this.rejected = Counter.builder(METER_NAME + ".rejected").register(meterRegistry);
+        Gauge.builder(METER_NAME + ".queue", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+    }
+
+    /**
+     * Render an image on the rendering pool.
+     *
+     * @param content the encoded image.
+     * @return the renditions, or empty if the pool is saturated.
+     */
+    public Mono<Renditions> renderAsync(byte[] content) {
+        return Mono
+            .fromCallable(() -> latency.recordCallable(() -> render(content)))
+            .subscribeOn(scheduler)
+            .onErrorResume(RejectedExecutionException.class, error -> {
+                rejected.increment();
+                log.warn("Too many images waiting to be rendered, skipped an image of {} bytes", content.length);
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * Render an image at the sizes smaller than its own.
+     *
+     * @param content the encoded image.
+     * @return the renditions, empty if the content is not an image the JDK can decode.
+     * @throws IOException if the image cannot be decoded or encoded.
+     */
+    public Renditions render(byte[] content) throws IOException {
+        ImageRendition[] renditions = ImageRendition.values();
+        // Decoded no larger than needed for the largest rendition
+        BufferedImage image = ImageCodec.read(content, renditions[renditions.length - 1].getMaxDimension());
+        if (image == null) {
+            return new Renditions(null, Collections.emptyMap());
+        }
+        boolean alpha = image.getColorModel().hasAlpha();
+        int longest = Math.max(image.getWidth(), image.getHeight());
+        Map<ImageRendition, byte[]> contents = new EnumMap<>(ImageRendition.class);
+        // Largest first, so each rendition is scaled down from the previous one
+        BufferedImage source = image;
+        for (int i = renditions.length - 1; i >= 0; i--) {
+            int maxDimension = renditions[i].getMaxDimension();
+            if (longest <= maxDimension) {
+                continue;
+            }
+            int width = Math.max(1, (int) Math.round((double) image.getWidth() * maxDimension / longest));
+            int height = Math.max(1, (int) Math.round((double) image.getHeight() * maxDimension / longest));
+            source = ImageCodec.scale(source, width, height, alpha);
+            contents.put(renditions[i], alpha ? ImageCodec.encodePng(source) : ImageCodec.encodeJpeg(source, JPEG_QUALITY));
+        }
+        return new Renditions(alpha ? "image/png" : "image/jpeg", contents);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+
+    /**
+     * The renditions of an image, all encoded with the same media type.
+     */
+    public static final class Renditions {
+
+        private final String contentType;
+
+        private final Map<ImageRendition, byte[]> contents;
+
+        Renditions(String contentType, Map<ImageRendition, byte[]> contents) {
+            this.contentType = contentType;
+            this.contents = contents;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public Map<ImageRendition, byte[]> getContents() {
+            return contents;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package bd.gov.banbeis.service.blob;
+
+/**
+ * A content stored in the {@link ContentStore}, with what was learned about it while storing it.
+ */
+public class StoredContent {
+
+    private final String hash;
+
+    private final long size;
+
+    private final Integer width;
+
+    private final Integer height;
+
+    public StoredContent(String hash, long size, Integer width, Integer height) {
+        this.hash = hash;
+        this.size = size;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @return the SHA-256 of the content, in hexadecimal.
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * @return the length of the content, in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the width of the image, in pixels, or {@code null} if the content is not a readable image.
+     */
+    public Integer getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the height of the image, in pixels, or {@code null} if the content is not a readable image.
+     */
+    public Integer getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,58 @@
+package bd.gov.banbeis.service.blob;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The outcome of a file of a multi-file upload: either the created entity, or the reason why the file was rejected.
+ *
+ * @param <T> the type of the entity.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UploadResult<T> {
+
+    private final String filename;
+
+    private final T entity;
+
+    private final String error;
+
+    private final String message;
+
+    private UploadResult(String filename, T entity, String error, String message) {
+        this.filename = filename;
+        this.entity = entity;
+        this.error = error;
+        this.message = message;
+    }
+
+    static <T> UploadResult<T> created(String filename, T entity) {
+        return new UploadResult<>(filename, entity, null, null);
+    }
+
+    static <T> UploadResult<T> rejected(String filename, ContentRejectedException rejection) {
+        return new UploadResult<>(filename, null, rejection.getReason(), rejection.getMessage());
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * @return the created entity, or {@code null} if the file was rejected.
+     */
+    public T getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return the {@link ContentRejectedException#getReason() reason} why the file was rejected, or {@code null} if it
+     * was accepted.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
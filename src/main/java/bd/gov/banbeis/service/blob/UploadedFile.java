@@ -0,0 +1,43 @@
+package bd.gov.banbeis.service.blob;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+/**
+ * A file of a multi-file upload, whose content is received as a stream.
+ */
+public class UploadedFile {
+
+    private final String filename;
+
+    private final String contentType;
+
+    private final Flux<DataBuffer> content;
+
+    public UploadedFile(String filename, String contentType, Flux<DataBuffer> content) {
+        this.filename = filename;
+        this.contentType = contentType;
+        this.content = content;
+    }
+
+    /**
+     * @return the name of the file on the client.
+     */
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * @return the media type of the file, without parameters, or {@code null} if unknown.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return the content of the file, received with backpressure.
+     */
+    public Flux<DataBuffer> getContent() {
+        return content;
+    }
+}
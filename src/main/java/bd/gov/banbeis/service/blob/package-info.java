@@ -0,0 +1,4 @@
+/**
+ * Storage of the binary content of the entities, outside of their documents.
+ */
+package bd.gov.banbeis.service.blob;
@@ -0,0 +1,50 @@
+package bd.gov.banbeis.service.dto;
+
+import bd.gov.banbeis.domain.Center;
+
+/**
+ * A DTO representing a {@link Center} found near a point, with its distance to the point.
+ */
+public class NearbyCenterDTO {
+
+    private Center center;
+
+    private double distance;
+
+    public NearbyCenterDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public NearbyCenterDTO(Center center, double distance) {
+        this.center = center;
+        this.distance = distance;
+    }
+
+    public Center getCenter() {
+        return center;
+    }
+
+    public void setCenter(Center center) {
+        this.center = center;
+    }
+
+    /**
+     * @return the distance to the point, in kilometers.
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NearbyCenterDTO{" +
+            "center=" + center +
+            ", distance=" + distance +
+            "}";
+    }
+}
@@ -0,0 +1,98 @@
+package bd.gov.banbeis.service.dto;
+
+import bd.gov.banbeis.domain.Post;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * An opaque continuation token for keyset pagination of {@link Post}s.
+ * <p>
+ * Posts are walked in ({@code published_on} desc, {@code _id} desc) order, so a cursor only
+ * needs the sort key of the last post of the previous page.
+ */
+public final class PostCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final Instant publishedOn;
+    private final String id;
+
+    public PostCursor(Instant publishedOn, String id) {
+        this.publishedOn = publishedOn;
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    /**
+     * Build the cursor pointing right after the given post.
+     *
+     * @param post the last post of a page.
+     * @return the cursor.
+     */
+    public static PostCursor of(Post post) {
+        return new PostCursor(post.getPublishedOn(), post.getId());
+    }
+
+    /**
+     * Decode a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque token.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static PostCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0 || separator == raw.length() - 1) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        String epochMilli = raw.substring(0, separator);
+        try {
+            Instant publishedOn = epochMilli.isEmpty() ? null : Instant.ofEpochMilli(Long.parseLong(epochMilli));
+            return new PostCursor(publishedOn, raw.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    /**
+     * Encode this cursor as an URL-safe opaque token.
+     *
+     * @return the token.
+     */
+    public String encode() {
+        String raw = (publishedOn == null ? "" : String.valueOf(publishedOn.toEpochMilli())) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Instant getPublishedOn() {
+        return publishedOn;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PostCursor)) {
+            return false;
+        }
+        PostCursor that = (PostCursor) o;
+        return Objects.equals(publishedOn, that.publishedOn) && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(publishedOn, id);
+    }
+
+    @Override
+    public String toString() {
+        return "PostCursor{publishedOn=" + publishedOn + ", id='" + id + "'}";
+    }
+}
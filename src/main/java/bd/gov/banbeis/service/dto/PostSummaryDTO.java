@@ -0,0 +1,125 @@
+package bd.gov.banbeis.service.dto;
+
+import bd.gov.banbeis.domain.Post;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A DTO representing a published post in the public feed, without its body.
+ */
+public class PostSummaryDTO {
+
+    /**
+     * The properties of a {@link Post} read to build its summary.
+     */
+    public static final String[] POST_PROPERTIES = { "title", "postDate", "publishedOn", "excerpt", "viewCount", "center" };
+
+    private String id;
+
+    private String title;
+
+    private LocalDate postDate;
+
+    private Instant publishedOn;
+
+    private String centerId;
+
+    private String centerName;
+
+    private String excerpt;
+
+    private Long viewCount;
+
+    public PostSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PostSummaryDTO(Post post) {
+        this.id = post.getId();
+        this.title = post.getTitle();
+        this.postDate = post.getPostDate();
+        this.publishedOn = post.getPublishedOn();
+        this.centerId = post.getCenter() == null ? null : post.getCenter().getId();
+        this.centerName = post.getCenter() == null ? null : post.getCenter().getName();
+        this.excerpt = post.getExcerpt();
+        this.viewCount = post.getViewCount();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LocalDate getPostDate() {
+        return postDate;
+    }
+
+    public void setPostDate(LocalDate postDate) {
+        this.postDate = postDate;
+    }
+
+    public Instant getPublishedOn() {
+        return publishedOn;
+    }
+
+    public void setPublishedOn(Instant publishedOn) {
+        this.publishedOn = publishedOn;
+    }
+
+    public String getCenterId() {
+        return centerId;
+    }
+
+    public void setCenterId(String centerId) {
+        this.centerId = centerId;
+    }
+
+    public String getCenterName() {
+        return centerName;
+    }
+
+    public void setCenterName(String centerName) {
+        this.centerName = centerName;
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
+    public Long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(Long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PostSummaryDTO{" +
+            "id='" + id + '\'' +
+            ", title='" + title + '\'' +
+            ", postDate=" + postDate +
+            ", publishedOn=" + publishedOn +
+            ", centerId='" + centerId + '\'' +
+            ", centerName='" + centerName + '\'' +
+            ", viewCount=" + viewCount +
+            "}";
+    }
+}
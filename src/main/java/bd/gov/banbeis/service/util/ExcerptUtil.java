@@ -0,0 +1,40 @@
+package bd.gov.banbeis.service.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for generating plain text excerpts of rich text content.
+ */
+public final class ExcerptUtil {
+
+    public static final int MAX_LENGTH = 200;
+
+    private static final Pattern TAGS = Pattern.compile("<[^>]*>");
+
+    private static final Pattern WHITESPACE = Pattern.compile("[\\s\\u00A0]+");
+
+    private static final String ELLIPSIS = "\u2026";
+
+    private ExcerptUtil() {}
+
+    /**
+     * Generate an excerpt of at most {@link #MAX_LENGTH} characters, cut on a word boundary when possible.
+     *
+     * @param content the (possibly HTML) content.
+     * @return the excerpt, or {@code null} if there is no content.
+     */
+    public static String excerpt(String content) {
+        if (content == null) {
+            return null;
+        }
+        String text = WHITESPACE.matcher(TAGS.matcher(content).replaceAll(" ").replace("&nbsp;", " ")).replaceAll(" ").trim();
+        if (text.length() <= MAX_LENGTH) {
+            return text;
+        }
+        int end = text.lastIndexOf(' ', MAX_LENGTH);
+        if (end <= MAX_LENGTH / 2) {
+            end = Character.isHighSurrogate(text.charAt(MAX_LENGTH - 1)) ? MAX_LENGTH - 1 : MAX_LENGTH;
+        }
+        return text.substring(0, end) + ELLIPSIS;
+    }
+}
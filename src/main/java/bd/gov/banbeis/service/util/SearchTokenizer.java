@@ -0,0 +1,101 @@
+package bd.gov.banbeis.service.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for splitting Bangla and English text into search terms.
+ * <p>
+ * The text is NFC normalized, so that e.g. the precomposed {@code য়} and {@code য়} spellings of
+ * {@code YYA} give the same term, the khanda ta written with a zero width joiner is folded to {@code ৎ}, the
+ * remaining joiners are dropped and Bangla digits are folded to ASCII digits. Vowel signs and other combining marks
+ * are part of a term, punctuation such as the danda {@code ।} separates terms.
+ */
+public final class SearchTokenizer {
+
+    public static final int MIN_TERM_LENGTH = 2;
+
+    public static final int MAX_TERM_LENGTH = 64;
+
+    private static final Pattern TAGS = Pattern.compile("<[^>]*>");
+
+    private static final Pattern ENTITIES = Pattern.compile("&#?\\w+;");
+
+    private static final String KHANDA_TA_SEQUENCE = "ত্\u200D";
+
+    private static final String KHANDA_TA = "ৎ";
+
+    private SearchTokenizer() {}
+
+    /**
+     * Split a text into normalized terms, in order and with repetitions.
+     *
+     * @param text the (possibly HTML) text.
+     * @return the terms, empty if there is no text.
+     */
+    public static List<String> tokenize(String text) {
+        return split(text, MIN_TERM_LENGTH);
+    }
+
+    /**
+     * Normalize a text the way its terms are, keeping the words shorter than {@value #MIN_TERM_LENGTH}, e.g. to match
+     * the prefix of a name being typed.
+     *
+     * @param text the text.
+     * @return the normalized words, separated by a single space, empty if there is no text.
+     */
+    public static String normalize(String text) {
+        return String.join(" ", split(text, 1));
+    }
+
+    private static List<String> split(String text, int minLength) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String normalized = ENTITIES.matcher(TAGS.matcher(text).replaceAll(" ")).replaceAll(" ");
+        normalized = Normalizer.normalize(normalized.replace(KHANDA_TA_SEQUENCE, KHANDA_TA), Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < normalized.length();) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (isJoiner(codePoint)) {
+                continue;
+            }
+            if (Character.isDigit(codePoint)) {
+                term.append((char) ('0' + Character.digit(codePoint, 10)));
+            } else if (isTermCharacter(codePoint)) {
+                term.appendCodePoint(codePoint);
+            } else {
+                addTerm(terms, term, minLength);
+            }
+        }
+        addTerm(terms, term, minLength);
+        return terms;
+    }
+
+    private static boolean isJoiner(int codePoint) {
+        return codePoint == '\u200C' || codePoint == '\u200D' || codePoint == '\u00AD' || codePoint == '\uFEFF';
+    }
+
+    private static boolean isTermCharacter(int codePoint) {
+        switch (Character.getType(codePoint)) {
+            case Character.NON_SPACING_MARK:
+            case Character.COMBINING_SPACING_MARK:
+            case Character.ENCLOSING_MARK:
+                return true;
+            default:
+                return Character.isLetter(codePoint);
+        }
+    }
+
+    private static void addTerm(List<String> terms, StringBuilder term, int minLength) {
+        if (term.length() >= minLength) {
+            terms.add(term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term.toString());
+        }
+        term.setLength(0);
+    }
+}
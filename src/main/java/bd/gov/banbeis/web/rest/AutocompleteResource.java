@@ -0,0 +1,57 @@
+package bd.gov.banbeis.web.rest;
+
+import bd.gov.banbeis.service.AutocompleteIndex;
+import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the type-ahead of the names of the places, centers and employees.
+ */
+@RestController
+@RequestMapping("/api")
+public class AutocompleteResource {
+
+    private static final String ENTITY_NAME = "autocomplete";
+
+    private static final int MAX_LIMIT = 50;
+
+    private final Logger log = LoggerFactory.getLogger(AutocompleteResource.class);
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    public AutocompleteResource(AutocompleteIndex autocompleteIndex) {
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    /**
+     * {@code GET  /_autocomplete?type=:type&q=:q} : suggest the entities whose English or Bangla name starts with a prefix.
+     * <p>
+     * The suggestions are served from memory, see {@link AutocompleteIndex}.
+     *
+     * @param type the type of the entities: division, district, upazila, center or employee.
+     * @param q the prefix, as typed.
+     * @param limit the maximum number of suggestions, at most {@value #MAX_LIMIT}.
+     * @return the list of suggestions, or status {@code 400 (Bad Request)} if the type or the limit is not valid.
+     */
+    @GetMapping("/_autocomplete")
+    public List<AutocompleteIndex.Suggestion> autocomplete(
+        @RequestParam String type,
+        @RequestParam String q,
+        @RequestParam(required = false, defaultValue = "10") int limit
+    ) {
+        log.debug("REST request to autocomplete {} : {}", type, q);
+        AutocompleteIndex.Type indexType = AutocompleteIndex.Type
+            .of(type)
+            .orElseThrow(() -> new BadRequestAlertException("Invalid type", ENTITY_NAME, "typeinvalid"));
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestAlertException("Invalid limit", ENTITY_NAME, "limitinvalid");
+        }
+        return autocompleteIndex.complete(indexType, q, limit);
+    }
+}
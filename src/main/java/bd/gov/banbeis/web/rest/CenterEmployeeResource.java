@@ -4,6 +4,7 @@ import bd.gov.banbeis.domain.CenterEmployee;
 import bd.gov.banbeis.repository.CenterEmployeeRepository;
 import bd.gov.banbeis.service.CenterEmployeeService;
 import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import bd.gov.banbeis.web.rest.util.ConditionalGetSupport;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -23,12 +24,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link bd.gov.banbeis.domain.CenterEmployee}.
@@ -48,9 +49,16 @@ public class CenterEmployeeResource {
 
     private final CenterEmployeeRepository centerEmployeeRepository;
 
-    public CenterEmployeeResource(CenterEmployeeService centerEmployeeService, CenterEmployeeRepository centerEmployeeRepository) {
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    public CenterEmployeeResource(
+        CenterEmployeeService centerEmployeeService,
+        CenterEmployeeRepository centerEmployeeRepository,
+        ConditionalGetSupport conditionalGetSupport
+    ) {
         this.centerEmployeeService = centerEmployeeService;
         this.centerEmployeeRepository = centerEmployeeRepository;
+        this.conditionalGetSupport = conditionalGetSupport;
     }
 
     /**
@@ -195,17 +203,29 @@ public class CenterEmployeeResource {
             });
     }
 
+    /**
+     * {@code GET  /center-employees} : stream all the centerEmployees, when newline delimited JSON or server-sent events are accepted.
+     *
+     * @return the {@link Flux} of centerEmployees, written as they are read from the database.
+     */
+    @GetMapping(value = "/center-employees", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<CenterEmployee> getAllCenterEmployeesAsStream() {
+        log.debug("REST request to stream all CenterEmployees");
+        return centerEmployeeService.streamAll();
+    }
+
     /**
      * {@code GET  /center-employees/:id} : get the "id" centerEmployee.
      *
      * @param id the id of the centerEmployee to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the centerEmployee, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the centerEmployee, or with status {@code 404 (Not Found)}, or with status {@code 304 (Not Modified)} if it was not modified since the given validators.
      */
     @GetMapping("/center-employees/{id}")
-    public Mono<ResponseEntity<CenterEmployee>> getCenterEmployee(@PathVariable String id) {
+    public Mono<ResponseEntity<CenterEmployee>> getCenterEmployee(@PathVariable String id, ServerWebExchange exchange) {
         log.debug("REST request to get CenterEmployee : {}", id);
         Mono<CenterEmployee> centerEmployee = centerEmployeeService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(centerEmployee);
+        return conditionalGetSupport.wrapOrNotFound(exchange, CenterEmployee.class, id, centerEmployee);
     }
 
     /**
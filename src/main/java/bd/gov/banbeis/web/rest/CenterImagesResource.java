@@ -3,7 +3,13 @@ package bd.gov.banbeis.web.rest;
 import bd.gov.banbeis.domain.CenterImages;
 import bd.gov.banbeis.repository.CenterImagesRepository;
 import bd.gov.banbeis.service.CenterImagesService;
+import bd.gov.banbeis.service.blob.ContentRejectedException;
+import bd.gov.banbeis.service.blob.ImageRendition;
 import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import bd.gov.banbeis.web.rest.util.ConditionalGetSupport;
+import bd.gov.banbeis.web.rest.util.ContentResponseUtil;
+import bd.gov.banbeis.web.rest.util.MultipartUploadUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -20,15 +26,16 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.Part;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link bd.gov.banbeis.domain.CenterImages}.
@@ -48,9 +55,20 @@ public class CenterImagesResource {
 
     private final CenterImagesRepository centerImagesRepository;
 
-    public CenterImagesResource(CenterImagesService centerImagesService, CenterImagesRepository centerImagesRepository) {
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    private final ObjectMapper objectMapper;
+
+    public CenterImagesResource(
+        CenterImagesService centerImagesService,
+        CenterImagesRepository centerImagesRepository,
+        ConditionalGetSupport conditionalGetSupport,
+        ObjectMapper objectMapper
+    ) {
         this.centerImagesService = centerImagesService;
         this.centerImagesRepository = centerImagesRepository;
+        this.conditionalGetSupport = conditionalGetSupport;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -80,6 +98,46 @@ public class CenterImagesResource {
             });
     }
 
+    /**
+     * {@code POST  /center-images} : Create a new centerImages, uploading its image as {@code multipart/form-data}.
+     * <p>
+     * The {@code centerImages} part holds the centerImages as JSON, without image, and must come before the {@code image} file
+     * part. The image is streamed to the storage as it is received, within the {@code application.upload} limits.
+     *
+     * @param parts the parts of the request.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new centerImages, or with status {@code 400 (Bad Request)} if the centerImages has already an ID, if a part is missing or if the image exceeds the upload limits.
+     */
+    @PostMapping(value = "/center-images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<CenterImages>> uploadCenterImages(@RequestBody Flux<Part> parts) {
+        log.debug("REST request to upload CenterImages");
+        return MultipartUploadUtil
+            .upload(
+                parts,
+                ENTITY_NAME,
+                CenterImages.class,
+                objectMapper,
+                "image",
+                (centerImages, imageContentType, image) -> {
+                    if (centerImages.getId() != null) {
+                        return Mono.error(
+                            new BadRequestAlertException("A new centerImages cannot already have an ID", ENTITY_NAME, "idexists")
+                        );
+                    }
+                    return centerImagesService.upload(centerImages, imageContentType, image);
+                }
+            )
+            .onErrorMap(
+                ContentRejectedException.class,
+                error -> new BadRequestAlertException(error.getMessage(), ENTITY_NAME, error.getReason())
+            )
+            .map(result ->
+                ResponseEntity
+                    .created(URI.create("/api/center-images/" + result.getId()))
+                    .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId()))
+                    .body(result)
+            );
+    }
+
     /**
      * {@code PUT  /center-images/:id} : Updates an existing centerImages.
      *
@@ -169,19 +227,24 @@ public class CenterImagesResource {
     /**
      * {@code GET  /center-images} : get all the centerImages.
      *
+     * Only the metadata of the images is returned unless {@code includeContent} is set, the images are streamed from
+     * {@code /center-images/:id/content}.
+     *
      * @param pageable the pagination information.
+     * @param includeContent whether to return the images in the list.
      * @param request a {@link ServerHttpRequest} request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of centerImages in body.
      */
     @GetMapping("/center-images")
     public Mono<ResponseEntity<List<CenterImages>>> getAllCenterImages(
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false, defaultValue = "false") boolean includeContent,
         ServerHttpRequest request
     ) {
         log.debug("REST request to get a page of CenterImages");
         return centerImagesService
             .countAll()
-            .zipWith(centerImagesService.findAll(pageable).collectList())
+            .zipWith(centerImagesService.findAll(pageable, includeContent).collectList())
             .map(countWithEntities -> {
                 return ResponseEntity
                     .ok()
@@ -195,17 +258,52 @@ public class CenterImagesResource {
             });
     }
 
+    /**
+     * {@code GET  /center-images} : stream all the centerImages, when newline delimited JSON or server-sent events are accepted.
+     *
+     * @param includeContent whether to return the images in the stream.
+     * @return the {@link Flux} of centerImages, written as they are read from the database.
+     */
+    @GetMapping(value = "/center-images", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<CenterImages> getAllCenterImagesAsStream(@RequestParam(required = false, defaultValue = "false") boolean includeContent) {
+        log.debug("REST request to stream all CenterImages");
+        return centerImagesService.streamAll(includeContent);
+    }
+
     /**
      * {@code GET  /center-images/:id} : get the "id" centerImages.
      *
      * @param id the id of the centerImages to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the centerImages, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the centerImages, or with status {@code 404 (Not Found)}, or with status {@code 304 (Not Modified)} if it was not modified since the given validators.
      */
     @GetMapping("/center-images/{id}")
-    public Mono<ResponseEntity<CenterImages>> getCenterImages(@PathVariable String id) {
+    public Mono<ResponseEntity<CenterImages>> getCenterImages(@PathVariable String id, ServerWebExchange exchange) {
         log.debug("REST request to get CenterImages : {}", id);
         Mono<CenterImages> centerImages = centerImagesService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(centerImages);
+        return conditionalGetSupport.wrapOrNotFound(exchange, CenterImages.class, id, centerImages);
+    }
+
+    /**
+     * {@code GET  /center-images/:id/content} : get the image of the "id" centerImages.
+     *
+     * @param id the id of the centerImages whose image to retrieve.
+     * @param size the size of the image: {@code thumb}, {@code medium} or {@code large}; the original size if absent or
+     * if the image was not rendered at that size.
+     * @param exchange the current exchange.
+     * @return a Mono to signal the end of the response, with status {@code 200 (OK)} and the image streamed in body, with status {@code 206 (Partial Content)} and the requested range in body, with status {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/center-images/{id}/content")
+    public Mono<Void> getCenterImagesContent(
+        @PathVariable String id,
+        @RequestParam(required = false) String size,
+        ServerWebExchange exchange
+    ) {
+        log.debug("REST request to get the image of CenterImages : {}, size : {}", id, size);
+        ImageRendition rendition = size == null
+            ? null
+            : ImageRendition.fromName(size).orElseThrow(() -> new BadRequestAlertException("Invalid size", ENTITY_NAME, "invalidsize"));
+        return ContentResponseUtil.writeOrNotFound(exchange, centerImagesService.findImageContent(id, rendition));
     }
 
     /**
@@ -3,7 +3,10 @@ package bd.gov.banbeis.web.rest;
 import bd.gov.banbeis.domain.Center;
 import bd.gov.banbeis.repository.CenterRepository;
 import bd.gov.banbeis.service.CenterService;
+import bd.gov.banbeis.service.dto.NearbyCenterDTO;
 import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import bd.gov.banbeis.web.rest.util.ConditionalGetSupport;
+import bd.gov.banbeis.web.rest.util.ContentResponseUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -16,6 +19,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -23,12 +29,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link bd.gov.banbeis.domain.Center}.
@@ -41,6 +47,11 @@ public class CenterResource {
 
     private static final String ENTITY_NAME = "center";
 
+    /**
+     * The maximum radius of a nearby search, in kilometers, which already covers the whole country.
+     */
+    private static final double MAX_NEARBY_RADIUS = 1000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -48,9 +59,12 @@ public class CenterResource {
 
     private final CenterRepository centerRepository;
 
-    public CenterResource(CenterService centerService, CenterRepository centerRepository) {
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    public CenterResource(CenterService centerService, CenterRepository centerRepository, ConditionalGetSupport conditionalGetSupport) {
         this.centerService = centerService;
         this.centerRepository = centerRepository;
+        this.conditionalGetSupport = conditionalGetSupport;
     }
 
     /**
@@ -169,19 +183,24 @@ public class CenterResource {
     /**
      * {@code GET  /centers} : get all the centers.
      *
+     * Only the metadata of the images is returned unless {@code includeContent} is set, the images are streamed from
+     * {@code /centers/:id/content}.
+     *
      * @param pageable the pagination information.
+     * @param includeContent whether to return the images in the list.
      * @param request a {@link ServerHttpRequest} request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of centers in body.
      */
     @GetMapping("/centers")
     public Mono<ResponseEntity<List<Center>>> getAllCenters(
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false, defaultValue = "false") boolean includeContent,
         ServerHttpRequest request
     ) {
         log.debug("REST request to get a page of Centers");
         return centerService
             .countAll()
-            .zipWith(centerService.findAll(pageable).collectList())
+            .zipWith(centerService.findAll(pageable, includeContent).collectList())
             .map(countWithEntities -> {
                 return ResponseEntity
                     .ok()
@@ -195,17 +214,87 @@ public class CenterResource {
             });
     }
 
+    /**
+     * {@code GET  /centers} : stream all the centers, when newline delimited JSON or server-sent events are accepted.
+     *
+     * @param includeContent whether to return the images in the stream.
+     * @return the {@link Flux} of centers, written as they are read from the database.
+     */
+    @GetMapping(value = "/centers", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<Center> getAllCentersAsStream(@RequestParam(required = false, defaultValue = "false") boolean includeContent) {
+        log.debug("REST request to stream all Centers");
+        return centerService.streamAll(includeContent);
+    }
+
+    /**
+     * {@code GET  /centers/nearby} : get the centers near a point, nearest first.
+     *
+     * @param lat the latitude of the point.
+     * @param lon the longitude of the point.
+     * @param radius the maximum distance to the point, in kilometers.
+     * @param pageable the pagination information, the sort is ignored.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of centers with their distance in body,
+     * or with status {@code 400 (Bad Request)} if the point or the radius is not valid.
+     */
+    @GetMapping("/centers/nearby")
+    public Mono<ResponseEntity<List<NearbyCenterDTO>>> getNearbyCenters(
+        @RequestParam double lat,
+        @RequestParam double lon,
+        @RequestParam(required = false, defaultValue = "10") double radius,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        ServerHttpRequest request
+    ) {
+        log.debug("REST request to get the Centers near : {}, {}, within {} km", lat, lon, radius);
+        if (Math.abs(lat) > 90 || Math.abs(lon) > 180) {
+            throw new BadRequestAlertException("Invalid coordinates", ENTITY_NAME, "coordinatesinvalid");
+        }
+        if (!(radius > 0 && radius <= MAX_NEARBY_RADIUS)) {
+            throw new BadRequestAlertException("Invalid radius", ENTITY_NAME, "radiusinvalid");
+        }
+        GeoJsonPoint point = new GeoJsonPoint(lon, lat);
+        Distance distance = new Distance(radius, Metrics.KILOMETERS);
+        return centerService
+            .countNear(point, distance)
+            .zipWith(centerService.findNear(point, distance, pageable).collectList())
+            .map(countWithCenters ->
+                ResponseEntity
+                    .ok()
+                    .headers(
+                        PaginationUtil.generatePaginationHttpHeaders(
+                            UriComponentsBuilder.fromHttpRequest(request),
+                            new PageImpl<>(countWithCenters.getT2(), pageable, countWithCenters.getT1())
+                        )
+                    )
+                    .body(countWithCenters.getT2())
+            );
+    }
+
     /**
      * {@code GET  /centers/:id} : get the "id" center.
      *
      * @param id the id of the center to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the center, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the center, or with status {@code 404 (Not Found)}, or with status {@code 304 (Not Modified)} if it was not modified since the given validators.
      */
     @GetMapping("/centers/{id}")
-    public Mono<ResponseEntity<Center>> getCenter(@PathVariable String id) {
+    public Mono<ResponseEntity<Center>> getCenter(@PathVariable String id, ServerWebExchange exchange) {
         log.debug("REST request to get Center : {}", id);
         Mono<Center> center = centerService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(center);
+        return conditionalGetSupport.wrapOrNotFound(exchange, Center.class, id, center);
+    }
+
+    /**
+     * {@code GET  /centers/:id/content} : get the image of the "id" center.
+     *
+     * @param id the id of the center whose image to retrieve.
+     * @param exchange the current exchange.
+     * @return a Mono to signal the end of the response, with status {@code 200 (OK)} and the image streamed in body, with status {@code 206 (Partial Content)} and the requested range in body, with status {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/centers/{id}/content")
+    public Mono<Void> getCenterContent(@PathVariable String id, ServerWebExchange exchange) {
+        log.debug("REST request to get the image of Center : {}", id);
+        return ContentResponseUtil.writeOrNotFound(exchange, centerService.findImageContent(id));
     }
 
     /**
@@ -4,10 +4,11 @@ import bd.gov.banbeis.domain.Designation;
 import bd.gov.banbeis.repository.DesignationRepository;
 import bd.gov.banbeis.service.DesignationService;
 import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import bd.gov.banbeis.web.rest.util.ConditionalGetSupport;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
 import javax.validation.Valid;
@@ -25,12 +26,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link bd.gov.banbeis.domain.Designation}.
@@ -50,9 +51,16 @@ public class DesignationResource {
 
     private final DesignationRepository designationRepository;
 
-    public DesignationResource(DesignationService designationService, DesignationRepository designationRepository) {
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    public DesignationResource(
+        DesignationService designationService,
+        DesignationRepository designationRepository,
+        ConditionalGetSupport conditionalGetSupport
+    ) {
         this.designationService = designationService;
         this.designationRepository = designationRepository;
+        this.conditionalGetSupport = conditionalGetSupport;
     }
 
     /**
@@ -173,41 +181,55 @@ public class DesignationResource {
      *
      * @param pageable the pagination information.
      * @param request a {@link ServerHttpRequest} request.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of designations in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of designations in body, serialized once per
+     * version of the reference data, see {@link bd.gov.banbeis.service.ReferenceDataCache}.
      */
     @GetMapping("/designations")
-    public Mono<ResponseEntity<List<Designation>>> getAllDesignations(
+    public Mono<ResponseEntity<byte[]>> getAllDesignations(
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
         ServerHttpRequest request
     ) {
         log.debug("REST request to get a page of Designations");
         return designationService
             .countAll()
-            .zipWith(designationService.findAll(pageable).collectList())
-            .map(countWithEntities -> {
-                return ResponseEntity
+            .zipWith(designationService.findAllAsJson(pageable))
+            .map(countWithJson ->
+                ResponseEntity
                     .ok()
+                    .contentType(MediaType.APPLICATION_JSON)
                     .headers(
                         PaginationUtil.generatePaginationHttpHeaders(
                             UriComponentsBuilder.fromHttpRequest(request),
-                            new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+                            new PageImpl<>(Collections.emptyList(), pageable, countWithJson.getT1())
                         )
                     )
-                    .body(countWithEntities.getT2());
-            });
+                    .body(countWithJson.getT2())
+            );
+    }
+
+    /**
+     * {@code GET  /designations} : stream all the designations, when newline delimited JSON or server-sent events are accepted.
+     *
+     * @return the {@link Flux} of designations, written as they are read from the database.
+     */
+    @GetMapping(value = "/designations", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<Designation> getAllDesignationsAsStream() {
+        log.debug("REST request to stream all Designations");
+        return designationService.streamAll();
     }
 
     /**
      * {@code GET  /designations/:id} : get the "id" designation.
      *
      * @param id the id of the designation to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the designation, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the designation, or with status {@code 404 (Not Found)}, or with status {@code 304 (Not Modified)} if it was not modified since the given validators.
      */
     @GetMapping("/designations/{id}")
-    public Mono<ResponseEntity<Designation>> getDesignation(@PathVariable String id) {
+    public Mono<ResponseEntity<Designation>> getDesignation(@PathVariable String id, ServerWebExchange exchange) {
         log.debug("REST request to get Designation : {}", id);
         Mono<Designation> designation = designationService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(designation);
+        return conditionalGetSupport.wrapOrNotFound(exchange, Designation.class, id, designation);
     }
 
     /**
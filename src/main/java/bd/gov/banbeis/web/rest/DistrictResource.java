@@ -4,10 +4,11 @@ import bd.gov.banbeis.domain.District;
 import bd.gov.banbeis.repository.DistrictRepository;
 import bd.gov.banbeis.service.DistrictService;
 import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import bd.gov.banbeis.web.rest.util.ConditionalGetSupport;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -23,12 +24,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link bd.gov.banbeis.domain.District}.
@@ -48,9 +49,16 @@ public class DistrictResource {
 
     private final DistrictRepository districtRepository;
 
-    public DistrictResource(DistrictService districtService, DistrictRepository districtRepository) {
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    public DistrictResource(
+        DistrictService districtService,
+        DistrictRepository districtRepository,
+        ConditionalGetSupport conditionalGetSupport
+    ) {
         this.districtService = districtService;
         this.districtRepository = districtRepository;
+        this.conditionalGetSupport = conditionalGetSupport;
     }
 
     /**
@@ -171,41 +179,67 @@ public class DistrictResource {
      *
      * @param pageable the pagination information.
      * @param request a {@link ServerHttpRequest} request.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of districts in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of districts in body, serialized once per
+     * version of the reference data, see {@link bd.gov.banbeis.service.ReferenceDataCache}.
      */
     @GetMapping("/districts")
-    public Mono<ResponseEntity<List<District>>> getAllDistricts(
+    public Mono<ResponseEntity<byte[]>> getAllDistricts(
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
         ServerHttpRequest request
     ) {
         log.debug("REST request to get a page of Districts");
         return districtService
             .countAll()
-            .zipWith(districtService.findAll(pageable).collectList())
-            .map(countWithEntities -> {
-                return ResponseEntity
+            .zipWith(districtService.findAllAsJson(pageable))
+            .map(countWithJson ->
+                ResponseEntity
                     .ok()
+                    .contentType(MediaType.APPLICATION_JSON)
                     .headers(
                         PaginationUtil.generatePaginationHttpHeaders(
                             UriComponentsBuilder.fromHttpRequest(request),
-                            new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+                            new PageImpl<>(Collections.emptyList(), pageable, countWithJson.getT1())
                         )
                     )
-                    .body(countWithEntities.getT2());
-            });
+                    .body(countWithJson.getT2())
+            );
+    }
+
+    /**
+     * {@code GET  /districts} : stream all the districts, when newline delimited JSON or server-sent events are accepted.
+     *
+     * @return the {@link Flux} of districts, written as they are read from the database.
+     */
+    @GetMapping(value = "/districts", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<District> getAllDistrictsAsStream() {
+        log.debug("REST request to stream all Districts");
+        return districtService.streamAll();
+    }
+
+    /**
+     * {@code GET  /divisions/:id/districts} : get the districts of the "id" division.
+     *
+     * @param id the id of the division.
+     * @return the {@link Flux} of the districts of the division.
+     */
+    @GetMapping("/divisions/{id}/districts")
+    public Flux<District> getDistrictsOfDivision(@PathVariable String id) {
+        log.debug("REST request to get the Districts of Division : {}", id);
+        return districtService.findAllByDivision(id);
     }
 
     /**
      * {@code GET  /districts/:id} : get the "id" district.
      *
      * @param id the id of the district to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the district, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the district, or with status {@code 404 (Not Found)}, or with status {@code 304 (Not Modified)} if it was not modified since the given validators.
      */
     @GetMapping("/districts/{id}")
-    public Mono<ResponseEntity<District>> getDistrict(@PathVariable String id) {
+    public Mono<ResponseEntity<District>> getDistrict(@PathVariable String id, ServerWebExchange exchange) {
         log.debug("REST request to get District : {}", id);
         Mono<District> district = districtService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(district);
+        return conditionalGetSupport.wrapOrNotFound(exchange, District.class, id, district);
     }
 
     /**
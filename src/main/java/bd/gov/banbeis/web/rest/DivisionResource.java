@@ -4,10 +4,11 @@ import bd.gov.banbeis.domain.Division;
 import bd.gov.banbeis.repository.DivisionRepository;
 import bd.gov.banbeis.service.DivisionService;
 import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import bd.gov.banbeis.web.rest.util.ConditionalGetSupport;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -23,12 +24,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link bd.gov.banbeis.domain.Division}.
@@ -48,9 +49,16 @@ public class DivisionResource {
 
     private final DivisionRepository divisionRepository;
 
-    public DivisionResource(DivisionService divisionService, DivisionRepository divisionRepository) {
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    public DivisionResource(
+        DivisionService divisionService,
+        DivisionRepository divisionRepository,
+        ConditionalGetSupport conditionalGetSupport
+    ) {
         this.divisionService = divisionService;
         this.divisionRepository = divisionRepository;
+        this.conditionalGetSupport = conditionalGetSupport;
     }
 
     /**
@@ -171,41 +179,55 @@ public class DivisionResource {
      *
      * @param pageable the pagination information.
      * @param request a {@link ServerHttpRequest} request.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of divisions in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of divisions in body, serialized once per
+     * version of the reference data, see {@link bd.gov.banbeis.service.ReferenceDataCache}.
      */
     @GetMapping("/divisions")
-    public Mono<ResponseEntity<List<Division>>> getAllDivisions(
+    public Mono<ResponseEntity<byte[]>> getAllDivisions(
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
         ServerHttpRequest request
     ) {
         log.debug("REST request to get a page of Divisions");
         return divisionService
             .countAll()
-            .zipWith(divisionService.findAll(pageable).collectList())
-            .map(countWithEntities -> {
-                return ResponseEntity
+            .zipWith(divisionService.findAllAsJson(pageable))
+            .map(countWithJson ->
+                ResponseEntity
                     .ok()
+                    .contentType(MediaType.APPLICATION_JSON)
                     .headers(
                         PaginationUtil.generatePaginationHttpHeaders(
                             UriComponentsBuilder.fromHttpRequest(request),
-                            new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+                            new PageImpl<>(Collections.emptyList(), pageable, countWithJson.getT1())
                         )
                     )
-                    .body(countWithEntities.getT2());
-            });
+                    .body(countWithJson.getT2())
+            );
+    }
+
+    /**
+     * {@code GET  /divisions} : stream all the divisions, when newline delimited JSON or server-sent events are accepted.
+     *
+     * @return the {@link Flux} of divisions, written as they are read from the database.
+     */
+    @GetMapping(value = "/divisions", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<Division> getAllDivisionsAsStream() {
+        log.debug("REST request to stream all Divisions");
+        return divisionService.streamAll();
     }
 
     /**
      * {@code GET  /divisions/:id} : get the "id" division.
      *
      * @param id the id of the division to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the division, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the division, or with status {@code 404 (Not Found)}, or with status {@code 304 (Not Modified)} if it was not modified since the given validators.
      */
     @GetMapping("/divisions/{id}")
-    public Mono<ResponseEntity<Division>> getDivision(@PathVariable String id) {
+    public Mono<ResponseEntity<Division>> getDivision(@PathVariable String id, ServerWebExchange exchange) {
         log.debug("REST request to get Division : {}", id);
         Mono<Division> division = divisionService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(division);
+        return conditionalGetSupport.wrapOrNotFound(exchange, Division.class, id, division);
     }
 
     /**
@@ -4,6 +4,8 @@ import bd.gov.banbeis.domain.Employee;
 import bd.gov.banbeis.repository.EmployeeRepository;
 import bd.gov.banbeis.service.EmployeeService;
 import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import bd.gov.banbeis.web.rest.util.ConditionalGetSupport;
+import bd.gov.banbeis.web.rest.util.ContentResponseUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -25,12 +27,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link bd.gov.banbeis.domain.Employee}.
@@ -50,9 +52,16 @@ public class EmployeeResource {
 
     private final EmployeeRepository employeeRepository;
 
-    public EmployeeResource(EmployeeService employeeService, EmployeeRepository employeeRepository) {
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    public EmployeeResource(
+        EmployeeService employeeService,
+        EmployeeRepository employeeRepository,
+        ConditionalGetSupport conditionalGetSupport
+    ) {
         this.employeeService = employeeService;
         this.employeeRepository = employeeRepository;
+        this.conditionalGetSupport = conditionalGetSupport;
     }
 
     /**
@@ -171,19 +180,24 @@ public class EmployeeResource {
     /**
      * {@code GET  /employees} : get all the employees.
      *
+     * Only the metadata of the photos is returned unless {@code includeContent} is set, the photos are streamed from
+     * {@code /employees/:id/content}.
+     *
      * @param pageable the pagination information.
+     * @param includeContent whether to return the photos in the list.
      * @param request a {@link ServerHttpRequest} request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of employees in body.
      */
     @GetMapping("/employees")
     public Mono<ResponseEntity<List<Employee>>> getAllEmployees(
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false, defaultValue = "false") boolean includeContent,
         ServerHttpRequest request
     ) {
         log.debug("REST request to get a page of Employees");
         return employeeService
             .countAll()
-            .zipWith(employeeService.findAll(pageable).collectList())
+            .zipWith(employeeService.findAll(pageable, includeContent).collectList())
             .map(countWithEntities -> {
                 return ResponseEntity
                     .ok()
@@ -197,17 +211,43 @@ public class EmployeeResource {
             });
     }
 
+    /**
+     * {@code GET  /employees} : stream all the employees, when newline delimited JSON or server-sent events are accepted.
+     *
+     * @param includeContent whether to return the photos in the stream.
+     * @return the {@link Flux} of employees, written as they are read from the database.
+     */
+    @GetMapping(value = "/employees", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<Employee> getAllEmployeesAsStream(@RequestParam(required = false, defaultValue = "false") boolean includeContent) {
+        log.debug("REST request to stream all Employees");
+        return employeeService.streamAll(includeContent);
+    }
+
     /**
      * {@code GET  /employees/:id} : get the "id" employee.
      *
      * @param id the id of the employee to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the employee, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the employee, or with status {@code 404 (Not Found)}, or with status {@code 304 (Not Modified)} if it was not modified since the given validators.
      */
     @GetMapping("/employees/{id}")
-    public Mono<ResponseEntity<Employee>> getEmployee(@PathVariable String id) {
+    public Mono<ResponseEntity<Employee>> getEmployee(@PathVariable String id, ServerWebExchange exchange) {
         log.debug("REST request to get Employee : {}", id);
         Mono<Employee> employee = employeeService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(employee);
+        return conditionalGetSupport.wrapOrNotFound(exchange, Employee.class, id, employee);
+    }
+
+    /**
+     * {@code GET  /employees/:id/content} : get the photo of the "id" employee.
+     *
+     * @param id the id of the employee whose photo to retrieve.
+     * @param exchange the current exchange.
+     * @return a Mono to signal the end of the response, with status {@code 200 (OK)} and the photo streamed in body, with status {@code 206 (Partial Content)} and the requested range in body, with status {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/employees/{id}/content")
+    public Mono<Void> getEmployeeContent(@PathVariable String id, ServerWebExchange exchange) {
+        log.debug("REST request to get the photo of Employee : {}", id);
+        return ContentResponseUtil.writeOrNotFound(exchange, employeeService.findPhotoContent(id));
     }
 
     /**
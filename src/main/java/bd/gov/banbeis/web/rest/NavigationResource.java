@@ -4,6 +4,7 @@ import bd.gov.banbeis.domain.Navigation;
 import bd.gov.banbeis.repository.NavigationRepository;
 import bd.gov.banbeis.service.NavigationService;
 import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import bd.gov.banbeis.web.rest.util.ConditionalGetSupport;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -25,12 +26,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link bd.gov.banbeis.domain.Navigation}.
@@ -50,9 +51,16 @@ public class NavigationResource {
 
     private final NavigationRepository navigationRepository;
 
-    public NavigationResource(NavigationService navigationService, NavigationRepository navigationRepository) {
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    public NavigationResource(
+        NavigationService navigationService,
+        NavigationRepository navigationRepository,
+        ConditionalGetSupport conditionalGetSupport
+    ) {
         this.navigationService = navigationService;
         this.navigationRepository = navigationRepository;
+        this.conditionalGetSupport = conditionalGetSupport;
     }
 
     /**
@@ -197,17 +205,29 @@ public class NavigationResource {
             });
     }
 
+    /**
+     * {@code GET  /navigations} : stream all the navigations, when newline delimited JSON or server-sent events are accepted.
+     *
+     * @return the {@link Flux} of navigations, written as they are read from the database.
+     */
+    @GetMapping(value = "/navigations", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<Navigation> getAllNavigationsAsStream() {
+        log.debug("REST request to stream all Navigations");
+        return navigationService.streamAll();
+    }
+
     /**
      * {@code GET  /navigations/:id} : get the "id" navigation.
      *
      * @param id the id of the navigation to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the navigation, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the navigation, or with status {@code 404 (Not Found)}, or with status {@code 304 (Not Modified)} if it was not modified since the given validators.
      */
     @GetMapping("/navigations/{id}")
-    public Mono<ResponseEntity<Navigation>> getNavigation(@PathVariable String id) {
+    public Mono<ResponseEntity<Navigation>> getNavigation(@PathVariable String id, ServerWebExchange exchange) {
         log.debug("REST request to get Navigation : {}", id);
         Mono<Navigation> navigation = navigationService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(navigation);
+        return conditionalGetSupport.wrapOrNotFound(exchange, Navigation.class, id, navigation);
     }
 
     /**
@@ -4,6 +4,7 @@ import bd.gov.banbeis.domain.PostComment;
 import bd.gov.banbeis.repository.PostCommentRepository;
 import bd.gov.banbeis.service.PostCommentService;
 import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import bd.gov.banbeis.web.rest.util.ConditionalGetSupport;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -23,12 +24,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link bd.gov.banbeis.domain.PostComment}.
@@ -48,9 +49,16 @@ public class PostCommentResource {
 
     private final PostCommentRepository postCommentRepository;
 
-    public PostCommentResource(PostCommentService postCommentService, PostCommentRepository postCommentRepository) {
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    public PostCommentResource(
+        PostCommentService postCommentService,
+        PostCommentRepository postCommentRepository,
+        ConditionalGetSupport conditionalGetSupport
+    ) {
         this.postCommentService = postCommentService;
         this.postCommentRepository = postCommentRepository;
+        this.conditionalGetSupport = conditionalGetSupport;
     }
 
     /**
@@ -195,17 +203,29 @@ public class PostCommentResource {
             });
     }
 
+    /**
+     * {@code GET  /post-comments} : stream all the postComments, when newline delimited JSON or server-sent events are accepted.
+     *
+     * @return the {@link Flux} of postComments, written as they are read from the database.
+     */
+    @GetMapping(value = "/post-comments", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<PostComment> getAllPostCommentsAsStream() {
+        log.debug("REST request to stream all PostComments");
+        return postCommentService.streamAll();
+    }
+
     /**
      * {@code GET  /post-comments/:id} : get the "id" postComment.
      *
      * @param id the id of the postComment to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the postComment, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the postComment, or with status {@code 404 (Not Found)}, or with status {@code 304 (Not Modified)} if it was not modified since the given validators.
      */
     @GetMapping("/post-comments/{id}")
-    public Mono<ResponseEntity<PostComment>> getPostComment(@PathVariable String id) {
+    public Mono<ResponseEntity<PostComment>> getPostComment(@PathVariable String id, ServerWebExchange exchange) {
         log.debug("REST request to get PostComment : {}", id);
         Mono<PostComment> postComment = postCommentService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(postComment);
+        return conditionalGetSupport.wrapOrNotFound(exchange, PostComment.class, id, postComment);
     }
 
     /**
@@ -3,7 +3,14 @@ package bd.gov.banbeis.web.rest;
 import bd.gov.banbeis.domain.PostPhoto;
 import bd.gov.banbeis.repository.PostPhotoRepository;
 import bd.gov.banbeis.service.PostPhotoService;
+import bd.gov.banbeis.service.blob.ContentRejectedException;
+import bd.gov.banbeis.service.blob.ImageRendition;
+import bd.gov.banbeis.service.blob.UploadResult;
 import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import bd.gov.banbeis.web.rest.util.ConditionalGetSupport;
+import bd.gov.banbeis.web.rest.util.ContentResponseUtil;
+import bd.gov.banbeis.web.rest.util.MultipartUploadUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -20,15 +27,16 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.Part;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link bd.gov.banbeis.domain.PostPhoto}.
@@ -48,9 +56,20 @@ public class PostPhotoResource {
 
     private final PostPhotoRepository postPhotoRepository;
 
-    public PostPhotoResource(PostPhotoService postPhotoService, PostPhotoRepository postPhotoRepository) {
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    private final ObjectMapper objectMapper;
+
+    public PostPhotoResource(
+        PostPhotoService postPhotoService,
+        PostPhotoRepository postPhotoRepository,
+        ConditionalGetSupport conditionalGetSupport,
+        ObjectMapper objectMapper
+    ) {
         this.postPhotoService = postPhotoService;
         this.postPhotoRepository = postPhotoRepository;
+        this.conditionalGetSupport = conditionalGetSupport;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -80,6 +99,70 @@ public class PostPhotoResource {
             });
     }
 
+    /**
+     * {@code POST  /post-photos} : Create a new postPhoto, uploading its image as {@code multipart/form-data}.
+     * <p>
+     * The {@code postPhoto} part holds the postPhoto as JSON, without image, and must come before the {@code image} file
+     * part. The image is streamed to the storage as it is received, within the {@code application.upload} limits.
+     *
+     * @param parts the parts of the request.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new postPhoto, or with status {@code 400 (Bad Request)} if the postPhoto has already an ID, if a part is missing or if the image exceeds the upload limits.
+     */
+    @PostMapping(value = "/post-photos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<PostPhoto>> uploadPostPhoto(@RequestBody Flux<Part> parts) {
+        log.debug("REST request to upload PostPhoto");
+        return MultipartUploadUtil
+            .upload(
+                parts,
+                ENTITY_NAME,
+                PostPhoto.class,
+                objectMapper,
+                "image",
+                (postPhoto, imageContentType, image) -> {
+                    if (postPhoto.getId() != null) {
+                        return Mono.error(
+                            new BadRequestAlertException("A new postPhoto cannot already have an ID", ENTITY_NAME, "idexists")
+                        );
+                    }
+                    return postPhotoService.upload(postPhoto, imageContentType, image);
+                }
+            )
+            .onErrorMap(
+                ContentRejectedException.class,
+                error -> new BadRequestAlertException(error.getMessage(), ENTITY_NAME, error.getReason())
+            )
+            .map(result ->
+                ResponseEntity
+                    .created(URI.create("/api/post-photos/" + result.getId()))
+                    .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId()))
+                    .body(result)
+            );
+    }
+
+    /**
+     * {@code POST  /posts/:postId/post-photos} : Create the photos of a post, uploading their images together as
+     * {@code multipart/form-data}.
+     * <p>
+     * Each {@code images} file part creates a photo, numbered after the last photo of the post. The images are
+     * processed in parallel and the photos inserted together, within the {@code application.upload} limits: an image
+     * exceeding them is reported in its result, and does not prevent the others from being created.
+     *
+     * @param postId the id of the post.
+     * @param parts the parts of the request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each image, in order, or with status {@code 400 (Bad Request)} if the post does not exist.
+     */
+    @PostMapping(value = "/posts/{postId}/post-photos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<List<UploadResult<PostPhoto>>>> uploadPostPhotos(
+        @PathVariable String postId,
+        @RequestBody Flux<Part> parts
+    ) {
+        log.debug("REST request to upload PostPhotos of Post : {}", postId);
+        return postPhotoService
+            .uploadAll(postId, MultipartUploadUtil.files(parts, "images"))
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Post not found", ENTITY_NAME, "idnotfound")))
+            .map(results -> ResponseEntity.ok().body(results));
+    }
+
     /**
      * {@code PUT  /post-photos/:id} : Updates an existing postPhoto.
      *
@@ -169,19 +252,24 @@ public class PostPhotoResource {
     /**
      * {@code GET  /post-photos} : get all the postPhotos.
      *
+     * Only the metadata of the images is returned unless {@code includeContent} is set, the images are streamed from
+     * {@code /post-photos/:id/content}.
+     *
      * @param pageable the pagination information.
+     * @param includeContent whether to return the images in the list.
      * @param request a {@link ServerHttpRequest} request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of postPhotos in body.
      */
     @GetMapping("/post-photos")
     public Mono<ResponseEntity<List<PostPhoto>>> getAllPostPhotos(
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false, defaultValue = "false") boolean includeContent,
         ServerHttpRequest request
     ) {
         log.debug("REST request to get a page of PostPhotos");
         return postPhotoService
             .countAll()
-            .zipWith(postPhotoService.findAll(pageable).collectList())
+            .zipWith(postPhotoService.findAll(pageable, includeContent).collectList())
             .map(countWithEntities -> {
                 return ResponseEntity
                     .ok()
@@ -195,17 +283,52 @@ public class PostPhotoResource {
             });
     }
 
+    /**
+     * {@code GET  /post-photos} : stream all the postPhotos, when newline delimited JSON or server-sent events are accepted.
+     *
+     * @param includeContent whether to return the images in the stream.
+     * @return the {@link Flux} of postPhotos, written as they are read from the database.
+     */
+    @GetMapping(value = "/post-photos", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<PostPhoto> getAllPostPhotosAsStream(@RequestParam(required = false, defaultValue = "false") boolean includeContent) {
+        log.debug("REST request to stream all PostPhotos");
+        return postPhotoService.streamAll(includeContent);
+    }
+
     /**
      * {@code GET  /post-photos/:id} : get the "id" postPhoto.
      *
      * @param id the id of the postPhoto to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the postPhoto, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the postPhoto, or with status {@code 404 (Not Found)}, or with status {@code 304 (Not Modified)} if it was not modified since the given validators.
      */
     @GetMapping("/post-photos/{id}")
-    public Mono<ResponseEntity<PostPhoto>> getPostPhoto(@PathVariable String id) {
+    public Mono<ResponseEntity<PostPhoto>> getPostPhoto(@PathVariable String id, ServerWebExchange exchange) {
         log.debug("REST request to get PostPhoto : {}", id);
         Mono<PostPhoto> postPhoto = postPhotoService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(postPhoto);
+        return conditionalGetSupport.wrapOrNotFound(exchange, PostPhoto.class, id, postPhoto);
+    }
+
+    /**
+     * {@code GET  /post-photos/:id/content} : get the image of the "id" postPhoto.
+     *
+     * @param id the id of the postPhoto whose image to retrieve.
+     * @param size the size of the image: {@code thumb}, {@code medium} or {@code large}; the original size if absent or
+     * if the image was not rendered at that size.
+     * @param exchange the current exchange.
+     * @return a Mono to signal the end of the response, with status {@code 200 (OK)} and the image streamed in body, with status {@code 206 (Partial Content)} and the requested range in body, with status {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/post-photos/{id}/content")
+    public Mono<Void> getPostPhotoContent(
+        @PathVariable String id,
+        @RequestParam(required = false) String size,
+        ServerWebExchange exchange
+    ) {
+        log.debug("REST request to get the image of PostPhoto : {}, size : {}", id, size);
+        ImageRendition rendition = size == null
+            ? null
+            : ImageRendition.fromName(size).orElseThrow(() -> new BadRequestAlertException("Invalid size", ENTITY_NAME, "invalidsize"));
+        return ContentResponseUtil.writeOrNotFound(exchange, postPhotoService.findImageContent(id, rendition));
     }
 
     /**
@@ -3,7 +3,9 @@ package bd.gov.banbeis.web.rest;
 import bd.gov.banbeis.domain.Post;
 import bd.gov.banbeis.repository.PostRepository;
 import bd.gov.banbeis.service.PostService;
+import bd.gov.banbeis.service.dto.PostCursor;
 import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import bd.gov.banbeis.web.rest.util.ConditionalGetSupport;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -23,12 +25,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link bd.gov.banbeis.domain.Post}.
@@ -41,6 +43,8 @@ public class PostResource {
 
     private static final String ENTITY_NAME = "post";
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -48,9 +52,12 @@ public class PostResource {
 
     private final PostRepository postRepository;
 
-    public PostResource(PostService postService, PostRepository postRepository) {
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    public PostResource(PostService postService, PostRepository postRepository, ConditionalGetSupport conditionalGetSupport) {
         this.postService = postService;
         this.postRepository = postRepository;
+        this.conditionalGetSupport = conditionalGetSupport;
     }
 
     /**
@@ -193,17 +200,102 @@ public class PostResource {
             });
     }
 
+    /**
+     * {@code GET  /posts} : stream all the posts, when newline delimited JSON or server-sent events are accepted.
+     *
+     * @return the {@link Flux} of posts, written as they are read from the database.
+     */
+    @GetMapping(value = "/posts", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<Post> getAllPostsAsStream() {
+        log.debug("REST request to stream all Posts");
+        return postService.streamAll();
+    }
+
+    /**
+     * {@code GET  /posts?cursor=} : get a slice of the posts using keyset pagination.
+     * <p>
+     * Posts are returned newest published first. No total count is computed; when more posts are
+     * available a {@code Link} header with {@code rel="next"} carries the continuation cursor.
+     *
+     * @param cursor the opaque cursor returned by the previous slice, empty for the first slice.
+     * @param size the maximum number of posts to return.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of posts in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or size is invalid.
+     */
+    @GetMapping(value = "/posts", params = "cursor")
+    public Mono<ResponseEntity<List<Post>>> getAllPostsByCursor(
+        @RequestParam String cursor,
+        @RequestParam(defaultValue = "20") int size,
+        ServerHttpRequest request
+    ) {
+        log.debug("REST request to get a slice of Posts after cursor : {}", cursor);
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestAlertException("Invalid slice size", ENTITY_NAME, "sizeinvalid");
+        }
+        PostCursor after;
+        try {
+            after = cursor.isEmpty() ? null : PostCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        return postService
+            .findAllAfter(after, size + 1)
+            .collectList()
+            .map(posts -> {
+                HttpHeaders headers = new HttpHeaders();
+                if (posts.size() > size) {
+                    posts = posts.subList(0, size);
+                    String next = UriComponentsBuilder
+                        .fromHttpRequest(request)
+                        .replaceQueryParam("cursor", PostCursor.of(posts.get(size - 1)).encode())
+                        .replaceQueryParam("size", size)
+                        .toUriString();
+                    headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+                }
+                return ResponseEntity.ok().headers(headers).body(posts);
+            });
+    }
+
+    /**
+     * {@code SEARCH  /_search/posts?query=:query} : search for the posts corresponding to the query, best ranked first.
+     *
+     * @param query the query of the post search.
+     * @param pageable the pagination information, its sort is ignored.
+     * @param request a {@link ServerHttpRequest} request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of matching posts in body.
+     */
+    @GetMapping("/_search/posts")
+    public Mono<ResponseEntity<List<Post>>> searchPosts(
+        @RequestParam String query,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        ServerHttpRequest request
+    ) {
+        log.debug("REST request to search for a page of Posts for query {}", query);
+        return postService
+            .search(query, pageable)
+            .map(page ->
+                ResponseEntity
+                    .ok()
+                    .headers(PaginationUtil.generatePaginationHttpHeaders(UriComponentsBuilder.fromHttpRequest(request), page))
+                    .body(page.getContent())
+            );
+    }
+
     /**
      * {@code GET  /posts/:id} : get the "id" post.
+     * <p>
+     * The post is returned as already serialized JSON, cached in memory between updates, with its current view count. The
+     * view is counted unless answered with {@code 304 (Not Modified)}, and the validators do not cover the view count.
      *
      * @param id the id of the post to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the post, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the post, or with status {@code 404 (Not Found)}, or with status {@code 304 (Not Modified)} if it was not modified since the given validators.
      */
-    @GetMapping("/posts/{id}")
-    public Mono<ResponseEntity<Post>> getPost(@PathVariable String id) {
+    @GetMapping(value = "/posts/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<byte[]>> getPost(@PathVariable String id, ServerWebExchange exchange) {
         log.debug("REST request to get Post : {}", id);
-        Mono<Post> post = postService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(post);
+        return conditionalGetSupport.wrapOrNotFound(exchange, Post.class, id, postService.findOneAsJson(id));
     }
 
     /**
@@ -0,0 +1,59 @@
+package bd.gov.banbeis.web.rest;
+
+import bd.gov.banbeis.service.PostService;
+import bd.gov.banbeis.service.TrendingPostService;
+import bd.gov.banbeis.service.dto.PostSummaryDTO;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for the public, anonymous, feed of published {@link bd.gov.banbeis.domain.Post}s.
+ */
+@RestController
+@RequestMapping("/api/public")
+public class PublicPostResource {
+
+    private final Logger log = LoggerFactory.getLogger(PublicPostResource.class);
+
+    private final PostService postService;
+
+    private final TrendingPostService trendingPostService;
+
+    public PublicPostResource(PostService postService, TrendingPostService trendingPostService) {
+        this.postService = postService;
+        this.trendingPostService = trendingPostService;
+    }
+
+    /**
+     * {@code GET  /public/posts} : get the published posts, newest first - calling this is allowed for anyone.
+     *
+     * @param pageable the pagination information, only the page number and size are used.
+     * @return the list of published post summaries.
+     */
+    @GetMapping("/posts")
+    public Mono<List<PostSummaryDTO>> getPublishedPosts(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+        log.debug("REST request to get a page of published Posts");
+        return postService.findAllPublished(pageable).collectList();
+    }
+
+    /**
+     * {@code GET  /public/posts/trending} : get the trending published posts, most trending first - calling this is allowed for anyone.
+     * <p>
+     * The posts are served from memory, see {@link TrendingPostService}.
+     *
+     * @param centerId the id of the center of the posts, all the centers if absent.
+     * @return the list of trending post summaries.
+     */
+    @GetMapping("/posts/trending")
+    public List<PostSummaryDTO> getTrendingPosts(@RequestParam(required = false) String centerId) {
+        log.debug("REST request to get trending Posts of Center : {}", centerId);
+        return trendingPostService.findTrending(centerId);
+    }
+}
@@ -4,10 +4,11 @@ import bd.gov.banbeis.domain.Upazila;
 import bd.gov.banbeis.repository.UpazilaRepository;
 import bd.gov.banbeis.service.UpazilaService;
 import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import bd.gov.banbeis.web.rest.util.ConditionalGetSupport;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -23,12 +24,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link bd.gov.banbeis.domain.Upazila}.
@@ -48,9 +49,16 @@ public class UpazilaResource {
 
     private final UpazilaRepository upazilaRepository;
 
-    public UpazilaResource(UpazilaService upazilaService, UpazilaRepository upazilaRepository) {
+    private final ConditionalGetSupport conditionalGetSupport;
+
+    public UpazilaResource(
+        UpazilaService upazilaService,
+        UpazilaRepository upazilaRepository,
+        ConditionalGetSupport conditionalGetSupport
+    ) {
         this.upazilaService = upazilaService;
         this.upazilaRepository = upazilaRepository;
+        this.conditionalGetSupport = conditionalGetSupport;
     }
 
     /**
@@ -171,41 +179,67 @@ public class UpazilaResource {
      *
      * @param pageable the pagination information.
      * @param request a {@link ServerHttpRequest} request.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of upazilas in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of upazilas in body, serialized once per
+     * version of the reference data, see {@link bd.gov.banbeis.service.ReferenceDataCache}.
      */
     @GetMapping("/upazilas")
-    public Mono<ResponseEntity<List<Upazila>>> getAllUpazilas(
+    public Mono<ResponseEntity<byte[]>> getAllUpazilas(
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
         ServerHttpRequest request
     ) {
         log.debug("REST request to get a page of Upazilas");
         return upazilaService
             .countAll()
-            .zipWith(upazilaService.findAll(pageable).collectList())
-            .map(countWithEntities -> {
-                return ResponseEntity
+            .zipWith(upazilaService.findAllAsJson(pageable))
+            .map(countWithJson ->
+                ResponseEntity
                     .ok()
+                    .contentType(MediaType.APPLICATION_JSON)
                     .headers(
                         PaginationUtil.generatePaginationHttpHeaders(
                             UriComponentsBuilder.fromHttpRequest(request),
-                            new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+                            new PageImpl<>(Collections.emptyList(), pageable, countWithJson.getT1())
                         )
                     )
-                    .body(countWithEntities.getT2());
-            });
+                    .body(countWithJson.getT2())
+            );
+    }
+
+    /**
+     * {@code GET  /upazilas} : stream all the upazilas, when newline delimited JSON or server-sent events are accepted.
+     *
+     * @return the {@link Flux} of upazilas, written as they are read from the database.
+     */
+    @GetMapping(value = "/upazilas", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<Upazila> getAllUpazilasAsStream() {
+        log.debug("REST request to stream all Upazilas");
+        return upazilaService.streamAll();
+    }
+
+    /**
+     * {@code GET  /districts/:id/upazilas} : get the upazilas of the "id" district.
+     *
+     * @param id the id of the district.
+     * @return the {@link Flux} of the upazilas of the district.
+     */
+    @GetMapping("/districts/{id}/upazilas")
+    public Flux<Upazila> getUpazilasOfDistrict(@PathVariable String id) {
+        log.debug("REST request to get the Upazilas of District : {}", id);
+        return upazilaService.findAllByDistrict(id);
     }
 
     /**
      * {@code GET  /upazilas/:id} : get the "id" upazila.
      *
      * @param id the id of the upazila to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the upazila, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the upazila, or with status {@code 404 (Not Found)}, or with status {@code 304 (Not Modified)} if it was not modified since the given validators.
      */
     @GetMapping("/upazilas/{id}")
-    public Mono<ResponseEntity<Upazila>> getUpazila(@PathVariable String id) {
+    public Mono<ResponseEntity<Upazila>> getUpazila(@PathVariable String id, ServerWebExchange exchange) {
         log.debug("REST request to get Upazila : {}", id);
         Mono<Upazila> upazila = upazilaService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(upazila);
+        return conditionalGetSupport.wrapOrNotFound(exchange, Upazila.class, id, upazila);
     }
 
     /**
@@ -0,0 +1,77 @@
+package bd.gov.banbeis.web.rest.util;
+
+import bd.gov.banbeis.domain.AbstractLastModifiedEntity;
+import bd.gov.banbeis.repository.LastModifiedDateLookup;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Conditional GET support for entity resources.
+ * <p>
+ * Responses carry an {@code ETag} and a {@code Last-Modified} header derived from the last modified dates of the entity
+ * and of the entities it references, as their summaries are part of its representation. The dates are first read with
+ * projections, so when the request is conditional ({@code If-None-Match} or {@code If-Modified-Since}) a
+ * {@code 304 (Not Modified)} is answered without loading nor serializing the entity.
+ */
+@Component
+public class ConditionalGetSupport {
+
+    private final LastModifiedDateLookup lastModifiedDateLookup;
+
+    public ConditionalGetSupport(LastModifiedDateLookup lastModifiedDateLookup) {
+        this.lastModifiedDateLookup = lastModifiedDateLookup;
+    }
+
+    /**
+     * Wrap a representation of an auditing entity into a conditional {@link ResponseEntity}.
+     *
+     * @param exchange the current exchange.
+     * @param entityClass the entity class.
+     * @param id the id of the entity.
+     * @param body the representation loader, only subscribed to when the entity was modified.
+     * @param <B> the representation type.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the representation in body, with status
+     * {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     */
+    public <B> Mono<ResponseEntity<B>> wrapOrNotFound(
+        ServerWebExchange exchange,
+        Class<? extends AbstractLastModifiedEntity> entityClass,
+        String id,
+        Mono<B> body
+    ) {
+        return lastModifiedDateLookup
+            .findLastModifiedDates(entityClass, id)
+            .defaultIfEmpty(Collections.emptyList())
+            .flatMap(dates -> {
+                Instant lastModified = dates.stream().max(Instant::compareTo).orElse(null);
+                if (lastModified != null && exchange.checkNotModified(eTag(dates), lastModified)) {
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+                }
+                return body
+                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                    .map(result -> {
+                        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                        if (lastModified != null) {
+                            response.eTag(eTag(dates)).lastModified(lastModified);
+                        }
+                        return response.body(result);
+                    });
+            });
+    }
+
+    private static String eTag(List<Instant> dates) {
+        long hash = 0;
+        for (Instant date : dates) {
+            hash = 31 * hash + date.toEpochMilli();
+        }
+        return "\"" + Long.toString(hash, Character.MAX_RADIX) + "\"";
+    }
+}
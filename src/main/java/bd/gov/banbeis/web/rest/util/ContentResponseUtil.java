@@ -0,0 +1,113 @@
+package bd.gov.banbeis.web.rest.util;
+
+import bd.gov.banbeis.service.blob.BlobContent;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Utility class for streaming blob contents in responses.
+ */
+public final class ContentResponseUtil {
+
+    private static final String BYTES = "bytes";
+
+    private ContentResponseUtil() {}
+
+    /**
+     * Write a blob content in the response, streaming its chunks as they are read.
+     * <p>
+     * Blobs are immutable, so the blob id is a strong {@code ETag} and a matching {@code If-None-Match} is answered
+     * without reading the content.
+     * <p>
+     * A single byte range can be requested with {@code Range}, to resume an interrupted download: only that range is
+     * read. The range is ignored if an {@code If-Range} validator does not match the {@code ETag}, and the whole
+     * content is returned instead, as it is for multiple ranges.
+     * <p>
+     * A content held in a {@link BlobContent#getFile() file} is sent without being read by the application, with a
+     * zero-copy transfer from the file to the socket when the server supports it.
+     *
+     * @param exchange the current exchange.
+     * @param content the blob content.
+     * @return a Mono to signal the end of the response: with status {@code 200 (OK)} and the content in body, with
+     * status {@code 206 (Partial Content)} and the requested range in body, with status {@code 304 (Not Modified)},
+     * with status {@code 416 (Requested Range Not Satisfiable)}, or an error with status {@code 404 (Not Found)}.
+     */
+    public static Mono<Void> writeOrNotFound(ServerWebExchange exchange, Mono<BlobContent> content) {
+        return content
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+            .flatMap(blob -> {
+                ServerHttpResponse response = exchange.getResponse();
+                String eTag = "\"" + blob.getId() + "\"";
+                if (exchange.checkNotModified(eTag)) {
+                    return response.setComplete();
+                }
+                HttpHeaders headers = response.getHeaders();
+                headers.setETag(eTag);
+                headers.set(HttpHeaders.ACCEPT_RANGES, BYTES);
+                long length = blob.getLength();
+                List<HttpRange> ranges = ranges(exchange.getRequest().getHeaders(), eTag);
+                if (ranges.size() != 1) {
+                    response.setStatusCode(HttpStatus.OK);
+                    headers.setContentType(contentType(blob));
+                    return write(exchange, blob, 0, length);
+                }
+                long start = ranges.get(0).getRangeStart(length);
+                if (start >= length) {
+                    response.setStatusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+                    headers.set(HttpHeaders.CONTENT_RANGE, BYTES + " */" + length);
+                    return response.setComplete();
+                }
+                long end = ranges.get(0).getRangeEnd(length);
+                response.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+                headers.setContentType(contentType(blob));
+                headers.set(HttpHeaders.CONTENT_RANGE, BYTES + " " + start + "-" + end + "/" + length);
+                return write(exchange, blob, start, end - start + 1);
+            });
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, BlobContent blob, long offset, long length) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setContentLength(length);
+        if (exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+            return response.setComplete();
+        }
+        if (blob.getFile() != null && response instanceof ZeroCopyHttpOutputMessage) {
+            return ((ZeroCopyHttpOutputMessage) response).writeWith(blob.getFile(), offset, length);
+        }
+        return response.writeWith(offset == 0 && length == blob.getLength() ? blob.getContent() : blob.getContent(offset, length));
+    }
+
+    private static List<HttpRange> ranges(HttpHeaders headers, String eTag) {
+        String ifRange = headers.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(eTag)) {
+            return List.of();
+        }
+        try {
+            return headers.getRange();
+        } catch (IllegalArgumentException e) {
+            // An invalid range is ignored
+            return List.of();
+        }
+    }
+
+    private static MediaType contentType(BlobContent blob) {
+        if (blob.getContentType() != null) {
+            try {
+                return MediaType.parseMediaType(blob.getContentType());
+            } catch (InvalidMediaTypeException e) {
+                // Stored as provided by the client, served as opaque bytes
+            }
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+}
@@ -0,0 +1,130 @@
+package bd.gov.banbeis.web.rest.util;
+
+import bd.gov.banbeis.service.blob.UploadedFile;
+import bd.gov.banbeis.web.rest.errors.BadRequestAlertException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.codec.multipart.Part;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Utility class for reading {@code multipart/form-data} uploads of an entity along with a file, or of several files.
+ * <p>
+ * Parts are streamed: each part is read as it is received, and the file part is handed over before its content is
+ * received. The entity part must therefore come before the file part.
+ */
+public final class MultipartUploadUtil {
+
+    /**
+     * Maximum size of the entity part, in bytes.
+     */
+    private static final int MAX_ENTITY_SIZE = 256 * 1024;
+
+    private MultipartUploadUtil() {}
+
+    /**
+     * Uploads an entity along with the content of a file.
+     *
+     * @param <T> the type of the entity.
+     */
+    @FunctionalInterface
+    public interface Uploader<T> {
+        /**
+         * @param entity the entity, read from its part.
+         * @param contentType the media type of the file, without parameters, or {@code null} if unknown.
+         * @param content the content of the file, received with backpressure.
+         * @return the persisted entity.
+         */
+        Mono<T> upload(T entity, String contentType, Flux<DataBuffer> content);
+    }
+
+    /**
+     * Read an entity from its JSON part, then upload it along with the following file part.
+     *
+     * @param parts the parts of the request, as they are received.
+     * @param entityName the name of the part holding the entity as JSON, also used in the error alerts.
+     * @param entityClass the type of the entity.
+     * @param objectMapper reads the entity.
+     * @param fileName the name of the file part.
+     * @param uploader uploads the entity along with the file.
+     * @param <T> the type of the entity.
+     * @return the persisted entity, or a {@link BadRequestAlertException} if a part is missing, invalid, or in the
+     * wrong order. Other parts are skipped.
+     */
+    public static <T> Mono<T> upload(
+        Flux<Part> parts,
+        String entityName,
+        Class<T> entityClass,
+        ObjectMapper objectMapper,
+        String fileName,
+        Uploader<T> uploader
+    ) {
+        AtomicReference<T> entity = new AtomicReference<>();
+        return parts
+            .concatMap(part -> {
+                if (entityName.equals(part.name())) {
+                    return DataBufferUtils
+                        .join(part.content(), MAX_ENTITY_SIZE)
+                        .onErrorMap(
+                            DataBufferLimitException.class,
+                            error -> new BadRequestAlertException("The " + entityName + " part is too large", entityName, "partinvalid")
+                        )
+                        .doOnNext(buffer -> entity.set(read(buffer, entityName, entityClass, objectMapper)))
+                        .then(Mono.<T>empty());
+                }
+                if (fileName.equals(part.name()) && part instanceof FilePart) {
+                    if (entity.get() == null) {
+                        return Mono.<T>error(
+                            new BadRequestAlertException(
+                                "The " + entityName + " part must come before the " + fileName + " part",
+                                entityName,
+                                "partorder"
+                            )
+                        );
+                    }
+                    return uploader.upload(entity.get(), contentType(part), part.content());
+                }
+                return part.content().doOnNext(DataBufferUtils::release).then(Mono.<T>empty());
+            })
+            .next()
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("The " + fileName + " part is missing", entityName, "partmissing")));
+    }
+
+    /**
+     * Read the file parts of a multi-file upload.
+     *
+     * @param parts the parts of the request, as they are received.
+     * @param fileName the name of the file parts. Other parts are skipped.
+     * @return the files, each of which must be read before the next one is received.
+     */
+    public static Flux<UploadedFile> files(Flux<Part> parts, String fileName) {
+        return parts.concatMap(part -> {
+            if (fileName.equals(part.name()) && part instanceof FilePart) {
+                return Mono.just(new UploadedFile(((FilePart) part).filename(), contentType(part), part.content()));
+            }
+            return part.content().doOnNext(DataBufferUtils::release).then(Mono.<UploadedFile>empty());
+        });
+    }
+
+    private static String contentType(Part part) {
+        MediaType contentType = part.headers().getContentType();
+        return contentType == null ? null : contentType.getType() + "/" + contentType.getSubtype();
+    }
+
+    private static <T> T read(DataBuffer buffer, String entityName, Class<T> entityClass, ObjectMapper objectMapper) {
+        try {
+            return objectMapper.readValue(buffer.asInputStream(), entityClass);
+        } catch (IOException e) {
+            throw new BadRequestAlertException("The " + entityName + " part is invalid", entityName, "partinvalid");
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Helpers shared by the REST controllers.
+ */
+package bd.gov.banbeis.web.rest.util;
@@ -4,6 +4,10 @@ export interface ICenterImages {
   id?: string;
   imageContentType?: string | null;
   image?: string | null;
+  imageSize?: number | null;
+  imageWidth?: number | null;
+  imageHeight?: number | null;
+  imageUrl?: string | null;
   title?: string | null;
   description?: string | null;
   show?: boolean | null;
@@ -15,6 +19,10 @@ export class CenterImages implements ICenterImages {
     public id?: string,
     public imageContentType?: string | null,
     public image?: string | null,
+    public imageSize?: number | null,
+    public imageWidth?: number | null,
+    public imageHeight?: number | null,
+    public imageUrl?: string | null,
     public title?: string | null,
     public description?: string | null,
     public show?: boolean | null,
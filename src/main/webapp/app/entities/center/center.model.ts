@@ -8,6 +8,8 @@ export interface ICenter {
   addressLine?: string | null;
   imageContentType?: string | null;
   image?: string | null;
+  imageSize?: number | null;
+  imageUrl?: string | null;
   division?: IDivision | null;
   district?: IDistrict | null;
   upazila?: IUpazila | null;
@@ -20,6 +22,8 @@ export class Center implements ICenter {
     public addressLine?: string | null,
     public imageContentType?: string | null,
     public image?: string | null,
+    public imageSize?: number | null,
+    public imageUrl?: string | null,
     public division?: IDivision | null,
     public district?: IDistrict | null,
     public upazila?: IUpazila | null
@@ -8,6 +8,8 @@ export interface IEmployee {
   email?: string;
   photoContentType?: string | null;
   photo?: string | null;
+  photoSize?: number | null;
+  photoUrl?: string | null;
   designation?: IDesignation | null;
 }
 
@@ -20,6 +22,8 @@ export class Employee implements IEmployee {
     public email?: string,
     public photoContentType?: string | null,
     public photo?: string | null,
+    public photoSize?: number | null,
+    public photoUrl?: string | null,
     public designation?: IDesignation | null
   ) {}
 }
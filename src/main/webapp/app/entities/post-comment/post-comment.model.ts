@@ -1,4 +1,5 @@
 import dayjs from 'dayjs/esm';
+import { IPost } from 'app/entities/post/post.model';
 import { CommentType } from 'app/entities/enumerations/comment-type.model';
 
 export interface IPostComment {
@@ -7,6 +8,7 @@ export interface IPostComment {
   comment?: string | null;
   commentType?: CommentType | null;
   commentedOn?: dayjs.Dayjs | null;
+  post?: IPost | null;
 }
 
 export class PostComment implements IPostComment {
@@ -15,7 +17,8 @@ export class PostComment implements IPostComment {
     public commentedBy?: string | null,
     public comment?: string | null,
     public commentType?: CommentType | null,
-    public commentedOn?: dayjs.Dayjs | null
+    public commentedOn?: dayjs.Dayjs | null,
+    public post?: IPost | null
   ) {}
 }
 
@@ -8,6 +8,8 @@ import { of, Subject, from } from 'rxjs';
 
 import { PostCommentService } from '../service/post-comment.service';
 import { IPostComment, PostComment } from '../post-comment.model';
+import { IPost } from 'app/entities/post/post.model';
+import { PostService } from 'app/entities/post/service/post.service';
 
 import { PostCommentUpdateComponent } from './post-comment-update.component';
 
@@ -16,6 +18,7 @@ describe('PostComment Management Update Component', () => {
   let fixture: ComponentFixture<PostCommentUpdateComponent>;
   let activatedRoute: ActivatedRoute;
   let postCommentService: PostCommentService;
+  let postService: PostService;
 
   beforeEach(() => {
     TestBed.configureTestingModule({
@@ -37,18 +40,41 @@ describe('PostComment Management Update Component', () => {
     fixture = TestBed.createComponent(PostCommentUpdateComponent);
     activatedRoute = TestBed.inject(ActivatedRoute);
     postCommentService = TestBed.inject(PostCommentService);
+    postService = TestBed.inject(PostService);
 
     comp = fixture.componentInstance;
   });
 
   describe('ngOnInit', () => {
+    it('Should call Post query and add missing value', () => {
+      const postComment: IPostComment = { id: 'CBA' };
+      const post: IPost = { id: '1c5f7d1e-4a5b-4f0e-9d3c-2b8a6e7f9c01' };
+      postComment.post = post;
+
+      const postCollection: IPost[] = [{ id: '8e2d4c6a-0b1f-4e3d-a5c7-9f1b3d5e7a92' }];
+      jest.spyOn(postService, 'query').mockReturnValue(of(new HttpResponse({ body: postCollection })));
+      const additionalPosts = [post];
+      const expectedCollection: IPost[] = [...additionalPosts, ...postCollection];
+      jest.spyOn(postService, 'addPostToCollectionIfMissing').mockReturnValue(expectedCollection);
+
+      activatedRoute.data = of({ postComment });
+      comp.ngOnInit();
+
+      expect(postService.query).toHaveBeenCalled();
+      expect(postService.addPostToCollectionIfMissing).toHaveBeenCalledWith(postCollection, ...additionalPosts);
+      expect(comp.postsSharedCollection).toEqual(expectedCollection);
+    });
+
     it('Should update editForm', () => {
       const postComment: IPostComment = { id: 'CBA' };
+      const post: IPost = { id: '5a7c9e1b-3d5f-4b7d-8f1a-2c4e6a8b0d13' };
+      postComment.post = post;
 
       activatedRoute.data = of({ postComment });
       comp.ngOnInit();
 
       expect(comp.editForm.value).toEqual(expect.objectContaining(postComment));
+      expect(comp.postsSharedCollection).toContain(post);
     });
   });
 
@@ -115,4 +141,14 @@ describe('PostComment Management Update Component', () => {
       expect(comp.previousState).not.toHaveBeenCalled();
     });
   });
+
+  describe('Tracking relationships identifiers', () => {
+    describe('trackPostById', () => {
+      it('Should return tracked Post primary key', () => {
+        const entity = { id: 'ABC' };
+        const trackResult = comp.trackPostById(0, entity);
+        expect(trackResult).toEqual(entity.id);
+      });
+    });
+  });
 });
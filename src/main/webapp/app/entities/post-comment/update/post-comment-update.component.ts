@@ -3,7 +3,7 @@ import { HttpResponse } from '@angular/common/http';
 import { FormBuilder } from '@angular/forms';
 import { ActivatedRoute } from '@angular/router';
 import { Observable } from 'rxjs';
-import { finalize } from 'rxjs/operators';
+import { finalize, map } from 'rxjs/operators';
 
 import dayjs from 'dayjs/esm';
 import { DATE_TIME_FORMAT } from 'app/config/input.constants';
@@ -13,6 +13,8 @@ import { PostCommentService } from '../service/post-comment.service';
 import { AlertError } from 'app/shared/alert/alert-error.model';
 import { EventManager, EventWithContent } from 'app/core/util/event-manager.service';
 import { DataUtils, FileLoadError } from 'app/core/util/data-util.service';
+import { IPost } from 'app/entities/post/post.model';
+import { PostService } from 'app/entities/post/service/post.service';
 import { CommentType } from 'app/entities/enumerations/comment-type.model';
 
 @Component({
@@ -23,18 +25,22 @@ export class PostCommentUpdateComponent implements OnInit {
   isSaving = false;
   commentTypeValues = Object.keys(CommentType);
 
+  postsSharedCollection: IPost[] = [];
+
   editForm = this.fb.group({
     id: [],
     commentedBy: [],
     comment: [],
     commentType: [],
     commentedOn: [],
+    post: [],
   });
 
   constructor(
     protected dataUtils: DataUtils,
     protected eventManager: EventManager,
     protected postCommentService: PostCommentService,
+    protected postService: PostService,
     protected activatedRoute: ActivatedRoute,
     protected fb: FormBuilder
   ) {}
@@ -47,6 +53,8 @@ export class PostCommentUpdateComponent implements OnInit {
       }
 
       this.updateForm(postComment);
+
+      this.loadRelationshipsOptions();
     });
   }
 
@@ -79,6 +87,10 @@ export class PostCommentUpdateComponent implements OnInit {
     }
   }
 
+  trackPostById(index: number, item: IPost): string {
+    return item.id!;
+  }
+
   protected subscribeToSaveResponse(result: Observable<HttpResponse<IPostComment>>): void {
     result.pipe(finalize(() => this.onSaveFinalize())).subscribe({
       next: () => this.onSaveSuccess(),
@@ -105,7 +117,18 @@ export class PostCommentUpdateComponent implements OnInit {
       comment: postComment.comment,
       commentType: postComment.commentType,
       commentedOn: postComment.commentedOn ? postComment.commentedOn.format(DATE_TIME_FORMAT) : null,
+      post: postComment.post,
     });
+
+    this.postsSharedCollection = this.postService.addPostToCollectionIfMissing(this.postsSharedCollection, postComment.post);
+  }
+
+  protected loadRelationshipsOptions(): void {
+    this.postService
+      .query()
+      .pipe(map((res: HttpResponse<IPost[]>) => res.body ?? []))
+      .pipe(map((posts: IPost[]) => this.postService.addPostToCollectionIfMissing(posts, this.editForm.get('post')!.value)))
+      .subscribe((posts: IPost[]) => (this.postsSharedCollection = posts));
   }
 
   protected createFromForm(): IPostComment {
@@ -118,6 +141,7 @@ export class PostCommentUpdateComponent implements OnInit {
       commentedOn: this.editForm.get(['commentedOn'])!.value
         ? dayjs(this.editForm.get(['commentedOn'])!.value, DATE_TIME_FORMAT)
         : undefined,
+      post: this.editForm.get(['post'])!.value,
     };
   }
 }
@@ -9,6 +9,10 @@ export interface IPostPhoto {
   description?: string | null;
   imageContentType?: string | null;
   image?: string | null;
+  imageSize?: number | null;
+  imageWidth?: number | null;
+  imageHeight?: number | null;
+  imageUrl?: string | null;
   uploadedOn?: dayjs.Dayjs | null;
   post?: IPost | null;
   uploadedBy?: IEmployee | null;
@@ -22,6 +26,10 @@ export class PostPhoto implements IPostPhoto {
     public description?: string | null,
     public imageContentType?: string | null,
     public image?: string | null,
+    public imageSize?: number | null,
+    public imageWidth?: number | null,
+    public imageHeight?: number | null,
+    public imageUrl?: string | null,
     public uploadedOn?: dayjs.Dayjs | null,
     public post?: IPost | null,
     public uploadedBy?: IEmployee | null
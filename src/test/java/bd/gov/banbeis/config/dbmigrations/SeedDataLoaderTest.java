@@ -0,0 +1,60 @@
+package bd.gov.banbeis.config.dbmigrations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoNamespace;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class SeedDataLoaderTest {
+
+    private MongoCollection<Document> collection;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        collection = mock(MongoCollection.class);
+        when(collection.getNamespace()).thenReturn(new MongoNamespace("banbeis", "division"));
+        when(collection.bulkWrite(any(), any(BulkWriteOptions.class)))
+            .thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 0, Collections.emptyList(), Collections.emptyList()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void documentsAreUpsertedInUnorderedBatches() throws Exception {
+        long read = new SeedDataLoader(3).load(collection, "data-resource/divisions.txt");
+
+        ArgumentCaptor<List<WriteModel<Document>>> batches = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<BulkWriteOptions> options = ArgumentCaptor.forClass(BulkWriteOptions.class);
+        verify(collection, times(3)).bulkWrite(batches.capture(), options.capture());
+        assertThat(read).isEqualTo(8);
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(3, 3, 2);
+        assertThat(options.getAllValues()).allMatch(option -> !option.isOrdered());
+
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        batches.getAllValues().forEach(writes::addAll);
+        UpdateOneModel<Document> first = (UpdateOneModel<Document>) writes.get(0);
+        assertThat(first.getOptions().isUpsert()).isTrue();
+        BsonDocument filter = first.getFilter().toBsonDocument(Document.class, MongoClientSettings.getDefaultCodecRegistry());
+        assertThat(filter.getString("_id").getValue()).isEqualTo("1");
+        Document fields = ((Document) first.getUpdate()).get("$set", Document.class);
+        assertThat(fields).doesNotContainKey("_id").containsEntry("name", "Chattagram");
+    }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import bd.gov.banbeis.web.rest.TestUtil;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 
 class DistrictTest {
 
@@ -20,4 +21,13 @@ class DistrictTest {
         district1.setId(null);
         assertThat(district1).isNotEqualTo(district2);
     }
+
+    @Test
+    void locationIsParsedFromLatitudeAndLongitude() {
+        assertThat(new District().lat(" 23.7115253").lon("90.4111451").toLocation())
+            .isEqualTo(new GeoJsonPoint(90.4111451, 23.7115253));
+        assertThat(new District().lat("23.7115253").toLocation()).isNull();
+        assertThat(new District().lat("north").lon("90.4111451").toLocation()).isNull();
+        assertThat(new District().lat("123").lon("90.4111451").toLocation()).isNull();
+    }
 }
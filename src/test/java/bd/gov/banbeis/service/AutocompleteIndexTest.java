@@ -0,0 +1,63 @@
+package bd.gov.banbeis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import bd.gov.banbeis.service.AutocompleteIndex.Suggestion;
+import bd.gov.banbeis.service.AutocompleteIndex.Type;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+
+class AutocompleteIndexTest {
+
+    private AutocompleteIndex autocompleteIndex;
+
+    @BeforeEach
+    void setUp() {
+        autocompleteIndex = new AutocompleteIndex(mock(ReactiveMongoOperations.class), new SimpleMeterRegistry());
+        autocompleteIndex.index(Type.DISTRICT, "1", "Dhaka", "ঢাকা");
+        autocompleteIndex.index(Type.DISTRICT, "2", "Cox's Bazar", "কক্সবাজার");
+        autocompleteIndex.index(Type.DISTRICT, "3", "Bagerhat", "বাগেরহাট");
+        autocompleteIndex.index(Type.DISTRICT, "4", "Barguna", "বরগুনা");
+        autocompleteIndex.index(Type.UPAZILA, "5", "Bagha", "বাঘা");
+    }
+
+    private List<String> complete(Type type, String prefix, int limit) {
+        return autocompleteIndex.complete(type, prefix, limit).stream().map(Suggestion::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void namesStartingWithThePrefixComeFirst() {
+        assertThat(complete(Type.DISTRICT, "BA", 10)).containsExactly("3", "4", "2");
+        assertThat(complete(Type.DISTRICT, "ba", 2)).containsExactly("3", "4");
+        assertThat(complete(Type.UPAZILA, "ba", 10)).containsExactly("5");
+    }
+
+    @Test
+    void banglaNamesAreMatched() {
+        assertThat(complete(Type.DISTRICT, "ঢা", 10)).containsExactly("1");
+        assertThat(complete(Type.DISTRICT, "ব", 10)).containsExactly("4", "3");
+        assertThat(autocompleteIndex.complete(Type.DISTRICT, "কক্স", 10).get(0).getName()).isEqualTo("Cox's Bazar");
+    }
+
+    @Test
+    void writesAreSuggestedRightAway() {
+        assertThat(complete(Type.DISTRICT, "dh", 10)).containsExactly("1");
+
+        autocompleteIndex.index(Type.DISTRICT, "1", "Dacca", "ঢাকা");
+        autocompleteIndex.remove(Type.DISTRICT, "2");
+
+        assertThat(complete(Type.DISTRICT, "dh", 10)).isEmpty();
+        assertThat(complete(Type.DISTRICT, "dac", 10)).containsExactly("1");
+        assertThat(complete(Type.DISTRICT, "bazar", 10)).isEmpty();
+    }
+
+    @Test
+    void blankPrefixSuggestsNothing() {
+        assertThat(complete(Type.DISTRICT, " '", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package bd.gov.banbeis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import bd.gov.banbeis.domain.Post;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import reactor.core.publisher.Mono;
+
+class EntityCountCacheTest {
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private MeterRegistry meterRegistry;
+
+    private EntityCountCache entityCountCache;
+
+    @BeforeEach
+    public void setup() {
+        mongoOperations = mock(ReactiveMongoOperations.class);
+        when(mongoOperations.getCollectionName(Post.class)).thenReturn("post");
+        when(mongoOperations.estimatedCount("post")).thenReturn(Mono.just(5L));
+        meterRegistry = new SimpleMeterRegistry();
+        entityCountCache = new EntityCountCache(mongoOperations, meterRegistry, new ApplicationProperties());
+    }
+
+    @Test
+    void countIsLoadedOnceThenServedFromCache() {
+        assertThat(entityCountCache.count(Post.class).block()).isEqualTo(5L);
+        assertThat(entityCountCache.count(Post.class).block()).isEqualTo(5L);
+
+        verify(mongoOperations, times(1)).estimatedCount("post");
+        assertThat(meterRegistry.get(EntityCountCache.METER_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(EntityCountCache.METER_NAME).tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordCreatedAdjustsCachedCount() {
+        entityCountCache.count(Post.class).block();
+
+        entityCountCache.recordCreated(Post.class);
+
+        assertThat(entityCountCache.count(Post.class).block()).isEqualTo(6L);
+        verify(mongoOperations, times(1)).estimatedCount("post");
+    }
+
+    @Test
+    void invalidateReloadsCount() {
+        entityCountCache.count(Post.class).block();
+
+        entityCountCache.invalidate(Post.class);
+        entityCountCache.count(Post.class).block();
+
+        verify(mongoOperations, times(2)).estimatedCount("post");
+    }
+
+    @Test
+    void zeroTimeToLiveDisablesCache() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getCountCache().setTimeToLive(Duration.ZERO);
+        entityCountCache = new EntityCountCache(mongoOperations, meterRegistry, properties);
+
+        entityCountCache.count(Post.class).block();
+        entityCountCache.count(Post.class).block();
+
+        verify(mongoOperations, times(2)).estimatedCount("post");
+    }
+}
@@ -0,0 +1,50 @@
+package bd.gov.banbeis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import bd.gov.banbeis.domain.Post;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+
+class PostSearchIndexTest {
+
+    private PostSearchIndex postSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        postSearchIndex = new PostSearchIndex(mock(ReactiveMongoOperations.class), new SimpleMeterRegistry());
+        postSearchIndex.index(new Post().id("id1").title("শিক্ষা প্রতিষ্ঠান জরিপ").body("জেলা ভিত্তিক শিক্ষা তথ্য"));
+        postSearchIndex.index(new Post().id("id2").title("বার্ষিক প্রতিবেদন").body("শিক্ষা প্রতিষ্ঠান এর তালিকা"));
+        postSearchIndex.index(new Post().id("id3").title("Annual census").body("<p>Education statistics</p>"));
+    }
+
+    @Test
+    void titleMatchesRankFirst() {
+        PostSearchIndex.Hits hits = postSearchIndex.search("প্রতিষ্ঠান", 0, 10);
+
+        assertThat(hits.getTotal()).isEqualTo(2);
+        assertThat(hits.getIds()).containsExactly("id1", "id2");
+    }
+
+    @Test
+    void searchIsPaged() {
+        PostSearchIndex.Hits hits = postSearchIndex.search("শিক্ষা census", 1, 1);
+
+        assertThat(hits.getTotal()).isEqualTo(3);
+        assertThat(hits.getIds()).hasSize(1);
+        assertThat(postSearchIndex.search("শিক্ষা census", 3, 1).getIds()).isEmpty();
+    }
+
+    @Test
+    void reindexReplacesAndRemoveDrops() {
+        postSearchIndex.index(new Post().id("id3").title("Annual report").body(null));
+        assertThat(postSearchIndex.search("census", 0, 10).getIds()).isEmpty();
+        assertThat(postSearchIndex.search("REPORT", 0, 10).getIds()).containsExactly("id3");
+
+        postSearchIndex.remove("id3");
+        assertThat(postSearchIndex.search("report", 0, 10).getTotal()).isZero();
+    }
+}
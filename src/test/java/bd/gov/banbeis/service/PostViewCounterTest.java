@@ -0,0 +1,111 @@
+package bd.gov.banbeis.service;
+
+import static com.mongodb.MongoClientSettings.getDefaultCodecRegistry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bd.gov.banbeis.domain.Post;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+class PostViewCounterTest {
+
+    private static final String POST_ID = "5f4d8a2e9c1b2a3d4e5f6a7b";
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private MongoCollection<Document> collection;
+
+    private MeterRegistry meterRegistry;
+
+    private PostViewCounter postViewCounter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        mongoOperations = mock(ReactiveMongoOperations.class);
+        collection = mock(MongoCollection.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getModifiedCount()).thenReturn(1);
+        when(mongoOperations.getConverter()).thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+        when(mongoOperations.getCollectionName(Post.class)).thenReturn("post");
+        when(mongoOperations.getCollection("post")).thenReturn(Mono.just(collection));
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenReturn(Mono.just(result));
+        meterRegistry = new SimpleMeterRegistry();
+        postViewCounter = new PostViewCounter(mongoOperations, meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void viewsAreFlushedAsOneIncrementPerPost() {
+        postViewCounter.increment(POST_ID);
+        postViewCounter.increment(POST_ID);
+        postViewCounter.increment(POST_ID);
+        assertThat(postViewCounter.pendingViews(POST_ID)).isEqualTo(3);
+
+        assertThat(postViewCounter.flush().block()).isEqualTo(1);
+
+        ArgumentCaptor<List<WriteModel<Document>>> updates = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<BulkWriteOptions> options = ArgumentCaptor.forClass(BulkWriteOptions.class);
+        verify(collection).bulkWrite(updates.capture(), options.capture());
+        assertThat(updates.getValue()).hasSize(1);
+        UpdateOneModel<Document> update = (UpdateOneModel<Document>) updates.getValue().get(0);
+        assertThat(update.getUpdate().toBsonDocument(Document.class, getDefaultCodecRegistry()))
+            .isEqualTo(new BsonDocument("$inc", new BsonDocument("view_count", new BsonInt64(3))));
+        assertThat(options.getValue().isOrdered()).isFalse();
+        assertThat(postViewCounter.pendingViews(POST_ID)).isZero();
+        assertThat(meterRegistry.get(PostViewCounter.METER_NAME + ".flushed").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void viewsAreTheStoredCountPlusThePendingViews() {
+        when(mongoOperations.findOne(any(Query.class), eq(Document.class), eq("post")))
+            .thenReturn(Mono.just(new Document("view_count", 5L)));
+        postViewCounter.increment(POST_ID);
+        postViewCounter.increment(POST_ID);
+
+        assertThat(postViewCounter.findViews(POST_ID).block()).isEqualTo(7);
+        assertThat(postViewCounter.views(POST_ID, null)).isEqualTo(2);
+    }
+
+    @Test
+    void nothingIsWrittenWithoutViews() {
+        assertThat(postViewCounter.flush().block()).isZero();
+
+        verify(collection, never()).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    void viewsAreKeptWhenTheFlushFails() {
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenReturn(Mono.error(new IllegalStateException("down")));
+        postViewCounter.increment(POST_ID);
+
+        assertThat(postViewCounter.flush().block()).isZero();
+
+        assertThat(postViewCounter.pendingViews(POST_ID)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,150 @@
+package bd.gov.banbeis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bd.gov.banbeis.domain.District;
+import bd.gov.banbeis.domain.Division;
+import bd.gov.banbeis.repository.DesignationRepository;
+import bd.gov.banbeis.repository.DistrictRepository;
+import bd.gov.banbeis.repository.DivisionRepository;
+import bd.gov.banbeis.repository.UpazilaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ReferenceDataCacheTest {
+
+    private DivisionRepository divisionRepository;
+
+    private DistrictRepository districtRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private ReferenceDataCache referenceDataCache;
+
+    @BeforeEach
+    public void setup() {
+        divisionRepository = mock(DivisionRepository.class);
+        when(divisionRepository.findAll())
+            .thenReturn(Flux.just(division("1", "Dhaka"), division("2", "Barishal"), division("3", "Khulna")));
+        districtRepository = mock(DistrictRepository.class);
+        when(districtRepository.findAll()).thenReturn(Flux.just(district("10", "1"), district("20", "2"), district("11", "1")));
+        UpazilaRepository upazilaRepository = mock(UpazilaRepository.class);
+        when(upazilaRepository.findAll()).thenReturn(Flux.empty());
+        DesignationRepository designationRepository = mock(DesignationRepository.class);
+        when(designationRepository.findAll()).thenReturn(Flux.empty());
+        meterRegistry = new SimpleMeterRegistry();
+        referenceDataCache =
+            new ReferenceDataCache(
+                divisionRepository,
+                districtRepository,
+                upazilaRepository,
+                designationRepository,
+                new ObjectMapper(),
+                meterRegistry
+            );
+    }
+
+    private static Division division(String id, String name) {
+        return new Division().id(id).name(name);
+    }
+
+    private static District district(String id, String divisionId) {
+        return new District().id(id).divisionId(divisionId);
+    }
+
+    private List<String> districtIds(String divisionId) {
+        return referenceDataCache
+            .findChildren(District.class, divisionId, Flux::empty)
+            .map(District::getId)
+            .collect(Collectors.toList())
+            .block();
+    }
+
+    private List<String> names(PageRequest pageable) {
+        return referenceDataCache
+            .findAll(Division.class, pageable, Flux::empty)
+            .map(Division::getName)
+            .collect(Collectors.toList())
+            .block();
+    }
+
+    @Test
+    void readsGoToTheDatabaseUntilLoaded() {
+        assertThat(referenceDataCache.findAll(Division.class)).isNull();
+        assertThat(referenceDataCache.count(Division.class, () -> Mono.just(7L)).block()).isEqualTo(7L);
+
+        referenceDataCache.load().block();
+
+        assertThat(referenceDataCache.findAll(Division.class)).containsOnlyKeys("1", "2", "3");
+        assertThat(referenceDataCache.count(Division.class, () -> Mono.just(7L)).block()).isEqualTo(3L);
+    }
+
+    @Test
+    void pagesAreSortedAndSlicedInMemory() {
+        referenceDataCache.load().block();
+
+        assertThat(names(PageRequest.of(0, 2, Sort.by("name")))).containsExactly("Barishal", "Dhaka");
+        assertThat(names(PageRequest.of(1, 2, Sort.by("name")))).containsExactly("Khulna");
+        assertThat(names(PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "id")))).containsExactly("Khulna", "Barishal", "Dhaka");
+        verify(divisionRepository, times(1)).findAll();
+    }
+
+    @Test
+    void writesReplaceTheSerializedPages() {
+        referenceDataCache.load().block();
+        PageRequest pageable = PageRequest.of(0, 20, Sort.by("id"));
+        String before = json(pageable);
+
+        referenceDataCache.saved(division("2", "Barisal"));
+        referenceDataCache.deleted(Division.class, "3");
+
+        assertThat(before).contains("Barishal").contains("Khulna");
+        assertThat(json(pageable)).contains("Barisal").doesNotContain("Barishal").doesNotContain("Khulna");
+        assertThat(names(pageable)).containsExactly("Dhaka", "Barisal");
+    }
+
+    @Test
+    void missingEntitiesAreReadFromTheDatabase() {
+        referenceDataCache.load().block();
+
+        assertThat(referenceDataCache.findOne(Division.class, "1", Mono::empty).block().getName()).isEqualTo("Dhaka");
+        assertThat(referenceDataCache.findOne(Division.class, "4", () -> Mono.just(division("4", "Sylhet"))).block().getName())
+            .isEqualTo("Sylhet");
+
+        assertThat(meterRegistry.get(ReferenceDataCache.METER_NAME).tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(ReferenceDataCache.METER_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void childrenAreIndexedByParent() {
+        referenceDataCache.load().block();
+
+        assertThat(districtIds("1")).containsExactly("10", "11");
+        assertThat(districtIds("3")).isEmpty();
+
+        referenceDataCache.saved(district("11", "2"));
+        referenceDataCache.saved(district("30", "3"));
+
+        assertThat(districtIds("1")).containsExactly("10");
+        assertThat(districtIds("2")).containsExactly("20", "11");
+        assertThat(districtIds("3")).containsExactly("30");
+    }
+
+    private String json(PageRequest pageable) {
+        return new String(referenceDataCache.findAllAsJson(Division.class, pageable, Flux::empty).block(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package bd.gov.banbeis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import bd.gov.banbeis.domain.Post;
+import bd.gov.banbeis.service.SerializedPostCache.SerializedPost;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+class SerializedPostCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties properties;
+
+    private SerializedPostCache serializedPostCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ApplicationProperties();
+        serializedPostCache = new SerializedPostCache(new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry, properties);
+    }
+
+    private Mono<Post> load(String id) {
+        loads.incrementAndGet();
+        return Mono.just(new Post().id(id).title("title " + id));
+    }
+
+    @Test
+    void postIsSerializedOnceThenServedFromCache() {
+        SerializedPost first = serializedPostCache.get("id1", () -> load("id1")).block();
+        SerializedPost second = serializedPostCache.get("id1", () -> load("id1")).block();
+
+        assertThat(new String(first.getJson())).contains("\"title\":\"title id1\"");
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get(SerializedPostCache.METER_NAME).tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(SerializedPostCache.METER_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void viewCountIsAddedAsTheJsonIsServed() throws Exception {
+        SerializedPost serialized = serializedPostCache.get("id1", () -> Mono.just(new Post().id("id1").viewCount(3L))).block();
+
+        assertThat(new String(serialized.getJson())).doesNotContain("viewCount");
+        JsonNode served = new ObjectMapper().readTree(serialized.getJson(42));
+        assertThat(served.get("id").asText()).isEqualTo("id1");
+        assertThat(served.get("viewCount").asLong()).isEqualTo(42);
+    }
+
+    @Test
+    void missingPostIsNotCached() {
+        assertThat(serializedPostCache.get("id1", Mono::empty).block()).isNull();
+        assertThat(meterRegistry.get(SerializedPostCache.METER_NAME + ".entries").gauge().value()).isZero();
+    }
+
+    @Test
+    void invalidateDropsEntry() {
+        serializedPostCache.get("id1", () -> load("id1")).block();
+
+        serializedPostCache.invalidate("id1");
+        serializedPostCache.get("id1", () -> load("id1")).block();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedBySize() {
+        int entrySize = serializedPostCache.get("id1", () -> load("id1")).block().getJson().length;
+        properties.getPostCache().setMaxSize(DataSize.ofBytes(2L * entrySize));
+        serializedPostCache = new SerializedPostCache(new ObjectMapper(), new SimpleMeterRegistry(), properties);
+
+        serializedPostCache.get("id1", () -> load("id1")).block();
+        serializedPostCache.get("id2", () -> load("id2")).block();
+        serializedPostCache.get("id1", () -> load("id1")).block();
+        serializedPostCache.get("id3", () -> load("id3")).block();
+        loads.set(0);
+
+        serializedPostCache.get("id1", () -> load("id1")).block();
+        serializedPostCache.get("id3", () -> load("id3")).block();
+        assertThat(loads).hasValue(0);
+        serializedPostCache.get("id2", () -> load("id2")).block();
+        assertThat(loads).hasValue(1);
+    }
+}
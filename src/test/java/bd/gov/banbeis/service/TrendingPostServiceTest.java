@@ -0,0 +1,110 @@
+package bd.gov.banbeis.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import bd.gov.banbeis.domain.Center;
+import bd.gov.banbeis.domain.Post;
+import bd.gov.banbeis.repository.DBRefBatchResolver;
+import bd.gov.banbeis.service.dto.PostSummaryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+class TrendingPostServiceTest {
+
+    private static final Duration HALF_LIFE = Duration.ofHours(1);
+
+    private DBRefBatchResolver dbRefBatchResolver;
+
+    private TrendingPostService trendingPostService;
+
+    private long now;
+
+    @BeforeEach
+    public void setup() {
+        dbRefBatchResolver = mock(DBRefBatchResolver.class);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getTrending().setHalfLife(HALF_LIFE);
+        properties.getTrending().setSize(2);
+        now = System.currentTimeMillis();
+        trendingPostService = new TrendingPostService(
+            mock(ReactiveMongoOperations.class),
+            dbRefBatchResolver,
+            new SimpleMeterRegistry(),
+            properties
+        );
+    }
+
+    private void published(Post... posts) {
+        when(dbRefBatchResolver.find(any(Query.class), eq(Post.class))).thenReturn(Flux.just(posts));
+    }
+
+    private static Post post(String id, String centerId) {
+        return new Post().id(id).title("title " + id).publish(true).center(new Center().id(centerId).name("center " + centerId));
+    }
+
+    @Test
+    void recentEventsOutweighOlderOnes() {
+        published(post("old", "c1"), post("new", "c1"));
+        trendingPostService.record("old", 3, now);
+        trendingPostService.record("new", 1, now + 2 * HALF_LIFE.toMillis());
+        trendingPostService.resolve().block();
+
+        // 1 event two half-lives later weighs as much as 4 events
+        assertThat(trendingPostService.findTrending(null)).extracting(PostSummaryDTO::getId).containsExactly("new", "old");
+    }
+
+    @Test
+    void topIsMaintainedGloballyAndPerCenter() {
+        published(post("a", "c1"), post("b", "c1"), post("c", "c2"));
+        trendingPostService.record("a", 1, now);
+        trendingPostService.record("b", 2, now);
+        trendingPostService.record("c", 3, now);
+        trendingPostService.resolve().block();
+
+        assertThat(trendingPostService.findTrending(null)).extracting(PostSummaryDTO::getId).containsExactly("c", "b");
+        assertThat(trendingPostService.findTrending("c1")).extracting(PostSummaryDTO::getId).containsExactly("b", "a");
+
+        trendingPostService.record("a", TrendingPostService.COMMENT_WEIGHT, now);
+
+        assertThat(trendingPostService.findTrending(null)).extracting(PostSummaryDTO::getId).containsExactly("a", "c");
+        assertThat(trendingPostService.findTrending("c3")).isEmpty();
+    }
+
+    @Test
+    void unpublishedPostsNeverTrend() {
+        published(post("a", "c1"));
+        trendingPostService.record("a", 1, now);
+        trendingPostService.record("draft", 10, now);
+        trendingPostService.resolve().block();
+
+        assertThat(trendingPostService.findTrending(null)).extracting(PostSummaryDTO::getId).containsExactly("a");
+
+        trendingPostService.update(post("a", "c1").publish(false));
+
+        assertThat(trendingPostService.findTrending(null)).isEmpty();
+        assertThat(trendingPostService.findTrending("c1")).isEmpty();
+    }
+
+    @Test
+    void removedPostsMakeRoomForTheNextBest() {
+        published(post("a", "c1"), post("b", "c1"), post("c", "c1"));
+        trendingPostService.record("a", 1, now);
+        trendingPostService.record("b", 2, now);
+        trendingPostService.record("c", 3, now);
+        trendingPostService.resolve().block();
+
+        trendingPostService.remove("c");
+
+        assertThat(trendingPostService.findTrending(null)).extracting(PostSummaryDTO::getId).containsExactly("b", "a");
+    }
+}
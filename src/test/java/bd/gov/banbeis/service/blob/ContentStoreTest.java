@@ -0,0 +1,176 @@
+package bd.gov.banbeis.service.blob;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import com.mongodb.client.result.DeleteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ContentStoreTest {
+
+    private static final byte[] CONTENT = "abc".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String HASH = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+    private BlobStore blobStore;
+
+    private ReactiveMongoOperations mongoOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ContentStore contentStore;
+
+    @BeforeEach
+    public void setup() {
+        blobStore = mock(BlobStore.class);
+        mongoOperations = mock(ReactiveMongoOperations.class);
+        meterRegistry = new SimpleMeterRegistry();
+        contentStore = new ContentStore(blobStore, mongoOperations, meterRegistry, new ApplicationProperties());
+    }
+
+    @Test
+    void hashesContentWithSha256() {
+        assertThat(ContentStore.sha256(CONTENT)).isEqualTo(HASH);
+    }
+
+    @Test
+    void referencesContentAlreadyStored() {
+        when(mongoOperations.findAndModify(any(Query.class), any(Update.class), eq(Document.class), eq(ContentStore.COLLECTION)))
+            .thenReturn(Mono.just(new Document("_id", HASH).append("ref_count", 1)));
+
+        assertThat(contentStore.store("PostPhoto.image", CONTENT, "image/png").block().getHash()).isEqualTo(HASH);
+
+        verify(blobStore, never()).store(anyString(), any(byte[].class), anyString());
+        assertThat(meterRegistry.get(ContentStore.METER_NAME + ".deduplicated").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void uploadsNewContent() {
+        when(mongoOperations.findAndModify(any(Query.class), any(Update.class), eq(Document.class), eq(ContentStore.COLLECTION)))
+            .thenReturn(Mono.empty());
+        when(blobStore.store("PostPhoto.image", CONTENT, "image/png")).thenReturn(Mono.just("file"));
+        when(mongoOperations.insert(any(Document.class), eq(ContentStore.COLLECTION))).thenAnswer(call -> Mono.just(call.getArgument(0)));
+
+        assertThat(contentStore.store("PostPhoto.image", CONTENT, "image/png").block().getHash()).isEqualTo(HASH);
+
+        verify(mongoOperations)
+            .insert(
+                new Document("_id", HASH)
+                    .append("file_id", "file")
+                    .append("size", 3L)
+                    .append("content_type", "image/png")
+                    .append("ref_count", 1),
+                ContentStore.COLLECTION
+            );
+    }
+
+    @Test
+    void probesStreamedContent() throws IOException {
+        byte[] image = png(3, 2);
+        when(blobStore.store(eq("PostPhoto.image"), ArgumentMatchers.<Flux<DataBuffer>>any(), eq("image/png")))
+            .thenAnswer(call -> call.<Flux<DataBuffer>>getArgument(1).doOnNext(DataBufferUtils::release).then(Mono.just("file")));
+        when(mongoOperations.findAndModify(any(Query.class), any(Update.class), eq(Document.class), eq(ContentStore.COLLECTION)))
+            .thenReturn(Mono.empty());
+        when(mongoOperations.insert(any(Document.class), eq(ContentStore.COLLECTION))).thenAnswer(call -> Mono.just(call.getArgument(0)));
+
+        StoredContent stored = contentStore.store("PostPhoto.image", chunks(image, 7), "image/png", image.length).block();
+
+        assertThat(stored.getHash()).isEqualTo(ContentStore.sha256(image));
+        assertThat(stored.getSize()).isEqualTo(image.length);
+        assertThat(stored.getWidth()).isEqualTo(3);
+        assertThat(stored.getHeight()).isEqualTo(2);
+    }
+
+    @Test
+    void deletesStreamedDuplicate() {
+        when(blobStore.store(eq("PostPhoto.image"), ArgumentMatchers.<Flux<DataBuffer>>any(), eq("image/png")))
+            .thenAnswer(call -> call.<Flux<DataBuffer>>getArgument(1).doOnNext(DataBufferUtils::release).then(Mono.just("file")));
+        when(mongoOperations.findAndModify(any(Query.class), any(Update.class), eq(Document.class), eq(ContentStore.COLLECTION)))
+            .thenReturn(Mono.just(new Document("_id", HASH).append("ref_count", 1)));
+        when(blobStore.delete("file")).thenReturn(Mono.empty());
+
+        assertThat(contentStore.store("PostPhoto.image", chunks(CONTENT, 1), "image/png", 10).block().getHash()).isEqualTo(HASH);
+
+        verify(blobStore).delete("file");
+        verify(mongoOperations, never()).insert(any(Document.class), anyString());
+    }
+
+    @Test
+    void rejectsStreamedContentExceedingMaxSize() {
+        AtomicInteger written = new AtomicInteger();
+        when(blobStore.store(eq("PostPhoto.image"), ArgumentMatchers.<Flux<DataBuffer>>any(), eq("image/png")))
+            .thenAnswer(call ->
+                call
+                    .<Flux<DataBuffer>>getArgument(1)
+                    .doOnNext(buffer -> written.addAndGet(buffer.readableByteCount()))
+                    .doOnNext(DataBufferUtils::release)
+                    .then(Mono.just("file"))
+            );
+
+        assertThatThrownBy(() -> contentStore.store("PostPhoto.image", chunks(CONTENT, 1), "image/png", 2).block())
+            .isInstanceOf(ContentRejectedException.class)
+            .extracting("reason")
+            .isEqualTo(ContentRejectedException.TOO_LARGE);
+
+        assertThat(written).hasValue(2);
+        verify(mongoOperations, never()).insert(any(Document.class), anyString());
+    }
+
+    @Test
+    void sweepsOnlyContentsStillUnreferenced() {
+        when(mongoOperations.find(any(Query.class), eq(Document.class), eq(ContentStore.COLLECTION)))
+            .thenReturn(
+                Flux.just(new Document("_id", "released").append("file_id", "f1"), new Document("_id", "reused").append("file_id", "f2"))
+            );
+        when(mongoOperations.remove(any(Query.class), eq(ContentStore.COLLECTION)))
+            .thenReturn(Mono.just(DeleteResult.acknowledged(1)), Mono.just(DeleteResult.acknowledged(0)));
+        when(blobStore.delete("f1")).thenReturn(Mono.empty());
+
+        assertThat(contentStore.sweep().block()).isEqualTo(1);
+
+        verify(blobStore).delete("f1");
+        verify(blobStore, never()).delete("f2");
+    }
+
+    private static Flux<DataBuffer> chunks(byte[] content, int chunkSize) {
+        DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+        return Flux
+            .range(0, (content.length + chunkSize - 1) / chunkSize)
+            .map(i ->
+                bufferFactory.wrap(Arrays.copyOfRange(content, i * chunkSize, Math.min(content.length, (i + 1) * chunkSize)))
+            );
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", output);
+        return output.toByteArray();
+    }
+}
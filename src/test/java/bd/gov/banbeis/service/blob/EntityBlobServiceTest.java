@@ -0,0 +1,134 @@
+package bd.gov.banbeis.service.blob;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import bd.gov.banbeis.domain.PostPhoto;
+import bd.gov.banbeis.service.PostPhotoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class EntityBlobServiceTest {
+
+    private ContentStore contentStore;
+
+    private ApplicationProperties properties;
+
+    private EntityBlobService entityBlobService;
+
+    private final List<List<PostPhoto>> inserts = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        contentStore = mock(ContentStore.class);
+        when(contentStore.store(anyString(), any(byte[].class), anyString()))
+            .thenAnswer(call -> {
+                byte[] content = call.getArgument(1);
+                return Mono.just(new StoredContent(ContentStore.sha256(content), content.length, null, null));
+            });
+        when(contentStore.findBytes(anyString())).thenReturn(Mono.empty());
+        when(contentStore.release(anyString())).thenReturn(Mono.empty());
+        properties = new ApplicationProperties();
+        properties.getUpload().setMaxSize(DataSize.ofBytes(8));
+        properties.getUpload().setBulkMaxFiles(3);
+        entityBlobService =
+            new EntityBlobService(
+                contentStore,
+                mock(ImageRenditionService.class),
+                new ImageIngestService(new SimpleMeterRegistry(), properties),
+                mock(ReactiveMongoOperations.class),
+                properties
+            );
+    }
+
+    private static UploadedFile file(String filename, String contentType, String... chunks) {
+        DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+        return new UploadedFile(
+            filename,
+            contentType,
+            Flux.fromArray(chunks).map(chunk -> bufferFactory.wrap(chunk.getBytes(StandardCharsets.US_ASCII)))
+        );
+    }
+
+    private Mono<List<UploadResult<PostPhoto>>> uploadAll(UploadedFile... files) {
+        return entityBlobService.uploadAll(
+            Flux.just(files),
+            PostPhotoService.IMAGE,
+            file -> new PostPhoto().title(file.getFilename()).imageContentType(file.getContentType()),
+            postPhotos -> {
+                inserts.add(postPhotos);
+                return Flux.fromIterable(postPhotos);
+            }
+        );
+    }
+
+    @Test
+    void insertsTheAcceptedFilesTogetherInOrder() {
+        List<UploadResult<PostPhoto>> results = uploadAll(
+            file("a.png", "image/png", "0123", "4567"),
+            file("b.pdf", "application/pdf", "0"),
+            file("c.png", "image/png", "0123", "45678"),
+            file("d.png", "image/png", "0"),
+            file("e.png", "image/png", "0")
+        )
+            .block();
+
+        assertThat(results.stream().map(UploadResult::getFilename)).containsExactly("a.png", "b.pdf", "c.png", "d.png", "e.png");
+        assertThat(results.stream().map(UploadResult::getError))
+            .containsExactly(
+                null,
+                ContentRejectedException.UNSUPPORTED_TYPE,
+                ContentRejectedException.TOO_LARGE,
+                ContentRejectedException.TOO_MANY_FILES,
+                ContentRejectedException.TOO_MANY_FILES
+            );
+        assertThat(inserts).hasSize(1);
+        assertThat(inserts.get(0).stream().map(PostPhoto::getTitle).collect(Collectors.toList())).containsExactly("a.png");
+        PostPhoto inserted = inserts.get(0).get(0);
+        assertThat(inserted.getImageBlobId()).isEqualTo(ContentStore.sha256("01234567".getBytes(StandardCharsets.US_ASCII)));
+        assertThat(inserted.getImageSize()).isEqualTo(8);
+    }
+
+    @Test
+    void insertsNothingWhenAllFilesAreRejected() {
+        List<UploadResult<PostPhoto>> results = uploadAll(file("b.pdf", "application/pdf", "0")).block();
+
+        assertThat(results).hasSize(1);
+        assertThat(inserts).isEmpty();
+    }
+
+    @Test
+    void releasesTheStoredContentsWhenTheInsertFails() {
+        String hash = ContentStore.sha256("0".getBytes(StandardCharsets.US_ASCII));
+
+        assertThatThrownBy(() ->
+                entityBlobService
+                    .uploadAll(
+                        Flux.just(file("a.png", "image/png", "0")),
+                        PostPhotoService.IMAGE,
+                        file -> new PostPhoto().imageContentType(file.getContentType()),
+                        postPhotos -> Flux.error(new IllegalStateException("insert failed"))
+                    )
+                    .block()
+            )
+            .hasMessage("insert failed");
+
+        verify(contentStore).release(hash);
+    }
+}
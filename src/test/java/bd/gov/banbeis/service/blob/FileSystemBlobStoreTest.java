@@ -0,0 +1,94 @@
+package bd.gov.banbeis.service.blob;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+class FileSystemBlobStoreTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path directory;
+
+    private FileSystemBlobStore blobStore;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getBlob().setDirectory(directory.toString());
+        blobStore = new FileSystemBlobStore(properties);
+    }
+
+    @Test
+    void storesAndFindsABlob() {
+        String id = blobStore.store("PostPhoto.image", CONTENT, "image/png").block();
+
+        BlobContent blob = blobStore.find(id).block();
+        assertThat(blob.getLength()).isEqualTo(CONTENT.length);
+        assertThat(blob.getFile()).exists().hasBinaryContent(CONTENT);
+        assertThat(blobStore.findBytes(id).block()).isEqualTo(CONTENT);
+        assertThat(string(blob.getContent(2, 3))).isEqualTo("234");
+    }
+
+    @Test
+    void storesAStreamedBlob() throws IOException {
+        DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+        Flux<DataBuffer> content = Flux.just(bufferFactory.wrap("01234".getBytes()), bufferFactory.wrap("56789".getBytes()));
+
+        String id = blobStore.store("PostPhoto.image", content, "image/png").block();
+
+        assertThat(blobStore.findBytes(id).block()).isEqualTo(CONTENT);
+        assertThat(incoming()).isEmpty();
+    }
+
+    @Test
+    void discardsAFailedBlob() throws IOException {
+        Flux<DataBuffer> content = Flux.concat(
+            Flux.just(new DefaultDataBufferFactory().wrap(CONTENT)),
+            Flux.error(new IllegalStateException("aborted"))
+        );
+
+        assertThatThrownBy(() -> blobStore.store("PostPhoto.image", content, "image/png").block()).hasMessage("aborted");
+
+        assertThat(incoming()).isEmpty();
+    }
+
+    @Test
+    void deletesABlob() {
+        String id = blobStore.store("PostPhoto.image", CONTENT, "image/png").block();
+
+        blobStore.delete(id).block();
+
+        assertThat(blobStore.find(id).block()).isNull();
+    }
+
+    @Test
+    void ignoresInvalidIds() {
+        assertThat(blobStore.find("../../etc/passwd").block()).isNull();
+    }
+
+    private Stream<Path> incoming() throws IOException {
+        return Files.list(directory.resolve(FileSystemBlobStore.INCOMING));
+    }
+
+    private static String string(Flux<DataBuffer> content) {
+        DataBuffer buffer = DataBufferUtils.join(content).block();
+        String string = buffer.toString(StandardCharsets.US_ASCII);
+        DataBufferUtils.release(buffer);
+        return string;
+    }
+}
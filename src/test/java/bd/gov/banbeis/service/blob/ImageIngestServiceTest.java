@@ -0,0 +1,136 @@
+package bd.gov.banbeis.service.blob;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ImageIngestServiceTest {
+
+    /**
+     * An EXIF segment holding a big endian TIFF structure whose only entry is an orientation turned clockwise.
+     */
+    private static final byte[] EXIF_ROTATED = {
+        (byte) 0xff, (byte) 0xe1, 0, 34,
+        'E', 'x', 'i', 'f', 0, 0,
+        'M', 'M', 0, 42, 0, 0, 0, 8,
+        0, 1,
+        0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, 6, 0, 0,
+        0, 0, 0, 0,
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ApplicationProperties properties;
+
+    private ImageIngestService imageIngestService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ApplicationProperties();
+        properties.getIngest().setMaxDimension(1000);
+        imageIngestService = new ImageIngestService(meterRegistry, properties);
+    }
+
+    private static byte[] image(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] withExif(byte[] jpeg) {
+        byte[] content = new byte[jpeg.length + EXIF_ROTATED.length];
+        // Right after the start of image marker
+        System.arraycopy(jpeg, 0, content, 0, 2);
+        System.arraycopy(EXIF_ROTATED, 0, content, 2, EXIF_ROTATED.length);
+        System.arraycopy(jpeg, 2, content, 2 + EXIF_ROTATED.length, jpeg.length - 2);
+        return content;
+    }
+
+    private static BufferedImage read(byte[] content) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(content));
+    }
+
+    @Test
+    void stripsTheMetadataAndTurnsTheImageUpright() throws IOException {
+        BufferedImage original = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = original.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 20, 20);
+        graphics.dispose();
+        byte[] content = withExif(image(original, "jpeg"));
+        assertThat(ImageCodec.readJpegOrientation(content)).isEqualTo(6);
+
+        byte[] ingested = imageIngestService.ingest(content, "image/jpeg");
+
+        assertThat(ImageCodec.readJpegOrientation(ingested)).isEqualTo(ImageCodec.UPRIGHT);
+        assertThat(new String(ingested, StandardCharsets.ISO_8859_1)).doesNotContain("Exif");
+        BufferedImage image = read(ingested);
+        assertThat(image.getWidth()).isEqualTo(20);
+        assertThat(image.getHeight()).isEqualTo(40);
+        // The left half is now the top half
+        assertThat(new Color(image.getRGB(10, 5)).getRed()).isGreaterThan(200);
+        assertThat(new Color(image.getRGB(10, 35)).getRed()).isLessThan(50);
+    }
+
+    @Test
+    void scalesDownLargeImagesAndRecordsTheSizes() throws IOException {
+        byte[] content = image(new BufferedImage(3000, 1500, BufferedImage.TYPE_INT_RGB), "png");
+
+        byte[] ingested = imageIngestService.ingest(content, "image/png");
+
+        BufferedImage image = read(ingested);
+        assertThat(image.getWidth()).isEqualTo(1000);
+        assertThat(image.getHeight()).isEqualTo(500);
+        DistributionSummary original = meterRegistry.get(ImageIngestService.METER_NAME + ".original").summary();
+        assertThat(original.totalAmount()).isEqualTo(content.length);
+        DistributionSummary stored = meterRegistry.get(ImageIngestService.METER_NAME + ".stored").summary();
+        assertThat(stored.totalAmount()).isEqualTo(ingested.length);
+    }
+
+    @Test
+    void decodesLargeImagesSubsampled() throws IOException {
+        byte[] content = image(new BufferedImage(4000, 100, BufferedImage.TYPE_INT_RGB), "png");
+
+        BufferedImage image = ImageCodec.read(content, 1000);
+
+        assertThat(image.getWidth()).isEqualTo(1334);
+        assertThat(image.getHeight()).isEqualTo(34);
+        assertThat(ImageCodec.read(content, 4000).getWidth()).isEqualTo(4000);
+    }
+
+    @Test
+    void keepsSmallPngImages() throws IOException {
+        byte[] content = image(new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB), "png");
+
+        assertThat(imageIngestService.ingest(content, "image/png")).isSameAs(content);
+    }
+
+    @Test
+    void keepsContentWhichIsNotAnImage() {
+        byte[] content = "not an image".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(imageIngestService.ingest(content, "image/jpeg")).isSameAs(content);
+        assertThat(imageIngestService.ingestAsync(content, "application/pdf").block()).isSameAs(content);
+    }
+
+    @Test
+    void keepsImagesWhenDisabled() throws IOException {
+        properties.getIngest().setEnabled(false);
+        byte[] content = image(new BufferedImage(3000, 1500, BufferedImage.TYPE_INT_RGB), "jpeg");
+
+        assertThat(imageIngestService.ingestAsync(content, "image/jpeg").block()).isSameAs(content);
+    }
+}
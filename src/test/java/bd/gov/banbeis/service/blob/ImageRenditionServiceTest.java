@@ -0,0 +1,107 @@
+package bd.gov.banbeis.service.blob;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import bd.gov.banbeis.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ImageRenditionServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ImageRenditionService imageRenditionService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        imageRenditionService = new ImageRenditionService(meterRegistry, new ApplicationProperties());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        imageRenditionService.shutdown();
+    }
+
+    private static byte[] image(int width, int height, int type, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage read(byte[] content) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(content));
+    }
+
+    @Test
+    void rendersSmallerSizesKeepingTheAspectRatio() throws IOException {
+        ImageRenditionService.Renditions renditions = imageRenditionService.render(
+            image(2000, 1000, BufferedImage.TYPE_INT_RGB, "jpeg")
+        );
+
+        assertThat(renditions.getContentType()).isEqualTo("image/jpeg");
+        assertThat(renditions.getContents()).containsOnlyKeys(ImageRendition.THUMB, ImageRendition.MEDIUM, ImageRendition.LARGE);
+        BufferedImage thumb = read(renditions.getContents().get(ImageRendition.THUMB));
+        assertThat(thumb.getWidth()).isEqualTo(160);
+        assertThat(thumb.getHeight()).isEqualTo(80);
+        BufferedImage large = read(renditions.getContents().get(ImageRendition.LARGE));
+        assertThat(large.getWidth()).isEqualTo(1280);
+        assertThat(large.getHeight()).isEqualTo(640);
+    }
+
+    @Test
+    void skipsSizesLargerThanTheOriginal() throws IOException {
+        ImageRenditionService.Renditions renditions = imageRenditionService.render(
+            image(300, 800, BufferedImage.TYPE_INT_RGB, "png")
+        );
+
+        assertThat(renditions.getContents()).containsOnlyKeys(ImageRendition.THUMB, ImageRendition.MEDIUM);
+        BufferedImage medium = read(renditions.getContents().get(ImageRendition.MEDIUM));
+        assertThat(medium.getWidth()).isEqualTo(240);
+        assertThat(medium.getHeight()).isEqualTo(640);
+    }
+
+    @Test
+    void keepsTransparency() throws IOException {
+        ImageRenditionService.Renditions renditions = imageRenditionService.render(
+            image(400, 400, BufferedImage.TYPE_INT_ARGB, "png")
+        );
+
+        assertThat(renditions.getContentType()).isEqualTo("image/png");
+        assertThat(read(renditions.getContents().get(ImageRendition.THUMB)).getColorModel().hasAlpha()).isTrue();
+    }
+
+    @Test
+    void ignoresContentWhichIsNotAnImage() throws IOException {
+        ImageRenditionService.Renditions renditions = imageRenditionService.render("not an image".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(renditions.getContents()).isEmpty();
+    }
+
+    @Test
+    void rendersOnThePoolAndRecordsTheLatency() throws IOException {
+        ImageRenditionService.Renditions renditions = imageRenditionService
+            .renderAsync(image(640, 480, BufferedImage.TYPE_INT_RGB, "jpeg"))
+            .block();
+
+        assertThat(renditions.getContents()).containsOnlyKeys(ImageRendition.THUMB);
+        assertThat(meterRegistry.get(ImageRenditionService.METER_NAME).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(ImageRenditionService.METER_NAME + ".queue").gauge().value()).isZero();
+    }
+
+    @Test
+    void findsRenditionsByName() {
+        assertThat(ImageRendition.fromName("thumb")).contains(ImageRendition.THUMB);
+        assertThat(ImageRendition.fromName("THUMB")).isEmpty();
+        assertThat(ImageRendition.fromName("huge")).isEmpty();
+    }
+}
@@ -0,0 +1,40 @@
+package bd.gov.banbeis.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import bd.gov.banbeis.domain.Post;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class PostCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        Post post = new Post().id("61e0a2c4f1d2b3a4c5d6e7f8").publishedOn(Instant.ofEpochMilli(1642070000123L));
+        PostCursor cursor = PostCursor.of(post);
+
+        PostCursor decoded = PostCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.getPublishedOn()).isEqualTo(post.getPublishedOn());
+        assertThat(decoded.getId()).isEqualTo(post.getId());
+    }
+
+    @Test
+    void encodeDecodeWithoutPublishedOn() {
+        PostCursor cursor = new PostCursor(null, "id1");
+
+        PostCursor decoded = PostCursor.decode(cursor.encode());
+
+        assertThat(decoded.getPublishedOn()).isNull();
+        assertThat(decoded.getId()).isEqualTo("id1");
+    }
+
+    @Test
+    void decodeRejectsMalformedToken() {
+        assertThatThrownBy(() -> PostCursor.decode("not a token")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PostCursor.decode("YWJj")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PostCursor.decode("eHx5")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,28 @@
+package bd.gov.banbeis.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ExcerptUtilTest {
+
+    @Test
+    void excerptStripsMarkupAndWhitespace() {
+        assertThat(ExcerptUtil.excerpt("<p>Hello&nbsp;<b>world</b></p>\n\n<p>again</p>")).isEqualTo("Hello world again");
+    }
+
+    @Test
+    void excerptOfNullIsNull() {
+        assertThat(ExcerptUtil.excerpt(null)).isNull();
+    }
+
+    @Test
+    void excerptIsCutOnWordBoundary() {
+        String body = "শিক্ষা তথ্য ".repeat(40);
+
+        String excerpt = ExcerptUtil.excerpt(body);
+
+        assertThat(excerpt).hasSizeLessThanOrEqualTo(ExcerptUtil.MAX_LENGTH + 1).endsWith("…");
+        assertThat(body).startsWith(excerpt.substring(0, excerpt.length() - 1) + " ");
+    }
+}
@@ -0,0 +1,44 @@
+package bd.gov.banbeis.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SearchTokenizerTest {
+
+    @Test
+    void tokenizeSplitsOnPunctuationAndMarkup() {
+        assertThat(SearchTokenizer.tokenize("<p>শিক্ষা তথ্য।</p> BANBEIS, Dhaka!"))
+            .containsExactly("শিক্ষা", "তথ্য", "banbeis", "dhaka");
+    }
+
+    @Test
+    void tokenizeKeepsVowelSignsInTerms() {
+        assertThat(SearchTokenizer.tokenize("বিদ্যালয়ের")).hasSize(1);
+    }
+
+    @Test
+    void tokenizeNormalizesEquivalentSpellings() {
+        assertThat(SearchTokenizer.tokenize("বিদ্যালয়")).isEqualTo(SearchTokenizer.tokenize("বিদ্যালয়"));
+        assertThat(SearchTokenizer.tokenize("উৎসব")).isEqualTo(SearchTokenizer.tokenize("উত্\u200Dসব"));
+        assertThat(SearchTokenizer.tokenize("রাষ্\u200Cট্র")).isEqualTo(SearchTokenizer.tokenize("রাষ্ট্র"));
+    }
+
+    @Test
+    void tokenizeFoldsBanglaDigits() {
+        assertThat(SearchTokenizer.tokenize("২০২১ সাল")).containsExactly("2021", "সাল");
+    }
+
+    @Test
+    void tokenizeDropsSingleCharacters() {
+        assertThat(SearchTokenizer.tokenize("a ও b")).isEmpty();
+        assertThat(SearchTokenizer.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void normalizeKeepsSingleCharacters() {
+        assertThat(SearchTokenizer.normalize(" Cox's  Bazar ")).isEqualTo("cox s bazar");
+        assertThat(SearchTokenizer.normalize("ক")).isEqualTo("ক");
+        assertThat(SearchTokenizer.normalize(null)).isEmpty();
+    }
+}
@@ -0,0 +1,103 @@
+package bd.gov.banbeis.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+
+import bd.gov.banbeis.IntegrationTest;
+import bd.gov.banbeis.domain.Employee;
+import bd.gov.banbeis.repository.EmployeeRepository;
+import bd.gov.banbeis.service.AutocompleteIndex;
+import bd.gov.banbeis.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link AutocompleteResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureWebTestClient
+@WithMockUser
+class AutocompleteResourceIT {
+
+    private static final String API_URL = "/api/_autocomplete";
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void initTest() {
+        employeeRepository.deleteAll().block();
+        // Deleted behind the back of the service, so the index is rebuilt
+        autocompleteIndex.rebuild().block();
+        employee = employeeService.save(new Employee().fullName("Zahirul Qadir").bnFullName("জহিরুল কাদির")).block();
+    }
+
+    @Test
+    void autocompleteSavedEmployee() {
+        webTestClient
+            .get()
+            .uri(API_URL + "?type=employee&q=qad")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(contains(employee.getId()))
+            .jsonPath("$.[0].bnName")
+            .isEqualTo("জহিরুল কাদির");
+
+        webTestClient
+            .get()
+            .uri(API_URL + "?type=EMPLOYEE&q={q}", "জহি")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].name")
+            .value(contains("Zahirul Qadir"));
+    }
+
+    @Test
+    void autocompleteDeletedEmployee() {
+        employeeService.delete(employee.getId()).block();
+
+        webTestClient
+            .get()
+            .uri(API_URL + "?type=employee&q=zahirul")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$")
+            .isEmpty();
+    }
+
+    @Test
+    void autocompleteWithInvalidType() {
+        webTestClient
+            .get()
+            .uri(API_URL + "?type=post&q=zahirul")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+}
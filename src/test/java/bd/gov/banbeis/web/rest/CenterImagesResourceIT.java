@@ -7,6 +7,8 @@ import static org.hamcrest.Matchers.is;
 import bd.gov.banbeis.IntegrationTest;
 import bd.gov.banbeis.domain.CenterImages;
 import bd.gov.banbeis.repository.CenterImagesRepository;
+import bd.gov.banbeis.service.CenterImagesService;
+import bd.gov.banbeis.service.blob.ContentStore;
 import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
@@ -14,10 +16,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.util.Base64Utils;
+import org.springframework.web.reactive.function.BodyInserters;
 
 /**
  * Integration tests for the {@link CenterImagesResource} REST controller.
@@ -47,6 +52,12 @@ class CenterImagesResourceIT {
     @Autowired
     private CenterImagesRepository centerImagesRepository;
 
+    @Autowired
+    private CenterImagesService centerImagesService;
+
+    @Autowired
+    private ContentStore contentStore;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -107,13 +118,67 @@ class CenterImagesResourceIT {
         List<CenterImages> centerImagesList = centerImagesRepository.findAll().collectList().block();
         assertThat(centerImagesList).hasSize(databaseSizeBeforeCreate + 1);
         CenterImages testCenterImages = centerImagesList.get(centerImagesList.size() - 1);
-        assertThat(testCenterImages.getImage()).isEqualTo(DEFAULT_IMAGE);
+        assertThat(contentStore.findBytes(testCenterImages.getImageBlobId()).block()).isEqualTo(DEFAULT_IMAGE);
         assertThat(testCenterImages.getImageContentType()).isEqualTo(DEFAULT_IMAGE_CONTENT_TYPE);
         assertThat(testCenterImages.getTitle()).isEqualTo(DEFAULT_TITLE);
         assertThat(testCenterImages.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
         assertThat(testCenterImages.getShow()).isEqualTo(DEFAULT_SHOW);
     }
 
+    @Test
+    void uploadCenterImages() throws Exception {
+        int databaseSizeBeforeCreate = centerImagesRepository.findAll().collectList().block().size();
+        byte[] image = TestUtil.createPngImage(3, 2);
+        centerImages.setImage(null);
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("centerImages", TestUtil.convertObjectToJsonBytes(centerImages), MediaType.APPLICATION_JSON);
+        body.part("image", new ByteArrayResource(image)).filename("image.png").contentType(MediaType.IMAGE_PNG);
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL)
+            .contentType(MediaType.MULTIPART_FORM_DATA)
+            .body(BodyInserters.fromMultipartData(body.build()))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody()
+            .jsonPath("$.imageSize")
+            .isEqualTo(image.length)
+            .jsonPath("$.imageWidth")
+            .isEqualTo(3)
+            .jsonPath("$.imageHeight")
+            .isEqualTo(2);
+
+        List<CenterImages> centerImagesList = centerImagesRepository.findAll().collectList().block();
+        assertThat(centerImagesList).hasSize(databaseSizeBeforeCreate + 1);
+        CenterImages testCenterImages = centerImagesList.get(centerImagesList.size() - 1);
+        assertThat(testCenterImages.getTitle()).isEqualTo(DEFAULT_TITLE);
+        assertThat(testCenterImages.getShow()).isEqualTo(DEFAULT_SHOW);
+        assertThat(contentStore.findBytes(testCenterImages.getImageBlobId()).block()).isEqualTo(image);
+        assertThat(testCenterImages.getImageContentType()).isEqualTo(MediaType.IMAGE_PNG_VALUE);
+    }
+
+    @Test
+    void uploadCenterImagesWithUnsupportedContentType() throws Exception {
+        int databaseSizeBeforeCreate = centerImagesRepository.findAll().collectList().block().size();
+        centerImages.setImage(null);
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("centerImages", TestUtil.convertObjectToJsonBytes(centerImages), MediaType.APPLICATION_JSON);
+        body.part("image", new ByteArrayResource(DEFAULT_IMAGE)).filename("image.pdf").contentType(MediaType.APPLICATION_PDF);
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL)
+            .contentType(MediaType.MULTIPART_FORM_DATA)
+            .body(BodyInserters.fromMultipartData(body.build()))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        assertThat(centerImagesRepository.findAll().collectList().block()).hasSize(databaseSizeBeforeCreate);
+    }
+
     @Test
     void createCenterImagesWithExistingId() throws Exception {
         // Create the CenterImages with an existing ID
@@ -139,7 +204,7 @@ class CenterImagesResourceIT {
     @Test
     void getAllCenterImages() {
         // Initialize the database
-        centerImagesRepository.save(centerImages).block();
+        centerImagesService.save(centerImages).block();
 
         // Get all the centerImagesList
         webTestClient
@@ -157,7 +222,11 @@ class CenterImagesResourceIT {
             .jsonPath("$.[*].imageContentType")
             .value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE))
             .jsonPath("$.[*].image")
-            .value(hasItem(Base64Utils.encodeToString(DEFAULT_IMAGE)))
+            .doesNotExist()
+            .jsonPath("$.[*].imageSize")
+            .value(hasItem(DEFAULT_IMAGE.length))
+            .jsonPath("$.[*].imageUrl")
+            .value(hasItem(ENTITY_API_URL + "/" + centerImages.getId() + "/content"))
             .jsonPath("$.[*].title")
             .value(hasItem(DEFAULT_TITLE))
             .jsonPath("$.[*].description")
@@ -166,10 +235,32 @@ class CenterImagesResourceIT {
             .value(hasItem(DEFAULT_SHOW.booleanValue()));
     }
 
+    @Test
+    void getAllCenterImagesWithContent() {
+        // Initialize the database
+        centerImagesService.save(centerImages).block();
+
+        // Get all the centerImagesList with their images
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&includeContent=true")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(centerImages.getId()))
+            .jsonPath("$.[*].image")
+            .value(hasItem(Base64Utils.encodeToString(DEFAULT_IMAGE)));
+    }
+
     @Test
     void getCenterImages() {
         // Initialize the database
-        centerImagesRepository.save(centerImages).block();
+        centerImagesService.save(centerImages).block();
 
         // Get the centerImages
         webTestClient
@@ -208,10 +299,30 @@ class CenterImagesResourceIT {
             .isNotFound();
     }
 
+    @Test
+    void getCenterImagesContent() {
+        // Initialize the database
+        centerImagesService.save(centerImages).block();
+
+        // Get the image of the centerImages
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/content", centerImages.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(DEFAULT_IMAGE_CONTENT_TYPE)
+            .expectHeader()
+            .contentLength(DEFAULT_IMAGE.length)
+            .expectBody(byte[].class)
+            .isEqualTo(DEFAULT_IMAGE);
+    }
+
     @Test
     void putNewCenterImages() throws Exception {
         // Initialize the database
-        centerImagesRepository.save(centerImages).block();
+        centerImagesService.save(centerImages).block();
 
         int databaseSizeBeforeUpdate = centerImagesRepository.findAll().collectList().block().size();
 
@@ -237,7 +348,7 @@ class CenterImagesResourceIT {
         List<CenterImages> centerImagesList = centerImagesRepository.findAll().collectList().block();
         assertThat(centerImagesList).hasSize(databaseSizeBeforeUpdate);
         CenterImages testCenterImages = centerImagesList.get(centerImagesList.size() - 1);
-        assertThat(testCenterImages.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(contentStore.findBytes(testCenterImages.getImageBlobId()).block()).isEqualTo(UPDATED_IMAGE);
         assertThat(testCenterImages.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
         assertThat(testCenterImages.getTitle()).isEqualTo(UPDATED_TITLE);
         assertThat(testCenterImages.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
@@ -307,7 +418,7 @@ class CenterImagesResourceIT {
     @Test
     void partialUpdateCenterImagesWithPatch() throws Exception {
         // Initialize the database
-        centerImagesRepository.save(centerImages).block();
+        centerImagesService.save(centerImages).block();
 
         int databaseSizeBeforeUpdate = centerImagesRepository.findAll().collectList().block().size();
 
@@ -330,7 +441,7 @@ class CenterImagesResourceIT {
         List<CenterImages> centerImagesList = centerImagesRepository.findAll().collectList().block();
         assertThat(centerImagesList).hasSize(databaseSizeBeforeUpdate);
         CenterImages testCenterImages = centerImagesList.get(centerImagesList.size() - 1);
-        assertThat(testCenterImages.getImage()).isEqualTo(DEFAULT_IMAGE);
+        assertThat(contentStore.findBytes(testCenterImages.getImageBlobId()).block()).isEqualTo(DEFAULT_IMAGE);
         assertThat(testCenterImages.getImageContentType()).isEqualTo(DEFAULT_IMAGE_CONTENT_TYPE);
         assertThat(testCenterImages.getTitle()).isEqualTo(DEFAULT_TITLE);
         assertThat(testCenterImages.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
@@ -340,7 +451,7 @@ class CenterImagesResourceIT {
     @Test
     void fullUpdateCenterImagesWithPatch() throws Exception {
         // Initialize the database
-        centerImagesRepository.save(centerImages).block();
+        centerImagesService.save(centerImages).block();
 
         int databaseSizeBeforeUpdate = centerImagesRepository.findAll().collectList().block().size();
 
@@ -368,7 +479,7 @@ class CenterImagesResourceIT {
         List<CenterImages> centerImagesList = centerImagesRepository.findAll().collectList().block();
         assertThat(centerImagesList).hasSize(databaseSizeBeforeUpdate);
         CenterImages testCenterImages = centerImagesList.get(centerImagesList.size() - 1);
-        assertThat(testCenterImages.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(contentStore.findBytes(testCenterImages.getImageBlobId()).block()).isEqualTo(UPDATED_IMAGE);
         assertThat(testCenterImages.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
         assertThat(testCenterImages.getTitle()).isEqualTo(UPDATED_TITLE);
         assertThat(testCenterImages.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
@@ -438,9 +549,10 @@ class CenterImagesResourceIT {
     @Test
     void deleteCenterImages() {
         // Initialize the database
-        centerImagesRepository.save(centerImages).block();
+        centerImagesService.save(centerImages).block();
 
         int databaseSizeBeforeDelete = centerImagesRepository.findAll().collectList().block().size();
+        int referencesBeforeDelete = contentStore.countReferences(centerImages.getImageBlobId()).block();
 
         // Delete the centerImages
         webTestClient
@@ -454,5 +566,6 @@ class CenterImagesResourceIT {
         // Validate the database contains one less item
         List<CenterImages> centerImagesList = centerImagesRepository.findAll().collectList().block();
         assertThat(centerImagesList).hasSize(databaseSizeBeforeDelete - 1);
+        assertThat(contentStore.countReferences(centerImages.getImageBlobId()).block()).isEqualTo(referencesBeforeDelete - 1);
     }
 }
@@ -1,12 +1,18 @@
 package bd.gov.banbeis.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 
 import bd.gov.banbeis.IntegrationTest;
 import bd.gov.banbeis.domain.Center;
+import bd.gov.banbeis.domain.District;
 import bd.gov.banbeis.repository.CenterRepository;
+import bd.gov.banbeis.repository.DistrictRepository;
+import bd.gov.banbeis.service.CenterService;
+import bd.gov.banbeis.service.blob.ContentStore;
 import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
@@ -14,6 +20,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -44,6 +51,15 @@ class CenterResourceIT {
     @Autowired
     private CenterRepository centerRepository;
 
+    @Autowired
+    private CenterService centerService;
+
+    @Autowired
+    private DistrictRepository districtRepository;
+
+    @Autowired
+    private ContentStore contentStore;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -104,10 +120,34 @@ class CenterResourceIT {
         Center testCenter = centerList.get(centerList.size() - 1);
         assertThat(testCenter.getName()).isEqualTo(DEFAULT_NAME);
         assertThat(testCenter.getAddressLine()).isEqualTo(DEFAULT_ADDRESS_LINE);
-        assertThat(testCenter.getImage()).isEqualTo(DEFAULT_IMAGE);
+        assertThat(contentStore.findBytes(testCenter.getImageBlobId()).block()).isEqualTo(DEFAULT_IMAGE);
         assertThat(testCenter.getImageContentType()).isEqualTo(DEFAULT_IMAGE_CONTENT_TYPE);
     }
 
+    @Test
+    void createCenterLocatedAtItsDistrict() throws Exception {
+        District district = districtRepository.save(new District().name("Dhaka").lat("23.7115253").lon("90.4111451")).block();
+        center.setDistrict(district);
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(center))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody()
+            .jsonPath("$.location.type")
+            .isEqualTo("Point")
+            .jsonPath("$.location.coordinates")
+            .value(contains(90.4111451, 23.7115253));
+
+        // Validate the Center in the database
+        List<Center> centerList = centerRepository.findAll().collectList().block();
+        assertThat(centerList.get(centerList.size() - 1).getLocation()).isEqualTo(new GeoJsonPoint(90.4111451, 23.7115253));
+    }
+
     @Test
     void createCenterWithExistingId() throws Exception {
         // Create the Center with an existing ID
@@ -133,7 +173,7 @@ class CenterResourceIT {
     @Test
     void getAllCenters() {
         // Initialize the database
-        centerRepository.save(center).block();
+        centerService.save(center).block();
 
         // Get all the centerList
         webTestClient
@@ -155,13 +195,89 @@ class CenterResourceIT {
             .jsonPath("$.[*].imageContentType")
             .value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE))
             .jsonPath("$.[*].image")
+            .doesNotExist()
+            .jsonPath("$.[*].imageSize")
+            .value(hasItem(DEFAULT_IMAGE.length))
+            .jsonPath("$.[*].imageUrl")
+            .value(hasItem(ENTITY_API_URL + "/" + center.getId() + "/content"));
+    }
+
+    @Test
+    void getAllCentersWithContent() {
+        // Initialize the database
+        centerService.save(center).block();
+
+        // Get all the centerList with their images
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&includeContent=true")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(center.getId()))
+            .jsonPath("$.[*].image")
             .value(hasItem(Base64Utils.encodeToString(DEFAULT_IMAGE)));
     }
 
+    @Test
+    void getNearbyCenters() {
+        // Initialize the database, about 1 km, 5 km and 50 km away from the point
+        Center near = centerRepository.save(createEntity().location(new GeoJsonPoint(90.41, 23.72))).block();
+        Center further = centerRepository.save(createEntity().location(new GeoJsonPoint(90.45, 23.72))).block();
+        centerRepository.save(createEntity().location(new GeoJsonPoint(90.9, 23.72))).block();
+        centerRepository.save(createEntity()).block();
+
+        // Get the centers within 10 km, nearest first
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/nearby?lat=23.711&lon=90.411&radius=10")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals("X-Total-Count", "2")
+            .expectBody()
+            .jsonPath("$.[*].center.id")
+            .value(contains(near.getId(), further.getId()))
+            .jsonPath("$.[0].distance")
+            .value(is(closeTo(1.0, 0.5)))
+            .jsonPath("$.[1].distance")
+            .value(is(closeTo(4.1, 0.5)));
+
+        // Get the second page
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/nearby?lat=23.711&lon=90.411&radius=10&page=1&size=1")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].center.id")
+            .value(contains(further.getId()));
+    }
+
+    @Test
+    void getNearbyCentersWithInvalidRadius() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/nearby?lat=23.711&lon=90.411&radius=0")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @Test
     void getCenter() {
         // Initialize the database
-        centerRepository.save(center).block();
+        centerService.save(center).block();
 
         // Get the center
         webTestClient
@@ -198,10 +314,30 @@ class CenterResourceIT {
             .isNotFound();
     }
 
+    @Test
+    void getCenterContent() {
+        // Initialize the database
+        centerService.save(center).block();
+
+        // Get the image of the center
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/content", center.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(DEFAULT_IMAGE_CONTENT_TYPE)
+            .expectHeader()
+            .contentLength(DEFAULT_IMAGE.length)
+            .expectBody(byte[].class)
+            .isEqualTo(DEFAULT_IMAGE);
+    }
+
     @Test
     void putNewCenter() throws Exception {
         // Initialize the database
-        centerRepository.save(center).block();
+        centerService.save(center).block();
 
         int databaseSizeBeforeUpdate = centerRepository.findAll().collectList().block().size();
 
@@ -228,7 +364,7 @@ class CenterResourceIT {
         Center testCenter = centerList.get(centerList.size() - 1);
         assertThat(testCenter.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testCenter.getAddressLine()).isEqualTo(UPDATED_ADDRESS_LINE);
-        assertThat(testCenter.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(contentStore.findBytes(testCenter.getImageBlobId()).block()).isEqualTo(UPDATED_IMAGE);
         assertThat(testCenter.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
     }
 
@@ -295,7 +431,7 @@ class CenterResourceIT {
     @Test
     void partialUpdateCenterWithPatch() throws Exception {
         // Initialize the database
-        centerRepository.save(center).block();
+        centerService.save(center).block();
 
         int databaseSizeBeforeUpdate = centerRepository.findAll().collectList().block().size();
 
@@ -320,14 +456,14 @@ class CenterResourceIT {
         Center testCenter = centerList.get(centerList.size() - 1);
         assertThat(testCenter.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testCenter.getAddressLine()).isEqualTo(DEFAULT_ADDRESS_LINE);
-        assertThat(testCenter.getImage()).isEqualTo(DEFAULT_IMAGE);
+        assertThat(contentStore.findBytes(testCenter.getImageBlobId()).block()).isEqualTo(DEFAULT_IMAGE);
         assertThat(testCenter.getImageContentType()).isEqualTo(DEFAULT_IMAGE_CONTENT_TYPE);
     }
 
     @Test
     void fullUpdateCenterWithPatch() throws Exception {
         // Initialize the database
-        centerRepository.save(center).block();
+        centerService.save(center).block();
 
         int databaseSizeBeforeUpdate = centerRepository.findAll().collectList().block().size();
 
@@ -356,7 +492,7 @@ class CenterResourceIT {
         Center testCenter = centerList.get(centerList.size() - 1);
         assertThat(testCenter.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testCenter.getAddressLine()).isEqualTo(UPDATED_ADDRESS_LINE);
-        assertThat(testCenter.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(contentStore.findBytes(testCenter.getImageBlobId()).block()).isEqualTo(UPDATED_IMAGE);
         assertThat(testCenter.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
     }
 
@@ -423,9 +559,10 @@ class CenterResourceIT {
     @Test
     void deleteCenter() {
         // Initialize the database
-        centerRepository.save(center).block();
+        centerService.save(center).block();
 
         int databaseSizeBeforeDelete = centerRepository.findAll().collectList().block().size();
+        int referencesBeforeDelete = contentStore.countReferences(center.getImageBlobId()).block();
 
         // Delete the center
         webTestClient
@@ -439,5 +576,6 @@ class CenterResourceIT {
         // Validate the database contains one less item
         List<Center> centerList = centerRepository.findAll().collectList().block();
         assertThat(centerList).hasSize(databaseSizeBeforeDelete - 1);
+        assertThat(contentStore.countReferences(center.getImageBlobId()).block()).isEqualTo(referencesBeforeDelete - 1);
     }
 }
@@ -7,6 +7,7 @@ import static org.hamcrest.Matchers.is;
 import bd.gov.banbeis.IntegrationTest;
 import bd.gov.banbeis.domain.Designation;
 import bd.gov.banbeis.repository.DesignationRepository;
+import bd.gov.banbeis.service.ReferenceDataCache;
 import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
@@ -41,6 +42,9 @@ class DesignationResourceIT {
     @Autowired
     private DesignationRepository designationRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -164,6 +168,8 @@ class DesignationResourceIT {
     void getAllDesignations() {
         // Initialize the database
         designationRepository.save(designation).block();
+        // Saved behind the back of the service, so the reference data is reloaded
+        referenceDataCache.load().block();
 
         // Get all the designationList
         webTestClient
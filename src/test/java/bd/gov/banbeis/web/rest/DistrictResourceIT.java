@@ -1,12 +1,14 @@
 package bd.gov.banbeis.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 
 import bd.gov.banbeis.IntegrationTest;
 import bd.gov.banbeis.domain.District;
 import bd.gov.banbeis.repository.DistrictRepository;
+import bd.gov.banbeis.service.ReferenceDataCache;
 import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
@@ -50,6 +52,9 @@ class DistrictResourceIT {
     @Autowired
     private DistrictRepository districtRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -147,6 +152,8 @@ class DistrictResourceIT {
         // Initialize the database
         district.setId(UUID.randomUUID().toString());
         districtRepository.save(district).block();
+        // Saved behind the back of the service, so the reference data is reloaded
+        referenceDataCache.load().block();
 
         // Get all the districtList
         webTestClient
@@ -175,6 +182,31 @@ class DistrictResourceIT {
             .value(hasItem(DEFAULT_URL));
     }
 
+    @Test
+    void getDistrictsOfDivision() {
+        // Initialize the database
+        district.setId(UUID.randomUUID().toString());
+        districtRepository.save(district).block();
+        District otherDistrict = createUpdatedEntity();
+        otherDistrict.setId(UUID.randomUUID().toString());
+        districtRepository.save(otherDistrict).block();
+        referenceDataCache.load().block();
+
+        // Get the districts of the division
+        webTestClient
+            .get()
+            .uri("/api/divisions/{id}/districts", DEFAULT_DIVISION_ID)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(contains(district.getId()));
+    }
+
     @Test
     void getDistrict() {
         // Initialize the database
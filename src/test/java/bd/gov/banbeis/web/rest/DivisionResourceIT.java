@@ -7,6 +7,7 @@ import static org.hamcrest.Matchers.is;
 import bd.gov.banbeis.IntegrationTest;
 import bd.gov.banbeis.domain.Division;
 import bd.gov.banbeis.repository.DivisionRepository;
+import bd.gov.banbeis.service.ReferenceDataCache;
 import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
@@ -41,6 +42,9 @@ class DivisionResourceIT {
     @Autowired
     private DivisionRepository divisionRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -123,6 +127,8 @@ class DivisionResourceIT {
         // Initialize the database
         division.setId(UUID.randomUUID().toString());
         divisionRepository.save(division).block();
+        // Saved behind the back of the service, so the reference data is reloaded
+        referenceDataCache.load().block();
 
         // Get all the divisionList
         webTestClient
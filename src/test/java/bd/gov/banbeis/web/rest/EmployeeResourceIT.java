@@ -7,6 +7,8 @@ import static org.hamcrest.Matchers.is;
 import bd.gov.banbeis.IntegrationTest;
 import bd.gov.banbeis.domain.Employee;
 import bd.gov.banbeis.repository.EmployeeRepository;
+import bd.gov.banbeis.service.EmployeeService;
+import bd.gov.banbeis.service.blob.ContentStore;
 import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
@@ -50,6 +52,12 @@ class EmployeeResourceIT {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ContentStore contentStore;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -116,7 +124,7 @@ class EmployeeResourceIT {
         assertThat(testEmployee.getBnFullName()).isEqualTo(DEFAULT_BN_FULL_NAME);
         assertThat(testEmployee.getMobile()).isEqualTo(DEFAULT_MOBILE);
         assertThat(testEmployee.getEmail()).isEqualTo(DEFAULT_EMAIL);
-        assertThat(testEmployee.getPhoto()).isEqualTo(DEFAULT_PHOTO);
+        assertThat(contentStore.findBytes(testEmployee.getPhotoBlobId()).block()).isEqualTo(DEFAULT_PHOTO);
         assertThat(testEmployee.getPhotoContentType()).isEqualTo(DEFAULT_PHOTO_CONTENT_TYPE);
     }
 
@@ -229,7 +237,7 @@ class EmployeeResourceIT {
     @Test
     void getAllEmployees() {
         // Initialize the database
-        employeeRepository.save(employee).block();
+        employeeService.save(employee).block();
 
         // Get all the employeeList
         webTestClient
@@ -255,13 +263,39 @@ class EmployeeResourceIT {
             .jsonPath("$.[*].photoContentType")
             .value(hasItem(DEFAULT_PHOTO_CONTENT_TYPE))
             .jsonPath("$.[*].photo")
+            .doesNotExist()
+            .jsonPath("$.[*].photoSize")
+            .value(hasItem(DEFAULT_PHOTO.length))
+            .jsonPath("$.[*].photoUrl")
+            .value(hasItem(ENTITY_API_URL + "/" + employee.getId() + "/content"));
+    }
+
+    @Test
+    void getAllEmployeesWithContent() {
+        // Initialize the database
+        employeeService.save(employee).block();
+
+        // Get all the employeeList with their photos
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&includeContent=true")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(employee.getId()))
+            .jsonPath("$.[*].photo")
             .value(hasItem(Base64Utils.encodeToString(DEFAULT_PHOTO)));
     }
 
     @Test
     void getEmployee() {
         // Initialize the database
-        employeeRepository.save(employee).block();
+        employeeService.save(employee).block();
 
         // Get the employee
         webTestClient
@@ -302,10 +336,30 @@ class EmployeeResourceIT {
             .isNotFound();
     }
 
+    @Test
+    void getEmployeeContent() {
+        // Initialize the database
+        employeeService.save(employee).block();
+
+        // Get the photo of the employee
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/content", employee.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(DEFAULT_PHOTO_CONTENT_TYPE)
+            .expectHeader()
+            .contentLength(DEFAULT_PHOTO.length)
+            .expectBody(byte[].class)
+            .isEqualTo(DEFAULT_PHOTO);
+    }
+
     @Test
     void putNewEmployee() throws Exception {
         // Initialize the database
-        employeeRepository.save(employee).block();
+        employeeService.save(employee).block();
 
         int databaseSizeBeforeUpdate = employeeRepository.findAll().collectList().block().size();
 
@@ -336,7 +390,7 @@ class EmployeeResourceIT {
         assertThat(testEmployee.getBnFullName()).isEqualTo(UPDATED_BN_FULL_NAME);
         assertThat(testEmployee.getMobile()).isEqualTo(UPDATED_MOBILE);
         assertThat(testEmployee.getEmail()).isEqualTo(UPDATED_EMAIL);
-        assertThat(testEmployee.getPhoto()).isEqualTo(UPDATED_PHOTO);
+        assertThat(contentStore.findBytes(testEmployee.getPhotoBlobId()).block()).isEqualTo(UPDATED_PHOTO);
         assertThat(testEmployee.getPhotoContentType()).isEqualTo(UPDATED_PHOTO_CONTENT_TYPE);
     }
 
@@ -403,7 +457,7 @@ class EmployeeResourceIT {
     @Test
     void partialUpdateEmployeeWithPatch() throws Exception {
         // Initialize the database
-        employeeRepository.save(employee).block();
+        employeeService.save(employee).block();
 
         int databaseSizeBeforeUpdate = employeeRepository.findAll().collectList().block().size();
 
@@ -430,14 +484,14 @@ class EmployeeResourceIT {
         assertThat(testEmployee.getBnFullName()).isEqualTo(UPDATED_BN_FULL_NAME);
         assertThat(testEmployee.getMobile()).isEqualTo(UPDATED_MOBILE);
         assertThat(testEmployee.getEmail()).isEqualTo(DEFAULT_EMAIL);
-        assertThat(testEmployee.getPhoto()).isEqualTo(DEFAULT_PHOTO);
+        assertThat(contentStore.findBytes(testEmployee.getPhotoBlobId()).block()).isEqualTo(DEFAULT_PHOTO);
         assertThat(testEmployee.getPhotoContentType()).isEqualTo(DEFAULT_PHOTO_CONTENT_TYPE);
     }
 
     @Test
     void fullUpdateEmployeeWithPatch() throws Exception {
         // Initialize the database
-        employeeRepository.save(employee).block();
+        employeeService.save(employee).block();
 
         int databaseSizeBeforeUpdate = employeeRepository.findAll().collectList().block().size();
 
@@ -470,7 +524,7 @@ class EmployeeResourceIT {
         assertThat(testEmployee.getBnFullName()).isEqualTo(UPDATED_BN_FULL_NAME);
         assertThat(testEmployee.getMobile()).isEqualTo(UPDATED_MOBILE);
         assertThat(testEmployee.getEmail()).isEqualTo(UPDATED_EMAIL);
-        assertThat(testEmployee.getPhoto()).isEqualTo(UPDATED_PHOTO);
+        assertThat(contentStore.findBytes(testEmployee.getPhotoBlobId()).block()).isEqualTo(UPDATED_PHOTO);
         assertThat(testEmployee.getPhotoContentType()).isEqualTo(UPDATED_PHOTO_CONTENT_TYPE);
     }
 
@@ -537,9 +591,10 @@ class EmployeeResourceIT {
     @Test
     void deleteEmployee() {
         // Initialize the database
-        employeeRepository.save(employee).block();
+        employeeService.save(employee).block();
 
         int databaseSizeBeforeDelete = employeeRepository.findAll().collectList().block().size();
+        int referencesBeforeDelete = contentStore.countReferences(employee.getPhotoBlobId()).block();
 
         // Delete the employee
         webTestClient
@@ -553,5 +608,6 @@ class EmployeeResourceIT {
         // Validate the database contains one less item
         List<Employee> employeeList = employeeRepository.findAll().collectList().block();
         assertThat(employeeList).hasSize(databaseSizeBeforeDelete - 1);
+        assertThat(contentStore.countReferences(employee.getPhotoBlobId()).block()).isEqualTo(referencesBeforeDelete - 1);
     }
 }
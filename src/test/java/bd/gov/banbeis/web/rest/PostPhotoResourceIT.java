@@ -5,8 +5,13 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 
 import bd.gov.banbeis.IntegrationTest;
+import bd.gov.banbeis.domain.Post;
 import bd.gov.banbeis.domain.PostPhoto;
 import bd.gov.banbeis.repository.PostPhotoRepository;
+import bd.gov.banbeis.repository.PostRepository;
+import bd.gov.banbeis.service.PostPhotoService;
+import bd.gov.banbeis.service.blob.ContentRejectedException;
+import bd.gov.banbeis.service.blob.ContentStore;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -16,10 +21,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.util.Base64Utils;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Flux;
 
 /**
  * Integration tests for the {@link PostPhotoResource} REST controller.
@@ -52,6 +63,15 @@ class PostPhotoResourceIT {
     @Autowired
     private PostPhotoRepository postPhotoRepository;
 
+    @Autowired
+    private PostPhotoService postPhotoService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private ContentStore contentStore;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -117,11 +137,131 @@ class PostPhotoResourceIT {
         assertThat(testPostPhoto.getSequence()).isEqualTo(DEFAULT_SEQUENCE);
         assertThat(testPostPhoto.getTitle()).isEqualTo(DEFAULT_TITLE);
         assertThat(testPostPhoto.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
-        assertThat(testPostPhoto.getImage()).isEqualTo(DEFAULT_IMAGE);
+        assertThat(contentStore.findBytes(testPostPhoto.getImageBlobId()).block()).isEqualTo(DEFAULT_IMAGE);
         assertThat(testPostPhoto.getImageContentType()).isEqualTo(DEFAULT_IMAGE_CONTENT_TYPE);
         assertThat(testPostPhoto.getUploadedOn()).isEqualTo(DEFAULT_UPLOADED_ON);
     }
 
+    @Test
+    void uploadPostPhoto() throws Exception {
+        int databaseSizeBeforeCreate = postPhotoRepository.findAll().collectList().block().size();
+        byte[] image = TestUtil.createPngImage(3, 2);
+        postPhoto.setImage(null);
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("postPhoto", TestUtil.convertObjectToJsonBytes(postPhoto), MediaType.APPLICATION_JSON);
+        body.part("image", new ByteArrayResource(image)).filename("image.png").contentType(MediaType.IMAGE_PNG);
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL)
+            .contentType(MediaType.MULTIPART_FORM_DATA)
+            .body(BodyInserters.fromMultipartData(body.build()))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody()
+            .jsonPath("$.imageSize")
+            .isEqualTo(image.length)
+            .jsonPath("$.imageWidth")
+            .isEqualTo(3)
+            .jsonPath("$.imageHeight")
+            .isEqualTo(2);
+
+        List<PostPhoto> postPhotoList = postPhotoRepository.findAll().collectList().block();
+        assertThat(postPhotoList).hasSize(databaseSizeBeforeCreate + 1);
+        PostPhoto testPostPhoto = postPhotoList.get(postPhotoList.size() - 1);
+        assertThat(testPostPhoto.getSequence()).isEqualTo(DEFAULT_SEQUENCE);
+        assertThat(testPostPhoto.getTitle()).isEqualTo(DEFAULT_TITLE);
+        assertThat(contentStore.findBytes(testPostPhoto.getImageBlobId()).block()).isEqualTo(image);
+        assertThat(testPostPhoto.getImageContentType()).isEqualTo(MediaType.IMAGE_PNG_VALUE);
+    }
+
+    @Test
+    void uploadPostPhotoWithUnsupportedContentType() throws Exception {
+        int databaseSizeBeforeCreate = postPhotoRepository.findAll().collectList().block().size();
+        postPhoto.setImage(null);
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("postPhoto", TestUtil.convertObjectToJsonBytes(postPhoto), MediaType.APPLICATION_JSON);
+        body.part("image", new ByteArrayResource(DEFAULT_IMAGE)).filename("image.pdf").contentType(MediaType.APPLICATION_PDF);
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL)
+            .contentType(MediaType.MULTIPART_FORM_DATA)
+            .body(BodyInserters.fromMultipartData(body.build()))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        assertThat(postPhotoRepository.findAll().collectList().block()).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    void uploadPostPhotos() throws Exception {
+        Post post = postRepository.save(PostResourceIT.createEntity()).block();
+        postPhotoRepository.save(createEntity().post(post).sequence(4)).block();
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("images", new ByteArrayResource(TestUtil.createPngImage(3, 2))).filename("first.png").contentType(MediaType.IMAGE_PNG);
+        body.part("images", new ByteArrayResource(DEFAULT_IMAGE)).filename("second.pdf").contentType(MediaType.APPLICATION_PDF);
+        body.part("images", new ByteArrayResource(TestUtil.createPngImage(2, 3))).filename("third.png").contentType(MediaType.IMAGE_PNG);
+
+        webTestClient
+            .post()
+            .uri("/api/posts/{postId}/post-photos", post.getId())
+            .contentType(MediaType.MULTIPART_FORM_DATA)
+            .body(BodyInserters.fromMultipartData(body.build()))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(3)
+            .jsonPath("$[0].entity.sequence")
+            .isEqualTo(5)
+            .jsonPath("$[0].entity.title")
+            .isEqualTo("first.png")
+            .jsonPath("$[1].filename")
+            .isEqualTo("second.pdf")
+            .jsonPath("$[1].error")
+            .isEqualTo(ContentRejectedException.UNSUPPORTED_TYPE)
+            .jsonPath("$[2].entity.sequence")
+            .isEqualTo(6)
+            .jsonPath("$[2].entity.imageWidth")
+            .isEqualTo(2);
+
+        assertThat(postPhotoRepository.findAll().collectList().block()).hasSize(3);
+    }
+
+    @Test
+    void createPostPhotosConcurrently() {
+        Post post = postRepository.save(PostResourceIT.createEntity()).block();
+        postPhotoRepository.save(createEntity().post(post).sequence(2)).block();
+
+        List<Integer> sequences = Flux
+            .range(0, 4)
+            .flatMap(i -> postPhotoService.save(createEntity().post(post).sequence(null)))
+            .map(PostPhoto::getSequence)
+            .collectList()
+            .block();
+
+        assertThat(sequences).containsExactlyInAnyOrder(3, 4, 5, 6);
+    }
+
+    @Test
+    void uploadPostPhotosOfMissingPost() throws Exception {
+        MultipartBodyBuilder body = new MultipartBodyBuilder();
+        body.part("images", new ByteArrayResource(TestUtil.createPngImage(3, 2))).filename("first.png").contentType(MediaType.IMAGE_PNG);
+
+        webTestClient
+            .post()
+            .uri("/api/posts/{postId}/post-photos", "missing_id")
+            .contentType(MediaType.MULTIPART_FORM_DATA)
+            .body(BodyInserters.fromMultipartData(body.build()))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @Test
     void createPostPhotoWithExistingId() throws Exception {
         // Create the PostPhoto with an existing ID
@@ -147,7 +287,7 @@ class PostPhotoResourceIT {
     @Test
     void getAllPostPhotos() {
         // Initialize the database
-        postPhotoRepository.save(postPhoto).block();
+        postPhotoService.save(postPhoto).block();
 
         // Get all the postPhotoList
         webTestClient
@@ -171,15 +311,41 @@ class PostPhotoResourceIT {
             .jsonPath("$.[*].imageContentType")
             .value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE))
             .jsonPath("$.[*].image")
-            .value(hasItem(Base64Utils.encodeToString(DEFAULT_IMAGE)))
+            .doesNotExist()
+            .jsonPath("$.[*].imageSize")
+            .value(hasItem(DEFAULT_IMAGE.length))
+            .jsonPath("$.[*].imageUrl")
+            .value(hasItem(ENTITY_API_URL + "/" + postPhoto.getId() + "/content"))
             .jsonPath("$.[*].uploadedOn")
             .value(hasItem(DEFAULT_UPLOADED_ON.toString()));
     }
 
+    @Test
+    void getAllPostPhotosWithContent() {
+        // Initialize the database
+        postPhotoService.save(postPhoto).block();
+
+        // Get all the postPhotoList with their images
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&includeContent=true")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(postPhoto.getId()))
+            .jsonPath("$.[*].image")
+            .value(hasItem(Base64Utils.encodeToString(DEFAULT_IMAGE)));
+    }
+
     @Test
     void getPostPhoto() {
         // Initialize the database
-        postPhotoRepository.save(postPhoto).block();
+        postPhotoService.save(postPhoto).block();
 
         // Get the postPhoto
         webTestClient
@@ -220,10 +386,78 @@ class PostPhotoResourceIT {
             .isNotFound();
     }
 
+    @Test
+    void getPostPhotoContent() {
+        // Initialize the database
+        postPhotoService.save(postPhoto).block();
+
+        // Get the image of the postPhoto
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/content", postPhoto.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(DEFAULT_IMAGE_CONTENT_TYPE)
+            .expectHeader()
+            .contentLength(DEFAULT_IMAGE.length)
+            .expectBody(byte[].class)
+            .isEqualTo(DEFAULT_IMAGE);
+    }
+
+    @Test
+    void getPostPhotoContentRange() {
+        // Initialize the database
+        postPhotoService.save(postPhoto).block();
+
+        // Resume the download of the image
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/content", postPhoto.getId())
+            .header(HttpHeaders.RANGE, "bytes=0-")
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.PARTIAL_CONTENT)
+            .expectHeader()
+            .valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 0-" + (DEFAULT_IMAGE.length - 1) + "/" + DEFAULT_IMAGE.length)
+            .expectBody(byte[].class)
+            .isEqualTo(DEFAULT_IMAGE);
+    }
+
+    @Test
+    void getPostPhotoContentNotRendered() {
+        // Initialize the database
+        postPhotoService.save(postPhoto).block();
+
+        // The image cannot be rendered, so every size is the original image
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/content?size=thumb", postPhoto.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(byte[].class)
+            .isEqualTo(DEFAULT_IMAGE);
+    }
+
+    @Test
+    void getPostPhotoContentWithInvalidSize() {
+        // Initialize the database
+        postPhotoService.save(postPhoto).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/content?size=huge", postPhoto.getId())
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @Test
     void putNewPostPhoto() throws Exception {
         // Initialize the database
-        postPhotoRepository.save(postPhoto).block();
+        postPhotoService.save(postPhoto).block();
 
         int databaseSizeBeforeUpdate = postPhotoRepository.findAll().collectList().block().size();
 
@@ -253,7 +487,7 @@ class PostPhotoResourceIT {
         assertThat(testPostPhoto.getSequence()).isEqualTo(UPDATED_SEQUENCE);
         assertThat(testPostPhoto.getTitle()).isEqualTo(UPDATED_TITLE);
         assertThat(testPostPhoto.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
-        assertThat(testPostPhoto.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(contentStore.findBytes(testPostPhoto.getImageBlobId()).block()).isEqualTo(UPDATED_IMAGE);
         assertThat(testPostPhoto.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
         assertThat(testPostPhoto.getUploadedOn()).isEqualTo(UPDATED_UPLOADED_ON);
     }
@@ -321,7 +555,7 @@ class PostPhotoResourceIT {
     @Test
     void partialUpdatePostPhotoWithPatch() throws Exception {
         // Initialize the database
-        postPhotoRepository.save(postPhoto).block();
+        postPhotoService.save(postPhoto).block();
 
         int databaseSizeBeforeUpdate = postPhotoRepository.findAll().collectList().block().size();
 
@@ -351,7 +585,7 @@ class PostPhotoResourceIT {
         assertThat(testPostPhoto.getSequence()).isEqualTo(DEFAULT_SEQUENCE);
         assertThat(testPostPhoto.getTitle()).isEqualTo(UPDATED_TITLE);
         assertThat(testPostPhoto.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
-        assertThat(testPostPhoto.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(contentStore.findBytes(testPostPhoto.getImageBlobId()).block()).isEqualTo(UPDATED_IMAGE);
         assertThat(testPostPhoto.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
         assertThat(testPostPhoto.getUploadedOn()).isEqualTo(DEFAULT_UPLOADED_ON);
     }
@@ -359,7 +593,7 @@ class PostPhotoResourceIT {
     @Test
     void fullUpdatePostPhotoWithPatch() throws Exception {
         // Initialize the database
-        postPhotoRepository.save(postPhoto).block();
+        postPhotoService.save(postPhoto).block();
 
         int databaseSizeBeforeUpdate = postPhotoRepository.findAll().collectList().block().size();
 
@@ -391,7 +625,7 @@ class PostPhotoResourceIT {
         assertThat(testPostPhoto.getSequence()).isEqualTo(UPDATED_SEQUENCE);
         assertThat(testPostPhoto.getTitle()).isEqualTo(UPDATED_TITLE);
         assertThat(testPostPhoto.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
-        assertThat(testPostPhoto.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(contentStore.findBytes(testPostPhoto.getImageBlobId()).block()).isEqualTo(UPDATED_IMAGE);
         assertThat(testPostPhoto.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
         assertThat(testPostPhoto.getUploadedOn()).isEqualTo(UPDATED_UPLOADED_ON);
     }
@@ -459,9 +693,10 @@ class PostPhotoResourceIT {
     @Test
     void deletePostPhoto() {
         // Initialize the database
-        postPhotoRepository.save(postPhoto).block();
+        postPhotoService.save(postPhoto).block();
 
         int databaseSizeBeforeDelete = postPhotoRepository.findAll().collectList().block().size();
+        int referencesBeforeDelete = contentStore.countReferences(postPhoto.getImageBlobId()).block();
 
         // Delete the postPhoto
         webTestClient
@@ -475,5 +710,6 @@ class PostPhotoResourceIT {
         // Validate the database contains one less item
         List<PostPhoto> postPhotoList = postPhotoRepository.findAll().collectList().block();
         assertThat(postPhotoList).hasSize(databaseSizeBeforeDelete - 1);
+        assertThat(contentStore.countReferences(postPhoto.getImageBlobId()).block()).isEqualTo(referencesBeforeDelete - 1);
     }
 }
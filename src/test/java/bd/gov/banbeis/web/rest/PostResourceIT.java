@@ -1,12 +1,20 @@
 package bd.gov.banbeis.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 
 import bd.gov.banbeis.IntegrationTest;
+import bd.gov.banbeis.domain.Center;
+import bd.gov.banbeis.domain.Employee;
 import bd.gov.banbeis.domain.Post;
+import bd.gov.banbeis.repository.CenterRepository;
+import bd.gov.banbeis.repository.EmployeeRepository;
 import bd.gov.banbeis.repository.PostRepository;
+import bd.gov.banbeis.service.PostViewCounter;
+import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -18,6 +26,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -52,6 +61,15 @@ class PostResourceIT {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private CenterRepository centerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private PostViewCounter postViewCounter;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -141,6 +159,36 @@ class PostResourceIT {
         assertThat(postList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    void getAllPostsAsStream() {
+        // Initialize the database
+        postRepository.save(post).block();
+
+        List<Post> postList = webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(Post.class)
+            .getResponseBody()
+            .filter(post::equals)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(postList).isNotNull();
+        assertThat(postList).hasSize(1);
+        Post testPost = postList.get(0);
+        assertThat(testPost.getPostDate()).isEqualTo(DEFAULT_POST_DATE);
+        assertThat(testPost.getTitle()).isEqualTo(DEFAULT_TITLE);
+        assertThat(testPost.getBody()).isEqualTo(DEFAULT_BODY);
+        assertThat(testPost.getPublish()).isEqualTo(DEFAULT_PUBLISH);
+        assertThat(testPost.getPublishedOn()).isEqualTo(DEFAULT_PUBLISHED_ON);
+    }
+
     @Test
     void getAllPosts() {
         // Initialize the database
@@ -171,6 +219,95 @@ class PostResourceIT {
             .value(hasItem(DEFAULT_PUBLISHED_ON.toString()));
     }
 
+    @Test
+    void getAllPostsWithReferences() {
+        // Initialize the database
+        Center center = centerRepository.save(CenterResourceIT.createEntity()).block();
+        Employee employee = employeeRepository.save(EmployeeResourceIT.createEntity()).block();
+        postRepository.save(post.center(center).employee(employee)).block();
+        postRepository.save(createEntity().center(center)).block();
+
+        // Get all the postList, the shared references are resolved in batches as id and name summaries
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].center.id")
+            .value(hasSize(2))
+            .jsonPath("$.[*].center.name")
+            .value(hasItem(center.getName()))
+            .jsonPath("$.[*].employee.id")
+            .value(contains(employee.getId()))
+            .jsonPath("$.[*].employee.fullName")
+            .value(contains(employee.getFullName()))
+            .jsonPath("$.[*].center.image")
+            .doesNotExist()
+            .jsonPath("$.[*].employee.photo")
+            .doesNotExist();
+    }
+
+    @Test
+    void getAllPostsByCursor() {
+        // Initialize the database
+        Post older = postRepository.save(createEntity().publishedOn(Instant.ofEpochMilli(1000L))).block();
+        Post newer = postRepository.save(createEntity().publishedOn(Instant.ofEpochMilli(2000L))).block();
+        Post unpublished = postRepository.save(createEntity().publishedOn(null)).block();
+
+        // Get the first slice
+        List<String> link = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?cursor=&size=2")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .exists(HttpHeaders.LINK)
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(2)
+            .jsonPath("$[0].id")
+            .isEqualTo(newer.getId())
+            .jsonPath("$[1].id")
+            .isEqualTo(older.getId())
+            .returnResult()
+            .getResponseHeaders()
+            .get(HttpHeaders.LINK);
+
+        String next = link.get(0).substring(link.get(0).indexOf('<') + 1, link.get(0).indexOf('>'));
+
+        // Follow the continuation cursor
+        webTestClient
+            .get()
+            .uri(URI.create(next))
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist(HttpHeaders.LINK)
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(1)
+            .jsonPath("$[0].id")
+            .isEqualTo(unpublished.getId());
+    }
+
+    @Test
+    void getAllPostsByInvalidCursor() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?cursor=not-a-cursor")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @Test
     void getPost() {
         // Initialize the database
@@ -201,6 +338,167 @@ class PostResourceIT {
             .value(is(DEFAULT_PUBLISHED_ON.toString()));
     }
 
+    @Test
+    void searchPost() throws Exception {
+        post.title("বার্ষিক শিক্ষা জরিপ ২০২১");
+
+        // Create the Post, which indexes it
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(post))
+            .exchange()
+            .expectStatus()
+            .isCreated();
+
+        // Search the post
+        webTestClient
+            .get()
+            .uri("/api/_search/posts?query={query}", "জরিপ 2021")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .exists("X-Total-Count")
+            .expectBody()
+            .jsonPath("$.[*].title")
+            .value(hasItem("বার্ষিক শিক্ষা জরিপ ২০২১"));
+    }
+
+    @Test
+    void getPostNotModified() throws Exception {
+        // Initialize the database
+        postRepository.save(post).block();
+
+        // Get the post and its validators
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, post.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .exists(HttpHeaders.LAST_MODIFIED)
+            .returnResult(String.class)
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).isNotNull();
+
+        // Get the post again with the validator
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, post.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified()
+            .expectBody()
+            .isEmpty();
+
+        // Update the post, the validator no longer matches
+        Post updatedPost = postRepository.findById(post.getId()).block();
+        updatedPost.title(UPDATED_TITLE);
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedPost.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedPost))
+            .exchange()
+            .expectStatus()
+            .isOk();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, post.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.title")
+            .value(is(UPDATED_TITLE));
+    }
+
+    @Test
+    void getPostModifiedWithItsCenter() throws Exception {
+        // Initialize the database
+        Center center = centerRepository.save(CenterResourceIT.createEntity()).block();
+        postRepository.save(post.center(center)).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, post.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(String.class)
+            .getResponseHeaders()
+            .getETag();
+
+        // Update the center, whose summary is part of the post, the validator no longer matches
+        centerRepository.save(center.name(UPDATED_TITLE)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, post.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isOk();
+    }
+
+    @Test
+    void getPostCountsItsViews() throws Exception {
+        // Initialize the database
+        postRepository.save(post.viewCount(5L)).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, post.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.viewCount")
+            .value(is(5))
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+        // Writing the view keeps the validator, the post is not modified
+        postViewCounter.flush().block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, post.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified();
+
+        // The written view and the one not yet written are both counted
+        webTestClient.get().uri(ENTITY_API_URL_ID, post.getId()).accept(MediaType.APPLICATION_JSON).exchange().expectStatus().isOk();
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, post.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.viewCount")
+            .value(is(7));
+    }
+
     @Test
     void getNonExistingPost() {
         // Get the post
@@ -249,6 +547,35 @@ class PostResourceIT {
         assertThat(testPost.getPublishedOn()).isEqualTo(UPDATED_PUBLISHED_ON);
     }
 
+    @Test
+    void putPostKeepsItsViews() throws Exception {
+        // Initialize the database
+        postRepository.save(post.viewCount(5L)).block();
+
+        // Read the post, then count a view of it before it is written back
+        Post updatedPost = postRepository.findById(post.getId()).block();
+        postViewCounter.increment(post.getId());
+        postViewCounter.flush().block();
+        updatedPost.title(UPDATED_TITLE);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, updatedPost.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(updatedPost))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.viewCount")
+            .value(is(6));
+
+        // Validate the Post in the database
+        Post testPost = postRepository.findById(post.getId()).block();
+        assertThat(testPost.getTitle()).isEqualTo(UPDATED_TITLE);
+        assertThat(testPost.getViewCount()).isEqualTo(6L);
+    }
+
     @Test
     void putNonExistingPost() throws Exception {
         int databaseSizeBeforeUpdate = postRepository.findAll().collectList().block().size();
@@ -0,0 +1,114 @@
+package bd.gov.banbeis.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+import bd.gov.banbeis.IntegrationTest;
+import bd.gov.banbeis.domain.Center;
+import bd.gov.banbeis.domain.Post;
+import bd.gov.banbeis.repository.CenterRepository;
+import bd.gov.banbeis.repository.PostRepository;
+import bd.gov.banbeis.service.PostService;
+import bd.gov.banbeis.service.TrendingPostService;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link PublicPostResource} REST controller.
+ */
+@AutoConfigureWebTestClient
+@WithUnauthenticatedMockUser
+@IntegrationTest
+class PublicPostResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/public/posts";
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CenterRepository centerRepository;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private TrendingPostService trendingPostService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    public void initTest() {
+        postRepository.deleteAll().block();
+    }
+
+    @Test
+    void getPublishedPosts() {
+        // Initialize the database
+        Center center = centerRepository.save(CenterResourceIT.createEntity()).block();
+        Post older = postService
+            .save(PostResourceIT.createEntity().publish(true).publishedOn(Instant.ofEpochMilli(1000L)).center(center))
+            .block();
+        Post newer = postService
+            .save(PostResourceIT.createEntity().publish(true).publishedOn(Instant.ofEpochMilli(2000L)).body("<p>Hello <b>world</b></p>"))
+            .block();
+        postService.save(PostResourceIT.createEntity().publish(false)).block();
+
+        // Get the feed anonymously
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(contains(newer.getId(), older.getId()))
+            .jsonPath("$[0].excerpt")
+            .isEqualTo("Hello world")
+            .jsonPath("$[1].centerName")
+            .isEqualTo(center.getName())
+            .jsonPath("$.[*].body")
+            .doesNotExist();
+    }
+
+    @Test
+    void getTrendingPosts() {
+        // Initialize the database
+        Center center = centerRepository.save(CenterResourceIT.createEntity()).block();
+        Post trending = postService.save(PostResourceIT.createEntity().publish(true).center(center)).block();
+        Post draft = postService.save(PostResourceIT.createEntity().publish(false).center(center)).block();
+        postService.recordView(trending.getId());
+        postService.recordView(draft.getId());
+        trendingPostService.resolve().block();
+
+        // Get the trending posts anonymously
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/trending?centerId={centerId}", center.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(trending.getId()))
+            .jsonPath("$.[*].id")
+            .value(not(hasItem(draft.getId())));
+    }
+
+    @Test
+    void otherPostEndpointsRequireAuthentication() {
+        webTestClient.get().uri("/api/posts").accept(MediaType.APPLICATION_JSON).exchange().expectStatus().isUnauthorized();
+    }
+}
@@ -6,10 +6,13 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
+import javax.imageio.ImageIO;
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
 import org.hamcrest.TypeSafeMatcher;
@@ -55,6 +58,20 @@ public final class TestUtil {
         return byteArray;
     }
 
+    /**
+     * Create a blank PNG image.
+     *
+     * @param width the width of the image, in pixels.
+     * @param height the height of the image, in pixels.
+     * @return the PNG bytes.
+     * @throws IOException if the image cannot be encoded.
+     */
+    public static byte[] createPngImage(int width, int height) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", output);
+        return output.toByteArray();
+    }
+
     /**
      * A matcher that tests that the examined string represents the same instant as the reference datetime.
      */
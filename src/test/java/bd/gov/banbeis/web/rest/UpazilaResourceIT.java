@@ -1,12 +1,14 @@
 package bd.gov.banbeis.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 
 import bd.gov.banbeis.IntegrationTest;
 import bd.gov.banbeis.domain.Upazila;
 import bd.gov.banbeis.repository.UpazilaRepository;
+import bd.gov.banbeis.service.ReferenceDataCache;
 import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
@@ -44,6 +46,9 @@ class UpazilaResourceIT {
     @Autowired
     private UpazilaRepository upazilaRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -127,6 +132,8 @@ class UpazilaResourceIT {
         // Initialize the database
         upazila.setId(UUID.randomUUID().toString());
         upazilaRepository.save(upazila).block();
+        // Saved behind the back of the service, so the reference data is reloaded
+        referenceDataCache.load().block();
 
         // Get all the upazilaList
         webTestClient
@@ -151,6 +158,31 @@ class UpazilaResourceIT {
             .value(hasItem(DEFAULT_URL));
     }
 
+    @Test
+    void getUpazilasOfDistrict() {
+        // Initialize the database
+        upazila.setId(UUID.randomUUID().toString());
+        upazilaRepository.save(upazila).block();
+        Upazila otherUpazila = createUpdatedEntity();
+        otherUpazila.setId(UUID.randomUUID().toString());
+        upazilaRepository.save(otherUpazila).block();
+        referenceDataCache.load().block();
+
+        // Get the upazilas of the district
+        webTestClient
+            .get()
+            .uri("/api/districts/{id}/upazilas", DEFAULT_DISTRICT_ID)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(contains(upazila.getId()));
+    }
+
     @Test
     void getUpazila() {
         // Initialize the database
@@ -0,0 +1,172 @@
+package bd.gov.banbeis.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import bd.gov.banbeis.service.blob.BlobContent;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ContentResponseUtilTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String ETAG = "\"hash\"";
+
+    private static BlobContent blob() {
+        return new BlobContent(
+            "hash",
+            "image/png",
+            CONTENT.length,
+            Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(CONTENT)),
+            (offset, length) ->
+                Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(CONTENT, (int) offset, (int) (offset + length))))
+        );
+    }
+
+    private static MockServerHttpResponse get(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        ContentResponseUtil.writeOrNotFound(exchange, Mono.just(blob())).block();
+        return exchange.getResponse();
+    }
+
+    private static String body(MockServerHttpResponse response) {
+        return response.getBodyAsString().block();
+    }
+
+    @Test
+    void returnsTheWholeContent() {
+        MockServerHttpResponse response = get(MockServerHttpRequest.get("/"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(10);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(body(response)).isEqualTo("0123456789");
+    }
+
+    @Test
+    void returnsTheRequestedRange() {
+        MockServerHttpResponse response = get(MockServerHttpRequest.get("/").header(HttpHeaders.RANGE, "bytes=2-4"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-4/10");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(3);
+        assertThat(body(response)).isEqualTo("234");
+    }
+
+    @Test
+    void returnsTheRestOfTheContentFromAnOffset() {
+        MockServerHttpResponse response = get(MockServerHttpRequest.get("/").header(HttpHeaders.RANGE, "bytes=7-"));
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(body(response)).isEqualTo("789");
+    }
+
+    @Test
+    void returnsTheEndOfTheContent() {
+        MockServerHttpResponse response = get(MockServerHttpRequest.get("/").header(HttpHeaders.RANGE, "bytes=-2"));
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 8-9/10");
+        assertThat(body(response)).isEqualTo("89");
+    }
+
+    @Test
+    void rejectsARangeBeyondTheContent() {
+        MockServerHttpResponse response = get(MockServerHttpRequest.get("/").header(HttpHeaders.RANGE, "bytes=10-"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void returnsTheRangeIfTheContentIsUnchanged() {
+        MockServerHttpResponse response = get(
+            MockServerHttpRequest.get("/").header(HttpHeaders.RANGE, "bytes=2-4").header(HttpHeaders.IF_RANGE, ETAG)
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+    }
+
+    @Test
+    void returnsTheWholeContentIfItChanged() {
+        MockServerHttpResponse response = get(
+            MockServerHttpRequest.get("/").header(HttpHeaders.RANGE, "bytes=2-4").header(HttpHeaders.IF_RANGE, "\"other\"")
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(response)).isEqualTo("0123456789");
+    }
+
+    @Test
+    void returnsTheWholeContentForMultipleRanges() {
+        MockServerHttpResponse response = get(MockServerHttpRequest.get("/").header(HttpHeaders.RANGE, "bytes=0-1,4-5"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void returnsNotModifiedForAMatchingETag() {
+        MockServerHttpResponse response = get(MockServerHttpRequest.get("/").ifNoneMatch(ETAG));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void sendsAFileWithoutReadingIt() throws IOException {
+        Path file = Files.write(Files.createTempFile("blob", null), CONTENT);
+        try {
+            ZeroCopyResponse response = new ZeroCopyResponse();
+            MockServerWebExchange exchange = MockServerWebExchange
+                .builder(MockServerHttpRequest.get("/").header(HttpHeaders.RANGE, "bytes=2-4"))
+                .build();
+            ServerWebExchange zeroCopyExchange = new ServerWebExchangeDecorator(exchange) {
+                @Override
+                public ServerHttpResponse getResponse() {
+                    return response;
+                }
+            };
+            BlobContent blob = new BlobContent(
+                "hash",
+                "image/png",
+                CONTENT.length,
+                Flux.error(new AssertionError("read")),
+                (offset, length) -> Flux.error(new AssertionError("read")),
+                file
+            );
+
+            ContentResponseUtil.writeOrNotFound(zeroCopyExchange, Mono.just(blob)).block();
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+            assertThat(response.getHeaders().getContentLength()).isEqualTo(3);
+            assertThat(response.sent).isEqualTo(file + "@2+3");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static class ZeroCopyResponse extends MockServerHttpResponse implements ZeroCopyHttpOutputMessage {
+
+        private String sent;
+
+        @Override
+        public Mono<Void> writeWith(Path file, long position, long count) {
+            sent = file + "@" + position + "+" + count;
+            return setComplete();
+        }
+    }
+}